@@ -1,5 +1,5 @@
 import { Injectable, Inject, PLATFORM_ID } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpErrorResponse } from '@angular/common/http';
 import { BehaviorSubject, Observable, tap, map } from 'rxjs';
 import { isPlatformBrowser } from '@angular/common';
 import { jwtDecode } from 'jwt-decode';
@@ -19,12 +19,42 @@ export class AuthService {
   private readonly API_URL = 'http://localhost:8080/gestaoEscolar/api';
   private currentUserSubject = new BehaviorSubject<Usuario | null>(null);
   public currentUser$ = this.currentUserSubject.asObservable();
+  // Token de acesso dura poucos minutos: renova um pouco antes de expirar usando o cookie HttpOnly
+  private readonly ANTECEDENCIA_RENOVACAO_MS = 60_000;
+  private renovacaoAgendada: ReturnType<typeof setTimeout> | null = null;
+  // As abas compartilham o cookie de refresh: só uma renova por vez (trava com prazo no localStorage)
+  // e as demais reagendam a partir do token que ela grava, avisadas pelo evento storage
+  private readonly CHAVE_TRAVA_RENOVACAO = 'renovacaoEmAndamento';
+  private readonly DURACAO_TRAVA_MS = 10_000;
+  private readonly ESPERA_NOVA_TENTATIVA_MS = 15_000;
 
   constructor(
     private http: HttpClient,
     @Inject(PLATFORM_ID) private platformId: Object
   ) {
     this.loadStoredUser();
+    if (isPlatformBrowser(this.platformId)) {
+      window.addEventListener('storage', evento => this.sincronizarAbas(evento));
+    }
+  }
+
+  // Disparado só nas outras abas quando uma delas grava ou remove o token
+  private sincronizarAbas(evento: StorageEvent): void {
+    if (evento.key !== 'token') {
+      return;
+    }
+    if (evento.newValue) {
+      if (!this.currentUserSubject.value) {
+        const storedUser = localStorage.getItem('currentUser');
+        if (storedUser) {
+          this.currentUserSubject.next(JSON.parse(storedUser));
+        }
+      }
+      this.agendarRenovacao(evento.newValue);
+    } else {
+      // Logout em outra aba
+      this.limparSessao();
+    }
   }
 
   private loadStoredUser(): void {
@@ -33,6 +63,10 @@ export class AuthService {
       if (storedUser) {
         this.currentUserSubject.next(JSON.parse(storedUser));
       }
+      const token = localStorage.getItem('token');
+      if (token) {
+        this.agendarRenovacao(token);
+      }
     }
   }
 
@@ -40,8 +74,10 @@ export class AuthService {
     console.log('🔗 Fazendo requisição para:', `${this.API_URL}/auth/login`);
     
     // O backend retorna apenas o token como string pura
-    return this.http.post(`${this.API_URL}/auth/login`, credentials, { 
-      responseType: 'text' 
+    // withCredentials: o refresh token chega e volta apenas como cookie HttpOnly
+    return this.http.post(`${this.API_URL}/auth/login`, credentials, {
+      responseType: 'text',
+      withCredentials: true
     })
       .pipe(
         tap(token => {
@@ -67,6 +103,7 @@ export class AuthService {
             localStorage.setItem('currentUser', JSON.stringify(user));
           }
           this.currentUserSubject.next(user);
+          this.agendarRenovacao(token);
         }),
         map(token => {
           // Decodificar o JWT para obter informações do usuário
@@ -89,7 +126,91 @@ export class AuthService {
       );
   }
 
+  renovarToken(): Observable<string> {
+    return this.http.post(`${this.API_URL}/auth/refresh`, null, {
+      responseType: 'text',
+      withCredentials: true
+    }).pipe(
+      tap(token => {
+        if (isPlatformBrowser(this.platformId)) {
+          localStorage.setItem('token', token);
+        }
+        this.agendarRenovacao(token);
+      })
+    );
+  }
+
+  private agendarRenovacao(token: string): void {
+    if (!isPlatformBrowser(this.platformId)) {
+      return;
+    }
+    if (this.renovacaoAgendada) {
+      clearTimeout(this.renovacaoAgendada);
+    }
+    const payload = jwtDecode<JwtPayload>(token);
+    const espera = Math.max(0, payload.exp * 1000 - Date.now() - this.ANTECEDENCIA_RENOVACAO_MS);
+    this.renovacaoAgendada = setTimeout(() => this.renovarSeNecessario(token), espera);
+  }
+
+  private renovarSeNecessario(tokenAgendado: string): void {
+    const atual = localStorage.getItem('token');
+    if (!atual) {
+      return;
+    }
+    if (atual !== tokenAgendado) {
+      // Outra aba já renovou
+      this.agendarRenovacao(atual);
+      return;
+    }
+    if (Number(localStorage.getItem(this.CHAVE_TRAVA_RENOVACAO) ?? 0) > Date.now()) {
+      // Outra aba está renovando: o evento storage reagenda; se ela falhar, tenta depois do prazo da trava
+      this.renovacaoAgendada = setTimeout(() => this.renovarSeNecessario(tokenAgendado), this.DURACAO_TRAVA_MS);
+      return;
+    }
+    localStorage.setItem(this.CHAVE_TRAVA_RENOVACAO, String(Date.now() + this.DURACAO_TRAVA_MS));
+    this.renovarToken().subscribe({
+      next: () => localStorage.removeItem(this.CHAVE_TRAVA_RENOVACAO),
+      error: (erro: HttpErrorResponse) => {
+        localStorage.removeItem(this.CHAVE_TRAVA_RENOVACAO);
+        this.tratarFalhaRenovacao(erro, tokenAgendado);
+      }
+    });
+  }
+
+  private tratarFalhaRenovacao(erro: HttpErrorResponse, tokenAgendado: string): void {
+    const atual = localStorage.getItem('token');
+    if (atual && atual !== tokenAgendado) {
+      // Outra aba renovou no meio do caminho: a sessão segue com o token dela
+      this.agendarRenovacao(atual);
+      return;
+    }
+    if (erro.status === 401) {
+      this.limparSessao();
+      return;
+    }
+    // 429, 503 ou falha de rede não encerram a sessão: tenta de novo respeitando o Retry-After
+    const retryAfter = Number(erro.headers?.get('Retry-After'));
+    const espera = retryAfter > 0 ? retryAfter * 1000 : this.ESPERA_NOVA_TENTATIVA_MS;
+    this.renovacaoAgendada = setTimeout(() => this.renovarSeNecessario(tokenAgendado), espera);
+  }
+
   logout(): void {
+    const token = this.getToken();
+    if (token) {
+      // Revoga o token de acesso e a família do refresh no servidor; a sessão local é limpa de qualquer forma
+      this.http.post(`${this.API_URL}/auth/logout`, null, {
+        headers: { Authorization: `Bearer ${token}` },
+        withCredentials: true
+      }).subscribe({ error: () => {} });
+    }
+    this.limparSessao();
+  }
+
+  private limparSessao(): void {
+    if (this.renovacaoAgendada) {
+      clearTimeout(this.renovacaoAgendada);
+      this.renovacaoAgendada = null;
+    }
     if (isPlatformBrowser(this.platformId)) {
       localStorage.removeItem('token');
       localStorage.removeItem('currentUser');
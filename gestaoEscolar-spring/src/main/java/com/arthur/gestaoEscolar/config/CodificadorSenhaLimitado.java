@@ -0,0 +1,115 @@
+package com.arthur.gestaoEscolar.config;
+
+import com.arthur.gestaoEscolar.exception.FilaIndisponivelException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// BCrypt num pool próprio e limitado: um pico de logins ocupa no máximo esses threads de CPU,
+// e quando a fila enche a requisição recebe 503 em vez de disputar CPU com o resto da API
+public class CodificadorSenhaLimitado implements PasswordEncoder {
+
+    private final BCryptPasswordEncoder bcrypt;
+    private final ThreadPoolExecutor executor;
+    private final long esperaMaximaMs;
+
+    private final LongAdder rejeitadas = new LongAdder();
+    private final LongAdder expiradas = new LongAdder();
+    private final LongAdder tempoFilaNanos = new LongAdder();
+    private final LongAdder tempoHashNanos = new LongAdder();
+
+    public CodificadorSenhaLimitado(int custo, int threads, int capacidadeFila, long esperaMaximaMs) {
+        this.bcrypt = new BCryptPasswordEncoder(custo);
+        this.esperaMaximaMs = esperaMaximaMs;
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila), tarefa -> {
+                    Thread thread = new Thread(tarefa, "bcrypt-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence senha) {
+        return this.executar(() -> this.bcrypt.encode(senha));
+    }
+
+    @Override
+    public boolean matches(CharSequence senha, String senhaCodificada) {
+        return this.executar(() -> this.bcrypt.matches(senha, senhaCodificada));
+    }
+
+    // Hashes gerados com custo menor que o configurado pedem regravação
+    @Override
+    public boolean upgradeEncoding(String senhaCodificada) {
+        return this.bcrypt.upgradeEncoding(senhaCodificada);
+    }
+
+    public Map<String, Object> buscarMetricas() {
+        long concluidas = this.executor.getCompletedTaskCount();
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("threads", this.executor.getMaximumPoolSize());
+        metricas.put("ativas", this.executor.getActiveCount());
+        metricas.put("naFila", this.executor.getQueue().size());
+        metricas.put("capacidadeRestanteFila", this.executor.getQueue().remainingCapacity());
+        metricas.put("concluidas", concluidas);
+        metricas.put("rejeitadas", this.rejeitadas.sum());
+        metricas.put("expiradas", this.expiradas.sum());
+        metricas.put("esperaMediaFilaMs", concluidas > 0 ? this.tempoFilaNanos.sum() / concluidas / 1_000_000.0 : 0.0);
+        metricas.put("duracaoMediaHashMs", concluidas > 0 ? this.tempoHashNanos.sum() / concluidas / 1_000_000.0 : 0.0);
+        return metricas;
+    }
+
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    private <T> T executar(Callable<T> operacao) {
+        long enfileiradaEm = System.nanoTime();
+        Future<T> futuro;
+        try {
+            futuro = this.executor.submit(() -> {
+                long inicio = System.nanoTime();
+                this.tempoFilaNanos.add(inicio - enfileiradaEm);
+                try {
+                    return operacao.call();
+                } finally {
+                    this.tempoHashNanos.add(System.nanoTime() - inicio);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.rejeitadas.increment();
+            throw new FilaIndisponivelException("Muitas verificações de senha em andamento, tente novamente em instantes");
+        }
+
+        try {
+            return futuro.get(this.esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            this.expiradas.increment();
+            throw new FilaIndisponivelException("Tempo de espera da verificação de senha esgotado");
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new FilaIndisponivelException("Verificação de senha interrompida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.arthur.gestaoEscolar.config;
 
-import com.arthur.gestaoEscolar.util.JwtUtil;
+import com.arthur.gestaoEscolar.util.VerificadorToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,42 +19,29 @@ import java.util.Collections;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerificadorToken verificadorToken;
+
+    @Autowired
+    private MonitorAutenticacao monitorAutenticacao;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        System.out.println("🔐 JWT Filter executando para: " + request.getRequestURI());
-        
         final String authorizationHeader = request.getHeader("Authorization");
-        System.out.println("🔑 Authorization header: " + authorizationHeader);
-
-        String username = null;
-        String jwt = null;
-        String tipoUsuario = null;
-
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwt);
-                tipoUsuario = jwtUtil.extractTipoUsuario(jwt);
-                System.out.println("✅ Token válido para usuário: " + username + " com role: " + tipoUsuario);
-            } catch (Exception e) {
-                System.out.println("❌ Erro ao processar token: " + e.getMessage());
-            }
-        } else {
-            System.out.println("⚠️ Sem header Authorization ou formato inválido");
-        }
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(jwt, username)) {
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    username, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + tipoUsuario))
-                );
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                System.out.println("🔓 Autenticação configurada para: " + username);
-            }
+        String jwt = authorizationHeader != null && authorizationHeader.startsWith("Bearer ") ? authorizationHeader.substring(7) : null;
+
+        // Uma única verificação por requisição; tokens já verificados vêm do cache
+        VerificadorToken.Verificacao verificacao = verificadorToken.verificar(jwt);
+        VerificadorToken.TokenVerificado token = verificacao.token();
+        monitorAutenticacao.registrar(verificacao.resultado(), request.getMethod(), request.getRequestURI(),
+                token != null ? token.username() : null, jwt);
+
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                token.username(), null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + token.tipoUsuario()))
+            );
+            SecurityContextHolder.getContext().setAuthentication(authentication);
         }
 
         filterChain.doFilter(request, response);
@@ -0,0 +1,187 @@
+package com.arthur.gestaoEscolar.config;
+
+import com.arthur.gestaoEscolar.util.LimitadorTaxa;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Limite de taxa por grupo de rotas, aplicado logo após o filtro JWT.
+// Rotas abertas são limitadas por IP; escritas autenticadas, por usuário. Leituras não são limitadas.
+// O login tem ainda um balde estrito por email, consumido pelo AuthController depois de ler o corpo
+@Component
+public class LimiteRequisicaoFilter extends OncePerRequestFilter {
+
+    public enum GrupoLimite {
+        AUTENTICACAO,
+        LOGIN,
+        VERIFICACAO_EMAIL,
+        CADASTRO,
+        ESCRITA
+    }
+
+    @Value("${gestaoEscolar.limite.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${gestaoEscolar.limite.maximo-chaves:100000}")
+    private int maximoChaves;
+
+    // Por IP e folgado: uma escola inteira costuma sair pelo mesmo NAT
+    @Value("${gestaoEscolar.limite.autenticacao.capacidade:200}")
+    private int capacidadeAutenticacao;
+
+    @Value("${gestaoEscolar.limite.autenticacao.por-minuto:120}")
+    private int porMinutoAutenticacao;
+
+    // Por email e estrito: é este que segura tentativa de senha contra uma conta
+    @Value("${gestaoEscolar.limite.login.capacidade:5}")
+    private int capacidadeLogin;
+
+    @Value("${gestaoEscolar.limite.login.por-minuto:5}")
+    private int porMinutoLogin;
+
+    @Value("${gestaoEscolar.limite.verificacao-email.capacidade:20}")
+    private int capacidadeVerificacaoEmail;
+
+    @Value("${gestaoEscolar.limite.verificacao-email.por-minuto:30}")
+    private int porMinutoVerificacaoEmail;
+
+    @Value("${gestaoEscolar.limite.cadastro.capacidade:5}")
+    private int capacidadeCadastro;
+
+    @Value("${gestaoEscolar.limite.cadastro.por-minuto:5}")
+    private int porMinutoCadastro;
+
+    @Value("${gestaoEscolar.limite.escrita.capacidade:60}")
+    private int capacidadeEscrita;
+
+    @Value("${gestaoEscolar.limite.escrita.por-minuto:120}")
+    private int porMinutoEscrita;
+
+    private final Map<GrupoLimite, LimitadorTaxa> limitadores = new EnumMap<>(GrupoLimite.class);
+    private final Map<GrupoLimite, LongAdder> rejeitadas = new EnumMap<>(GrupoLimite.class);
+
+    @PostConstruct
+    public void iniciar() {
+        this.limitadores.put(GrupoLimite.AUTENTICACAO, new LimitadorTaxa(this.capacidadeAutenticacao, this.porMinutoAutenticacao, this.maximoChaves));
+        this.limitadores.put(GrupoLimite.LOGIN, new LimitadorTaxa(this.capacidadeLogin, this.porMinutoLogin, this.maximoChaves));
+        this.limitadores.put(GrupoLimite.VERIFICACAO_EMAIL, new LimitadorTaxa(this.capacidadeVerificacaoEmail, this.porMinutoVerificacaoEmail, this.maximoChaves));
+        this.limitadores.put(GrupoLimite.CADASTRO, new LimitadorTaxa(this.capacidadeCadastro, this.porMinutoCadastro, this.maximoChaves));
+        this.limitadores.put(GrupoLimite.ESCRITA, new LimitadorTaxa(this.capacidadeEscrita, this.porMinutoEscrita, this.maximoChaves));
+        for (GrupoLimite grupo : GrupoLimite.values()) {
+            this.rejeitadas.put(grupo, new LongAdder());
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        GrupoLimite grupo = this.habilitado ? classificar(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length())) : null;
+        if (grupo == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long espera = this.limitadores.get(grupo).consumir(this.chave(grupo, request));
+        if (espera == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        this.rejeitadas.get(grupo).increment();
+        long segundos = segundosEspera(espera);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"error\":\"Muitas requisições\",\"message\":\"Limite de requisições excedido, tente novamente em "
+                + segundos + " segundo(s)\"}");
+    }
+
+    // Devolve 0 se o login pode seguir, ou quantos segundos esperar. Email normalizado para que variações
+    // de caixa e espaços não ganhem baldes próprios
+    public long consumirLogin(String email) {
+        if (!this.habilitado) {
+            return 0;
+        }
+        long espera = this.limitadores.get(GrupoLimite.LOGIN).consumir("email:" + email.trim().toLowerCase(Locale.ROOT));
+        if (espera == 0) {
+            return 0;
+        }
+        this.rejeitadas.get(GrupoLimite.LOGIN).increment();
+        return segundosEspera(espera);
+    }
+
+    // Tira da memória os baldes que já recarregaram; a requisição nunca espera por isto
+    @Scheduled(fixedDelayString = "${gestaoEscolar.limite.limpeza-ms:60000}")
+    public void removerBaldesCheios() {
+        this.limitadores.values().forEach(LimitadorTaxa::varrer);
+    }
+
+    public Map<String, Object> buscarMetricas() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        this.limitadores.forEach((grupo, limitador) -> {
+            Map<String, Long> item = new LinkedHashMap<>();
+            item.put("rejeitadas", this.rejeitadas.get(grupo).sum());
+            item.put("chaves", (long) limitador.quantidadeChaves());
+            metricas.put(grupo.name().toLowerCase(), item);
+        });
+        return metricas;
+    }
+
+    // Só comparações de string: nada de AntPathMatcher no caminho de toda requisição
+    static GrupoLimite classificar(String metodo, String caminho) {
+        if (caminho.startsWith("/api/auth/")) {
+            if (caminho.equals("/api/auth/verificar-email")) {
+                return GrupoLimite.VERIFICACAO_EMAIL;
+            }
+            // login e registro. O refresh fica de fora: o token é aleatório e não adivinhável, e um 429 nele
+            // derrubaria a sessão de quem divide o IP; logout também não consome
+            if ("POST".equals(metodo) && !caminho.equals("/api/auth/logout") && !caminho.equals("/api/auth/refresh")) {
+                return GrupoLimite.AUTENTICACAO;
+            }
+            return null;
+        }
+        if ("POST".equals(metodo) && caminho.equals("/api/usuarios")) {
+            return GrupoLimite.CADASTRO;
+        }
+        if (caminho.startsWith("/api/") && ("POST".equals(metodo) || "PUT".equals(metodo)
+                || "PATCH".equals(metodo) || "DELETE".equals(metodo))) {
+            return GrupoLimite.ESCRITA;
+        }
+        return null;
+    }
+
+    static long segundosEspera(long esperaNanos) {
+        return Math.max(1, (esperaNanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    // Atrás de proxy, configure server.forward-headers-strategy para que getRemoteAddr traga o IP do cliente
+    private String chave(GrupoLimite grupo, HttpServletRequest request) {
+        if (grupo == GrupoLimite.ESCRITA) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()) {
+                return "u:" + authentication.getName();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,165 @@
+package com.arthur.gestaoEscolar.config;
+
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ScriptException;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Configuration
+public class MigracaoSchemaConfig {
+
+    private static final String LOCALIZACAO_SCRIPTS = "classpath:db/migration/V*__*.sql";
+    private static final Pattern NOME_SCRIPT = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    // Garante que as migrações rodem antes do Hibernate inicializar o EntityManagerFactory
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor migracaoSchemaDependsOnPostProcessor() {
+        return new EntityManagerFactoryDependsOnPostProcessor("migracaoSchema");
+    }
+
+    @Bean
+    public MigracaoSchema migracaoSchema(DataSource dataSource,
+                                         @Value("${gestaoEscolar.migracao.enabled:true}") boolean habilitada) {
+        MigracaoSchema migracaoSchema = new MigracaoSchema(dataSource);
+        if (habilitada) {
+            migracaoSchema.migrar();
+        }
+        return migracaoSchema;
+    }
+
+    public static class MigracaoSchema {
+
+        // Trava nomeada do MySQL: vale para a sessão e é liberada pelo servidor se a conexão cair
+        private static final String TRAVA = "gestaoEscolar.migracao";
+        private static final int ESPERA_TRAVA_SEGUNDOS = 300;
+
+        private final DataSource dataSource;
+        private final String localizacaoScripts;
+
+        public MigracaoSchema(DataSource dataSource) {
+            this(dataSource, LOCALIZACAO_SCRIPTS);
+        }
+
+        MigracaoSchema(DataSource dataSource, String localizacaoScripts) {
+            this.dataSource = dataSource;
+            this.localizacaoScripts = localizacaoScripts;
+        }
+
+        // Instâncias subindo juntas aplicam as migrações uma de cada vez: tudo roda numa só conexão que
+        // segura a trava, e as versões aplicadas são lidas só depois de obtê-la
+        public void migrar() {
+            try (Connection connection = this.dataSource.getConnection()) {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+                Integer travada = jdbcTemplate.queryForObject("SELECT GET_LOCK(?, ?)", Integer.class, TRAVA, ESPERA_TRAVA_SEGUNDOS);
+                if (travada == null || travada != 1) {
+                    throw new GestaoEscolarException("Outra instância está aplicando as migrações há mais de " + ESPERA_TRAVA_SEGUNDOS + " segundos");
+                }
+                try {
+                    this.aplicar(connection, jdbcTemplate);
+                } finally {
+                    jdbcTemplate.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, TRAVA);
+                }
+            } catch (SQLException e) {
+                throw new GestaoEscolarException("Erro ao aplicar as migrações", e);
+            }
+        }
+
+        private void aplicar(Connection connection, JdbcTemplate jdbcTemplate) throws SQLException {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_versoes (" +
+                    "versao INT NOT NULL PRIMARY KEY, " +
+                    "descricao VARCHAR(255) NOT NULL, " +
+                    "script VARCHAR(255) NOT NULL, " +
+                    "checksum VARCHAR(64), " +
+                    "aplicada_em DATETIME NOT NULL)");
+            // Bancos migrados antes do checksum
+            try (ResultSet colunas = connection.getMetaData().getColumns(connection.getCatalog(), null, "schema_versoes", "checksum")) {
+                if (!colunas.next()) {
+                    jdbcTemplate.execute("ALTER TABLE schema_versoes ADD COLUMN checksum VARCHAR(64)");
+                }
+            }
+
+            Map<Integer, String> aplicadas = new HashMap<>();
+            jdbcTemplate.query("SELECT versao, checksum FROM schema_versoes",
+                    rs -> { aplicadas.put(rs.getInt(1), rs.getString(2)); });
+
+            for (Resource script : this.buscarScripts()) {
+                Matcher matcher = NOME_SCRIPT.matcher(script.getFilename());
+                matcher.matches();
+                int versao = Integer.parseInt(matcher.group(1));
+                String checksum = checksum(script);
+
+                if (aplicadas.containsKey(versao)) {
+                    String registrado = aplicadas.get(versao);
+                    if (registrado == null) {
+                        jdbcTemplate.update("UPDATE schema_versoes SET checksum = ? WHERE versao = ?", checksum, versao);
+                    } else if (!registrado.equals(checksum)) {
+                        throw new GestaoEscolarException("A migração " + script.getFilename() +
+                                " foi alterada depois de aplicada; crie uma nova versão em vez de editá-la");
+                    }
+                    continue;
+                }
+
+                try {
+                    ScriptUtils.executeSqlScript(connection, script);
+                } catch (ScriptException e) {
+                    throw new GestaoEscolarException("Erro ao aplicar a migração " + script.getFilename(), e);
+                }
+                jdbcTemplate.update("INSERT INTO schema_versoes (versao, descricao, script, checksum, aplicada_em) VALUES (?, ?, ?, ?, NOW())",
+                        versao, matcher.group(2).replace('_', ' '), script.getFilename(), checksum);
+            }
+        }
+
+        // SHA-256 do conteúdo com quebras de linha normalizadas: um checkout com CRLF não conta como alteração
+        static String checksum(Resource script) {
+            try (InputStream entrada = script.getInputStream()) {
+                String conteudo = new String(entrada.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+                return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(conteudo.getBytes(StandardCharsets.UTF_8)));
+            } catch (IOException | NoSuchAlgorithmException e) {
+                throw new GestaoEscolarException("Erro ao ler a migração " + script.getFilename(), e);
+            }
+        }
+
+        private List<Resource> buscarScripts() {
+            try {
+                Resource[] scripts = new PathMatchingResourcePatternResolver().getResources(this.localizacaoScripts);
+                return Arrays.stream(scripts)
+                        .filter(r -> r.getFilename() != null && NOME_SCRIPT.matcher(r.getFilename()).matches())
+                        .sorted(Comparator.comparingInt(this::versao))
+                        .toList();
+            } catch (IOException e) {
+                throw new GestaoEscolarException("Erro ao carregar os scripts de migração", e);
+            }
+        }
+
+        private int versao(Resource script) {
+            Matcher matcher = NOME_SCRIPT.matcher(script.getFilename());
+            matcher.matches();
+            return Integer.parseInt(matcher.group(1));
+        }
+    }
+}
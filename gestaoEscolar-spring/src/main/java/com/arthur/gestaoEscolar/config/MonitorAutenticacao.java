@@ -0,0 +1,63 @@
+package com.arthur.gestaoEscolar.config;
+
+import com.arthur.gestaoEscolar.util.VerificadorToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// Contadores por resultado da autenticação e log amostrado do filtro JWT.
+// O token nunca é registrado: só a impressão digital (prefixo do SHA-256)
+@Component
+public class MonitorAutenticacao {
+
+    // Logger próprio: o logback-spring.xml o envia por um appender assíncrono
+    private static final Logger log = LoggerFactory.getLogger("gestaoEscolar.seguranca");
+
+    // Em média um registro a cada N ocorrências; 0 desliga o log desse tipo de resultado
+    @Value("${gestaoEscolar.seguranca.log.amostragem-sucesso:1000}")
+    private long amostragemSucesso;
+
+    @Value("${gestaoEscolar.seguranca.log.amostragem-falha:10}")
+    private long amostragemFalha;
+
+    private final Map<VerificadorToken.Resultado, LongAdder> contadores = new EnumMap<>(VerificadorToken.Resultado.class);
+
+    public MonitorAutenticacao() {
+        for (VerificadorToken.Resultado resultado : VerificadorToken.Resultado.values()) {
+            this.contadores.put(resultado, new LongAdder());
+        }
+    }
+
+    public void registrar(VerificadorToken.Resultado resultado, String metodo, String uri, String usuario, String token) {
+        LongAdder contador = this.contadores.get(resultado);
+        contador.increment();
+
+        boolean sucesso = resultado == VerificadorToken.Resultado.VALIDO || resultado == VerificadorToken.Resultado.AUSENTE;
+        long amostragem = sucesso ? this.amostragemSucesso : this.amostragemFalha;
+        // Sorteio por thread: sem somar as células do LongAdder a cada requisição e sem corrida entre
+        // o incremento e a conferência, que pulava ou repetia registros
+        if (amostragem <= 0 || ThreadLocalRandom.current().nextLong(amostragem) != 0) {
+            return;
+        }
+        if (sucesso && log.isDebugEnabled()) {
+            log.debug("autenticacao resultado={} metodo={} uri={} usuario={} token={} ocorrencias={}",
+                    resultado, metodo, uri, usuario, token != null ? VerificadorToken.impressaoDigital(token) : "-", contador.sum());
+        } else if (!sucesso && log.isWarnEnabled()) {
+            log.warn("autenticacao resultado={} metodo={} uri={} token={} ocorrencias={}",
+                    resultado, metodo, uri, token != null ? VerificadorToken.impressaoDigital(token) : "-", contador.sum());
+        }
+    }
+
+    public Map<String, Long> buscarContadores() {
+        Map<String, Long> resultado = new LinkedHashMap<>();
+        this.contadores.forEach((tipo, contador) -> resultado.put(tipo.name().toLowerCase(), contador.sum()));
+        return resultado;
+    }
+}
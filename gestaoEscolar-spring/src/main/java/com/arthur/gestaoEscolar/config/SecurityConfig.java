@@ -3,6 +3,7 @@ package com.arthur.gestaoEscolar.config;
 import com.arthur.gestaoEscolar.service.UsuarioService;
 import com.arthur.gestaoEscolar.config.JwtAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,8 +12,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -29,6 +28,9 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private LimiteRequisicaoFilter limiteRequisicaoFilter;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -43,14 +45,22 @@ public class SecurityConfig {
                 .requestMatchers("/api/**").authenticated()
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // Depois do JWT: escritas autenticadas são limitadas por usuário, não por IP
+            .addFilterAfter(limiteRequisicaoFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public CodificadorSenhaLimitado passwordEncoder(
+            @Value("${gestaoEscolar.senha.custo-bcrypt:10}") int custo,
+            @Value("${gestaoEscolar.senha.threads:0}") int threads,
+            @Value("${gestaoEscolar.senha.capacidade-fila:200}") int capacidadeFila,
+            @Value("${gestaoEscolar.senha.espera-maxima-ms:5000}") long esperaMaximaMs) {
+        // 0 = metade dos processadores, deixando CPU para o restante da API durante picos de login
+        int threadsEfetivas = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new CodificadorSenhaLimitado(custo, threadsEfetivas, capacidadeFila, esperaMaximaMs);
     }
 
 
@@ -3,8 +3,10 @@ package com.arthur.gestaoEscolar.controller;
 import com.arthur.gestaoEscolar.model.dto.AlunoDTO;
 import com.arthur.gestaoEscolar.model.entity.Aluno;
 import com.arthur.gestaoEscolar.service.AlunoService;
+import com.arthur.gestaoEscolar.exception.FilaIndisponivelException;
 import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -88,6 +90,8 @@ public class AlunoController {
         try {
             Aluno alunoSalvo = alunoService.salvar(aluno);
             return ResponseEntity.status(HttpStatus.CREATED).body(new AlunoDTO(alunoSalvo));
+        } catch (FilaIndisponivelException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "2").build();
         } catch (GestaoEscolarException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
@@ -99,6 +103,8 @@ public class AlunoController {
         try {
             Aluno alunoAtualizado = alunoService.atualizar(id, aluno);
             return ResponseEntity.ok(new AlunoDTO(alunoAtualizado));
+        } catch (FilaIndisponivelException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "2").build();
         } catch (GestaoEscolarException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
@@ -1,13 +1,23 @@
 package com.arthur.gestaoEscolar.controller;
 
+import com.arthur.gestaoEscolar.config.CodificadorSenhaLimitado;
+import com.arthur.gestaoEscolar.config.LimiteRequisicaoFilter;
+import com.arthur.gestaoEscolar.config.MonitorAutenticacao;
 import com.arthur.gestaoEscolar.model.dto.UsuarioDTO;
 import com.arthur.gestaoEscolar.model.entity.Usuario;
+import com.arthur.gestaoEscolar.service.RefreshTokenService;
+import com.arthur.gestaoEscolar.service.RevogacaoTokenService;
 import com.arthur.gestaoEscolar.service.UsuarioService;
+import com.arthur.gestaoEscolar.exception.FilaIndisponivelException;
 import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
 import com.arthur.gestaoEscolar.util.JwtUtil;
+import com.arthur.gestaoEscolar.util.VerificadorToken;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -31,8 +41,26 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private MonitorAutenticacao monitorAutenticacao;
+
+    @Autowired
+    private CodificadorSenhaLimitado codificadorSenha;
+
+    @Autowired
+    private LimiteRequisicaoFilter limiteRequisicaoFilter;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RevogacaoTokenService revogacaoTokenService;
+
+    @Autowired
+    private VerificadorToken verificadorToken;
+
     @PostMapping("/login")
-    public ResponseEntity<String> login(@RequestBody Map<String, String> loginRequest) {
+    public ResponseEntity<String> login(@RequestBody Map<String, String> loginRequest, HttpServletRequest request) {
         try {
             String email = loginRequest.get("email");
             String senha = loginRequest.get("senha");
@@ -41,6 +69,12 @@ public class AuthController {
                 return ResponseEntity.badRequest().body("Email e senha são obrigatórios");
             }
 
+            long espera = limiteRequisicaoFilter.consumirLogin(email);
+            if (espera > 0) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, String.valueOf(espera))
+                        .body("Muitas tentativas de login para este email, tente novamente em " + espera + " segundo(s)");
+            }
+
             // Autentica o usuário
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(email, senha)
@@ -48,20 +82,53 @@ public class AuthController {
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
-            // Busca os dados do usuário
-            Usuario usuario = usuarioService.buscarPorEmail(email);
+            // O principal já é o Usuario carregado pelo UserDetailsService: sem segunda consulta
+            Usuario usuario = (Usuario) authentication.getPrincipal();
 
             // Gera o token JWT
             String token = jwtUtil.generateToken(email, usuario.getTipoUsuario().name());
 
-            // Retorna APENAS o token como string pura, sem formatação
-            return ResponseEntity.ok(token);
+            // Refresh token vai em cookie HttpOnly; o corpo continua sendo APENAS o token de acesso
+            String refreshToken = refreshTokenService.emitir(usuario);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, refreshTokenService.montarCookie(refreshToken, request.getContextPath()).toString())
+                    .body(token);
 
+        } catch (FilaIndisponivelException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "2").body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Credenciais inválidas: " + e.getMessage());
         }
     }
 
+    // Aceita o refresh token pelo cookie ou, para clientes sem cookie, no corpo ({"refreshToken": "..."})
+    @PostMapping("/refresh")
+    public ResponseEntity<String> refresh(@CookieValue(name = RefreshTokenService.COOKIE, required = false) String cookie,
+                                          @RequestBody(required = false) Map<String, String> corpo,
+                                          HttpServletRequest request) {
+        String refreshToken = cookie != null && !cookie.isBlank() ? cookie : corpo != null ? corpo.get("refreshToken") : null;
+        try {
+            RefreshTokenService.Renovacao renovacao = refreshTokenService.rotacionar(refreshToken);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, refreshTokenService.montarCookie(renovacao.refreshToken(), request.getContextPath()).toString())
+                    .body(renovacao.tokenAcesso());
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .header(HttpHeaders.SET_COOKIE, refreshTokenService.montarCookie(null, request.getContextPath()).toString())
+                    .body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/metricas")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<Map<String, Object>> buscarMetricas() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("autenticacao", monitorAutenticacao.buscarContadores());
+        response.put("senha", codificadorSenha.buscarMetricas());
+        response.put("limite", limiteRequisicaoFilter.buscarMetricas());
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/registro")
     public ResponseEntity<Map<String, Object>> registro(@RequestBody Usuario usuario) {
         try {
@@ -74,6 +141,12 @@ public class AuthController {
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
 
+        } catch (FilaIndisponivelException e) {
+            // Pool de BCrypt saturado: o cliente pode repetir em instantes
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Serviço temporariamente indisponível");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "2").body(errorResponse);
         } catch (GestaoEscolarException e) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", "Erro ao registrar usuário");
@@ -94,6 +167,11 @@ public class AuthController {
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
 
+        } catch (FilaIndisponivelException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Serviço temporariamente indisponível");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "2").body(errorResponse);
         } catch (GestaoEscolarException e) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", "Erro ao registrar usuário");
@@ -126,12 +204,25 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<Map<String, Object>> logout() {
+    public ResponseEntity<Map<String, Object>> logout(@RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                                      @CookieValue(name = RefreshTokenService.COOKIE, required = false) String refreshToken,
+                                                      HttpServletRequest request) {
         SecurityContextHolder.clearContext();
-        
+
+        // O token de acesso entra na lista de revogação até expirar; a família do refresh é revogada no banco
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            VerificadorToken.TokenVerificado token = verificadorToken.verificar(authorization.substring(7)).token();
+            if (token != null) {
+                revogacaoTokenService.revogarToken(token.id(), token.expiraEm());
+            }
+        }
+        refreshTokenService.revogar(refreshToken);
+
         Map<String, Object> response = new HashMap<>();
         response.put("message", "Logout realizado com sucesso");
-        
-        return ResponseEntity.ok(response);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, refreshTokenService.montarCookie(null, request.getContextPath()).toString())
+                .body(response);
     }
 }
@@ -1,8 +1,10 @@
 package com.arthur.gestaoEscolar.controller;
 
 import com.arthur.gestaoEscolar.model.entity.Disciplina;
+import com.arthur.gestaoEscolar.model.entity.PoliticaAvaliacao;
 import com.arthur.gestaoEscolar.model.dto.DisciplinaDTO;
 import com.arthur.gestaoEscolar.service.DisciplinaService;
+import com.arthur.gestaoEscolar.service.PoliticaAvaliacaoService;
 import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -21,6 +23,9 @@ public class DisciplinaController {
     @Autowired
     private DisciplinaService disciplinaService;
 
+    @Autowired
+    private PoliticaAvaliacaoService politicaAvaliacaoService;
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR', 'ALUNO')")
     public ResponseEntity<List<DisciplinaDTO>> buscarTodas() {
@@ -119,6 +124,39 @@ public class DisciplinaController {
         }
     }
 
+    @GetMapping("/{id}/politica-avaliacao")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR', 'ALUNO')")
+    public ResponseEntity<PoliticaAvaliacao> buscarPoliticaAvaliacao(@PathVariable String id) {
+        try {
+            PoliticaAvaliacao politica = politicaAvaliacaoService.buscarPolitica(id);
+            return ResponseEntity.ok(politica);
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    @PutMapping("/{id}/politica-avaliacao")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<PoliticaAvaliacao> salvarPoliticaAvaliacao(@PathVariable String id, @RequestBody PoliticaAvaliacao politica) {
+        try {
+            PoliticaAvaliacao politicaSalva = politicaAvaliacaoService.salvarPolitica(id, politica);
+            return ResponseEntity.ok(politicaSalva);
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @DeleteMapping("/{id}/politica-avaliacao")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<Void> excluirPoliticaAvaliacao(@PathVariable String id) {
+        try {
+            politicaAvaliacaoService.excluirPolitica(id);
+            return ResponseEntity.noContent().build();
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMINISTRADOR')")
     public ResponseEntity<Void> excluir(@PathVariable String id) {
@@ -1,18 +1,43 @@
 package com.arthur.gestaoEscolar.controller;
 
 import com.arthur.gestaoEscolar.model.entity.Frequencia;
+import com.arthur.gestaoEscolar.model.dto.ChamadaDTO;
+import com.arthur.gestaoEscolar.model.dto.EnvioFrequenciaDTO;
 import com.arthur.gestaoEscolar.model.dto.FrequenciaDTO;
+import com.arthur.gestaoEscolar.model.dto.PaginaCursorDTO;
+import com.arthur.gestaoEscolar.model.dto.LinhaTempoFrequenciaDTO;
+import com.arthur.gestaoEscolar.model.dto.RelatorioRiscoFrequenciaDTO;
+import com.arthur.gestaoEscolar.model.dto.ResultadoLoteDTO;
+import com.arthur.gestaoEscolar.model.dto.RiscoFrequenciaDTO;
+import com.arthur.gestaoEscolar.service.ArquivoFrequenciaService;
+import com.arthur.gestaoEscolar.service.FilaFrequenciaService;
 import com.arthur.gestaoEscolar.service.FrequenciaService;
+import com.arthur.gestaoEscolar.service.IdempotenciaService;
+import com.arthur.gestaoEscolar.service.LinhaTempoFrequenciaService;
+import com.arthur.gestaoEscolar.service.ResumoFrequenciaService;
+import com.arthur.gestaoEscolar.service.RiscoFrequenciaService;
+import com.arthur.gestaoEscolar.exception.FilaIndisponivelException;
 import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.exception.IdempotenciaConflitanteException;
+import com.arthur.gestaoEscolar.exception.IdempotenciaEmAndamentoException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
@@ -23,17 +48,59 @@ public class FrequenciaController {
     @Autowired
     private FrequenciaService frequenciaService;
 
+    @Autowired
+    private ArquivoFrequenciaService arquivoFrequenciaService;
+
+    @Autowired
+    private FilaFrequenciaService filaFrequenciaService;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LinhaTempoFrequenciaService linhaTempoFrequenciaService;
+
+    @Autowired
+    private ResumoFrequenciaService resumoFrequenciaService;
+
+    @Autowired
+    private RiscoFrequenciaService riscoFrequenciaService;
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
-    public ResponseEntity<List<Frequencia>> buscarTodas() {
+    public ResponseEntity<PaginaCursorDTO<FrequenciaDTO>> buscarTodas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
         try {
-            List<Frequencia> frequencias = frequenciaService.buscarTodas();
-            return ResponseEntity.ok(frequencias);
+            PaginaCursorDTO<FrequenciaDTO> pagina = frequenciaService.buscarPagina(cursor, tamanho);
+            return ResponseEntity.ok(pagina);
         } catch (GestaoEscolarException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
 
+    @GetMapping(value = "/exportar", produces = "application/x-ndjson")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        StreamingResponseBody corpo = saida -> frequenciaService.exportar(lote -> {
+            try {
+                for (FrequenciaDTO item : lote) {
+                    saida.write(objectMapper.writeValueAsBytes(item));
+                    saida.write('\n');
+                }
+                saida.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(corpo);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
     public ResponseEntity<Frequencia> buscarPorId(@PathVariable String id) {
@@ -144,6 +211,21 @@ public class FrequenciaController {
         }
     }
 
+    @GetMapping("/aluno/{alunoId}/disciplina/{disciplinaId}/linha-tempo")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR') or #alunoId == authentication.principal.id")
+    public ResponseEntity<LinhaTempoFrequenciaDTO> buscarLinhaTempo(
+            @PathVariable String alunoId,
+            @PathVariable String disciplinaId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
+        try {
+            LinhaTempoFrequenciaDTO linhaTempo = linhaTempoFrequenciaService.buscarLinhaTempo(alunoId, disciplinaId, dataInicio, dataFim);
+            return ResponseEntity.ok(linhaTempo);
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
     public ResponseEntity<FrequenciaDTO> salvar(@RequestBody FrequenciaDTO frequenciaDTO) {
@@ -190,13 +272,19 @@ public class FrequenciaController {
 
     @PostMapping("/marcar-presenca-lote")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
-    public ResponseEntity<Void> marcarPresencaEmLote(
+    public ResponseEntity<ResultadoLoteDTO> marcarPresencaEmLote(
             @RequestParam String disciplinaId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataAula,
-            @RequestBody List<String> alunosPresentes) {
+            @RequestBody List<String> alunosPresentes,
+            @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
         try {
-            frequenciaService.marcarPresencaEmLote(disciplinaId, dataAula, alunosPresentes);
-            return ResponseEntity.ok().build();
+            ResultadoLoteDTO resultado = idempotenciaService.executar("marcar-presenca-lote", chaveIdempotencia,
+                    List.of(disciplinaId, dataAula, alunosPresentes), () -> frequenciaService.marcarPresencaEmLote(disciplinaId, dataAula, alunosPresentes));
+            return ResponseEntity.ok(resultado);
+        } catch (IdempotenciaEmAndamentoException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).header(HttpHeaders.RETRY_AFTER, "1").build();
+        } catch (IdempotenciaConflitanteException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
         } catch (GestaoEscolarException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
@@ -204,13 +292,189 @@ public class FrequenciaController {
 
     @PostMapping("/marcar-falta-lote")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
-    public ResponseEntity<Void> marcarFaltaEmLote(
+    public ResponseEntity<ResultadoLoteDTO> marcarFaltaEmLote(
+            @RequestParam String disciplinaId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataAula,
+            @RequestBody List<String> alunosFaltantes,
+            @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
+        try {
+            ResultadoLoteDTO resultado = idempotenciaService.executar("marcar-falta-lote", chaveIdempotencia,
+                    List.of(disciplinaId, dataAula, alunosFaltantes), () -> frequenciaService.marcarFaltaEmLote(disciplinaId, dataAula, alunosFaltantes));
+            return ResponseEntity.ok(resultado);
+        } catch (IdempotenciaEmAndamentoException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).header(HttpHeaders.RETRY_AFTER, "1").build();
+        } catch (IdempotenciaConflitanteException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @PostMapping("/chamada")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<ResultadoLoteDTO> registrarChamada(
+            @RequestBody ChamadaDTO chamadaDTO,
+            @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
+        try {
+            ResultadoLoteDTO resultado = idempotenciaService.executar("chamada", chaveIdempotencia, chamadaDTO,
+                    () -> frequenciaService.registrarChamada(chamadaDTO));
+            return ResponseEntity.ok(resultado);
+        } catch (IdempotenciaEmAndamentoException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).header(HttpHeaders.RETRY_AFTER, "1").build();
+        } catch (IdempotenciaConflitanteException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    // Modo write-behind: o envio é validado, gravado no log local e confirmado com 202; a gravação no banco é assíncrona
+    @PostMapping("/envios")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<EnvioFrequenciaDTO> enfileirarFrequencia(
+            @RequestBody FrequenciaDTO frequenciaDTO,
+            @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
+        return this.enfileirar("envio-frequencia", chaveIdempotencia, frequenciaDTO,
+                () -> filaFrequenciaService.enfileirarFrequencia(frequenciaDTO));
+    }
+
+    @PostMapping("/envios/marcar-presenca-lote")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<EnvioFrequenciaDTO> enfileirarPresencaEmLote(
+            @RequestParam String disciplinaId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataAula,
+            @RequestBody List<String> alunosPresentes,
+            @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
+        return this.enfileirar("envio-presenca-lote", chaveIdempotencia, List.of(disciplinaId, dataAula, alunosPresentes),
+                () -> filaFrequenciaService.enfileirarPresencaEmLote(disciplinaId, dataAula, alunosPresentes));
+    }
+
+    @PostMapping("/envios/marcar-falta-lote")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<EnvioFrequenciaDTO> enfileirarFaltaEmLote(
             @RequestParam String disciplinaId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataAula,
-            @RequestBody List<String> alunosFaltantes) {
+            @RequestBody List<String> alunosFaltantes,
+            @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
+        return this.enfileirar("envio-falta-lote", chaveIdempotencia, List.of(disciplinaId, dataAula, alunosFaltantes),
+                () -> filaFrequenciaService.enfileirarFaltaEmLote(disciplinaId, dataAula, alunosFaltantes));
+    }
+
+    @PostMapping("/envios/chamada")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<EnvioFrequenciaDTO> enfileirarChamada(
+            @RequestBody ChamadaDTO chamadaDTO,
+            @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
+        return this.enfileirar("envio-chamada", chaveIdempotencia, chamadaDTO,
+                () -> filaFrequenciaService.enfileirarChamada(chamadaDTO));
+    }
+
+    @GetMapping("/envios/{id}")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<EnvioFrequenciaDTO> buscarEnvio(@PathVariable String id) {
+        try {
+            EnvioFrequenciaDTO envio = filaFrequenciaService.buscarEnvio(id);
+            return ResponseEntity.ok(envio);
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    @PostMapping("/resumos/reconstruir")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<Map<String, Object>> reconstruirResumos() {
+        int divergencias = resumoFrequenciaService.reconstruir();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("divergencias", divergencias);
+        response.put("message", "Resumos de frequência reconstruídos com sucesso");
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/linhas-tempo/migrar")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<Map<String, Object>> migrarLinhasTempo() {
+        int linhas = linhaTempoFrequenciaService.migrarDasFrequencias();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("linhas", linhas);
+        response.put("message", "Linhas do tempo de frequência reconstruídas com sucesso");
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/risco")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<RelatorioRiscoFrequenciaDTO> buscarRelatorioRisco(@RequestParam(required = false) Integer anoLetivo) {
+        try {
+            RelatorioRiscoFrequenciaDTO relatorio = riscoFrequenciaService.buscarRelatorio(anoLetivo);
+            return ResponseEntity.ok(relatorio);
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @PostMapping("/risco/gerar")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<RelatorioRiscoFrequenciaDTO> gerarRelatorioRisco(@RequestParam Integer anoLetivo) {
+        try {
+            RelatorioRiscoFrequenciaDTO relatorio = riscoFrequenciaService.gerarRelatorio(anoLetivo);
+            return ResponseEntity.ok(relatorio);
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping("/risco/turma/{turmaId}")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<List<RiscoFrequenciaDTO>> buscarRiscoPorTurma(@PathVariable String turmaId, @RequestParam(required = false) Double limite) {
+        try {
+            List<RiscoFrequenciaDTO> alunos = riscoFrequenciaService.buscarPorTurma(turmaId, limite);
+            return ResponseEntity.ok(alunos);
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    @GetMapping("/risco/ano-letivo/{anoLetivo}")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<List<RiscoFrequenciaDTO>> buscarRiscoPorAnoLetivo(@PathVariable Integer anoLetivo, @RequestParam(required = false) Double limite) {
+        try {
+            List<RiscoFrequenciaDTO> alunos = riscoFrequenciaService.buscarPorAnoLetivo(anoLetivo, limite);
+            return ResponseEntity.ok(alunos);
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @PostMapping("/arquivo/{anoLetivo}")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<Map<String, Object>> arquivarAnoLetivo(@PathVariable Integer anoLetivo) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            int arquivadas = arquivoFrequenciaService.arquivarAno(anoLetivo);
+            response.put("anoLetivo", anoLetivo);
+            response.put("arquivadas", arquivadas);
+            response.put("message", "Frequências arquivadas com sucesso");
+            return ResponseEntity.ok(response);
+        } catch (GestaoEscolarException e) {
+            response.put("error", "Erro ao arquivar frequências");
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+
+    private ResponseEntity<EnvioFrequenciaDTO> enfileirar(String operacao, String chaveIdempotencia, Object requisicao,
+                                                          Supplier<EnvioFrequenciaDTO> acao) {
         try {
-            frequenciaService.marcarFaltaEmLote(disciplinaId, dataAula, alunosFaltantes);
-            return ResponseEntity.ok().build();
+            EnvioFrequenciaDTO envio = idempotenciaService.executar(operacao, chaveIdempotencia, requisicao, acao);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(envio);
+        } catch (FilaIndisponivelException e) {
+            // Fila cheia: o cliente deve reenviar mais tarde com a mesma Idempotency-Key
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        } catch (IdempotenciaEmAndamentoException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).header(HttpHeaders.RETRY_AFTER, "1").build();
+        } catch (IdempotenciaConflitanteException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
         } catch (GestaoEscolarException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
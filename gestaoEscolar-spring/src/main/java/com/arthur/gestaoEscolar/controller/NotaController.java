@@ -1,19 +1,47 @@
 package com.arthur.gestaoEscolar.controller;
 
+import com.arthur.gestaoEscolar.model.entity.EventoNota;
 import com.arthur.gestaoEscolar.model.entity.Nota;
 import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import com.arthur.gestaoEscolar.model.dto.EstatisticaNotaDTO;
+import com.arthur.gestaoEscolar.model.dto.FiltroNotaDTO;
+import com.arthur.gestaoEscolar.model.dto.GrupoNotasDisciplinaDTO;
+import com.arthur.gestaoEscolar.model.dto.LancamentoNotasDTO;
 import com.arthur.gestaoEscolar.model.dto.NotaDTO;
+import com.arthur.gestaoEscolar.model.dto.PaginaCursorDTO;
+import com.arthur.gestaoEscolar.model.dto.ResultadoImportacaoDTO;
+import com.arthur.gestaoEscolar.model.dto.ResultadoLoteDTO;
+import com.arthur.gestaoEscolar.model.dto.ResultadoSimulacaoDTO;
+import com.arthur.gestaoEscolar.model.dto.SimulacaoNotaDTO;
+import com.arthur.gestaoEscolar.service.EstatisticaNotaService;
+import com.arthur.gestaoEscolar.service.EventoNotaService;
+import com.arthur.gestaoEscolar.service.IdempotenciaService;
+import com.arthur.gestaoEscolar.service.ImportacaoNotaService;
 import com.arthur.gestaoEscolar.service.NotaService;
+import com.arthur.gestaoEscolar.service.SimuladorNotaService;
 import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.exception.IdempotenciaConflitanteException;
+import com.arthur.gestaoEscolar.exception.IdempotenciaEmAndamentoException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -24,17 +52,84 @@ public class NotaController {
     @Autowired
     private NotaService notaService;
 
+    @Autowired
+    private EstatisticaNotaService estatisticaNotaService;
+
+    @Autowired
+    private EventoNotaService eventoNotaService;
+
+    @Autowired
+    private SimuladorNotaService simuladorNotaService;
+
+    @Autowired
+    private ImportacaoNotaService importacaoNotaService;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
-    public ResponseEntity<List<NotaDTO>> buscarTodas() {
+    public ResponseEntity<PaginaCursorDTO<NotaDTO>> buscarTodas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
         try {
-            List<Nota> notas = notaService.buscarTodas();
-            List<NotaDTO> notasDTO = notas.stream()
-                    .map(NotaDTO::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(notasDTO);
+            PaginaCursorDTO<NotaDTO> pagina = notaService.buscarPagina(cursor, tamanho);
+            return ResponseEntity.ok(pagina);
         } catch (GestaoEscolarException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping(value = "/exportar", produces = "application/x-ndjson")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        StreamingResponseBody corpo = saida -> notaService.exportar(lote -> {
+            try {
+                for (NotaDTO item : lote) {
+                    saida.write(objectMapper.writeValueAsBytes(item));
+                    saida.write('\n');
+                }
+                saida.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(corpo);
+    }
+
+    @GetMapping("/filtro")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<PaginaCursorDTO<NotaDTO>> filtrar(
+            @RequestParam(required = false) String alunoId,
+            @RequestParam(required = false) String disciplinaId,
+            @RequestParam(required = false) String turmaId,
+            @RequestParam(required = false) TipoAvaliacao tipoAvaliacao,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) Double valorMinimo,
+            @RequestParam(required = false) Double valorMaximo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        try {
+            FiltroNotaDTO filtro = new FiltroNotaDTO();
+            filtro.setAlunoId(alunoId);
+            filtro.setDisciplinaId(disciplinaId);
+            filtro.setTurmaId(turmaId);
+            filtro.setTipoAvaliacao(tipoAvaliacao);
+            filtro.setDataInicio(dataInicio);
+            filtro.setDataFim(dataFim);
+            filtro.setValorMinimo(valorMinimo);
+            filtro.setValorMaximo(valorMaximo);
+
+            PaginaCursorDTO<NotaDTO> pagina = notaService.filtrar(filtro, cursor, tamanho);
+            return ResponseEntity.ok(pagina);
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
 
@@ -90,9 +185,9 @@ public class NotaController {
 
     @GetMapping("/aluno/{alunoId}/disciplina/{disciplinaId}/tipo/{tipoAvaliacao}")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR') or #alunoId == authentication.principal.id")
-    public ResponseEntity<List<Nota>> buscarPorAlunoDisciplinaETipo(@PathVariable String alunoId, @PathVariable String disciplinaId, @PathVariable TipoAvaliacao tipoAvaliacao) {
+    public ResponseEntity<List<NotaDTO>> buscarPorAlunoDisciplinaETipo(@PathVariable String alunoId, @PathVariable String disciplinaId, @PathVariable TipoAvaliacao tipoAvaliacao) {
         try {
-            List<Nota> notas = notaService.buscarPorAlunoEDisciplinaETipo(alunoId, disciplinaId, tipoAvaliacao);
+            List<NotaDTO> notas = notaService.buscarPorAlunoEDisciplinaETipo(alunoId, disciplinaId, tipoAvaliacao);
             return ResponseEntity.ok(notas);
         } catch (GestaoEscolarException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -101,14 +196,31 @@ public class NotaController {
 
     @GetMapping("/periodo")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
-    public ResponseEntity<List<Nota>> buscarPorPeriodo(
+    public ResponseEntity<PaginaCursorDTO<NotaDTO>> buscarPorPeriodo(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
         try {
-            List<Nota> notas = notaService.buscarPorPeriodo(dataInicio, dataFim);
-            return ResponseEntity.ok(notas);
+            PaginaCursorDTO<NotaDTO> pagina = notaService.buscarPorPeriodo(dataInicio, dataFim, cursor, tamanho);
+            return ResponseEntity.ok(pagina);
         } catch (GestaoEscolarException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping("/periodo/por-disciplina")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<PaginaCursorDTO<GrupoNotasDisciplinaDTO>> buscarPorPeriodoAgrupado(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanho) {
+        try {
+            PaginaCursorDTO<GrupoNotasDisciplinaDTO> pagina = notaService.buscarPorPeriodoAgrupado(dataInicio, dataFim, cursor, tamanho);
+            return ResponseEntity.ok(pagina);
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
 
@@ -123,6 +235,81 @@ public class NotaController {
         }
     }
 
+    @GetMapping("/disciplina/{disciplinaId}/medias-finais")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<Map<String, Double>> calcularMediasFinaisDisciplina(@PathVariable String disciplinaId) {
+        try {
+            Map<String, Double> medias = notaService.calcularMediasFinaisDisciplina(disciplinaId);
+            return ResponseEntity.ok(medias);
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    @GetMapping("/estatisticas/disciplina/{disciplinaId}")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<EstatisticaNotaDTO> buscarEstatisticasDisciplina(@PathVariable String disciplinaId) {
+        return ResponseEntity.ok(estatisticaNotaService.buscarPorDisciplina(disciplinaId));
+    }
+
+    @GetMapping("/estatisticas/turma/{turmaId}")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<EstatisticaNotaDTO> buscarEstatisticasTurma(@PathVariable String turmaId) {
+        return ResponseEntity.ok(estatisticaNotaService.buscarPorTurma(turmaId));
+    }
+
+    @GetMapping("/estatisticas/turma/{turmaId}/disciplina/{disciplinaId}")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<EstatisticaNotaDTO> buscarEstatisticasTurmaEDisciplina(@PathVariable String turmaId, @PathVariable String disciplinaId) {
+        return ResponseEntity.ok(estatisticaNotaService.buscarPorTurmaEDisciplina(turmaId, disciplinaId));
+    }
+
+    @PostMapping("/estatisticas/reconstruir")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<Map<String, Object>> reconstruirEstatisticas() {
+        int faixas = estatisticaNotaService.reconstruir();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("faixas", faixas);
+        response.put("message", "Estatísticas de notas reconstruídas com sucesso");
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{id}/historico")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<List<EventoNota>> buscarHistorico(@PathVariable String id) {
+        return ResponseEntity.ok(eventoNotaService.buscarHistoricoNota(id));
+    }
+
+    @PostMapping("/aluno/{alunoId}/disciplina/{disciplinaId}/simulacao")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR') or #alunoId == authentication.principal.id")
+    public ResponseEntity<ResultadoSimulacaoDTO> simular(@PathVariable String alunoId, @PathVariable String disciplinaId,
+                                                         @RequestBody SimulacaoNotaDTO simulacao) {
+        try {
+            ResultadoSimulacaoDTO resultado = simuladorNotaService.simular(alunoId, disciplinaId, simulacao);
+            return ResponseEntity.ok(resultado);
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping("/aluno/{alunoId}/disciplina/{disciplinaId}/historico")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<List<EventoNota>> buscarHistoricoAlunoDisciplina(@PathVariable String alunoId, @PathVariable String disciplinaId) {
+        return ResponseEntity.ok(eventoNotaService.buscarHistoricoAlunoDisciplina(alunoId, disciplinaId));
+    }
+
+    @PostMapping("/eventos/reprocessar")
+    @PreAuthorize("hasRole('ADMINISTRADOR')")
+    public ResponseEntity<Map<String, Object>> reprocessarEventos() {
+        long eventos = eventoNotaService.reprocessar();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("eventos", eventos);
+        response.put("message", "Projeções de notas refeitas a partir do log de eventos");
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
     public ResponseEntity<NotaDTO> salvar(@RequestBody NotaDTO notaDTO) {
@@ -134,6 +321,54 @@ public class NotaController {
         }
     }
 
+    @PostMapping("/lote")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<ResultadoLoteDTO> salvarEmLote(
+            @RequestBody LancamentoNotasDTO lancamentoDTO,
+            @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
+        try {
+            ResultadoLoteDTO resultado = idempotenciaService.executar("notas-lote", chaveIdempotencia, lancamentoDTO,
+                    () -> notaService.salvarEmLote(lancamentoDTO));
+            return ResponseEntity.ok(resultado);
+        } catch (IdempotenciaEmAndamentoException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).header(HttpHeaders.RETRY_AFTER, "1").build();
+        } catch (IdempotenciaConflitanteException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @PostMapping(value = "/importacao", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<ResultadoImportacaoDTO> importar(
+            @RequestParam("arquivo") MultipartFile arquivo,
+            @RequestParam(required = false) String disciplinaId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
+        try {
+            // O conteúdo do arquivo entra na impressão da requisição: mesma chave com outro arquivo é recusada
+            Object requisicao = chaveIdempotencia != null
+                    ? Arrays.asList(disciplinaId, DigestUtils.md5DigestAsHex(arquivo.getInputStream()))
+                    : null;
+            ResultadoImportacaoDTO resultado = idempotenciaService.executar("notas-importacao", chaveIdempotencia, requisicao, () -> {
+                try {
+                    return importacaoNotaService.importarCsv(arquivo.getInputStream(), arquivo.getOriginalFilename(), disciplinaId);
+                } catch (IOException e) {
+                    throw new GestaoEscolarException("Não foi possível ler o arquivo", e);
+                }
+            });
+            return ResponseEntity.ok(resultado);
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (IdempotenciaEmAndamentoException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).header(HttpHeaders.RETRY_AFTER, "1").build();
+        } catch (IdempotenciaConflitanteException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
     public ResponseEntity<Nota> atualizar(@PathVariable String id, @RequestBody Nota nota) {
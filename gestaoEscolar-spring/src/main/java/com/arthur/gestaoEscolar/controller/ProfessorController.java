@@ -4,8 +4,10 @@ import com.arthur.gestaoEscolar.model.dto.ProfessorDTO;
 import com.arthur.gestaoEscolar.model.entity.Professor;
 import com.arthur.gestaoEscolar.model.entity.Disciplina;
 import com.arthur.gestaoEscolar.service.ProfessorService;
+import com.arthur.gestaoEscolar.exception.FilaIndisponivelException;
 import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -97,6 +99,8 @@ public class ProfessorController {
         try {
             Professor professorSalvo = professorService.salvarComDisciplinas(professorDTO);
             return ResponseEntity.status(HttpStatus.CREATED).body(new ProfessorDTO(professorSalvo));
+        } catch (FilaIndisponivelException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "2").build();
         } catch (GestaoEscolarException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
@@ -108,6 +112,8 @@ public class ProfessorController {
         try {
             Professor professorAtualizado = professorService.atualizar(id, professor);
             return ResponseEntity.ok(new ProfessorDTO(professorAtualizado));
+        } catch (FilaIndisponivelException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "2").build();
         } catch (GestaoEscolarException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
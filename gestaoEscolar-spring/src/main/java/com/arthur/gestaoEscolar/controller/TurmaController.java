@@ -1,7 +1,12 @@
 package com.arthur.gestaoEscolar.controller;
 
+import com.arthur.gestaoEscolar.model.dto.BoletimTurmaDTO;
+import com.arthur.gestaoEscolar.model.dto.PosicaoRankingDTO;
+import com.arthur.gestaoEscolar.model.dto.RankingTurmaDTO;
 import com.arthur.gestaoEscolar.model.dto.TurmaDTO;
 import com.arthur.gestaoEscolar.model.entity.Turma;
+import com.arthur.gestaoEscolar.service.BoletimService;
+import com.arthur.gestaoEscolar.service.RankingNotaService;
 import com.arthur.gestaoEscolar.service.TurmaService;
 import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +26,12 @@ public class TurmaController {
     @Autowired
     private TurmaService turmaService;
 
+    @Autowired
+    private BoletimService boletimService;
+
+    @Autowired
+    private RankingNotaService rankingNotaService;
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
     public ResponseEntity<List<TurmaDTO>> buscarTodas() {
@@ -46,6 +57,43 @@ public class TurmaController {
         }
     }
 
+    @GetMapping("/{id}/boletim")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<BoletimTurmaDTO> gerarBoletim(@PathVariable String id, @RequestParam(required = false) Integer anoLetivo) {
+        try {
+            BoletimTurmaDTO boletim = boletimService.gerarBoletim(id, anoLetivo);
+            return ResponseEntity.ok(boletim);
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    @GetMapping("/{id}/ranking/disciplina/{disciplinaId}")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<RankingTurmaDTO> buscarRanking(@PathVariable String id, @PathVariable String disciplinaId,
+                                                         @RequestParam(required = false) Integer anoLetivo,
+                                                         @RequestParam(required = false) Integer limite) {
+        try {
+            RankingTurmaDTO ranking = rankingNotaService.buscarMelhores(id, disciplinaId, anoLetivo, limite);
+            return ResponseEntity.ok(ranking);
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    @GetMapping("/{id}/ranking/disciplina/{disciplinaId}/aluno/{alunoId}")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
+    public ResponseEntity<PosicaoRankingDTO> buscarPosicaoRanking(@PathVariable String id, @PathVariable String disciplinaId,
+                                                                  @PathVariable String alunoId,
+                                                                  @RequestParam(required = false) Integer anoLetivo) {
+        try {
+            PosicaoRankingDTO posicao = rankingNotaService.buscarPosicao(id, disciplinaId, anoLetivo, alunoId);
+            return ResponseEntity.ok(posicao);
+        } catch (GestaoEscolarException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
     @GetMapping("/nome/{nome}")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'PROFESSOR')")
     public ResponseEntity<TurmaDTO> buscarPorNome(@PathVariable String nome) {
@@ -4,8 +4,10 @@ import com.arthur.gestaoEscolar.model.dto.UsuarioDTO;
 import com.arthur.gestaoEscolar.model.entity.Usuario;
 import com.arthur.gestaoEscolar.model.entity.TipoUsuario;
 import com.arthur.gestaoEscolar.service.UsuarioService;
+import com.arthur.gestaoEscolar.exception.FilaIndisponivelException;
 import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -67,6 +69,8 @@ public class UsuarioController {
         try {
             Usuario usuarioSalvo = usuarioService.salvar(usuario);
             return ResponseEntity.status(HttpStatus.CREATED).body(new UsuarioDTO(usuarioSalvo));
+        } catch (FilaIndisponivelException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "2").build();
         } catch (GestaoEscolarException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
@@ -78,6 +82,8 @@ public class UsuarioController {
         try {
             Usuario usuarioSalvo = usuarioService.salvar(usuario, confirmarSenha);
             return ResponseEntity.status(HttpStatus.CREATED).body(new UsuarioDTO(usuarioSalvo));
+        } catch (FilaIndisponivelException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "2").build();
         } catch (GestaoEscolarException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
@@ -89,6 +95,8 @@ public class UsuarioController {
         try {
             Usuario usuarioAtualizado = usuarioService.atualizar(id, usuario);
             return ResponseEntity.ok(new UsuarioDTO(usuarioAtualizado));
+        } catch (FilaIndisponivelException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "2").build();
         } catch (GestaoEscolarException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
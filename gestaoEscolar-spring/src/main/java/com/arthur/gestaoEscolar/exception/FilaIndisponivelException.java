@@ -0,0 +1,8 @@
+package com.arthur.gestaoEscolar.exception;
+
+public class FilaIndisponivelException extends GestaoEscolarException {
+
+    public FilaIndisponivelException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.arthur.gestaoEscolar.exception;
+
+// Idempotency-Key reaproveitada com outro corpo de requisição
+public class IdempotenciaConflitanteException extends GestaoEscolarException {
+
+    public IdempotenciaConflitanteException(String message) {
+        super(message);
+    }
+}
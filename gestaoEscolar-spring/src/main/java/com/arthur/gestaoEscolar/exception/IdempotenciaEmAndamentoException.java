@@ -0,0 +1,9 @@
+package com.arthur.gestaoEscolar.exception;
+
+// Repetição que esperou demais pela execução original da mesma Idempotency-Key
+public class IdempotenciaEmAndamentoException extends GestaoEscolarException {
+
+    public IdempotenciaEmAndamentoException(String message) {
+        super(message);
+    }
+}
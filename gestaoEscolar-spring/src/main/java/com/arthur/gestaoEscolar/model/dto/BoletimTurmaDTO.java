@@ -0,0 +1,37 @@
+package com.arthur.gestaoEscolar.model.dto;
+
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class BoletimTurmaDTO {
+    private String turmaId;
+    private String turmaNome;
+    private Integer anoLetivo;
+    private List<BoletimAluno> alunos = new ArrayList<>();
+
+    @Data
+    public static class BoletimAluno {
+        private String alunoId;
+        private String alunoNome;
+        private String matricula;
+        private List<BoletimDisciplina> disciplinas = new ArrayList<>();
+    }
+
+    @Data
+    public static class BoletimDisciplina {
+        private String disciplinaId;
+        private String disciplinaNome;
+        private Double media;
+        private Long quantidadeNotas = 0L;
+        private Map<TipoAvaliacao, Double> mediasPorTipo = new EnumMap<>(TipoAvaliacao.class);
+        private Long totalAulas = 0L;
+        private Long totalPresencas = 0L;
+        private Double percentualPresenca;
+    }
+}
@@ -0,0 +1,15 @@
+package com.arthur.gestaoEscolar.model.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ChamadaDTO {
+    private String turmaId;
+    private String disciplinaId;
+    private LocalDate dataAula;
+    private List<String> alunosAusentes = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package com.arthur.gestaoEscolar.model.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class EnvioFrequenciaDTO {
+    private String id;
+    private String tipo;
+    private String status;
+    private LocalDateTime recebidoEm;
+    private LocalDateTime processadoEm;
+    private String mensagem;
+    private ResultadoLoteDTO resultado;
+}
@@ -0,0 +1,25 @@
+package com.arthur.gestaoEscolar.model.dto;
+
+import com.arthur.gestaoEscolar.model.entity.EscopoEstatistica;
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+public class EstatisticaNotaDTO {
+    private EscopoEstatistica escopo;
+    private String referenciaId;
+    private long quantidade;
+    private Double media;
+    private Double desvioPadrao;
+    // Mínimo, máximo, mediana e percentis (p10, p25, p50, p75, p90) saem do histograma de faixas de 0.1 ponto:
+    // são aproximados, com erro de até "precisao" em relação às notas reais. Média e desvio são exatos
+    private Double minimo;
+    private Double maximo;
+    private Double mediana;
+    private Map<String, Double> percentis = new LinkedHashMap<>();
+    private double precisao = 0.05;
+    // Quantidade de notas por faixa de um ponto: [0,1), [1,2), ..., [9,10]
+    private long[] histograma = new long[10];
+}
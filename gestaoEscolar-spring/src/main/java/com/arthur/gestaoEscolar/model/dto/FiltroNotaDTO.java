@@ -0,0 +1,18 @@
+package com.arthur.gestaoEscolar.model.dto;
+
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class FiltroNotaDTO {
+    private String alunoId;
+    private String disciplinaId;
+    private String turmaId;
+    private TipoAvaliacao tipoAvaliacao;
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    private Double valorMinimo;
+    private Double valorMaximo;
+}
@@ -17,6 +17,17 @@ public class FrequenciaDTO {
 
     public FrequenciaDTO() {}
 
+    public FrequenciaDTO(String id, String alunoId, String disciplinaId, String disciplinaNome,
+                         LocalDate dataAula, Boolean presente, String observacao) {
+        this.id = id;
+        this.alunoId = alunoId;
+        this.disciplinaId = disciplinaId;
+        this.disciplinaNome = disciplinaNome;
+        this.dataAula = dataAula;
+        this.presente = presente;
+        this.observacao = observacao;
+    }
+
     public FrequenciaDTO(Frequencia frequencia) {
         this.id = frequencia.getId();
         this.alunoId = frequencia.getAluno() != null ? frequencia.getAluno().getId() : null;
@@ -0,0 +1,13 @@
+package com.arthur.gestaoEscolar.model.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class GrupoNotasDisciplinaDTO {
+    private String disciplinaId;
+    private String disciplinaNome;
+    private List<NotaDTO> notas = new ArrayList<>();
+}
@@ -0,0 +1,24 @@
+package com.arthur.gestaoEscolar.model.dto;
+
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class LancamentoNotasDTO {
+    private String disciplinaId;
+    private TipoAvaliacao tipoAvaliacao;
+    private LocalDate dataAvaliacao;
+    private String observacao;
+    private List<ItemNota> notas = new ArrayList<>();
+
+    @Data
+    public static class ItemNota {
+        private String alunoId;
+        private Double valor;
+        private String observacao;
+    }
+}
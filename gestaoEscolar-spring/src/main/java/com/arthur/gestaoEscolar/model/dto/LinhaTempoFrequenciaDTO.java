@@ -0,0 +1,30 @@
+package com.arthur.gestaoEscolar.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class LinhaTempoFrequenciaDTO {
+    private String alunoId;
+    private String disciplinaId;
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    private long totalAulas;
+    private long totalPresencas;
+    private Double percentualPresenca;
+    private List<Aula> aulas = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Aula {
+        private LocalDate dataAula;
+        private boolean presente;
+        private String observacao;
+    }
+}
@@ -0,0 +1,26 @@
+package com.arthur.gestaoEscolar.model.dto;
+
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import lombok.Data;
+
+@Data
+public class MediaNotaDTO {
+    private String alunoId;
+    private String disciplinaId;
+    private String disciplinaNome;
+    private TipoAvaliacao tipoAvaliacao;
+    private Double media;
+    private Long quantidade;
+
+    public MediaNotaDTO() {}
+
+    public MediaNotaDTO(String alunoId, String disciplinaId, String disciplinaNome, TipoAvaliacao tipoAvaliacao,
+                        Double media, Long quantidade) {
+        this.alunoId = alunoId;
+        this.disciplinaId = disciplinaId;
+        this.disciplinaNome = disciplinaNome;
+        this.tipoAvaliacao = tipoAvaliacao;
+        this.media = media;
+        this.quantidade = quantidade;
+    }
+}
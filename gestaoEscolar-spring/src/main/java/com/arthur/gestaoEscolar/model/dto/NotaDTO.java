@@ -19,6 +19,18 @@ public class NotaDTO {
 
     public NotaDTO() {}
 
+    public NotaDTO(String id, String alunoId, String disciplinaId, String disciplinaNome, Double valor,
+                   TipoAvaliacao tipoAvaliacao, LocalDate dataAvaliacao, String observacao) {
+        this.id = id;
+        this.alunoId = alunoId;
+        this.disciplinaId = disciplinaId;
+        this.disciplinaNome = disciplinaNome;
+        this.valor = valor;
+        this.tipoAvaliacao = tipoAvaliacao;
+        this.dataAvaliacao = dataAvaliacao;
+        this.observacao = observacao;
+    }
+
     public NotaDTO(Nota nota) {
         this.id = nota.getId();
         this.alunoId = nota.getAluno() != null ? nota.getAluno().getId() : null;
@@ -0,0 +1,16 @@
+package com.arthur.gestaoEscolar.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursorDTO<T> {
+    private List<T> itens;
+    private String proximoCursor;
+    private boolean possuiProxima;
+}
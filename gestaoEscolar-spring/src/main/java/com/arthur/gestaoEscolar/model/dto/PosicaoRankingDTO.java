@@ -0,0 +1,18 @@
+package com.arthur.gestaoEscolar.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PosicaoRankingDTO {
+    private String alunoId;
+    private String alunoNome;
+    private Double media;
+    // Empates dividem a mesma posição (1, 2, 2, 4)
+    private int posicao;
+    // Percentual da turma abaixo do aluno, contando metade dos empatados
+    private double percentil;
+}
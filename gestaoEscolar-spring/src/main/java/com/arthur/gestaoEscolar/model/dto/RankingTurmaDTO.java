@@ -0,0 +1,15 @@
+package com.arthur.gestaoEscolar.model.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class RankingTurmaDTO {
+    private String turmaId;
+    private String disciplinaId;
+    // Alunos da turma com ao menos uma nota na disciplina
+    private int quantidadeAlunos;
+    private List<PosicaoRankingDTO> posicoes = new ArrayList<>();
+}
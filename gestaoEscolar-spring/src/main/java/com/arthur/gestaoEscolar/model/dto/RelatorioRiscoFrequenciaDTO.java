@@ -0,0 +1,18 @@
+package com.arthur.gestaoEscolar.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatorioRiscoFrequenciaDTO {
+    private Integer anoLetivo;
+    private Double limite;
+    private LocalDateTime geradoEm;
+    private List<RiscoFrequenciaDTO> alunos;
+}
@@ -0,0 +1,32 @@
+package com.arthur.gestaoEscolar.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ResultadoImportacaoDTO {
+    private int totalLinhas;
+    private int totalImportadas;
+    private int totalErros;
+    // Limitada: em arquivos muito ruins só as primeiras linhas com erro são listadas
+    private List<ErroLinha> erros = new ArrayList<>();
+
+    public void adicionarErro(int linha, String mensagem, int maximoErros) {
+        this.totalErros++;
+        if (this.erros.size() < maximoErros) {
+            this.erros.add(new ErroLinha(linha, mensagem));
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ErroLinha {
+        private int linha;
+        private String mensagem;
+    }
+}
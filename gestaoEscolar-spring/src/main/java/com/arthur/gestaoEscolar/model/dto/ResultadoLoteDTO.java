@@ -0,0 +1,39 @@
+package com.arthur.gestaoEscolar.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ResultadoLoteDTO {
+    private int totalRecebidos;
+    private int totalRegistrados;
+    private int totalErros;
+    private List<ItemResultado> itens = new ArrayList<>();
+
+    public void adicionarSucesso(String alunoId) {
+        this.adicionarSucesso(alunoId, null);
+    }
+
+    public void adicionarSucesso(String alunoId, String mensagem) {
+        this.itens.add(new ItemResultado(alunoId, true, mensagem));
+        this.totalRegistrados++;
+    }
+
+    public void adicionarErro(String alunoId, String mensagem) {
+        this.itens.add(new ItemResultado(alunoId, false, mensagem));
+        this.totalErros++;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResultado {
+        private String alunoId;
+        private boolean sucesso;
+        private String mensagem;
+    }
+}
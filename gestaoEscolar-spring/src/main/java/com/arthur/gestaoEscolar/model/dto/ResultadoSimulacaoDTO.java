@@ -0,0 +1,20 @@
+package com.arthur.gestaoEscolar.model.dto;
+
+import lombok.Data;
+
+@Data
+public class ResultadoSimulacaoDTO {
+    private String alunoId;
+    private String disciplinaId;
+    private int quantidadeNotas;
+    private Double mediaAtual;
+    private double mediaAprovacao;
+    private int avaliacoesRestantes;
+    // Já aprovado mesmo tirando zero em todas as avaliações restantes
+    private boolean aprovado;
+    // Ainda é possível atingir a média tirando 10 em todas as restantes
+    private boolean possivel;
+    // Menor nota, igual em todas as avaliações restantes, que garante a média de aprovação
+    private Double notaMinima;
+    private Double mediaMaximaPossivel;
+}
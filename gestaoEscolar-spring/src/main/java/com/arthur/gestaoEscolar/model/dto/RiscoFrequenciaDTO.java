@@ -0,0 +1,33 @@
+package com.arthur.gestaoEscolar.model.dto;
+
+import lombok.Data;
+
+@Data
+public class RiscoFrequenciaDTO {
+    private String alunoId;
+    private String alunoNome;
+    private String matricula;
+    private String turmaId;
+    private String turmaNome;
+    private String disciplinaId;
+    private String disciplinaNome;
+    private Long totalAulas;
+    private Long totalPresencas;
+    private Double percentualPresenca;
+
+    public RiscoFrequenciaDTO() {}
+
+    public RiscoFrequenciaDTO(String alunoId, String alunoNome, String matricula, String turmaId, String turmaNome,
+                              String disciplinaId, String disciplinaNome, Long totalAulas, Long totalPresencas) {
+        this.alunoId = alunoId;
+        this.alunoNome = alunoNome;
+        this.matricula = matricula;
+        this.turmaId = turmaId;
+        this.turmaNome = turmaNome;
+        this.disciplinaId = disciplinaId;
+        this.disciplinaNome = disciplinaNome;
+        this.totalAulas = totalAulas;
+        this.totalPresencas = totalPresencas;
+        this.percentualPresenca = totalAulas > 0 ? totalPresencas * 100.0 / totalAulas : 0.0;
+    }
+}
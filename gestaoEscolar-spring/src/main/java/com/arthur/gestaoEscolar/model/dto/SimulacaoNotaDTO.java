@@ -0,0 +1,15 @@
+package com.arthur.gestaoEscolar.model.dto;
+
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class SimulacaoNotaDTO {
+    // Uma entrada por avaliação que ainda vai acontecer
+    private List<TipoAvaliacao> avaliacoesRestantes = new ArrayList<>();
+    // Opcional: sem valor usa a média de aprovação da política da disciplina (ou 6.0)
+    private Double mediaAprovacao;
+}
@@ -0,0 +1,22 @@
+package com.arthur.gestaoEscolar.model.dto;
+
+import lombok.Data;
+
+@Data
+public class TotalFrequenciaDTO {
+    private String alunoId;
+    private String disciplinaId;
+    private String disciplinaNome;
+    private Long totalAulas;
+    private Long totalPresencas;
+
+    public TotalFrequenciaDTO() {}
+
+    public TotalFrequenciaDTO(String alunoId, String disciplinaId, String disciplinaNome, Long totalAulas, Long totalPresencas) {
+        this.alunoId = alunoId;
+        this.disciplinaId = disciplinaId;
+        this.disciplinaNome = disciplinaNome;
+        this.totalAulas = totalAulas;
+        this.totalPresencas = totalPresencas;
+    }
+}
@@ -0,0 +1,22 @@
+package com.arthur.gestaoEscolar.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Envio da fila de frequências já aplicado: gravado na mesma transação das frequências, impede que um envio
+// reprocessado após uma queda sobrescreva correções feitas depois dele
+@Entity
+@Table(name = "envios_fila_frequencia", indexes = {
+    @Index(name = "idx_envios_fila_frequencia_processado_em", columnList = "processado_em")
+})
+@Data
+public class EnvioFilaFrequencia {
+
+    @Id
+    private String id;
+
+    @Column(name = "processado_em", nullable = false)
+    private LocalDateTime processadoEm;
+}
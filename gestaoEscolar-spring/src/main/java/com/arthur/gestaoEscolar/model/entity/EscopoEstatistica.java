@@ -0,0 +1,7 @@
+package com.arthur.gestaoEscolar.model.entity;
+
+public enum EscopoEstatistica {
+    DISCIPLINA,
+    TURMA,
+    TURMA_DISCIPLINA
+}
@@ -0,0 +1,37 @@
+package com.arthur.gestaoEscolar.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Uma linha por faixa de 0.1 ponto: o histograma das notas do escopo, somável entre linhas
+@Entity
+@Table(name = "estatisticas_notas",
+       uniqueConstraints = @UniqueConstraint(name = "uk_estatisticas_notas_escopo_referencia_faixa", columnNames = {"escopo", "referencia_id", "faixa"}))
+@Data
+public class EstatisticaNota {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "escopo", nullable = false)
+    private EscopoEstatistica escopo;
+
+    // Id da disciplina, da turma ou "turmaId:disciplinaId"
+    @Column(name = "referencia_id", nullable = false, length = 511)
+    private String referenciaId;
+
+    // Nota multiplicada por 10 e arredondada: 0 a 100
+    @Column(name = "faixa", nullable = false)
+    private Integer faixa;
+
+    @Column(name = "quantidade", nullable = false)
+    private Long quantidade = 0L;
+
+    @Column(name = "soma", nullable = false)
+    private Double soma = 0.0;
+
+    @Column(name = "soma_quadrados", nullable = false)
+    private Double somaQuadrados = 0.0;
+}
@@ -0,0 +1,57 @@
+package com.arthur.gestaoEscolar.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Log append-only das alterações de nota: nunca atualizado nem removido.
+// Guarda ids simples em vez de associações para sobreviver à exclusão da nota
+@Entity
+@Table(name = "eventos_notas", indexes = {
+    @Index(name = "idx_eventos_notas_nota", columnList = "nota_id"),
+    @Index(name = "idx_eventos_notas_aluno_disciplina", columnList = "aluno_id, disciplina_id")
+})
+@Data
+public class EventoNota {
+
+    // Sequencial: define a ordem de replay
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false)
+    private TipoEventoNota tipo;
+
+    @Column(name = "nota_id", nullable = false)
+    private String notaId;
+
+    @Column(name = "aluno_id", nullable = false)
+    private String alunoId;
+
+    @Column(name = "disciplina_id", nullable = false)
+    private String disciplinaId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_avaliacao")
+    private TipoAvaliacao tipoAvaliacao;
+
+    @Column(name = "data_avaliacao")
+    private LocalDate dataAvaliacao;
+
+    // Nulo em CRIADA
+    @Column(name = "valor_anterior")
+    private Double valorAnterior;
+
+    // Nulo em EXCLUIDA
+    @Column(name = "valor_novo")
+    private Double valorNovo;
+
+    @Column(name = "usuario")
+    private String usuario;
+
+    @Column(name = "ocorrido_em", nullable = false)
+    private LocalDateTime ocorridoEm;
+}
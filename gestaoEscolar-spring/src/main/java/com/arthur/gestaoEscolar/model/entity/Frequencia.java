@@ -7,7 +7,13 @@ import lombok.Data;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "frequencias")
+@Table(name = "frequencias", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_frequencias_aluno_disciplina_data", columnNames = {"aluno_id", "disciplina_id", "data_aula"})
+}, indexes = {
+    @Index(name = "idx_frequencias_aluno_data", columnList = "aluno_id, data_aula"),
+    @Index(name = "idx_frequencias_disciplina_data", columnList = "disciplina_id, data_aula, aluno_id"),
+    @Index(name = "idx_frequencias_data_aula", columnList = "data_aula")
+})
 @Data
 public class Frequencia {
 
@@ -0,0 +1,52 @@
+package com.arthur.gestaoEscolar.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+
+// Frequências de anos letivos encerrados, movidas para a tabela particionada por data (somente leitura)
+@Entity
+@Immutable
+@Table(name = "frequencias_arquivo", indexes = {
+    @Index(name = "idx_frequencias_arquivo_aluno_disciplina_data", columnList = "aluno_id, disciplina_id, data_aula"),
+    @Index(name = "idx_frequencias_arquivo_aluno_data", columnList = "aluno_id, data_aula"),
+    @Index(name = "idx_frequencias_arquivo_disciplina_data", columnList = "disciplina_id, data_aula")
+})
+@Data
+public class FrequenciaArquivada {
+
+    @Id
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "aluno_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Aluno aluno;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "disciplina_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Disciplina disciplina;
+
+    @Column(name = "data_aula", nullable = false)
+    private LocalDate dataAula;
+
+    @Column(name = "presente", nullable = false)
+    private Boolean presente;
+
+    @Column(name = "observacao")
+    private String observacao;
+
+    public Frequencia toFrequencia() {
+        Frequencia frequencia = new Frequencia();
+        frequencia.setId(this.id);
+        frequencia.setAluno(this.aluno);
+        frequencia.setDisciplina(this.disciplina);
+        frequencia.setDataAula(this.dataAula);
+        frequencia.setPresente(this.presente);
+        frequencia.setObservacao(this.observacao);
+        frequencia.setDataCriacao(null);
+        frequencia.setDataAtualizacao(null);
+        return frequencia;
+    }
+}
@@ -0,0 +1,49 @@
+package com.arthur.gestaoEscolar.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// Dias de aula e de presença de um aluno em uma disciplina no ano letivo, um bit por dia (índice = dia do ano - 1).
+// É um índice derivado de frequencias, mantido em paralelo para a linha do tempo por período: não substitui as
+// linhas, que continuam sendo a fonte dos ids e das observações, e pode ser reconstruído a partir delas
+@Entity
+@IdClass(LinhaTempoFrequencia.Chave.class)
+@Table(name = "linhas_tempo_frequencia")
+@Data
+public class LinhaTempoFrequencia {
+
+    public static final int TAMANHO_BYTES = 46; // 366 dias
+
+    @Id
+    @Column(name = "aluno_id", nullable = false)
+    private String alunoId;
+
+    @Id
+    @Column(name = "disciplina_id", nullable = false)
+    private String disciplinaId;
+
+    @Id
+    @Column(name = "ano_letivo", nullable = false)
+    private Integer anoLetivo;
+
+    // Dias em que houve aula registrada
+    @Column(name = "dias_aula", nullable = false, length = TAMANHO_BYTES)
+    private byte[] diasAula = new byte[0];
+
+    // Subconjunto de dias_aula em que o aluno esteve presente
+    @Column(name = "dias_presenca", nullable = false, length = TAMANHO_BYTES)
+    private byte[] diasPresenca = new byte[0];
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chave implements Serializable {
+        private String alunoId;
+        private String disciplinaId;
+        private Integer anoLetivo;
+    }
+}
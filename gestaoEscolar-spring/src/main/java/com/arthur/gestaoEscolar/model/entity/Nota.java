@@ -7,7 +7,12 @@ import lombok.Data;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "notas")
+@Table(name = "notas", indexes = {
+    @Index(name = "idx_notas_aluno_disciplina_data", columnList = "aluno_id, disciplina_id, data_avaliacao"),
+    @Index(name = "idx_notas_aluno_disciplina_tipo", columnList = "aluno_id, disciplina_id, tipo_avaliacao"),
+    @Index(name = "idx_notas_disciplina_data", columnList = "disciplina_id, data_avaliacao"),
+    @Index(name = "idx_notas_data_avaliacao", columnList = "data_avaliacao")
+})
 @Data
 public class Nota {
 
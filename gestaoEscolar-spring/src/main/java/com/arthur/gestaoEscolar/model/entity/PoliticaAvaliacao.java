@@ -0,0 +1,45 @@
+package com.arthur.gestaoEscolar.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+@Entity
+@Table(name = "politicas_avaliacao")
+@Data
+public class PoliticaAvaliacao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "disciplina_id", nullable = false, unique = true)
+    private String disciplinaId;
+
+    // Tipos sem peso informado entram com peso 1; peso 0 ignora o tipo
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "politica_avaliacao_pesos", joinColumns = @JoinColumn(name = "politica_id"))
+    @MapKeyEnumerated(EnumType.STRING)
+    @MapKeyColumn(name = "tipo_avaliacao")
+    @Column(name = "peso", nullable = false)
+    private Map<TipoAvaliacao, Double> pesos = new HashMap<>();
+
+    // Descarta a menor nota de cada tipo que tenha pelo menos duas notas
+    @Column(name = "descartar_menor_nota", nullable = false)
+    private Boolean descartarMenorNota = false;
+
+    // Abaixo desta média a nota de RECUPERACAO substitui a média, se for maior
+    @Column(name = "media_aprovacao", nullable = false)
+    private Double mediaAprovacao = 6.0;
+
+    @Column(name = "data_atualizacao")
+    private LocalDate dataAtualizacao = LocalDate.now();
+
+    @PreUpdate
+    protected void onUpdate() {
+        dataAtualizacao = LocalDate.now();
+    }
+}
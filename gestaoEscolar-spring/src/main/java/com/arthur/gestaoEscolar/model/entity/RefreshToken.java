@@ -0,0 +1,44 @@
+package com.arthur.gestaoEscolar.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Só o hash do refresh token é guardado. Tokens da mesma família vêm de rotações sucessivas
+// a partir de um login; reutilizar um token já rotacionado revoga a família inteira
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+    @Index(name = "idx_refresh_tokens_familia", columnList = "familia"),
+    @Index(name = "idx_refresh_tokens_usuario", columnList = "usuario_id"),
+    @Index(name = "idx_refresh_tokens_expira_em", columnList = "expira_em")
+})
+@Data
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(name = "usuario_id", nullable = false)
+    private String usuarioId;
+
+    @Column(name = "familia", nullable = false)
+    private String familia;
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm;
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+
+    // Preenchido na rotação: o token não pode ser usado de novo
+    @Column(name = "usado_em")
+    private LocalDateTime usadoEm;
+
+    @Column(name = "revogado", nullable = false)
+    private Boolean revogado = false;
+}
@@ -0,0 +1,37 @@
+package com.arthur.gestaoEscolar.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "resumo_frequencias",
+       uniqueConstraints = @UniqueConstraint(name = "uk_resumo_frequencias_aluno_disciplina", columnNames = {"aluno_id", "disciplina_id"}))
+@Data
+public class ResumoFrequencia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "aluno_id", nullable = false)
+    private String alunoId;
+
+    @Column(name = "disciplina_id", nullable = false)
+    private String disciplinaId;
+
+    @Column(name = "total_aulas", nullable = false)
+    private Long totalAulas = 0L;
+
+    @Column(name = "total_presencas", nullable = false)
+    private Long totalPresencas = 0L;
+
+    @Column(name = "data_atualizacao")
+    private LocalDate dataAtualizacao = LocalDate.now();
+
+    @PreUpdate
+    protected void onUpdate() {
+        dataAtualizacao = LocalDate.now();
+    }
+}
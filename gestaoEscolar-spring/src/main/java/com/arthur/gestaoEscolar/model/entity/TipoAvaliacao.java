@@ -6,5 +6,6 @@ public enum TipoAvaliacao {
     PROJETO,
     APRESENTACAO,
     PARTICIPACAO,
+    RECUPERACAO,
     OUTRO
 }
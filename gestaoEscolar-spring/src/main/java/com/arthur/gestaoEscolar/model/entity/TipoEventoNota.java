@@ -0,0 +1,7 @@
+package com.arthur.gestaoEscolar.model.entity;
+
+public enum TipoEventoNota {
+    CRIADA,
+    ATUALIZADA,
+    EXCLUIDA
+}
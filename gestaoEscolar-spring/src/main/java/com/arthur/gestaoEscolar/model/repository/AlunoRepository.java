@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,9 +24,18 @@ public interface AlunoRepository extends JpaRepository<Aluno, String>, JpaSpecif
 
     List<Aluno> findByTurmaId(String turmaId);
 
+    @Query("SELECT a.id FROM Aluno a WHERE a.turma.id = :turmaId")
+    List<String> findIdsByTurmaId(@Param("turmaId") String turmaId);
+
+    @Query("SELECT a.id FROM Aluno a WHERE a.id IN :ids")
+    List<String> findIdsExistentes(@Param("ids") Collection<String> ids);
+
     @Query("SELECT a FROM Aluno a WHERE a.turma.id = :turmaId ORDER BY a.nome")
     List<Aluno> findByTurmaIdOrderByNome(@Param("turmaId") String turmaId);
 
+    @Query("SELECT a.matricula, a.id FROM Aluno a WHERE a.matricula IS NOT NULL")
+    List<Object[]> buscarMatriculasEIds();
+
     @Query("SELECT a FROM Aluno a WHERE a.ativo = true ORDER BY a.nome")
     List<Aluno> findAllAtivosOrderByNome();
 }
@@ -24,6 +24,12 @@ public interface DisciplinaRepository extends JpaRepository<Disciplina, String>,
     @Query("SELECT d FROM Disciplina d WHERE d.professor.id = :professorId ORDER BY d.nome")
     List<Disciplina> findByProfessorIdOrderByNome(@Param("professorId") String professorId);
 
+    @Query("SELECT d FROM Turma t JOIN t.disciplinas d WHERE t.id = :turmaId ORDER BY d.nome")
+    List<Disciplina> findByTurmaIdOrderByNome(@Param("turmaId") String turmaId);
+
+    @Query("SELECT d.id, d.nome FROM Disciplina d")
+    List<Object[]> buscarIdsENomes();
+
     @Query("SELECT d FROM Disciplina d JOIN d.notas n WHERE n.aluno.id = :alunoId")
     List<Disciplina> findByAlunoId(@Param("alunoId") String alunoId);
 
@@ -0,0 +1,17 @@
+package com.arthur.gestaoEscolar.model.repository;
+
+import com.arthur.gestaoEscolar.model.entity.EscopoEstatistica;
+import com.arthur.gestaoEscolar.model.entity.EstatisticaNota;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EstatisticaNotaRepository extends JpaRepository<EstatisticaNota, String> {
+
+    @Query("SELECT e FROM EstatisticaNota e WHERE e.escopo = :escopo AND e.referenciaId = :referenciaId AND e.quantidade > 0 ORDER BY e.faixa")
+    List<EstatisticaNota> buscarFaixas(@Param("escopo") EscopoEstatistica escopo, @Param("referenciaId") String referenciaId);
+}
@@ -0,0 +1,15 @@
+package com.arthur.gestaoEscolar.model.repository;
+
+import com.arthur.gestaoEscolar.model.entity.EventoNota;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EventoNotaRepository extends JpaRepository<EventoNota, Long> {
+
+    List<EventoNota> findByNotaIdOrderById(String notaId);
+
+    List<EventoNota> findByAlunoIdAndDisciplinaIdOrderById(String alunoId, String disciplinaId);
+}
@@ -0,0 +1,71 @@
+package com.arthur.gestaoEscolar.model.repository;
+
+import com.arthur.gestaoEscolar.model.dto.FrequenciaDTO;
+import com.arthur.gestaoEscolar.model.dto.RiscoFrequenciaDTO;
+import com.arthur.gestaoEscolar.model.dto.TotalFrequenciaDTO;
+import com.arthur.gestaoEscolar.model.entity.FrequenciaArquivada;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface FrequenciaArquivadaRepository extends JpaRepository<FrequenciaArquivada, String> {
+
+    List<FrequenciaArquivada> findByAlunoId(String alunoId);
+
+    List<FrequenciaArquivada> findByDisciplinaId(String disciplinaId);
+
+    @Query("SELECT f FROM FrequenciaArquivada f WHERE f.aluno.id = :alunoId AND f.disciplina.id = :disciplinaId ORDER BY f.dataAula DESC")
+    List<FrequenciaArquivada> findByAlunoAndDisciplinaOrderByData(@Param("alunoId") String alunoId, @Param("disciplinaId") String disciplinaId);
+
+    @Query("SELECT f FROM FrequenciaArquivada f WHERE f.dataAula BETWEEN :dataInicio AND :dataFim")
+    List<FrequenciaArquivada> findByPeriodo(@Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim);
+
+    @Query("SELECT f FROM FrequenciaArquivada f WHERE f.aluno.id = :alunoId AND f.dataAula BETWEEN :dataInicio AND :dataFim")
+    List<FrequenciaArquivada> findByAlunoAndPeriodo(@Param("alunoId") String alunoId, @Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim);
+
+    @Query("SELECT MAX(f.dataAula) FROM FrequenciaArquivada f")
+    Optional<LocalDate> findUltimaDataArquivada();
+
+    @Query("SELECT f.aluno.id, f.disciplina.id, COUNT(f), SUM(CASE WHEN f.presente = true THEN 1 ELSE 0 END) " +
+           "FROM FrequenciaArquivada f GROUP BY f.aluno.id, f.disciplina.id")
+    List<Object[]> contarPorAlunoEDisciplina();
+
+    @Query("SELECT new com.arthur.gestaoEscolar.model.dto.TotalFrequenciaDTO(a.id, d.id, d.nome, COUNT(f), SUM(CASE WHEN f.presente = true THEN 1 ELSE 0 END)) " +
+           "FROM FrequenciaArquivada f JOIN f.aluno a JOIN f.disciplina d " +
+           "WHERE a.turma.id = :turmaId AND f.dataAula BETWEEN :dataInicio AND :dataFim " +
+           "GROUP BY a.id, d.id, d.nome")
+    List<TotalFrequenciaDTO> contarPorTurma(@Param("turmaId") String turmaId, @Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim);
+
+    @Query("SELECT new com.arthur.gestaoEscolar.model.dto.FrequenciaDTO(f.id, f.aluno.id, d.id, d.nome, f.dataAula, f.presente, f.observacao) " +
+           "FROM FrequenciaArquivada f JOIN f.disciplina d ORDER BY f.dataAula, f.id")
+    List<FrequenciaDTO> buscarPrimeiraPagina(Pageable pageable);
+
+    @Query("SELECT new com.arthur.gestaoEscolar.model.dto.FrequenciaDTO(f.id, f.aluno.id, d.id, d.nome, f.dataAula, f.presente, f.observacao) " +
+           "FROM FrequenciaArquivada f JOIN f.disciplina d " +
+           "WHERE f.dataAula > :dataAula OR (f.dataAula = :dataAula AND f.id > :id) ORDER BY f.dataAula, f.id")
+    List<FrequenciaDTO> buscarPaginaApos(@Param("dataAula") LocalDate dataAula, @Param("id") String id, Pageable pageable);
+
+    // Sem HAVING: somados aos totais da tabela quente antes de aplicar o limite de risco
+    @Query("SELECT new com.arthur.gestaoEscolar.model.dto.RiscoFrequenciaDTO(a.id, a.nome, a.matricula, t.id, t.nome, d.id, d.nome, " +
+           "COUNT(f), SUM(CASE WHEN f.presente = true THEN 1 ELSE 0 END)) " +
+           "FROM FrequenciaArquivada f JOIN f.aluno a JOIN a.turma t JOIN f.disciplina d " +
+           "WHERE t.id = :turmaId " +
+           "GROUP BY a.id, a.nome, a.matricula, t.id, t.nome, d.id, d.nome")
+    List<RiscoFrequenciaDTO> buscarTotaisPorTurma(@Param("turmaId") String turmaId);
+
+    @Query("SELECT new com.arthur.gestaoEscolar.model.dto.RiscoFrequenciaDTO(a.id, a.nome, a.matricula, t.id, t.nome, d.id, d.nome, " +
+           "COUNT(f), SUM(CASE WHEN f.presente = true THEN 1 ELSE 0 END)) " +
+           "FROM FrequenciaArquivada f JOIN f.aluno a LEFT JOIN a.turma t JOIN f.disciplina d " +
+           "WHERE f.dataAula BETWEEN :dataInicio AND :dataFim " +
+           "GROUP BY a.id, a.nome, a.matricula, t.id, t.nome, d.id, d.nome " +
+           "HAVING SUM(CASE WHEN f.presente = true THEN 1 ELSE 0 END) * 100.0 / COUNT(f) < :limite " +
+           "ORDER BY t.nome, a.nome, d.nome")
+    List<RiscoFrequenciaDTO> buscarRiscoPorPeriodo(@Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim, @Param("limite") Double limite);
+}
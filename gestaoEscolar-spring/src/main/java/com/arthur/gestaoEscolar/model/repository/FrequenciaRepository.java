@@ -1,6 +1,10 @@
 package com.arthur.gestaoEscolar.model.repository;
 
+import com.arthur.gestaoEscolar.model.dto.FrequenciaDTO;
+import com.arthur.gestaoEscolar.model.dto.RiscoFrequenciaDTO;
+import com.arthur.gestaoEscolar.model.dto.TotalFrequenciaDTO;
 import com.arthur.gestaoEscolar.model.entity.Frequencia;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -20,22 +24,60 @@ public interface FrequenciaRepository extends JpaRepository<Frequencia, String>,
 
     List<Frequencia> findByAlunoIdAndDisciplinaId(String alunoId, String disciplinaId);
 
+    Optional<Frequencia> findByAlunoIdAndDisciplinaIdAndDataAula(String alunoId, String disciplinaId, LocalDate dataAula);
+
     @Query("SELECT f FROM Frequencia f WHERE f.aluno.id = :alunoId AND f.disciplina.id = :disciplinaId ORDER BY f.dataAula DESC")
     List<Frequencia> findByAlunoAndDisciplinaOrderByData(@Param("alunoId") String alunoId, @Param("disciplinaId") String disciplinaId);
 
-    @Query("SELECT COUNT(f) FROM Frequencia f WHERE f.aluno.id = :alunoId AND f.disciplina.id = :disciplinaId AND f.presente = true")
-    Long countPresencasByAlunoAndDisciplina(@Param("alunoId") String alunoId, @Param("disciplinaId") String disciplinaId);
-
-    @Query("SELECT COUNT(f) FROM Frequencia f WHERE f.aluno.id = :alunoId AND f.disciplina.id = :disciplinaId")
-    Long countTotalAulasByAlunoAndDisciplina(@Param("alunoId") String alunoId, @Param("disciplinaId") String disciplinaId);
-
-    @Query("SELECT (COUNT(f) * 100.0 / (SELECT COUNT(f2) FROM Frequencia f2 WHERE f2.aluno.id = :alunoId AND f2.disciplina.id = :disciplinaId)) " +
-           "FROM Frequencia f WHERE f.aluno.id = :alunoId AND f.disciplina.id = :disciplinaId AND f.presente = true")
-    Optional<Double> calcularPercentualPresenca(@Param("alunoId") String alunoId, @Param("disciplinaId") String disciplinaId);
-
     @Query("SELECT f FROM Frequencia f WHERE f.dataAula BETWEEN :dataInicio AND :dataFim")
     List<Frequencia> findByPeriodo(@Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim);
 
     @Query("SELECT f FROM Frequencia f WHERE f.aluno.id = :alunoId AND f.dataAula BETWEEN :dataInicio AND :dataFim")
     List<Frequencia> findByAlunoAndPeriodo(@Param("alunoId") String alunoId, @Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim);
+
+    @Query("SELECT f.aluno.id, f.disciplina.id, COUNT(f), SUM(CASE WHEN f.presente = true THEN 1 ELSE 0 END) " +
+           "FROM Frequencia f GROUP BY f.aluno.id, f.disciplina.id")
+    List<Object[]> contarPorAlunoEDisciplina();
+
+    @Query("SELECT new com.arthur.gestaoEscolar.model.dto.FrequenciaDTO(f.id, f.aluno.id, d.id, d.nome, f.dataAula, f.presente, f.observacao) " +
+           "FROM Frequencia f JOIN f.disciplina d ORDER BY f.dataAula, f.id")
+    List<FrequenciaDTO> buscarPrimeiraPagina(Pageable pageable);
+
+    @Query("SELECT new com.arthur.gestaoEscolar.model.dto.FrequenciaDTO(f.id, f.aluno.id, d.id, d.nome, f.dataAula, f.presente, f.observacao) " +
+           "FROM Frequencia f JOIN f.disciplina d " +
+           "WHERE f.dataAula > :dataAula OR (f.dataAula = :dataAula AND f.id > :id) ORDER BY f.dataAula, f.id")
+    List<FrequenciaDTO> buscarPaginaApos(@Param("dataAula") LocalDate dataAula, @Param("id") String id, Pageable pageable);
+
+    @Query("SELECT new com.arthur.gestaoEscolar.model.dto.RiscoFrequenciaDTO(a.id, a.nome, a.matricula, t.id, t.nome, d.id, d.nome, " +
+           "COUNT(f), SUM(CASE WHEN f.presente = true THEN 1 ELSE 0 END)) " +
+           "FROM Frequencia f JOIN f.aluno a JOIN a.turma t JOIN f.disciplina d " +
+           "WHERE t.id = :turmaId " +
+           "GROUP BY a.id, a.nome, a.matricula, t.id, t.nome, d.id, d.nome " +
+           "HAVING SUM(CASE WHEN f.presente = true THEN 1 ELSE 0 END) * 100.0 / COUNT(f) < :limite " +
+           "ORDER BY t.nome, a.nome, d.nome")
+    List<RiscoFrequenciaDTO> buscarRiscoPorTurma(@Param("turmaId") String turmaId, @Param("limite") Double limite);
+
+    @Query("SELECT new com.arthur.gestaoEscolar.model.dto.RiscoFrequenciaDTO(a.id, a.nome, a.matricula, t.id, t.nome, d.id, d.nome, " +
+           "COUNT(f), SUM(CASE WHEN f.presente = true THEN 1 ELSE 0 END)) " +
+           "FROM Frequencia f JOIN f.aluno a JOIN a.turma t JOIN f.disciplina d " +
+           "WHERE t.id = :turmaId " +
+           "GROUP BY a.id, a.nome, a.matricula, t.id, t.nome, d.id, d.nome")
+    List<RiscoFrequenciaDTO> buscarTotaisPorTurma(@Param("turmaId") String turmaId);
+
+    // Filtra pela data das aulas, não pela turma atual: quem trocou de turma continua no relatório do ano
+    // anterior (aparece com a turma atual, ou sem turma)
+    @Query("SELECT new com.arthur.gestaoEscolar.model.dto.RiscoFrequenciaDTO(a.id, a.nome, a.matricula, t.id, t.nome, d.id, d.nome, " +
+           "COUNT(f), SUM(CASE WHEN f.presente = true THEN 1 ELSE 0 END)) " +
+           "FROM Frequencia f JOIN f.aluno a LEFT JOIN a.turma t JOIN f.disciplina d " +
+           "WHERE f.dataAula BETWEEN :dataInicio AND :dataFim " +
+           "GROUP BY a.id, a.nome, a.matricula, t.id, t.nome, d.id, d.nome " +
+           "HAVING SUM(CASE WHEN f.presente = true THEN 1 ELSE 0 END) * 100.0 / COUNT(f) < :limite " +
+           "ORDER BY t.nome, a.nome, d.nome")
+    List<RiscoFrequenciaDTO> buscarRiscoPorPeriodo(@Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim, @Param("limite") Double limite);
+
+    @Query("SELECT new com.arthur.gestaoEscolar.model.dto.TotalFrequenciaDTO(a.id, d.id, d.nome, COUNT(f), SUM(CASE WHEN f.presente = true THEN 1 ELSE 0 END)) " +
+           "FROM Frequencia f JOIN f.aluno a JOIN f.disciplina d " +
+           "WHERE a.turma.id = :turmaId AND f.dataAula BETWEEN :dataInicio AND :dataFim " +
+           "GROUP BY a.id, d.id, d.nome")
+    List<TotalFrequenciaDTO> contarPorTurma(@Param("turmaId") String turmaId, @Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim);
 }
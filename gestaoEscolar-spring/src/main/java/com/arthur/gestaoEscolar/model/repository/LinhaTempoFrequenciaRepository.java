@@ -0,0 +1,18 @@
+package com.arthur.gestaoEscolar.model.repository;
+
+import com.arthur.gestaoEscolar.model.entity.LinhaTempoFrequencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LinhaTempoFrequenciaRepository extends JpaRepository<LinhaTempoFrequencia, LinhaTempoFrequencia.Chave> {
+
+    @Query("SELECT l FROM LinhaTempoFrequencia l WHERE l.alunoId = :alunoId AND l.disciplinaId = :disciplinaId " +
+           "AND l.anoLetivo BETWEEN :anoInicio AND :anoFim ORDER BY l.anoLetivo")
+    List<LinhaTempoFrequencia> findByAlunoDisciplinaEAnos(@Param("alunoId") String alunoId, @Param("disciplinaId") String disciplinaId,
+                                                          @Param("anoInicio") Integer anoInicio, @Param("anoFim") Integer anoFim);
+}
@@ -1,6 +1,10 @@
 package com.arthur.gestaoEscolar.model.repository;
 
+import com.arthur.gestaoEscolar.model.dto.MediaNotaDTO;
+import com.arthur.gestaoEscolar.model.dto.NotaDTO;
 import com.arthur.gestaoEscolar.model.entity.Nota;
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -12,7 +16,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface NotaRepository extends JpaRepository<Nota, String>, JpaSpecificationExecutor<Nota> {
+public interface NotaRepository extends JpaRepository<Nota, String>, JpaSpecificationExecutor<Nota>, NotaRepositoryCustom {
 
     List<Nota> findByAlunoId(String alunoId);
 
@@ -26,9 +30,50 @@ public interface NotaRepository extends JpaRepository<Nota, String>, JpaSpecific
     @Query("SELECT AVG(n.valor) FROM Nota n WHERE n.aluno.id = :alunoId AND n.disciplina.id = :disciplinaId")
     Optional<Double> calcularMediaAlunoDisciplina(@Param("alunoId") String alunoId, @Param("disciplinaId") String disciplinaId);
 
-    @Query("SELECT n FROM Nota n WHERE n.aluno.id = :alunoId AND n.disciplina.id = :disciplinaId AND n.tipoAvaliacao = :tipoAvaliacao")
-    List<Nota> findByAlunoDisciplinaAndTipo(@Param("alunoId") String alunoId, @Param("disciplinaId") String disciplinaId, @Param("tipoAvaliacao") String tipoAvaliacao);
+    @Query("SELECT n.valor, n.tipoAvaliacao FROM Nota n WHERE n.aluno.id = :alunoId AND n.disciplina.id = :disciplinaId")
+    List<Object[]> buscarValoresPorAlunoEDisciplina(@Param("alunoId") String alunoId, @Param("disciplinaId") String disciplinaId);
 
-    @Query("SELECT n FROM Nota n WHERE n.dataAvaliacao BETWEEN :dataInicio AND :dataFim")
-    List<Nota> findByPeriodo(@Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim);
+    @Query("SELECT n.valor, n.tipoAvaliacao FROM Nota n WHERE n.aluno.id = :alunoId AND n.disciplina.id = :disciplinaId " +
+           "AND n.dataAvaliacao BETWEEN :dataInicio AND :dataFim")
+    List<Object[]> buscarValoresPorAlunoEDisciplina(@Param("alunoId") String alunoId, @Param("disciplinaId") String disciplinaId,
+                                                    @Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim);
+
+    @Query("SELECT n.disciplina.id, n.valor, n.tipoAvaliacao FROM Nota n WHERE n.aluno.id = :alunoId")
+    List<Object[]> buscarValoresPorAluno(@Param("alunoId") String alunoId);
+
+    @Query("SELECT n.aluno.id, n.valor, n.tipoAvaliacao FROM Nota n WHERE n.disciplina.id = :disciplinaId ORDER BY n.aluno.id")
+    List<Object[]> buscarValoresPorDisciplina(@Param("disciplinaId") String disciplinaId);
+
+    @Query("SELECT a.id, n.valor, n.tipoAvaliacao FROM Nota n JOIN n.aluno a " +
+           "WHERE a.turma.id = :turmaId AND n.disciplina.id = :disciplinaId AND n.dataAvaliacao BETWEEN :dataInicio AND :dataFim " +
+           "ORDER BY a.id")
+    List<Object[]> buscarValoresPorTurmaEDisciplina(@Param("turmaId") String turmaId, @Param("disciplinaId") String disciplinaId,
+                                                    @Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim);
+
+    // Parâmetro tipado como enum: usa o índice (aluno_id, disciplina_id, tipo_avaliacao)
+    @Query("SELECT new com.arthur.gestaoEscolar.model.dto.NotaDTO(n.id, n.aluno.id, d.id, d.nome, n.valor, n.tipoAvaliacao, n.dataAvaliacao, n.observacao) " +
+           "FROM Nota n JOIN n.disciplina d " +
+           "WHERE n.aluno.id = :alunoId AND d.id = :disciplinaId AND n.tipoAvaliacao = :tipoAvaliacao ORDER BY n.dataAvaliacao DESC")
+    List<NotaDTO> findByAlunoDisciplinaAndTipo(@Param("alunoId") String alunoId, @Param("disciplinaId") String disciplinaId, @Param("tipoAvaliacao") TipoAvaliacao tipoAvaliacao);
+
+    @Query("SELECT new com.arthur.gestaoEscolar.model.dto.NotaDTO(n.id, n.aluno.id, d.id, d.nome, n.valor, n.tipoAvaliacao, n.dataAvaliacao, n.observacao) " +
+           "FROM Nota n JOIN n.disciplina d ORDER BY n.dataAvaliacao, n.id")
+    List<NotaDTO> buscarPrimeiraPagina(Pageable pageable);
+
+    @Query("SELECT new com.arthur.gestaoEscolar.model.dto.NotaDTO(n.id, n.aluno.id, d.id, d.nome, n.valor, n.tipoAvaliacao, n.dataAvaliacao, n.observacao) " +
+           "FROM Nota n JOIN n.disciplina d " +
+           "WHERE n.dataAvaliacao > :dataAvaliacao OR (n.dataAvaliacao = :dataAvaliacao AND n.id > :id) ORDER BY n.dataAvaliacao, n.id")
+    List<NotaDTO> buscarPaginaApos(@Param("dataAvaliacao") LocalDate dataAvaliacao, @Param("id") String id, Pageable pageable);
+
+    @Query("SELECT new com.arthur.gestaoEscolar.model.dto.MediaNotaDTO(a.id, d.id, d.nome, n.tipoAvaliacao, AVG(n.valor), COUNT(n)) " +
+           "FROM Nota n JOIN n.aluno a JOIN n.disciplina d " +
+           "WHERE a.turma.id = :turmaId AND n.dataAvaliacao BETWEEN :dataInicio AND :dataFim " +
+           "GROUP BY a.id, d.id, d.nome, n.tipoAvaliacao")
+    List<MediaNotaDTO> buscarMediasPorTurma(@Param("turmaId") String turmaId, @Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim);
+
+    // Notas individuais para a média final pela política da disciplina, agrupadas por aluno e disciplina
+    @Query("SELECT a.id, n.disciplina.id, n.valor, n.tipoAvaliacao FROM Nota n JOIN n.aluno a " +
+           "WHERE a.turma.id = :turmaId AND n.dataAvaliacao BETWEEN :dataInicio AND :dataFim " +
+           "ORDER BY a.id, n.disciplina.id")
+    List<Object[]> buscarValoresPorTurma(@Param("turmaId") String turmaId, @Param("dataInicio") LocalDate dataInicio, @Param("dataFim") LocalDate dataFim);
 }
@@ -0,0 +1,16 @@
+package com.arthur.gestaoEscolar.model.repository;
+
+import com.arthur.gestaoEscolar.model.dto.NotaDTO;
+import com.arthur.gestaoEscolar.model.entity.Nota;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface NotaRepositoryCustom {
+
+    // Aplica a Specification e projeta direto em NotaDTO, ordenado por (dataAvaliacao, id)
+    List<NotaDTO> buscarProjetado(Specification<Nota> filtro, int limite);
+
+    // Mesma projeção ordenada por (disciplina, dataAvaliacao, id), para agrupar por disciplina
+    List<NotaDTO> buscarProjetadoPorDisciplina(Specification<Nota> filtro, int limite);
+}
@@ -0,0 +1,60 @@
+package com.arthur.gestaoEscolar.model.repository;
+
+import com.arthur.gestaoEscolar.model.dto.NotaDTO;
+import com.arthur.gestaoEscolar.model.entity.Disciplina;
+import com.arthur.gestaoEscolar.model.entity.Nota;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class NotaRepositoryImpl implements NotaRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<NotaDTO> buscarProjetado(Specification<Nota> filtro, int limite) {
+        return this.buscar(filtro, limite, false);
+    }
+
+    @Override
+    public List<NotaDTO> buscarProjetadoPorDisciplina(Specification<Nota> filtro, int limite) {
+        return this.buscar(filtro, limite, true);
+    }
+
+    // Uma única instrução por página: o nome da disciplina vem do JOIN, sem carregar entidades
+    private List<NotaDTO> buscar(Specification<Nota> filtro, int limite, boolean porDisciplina) {
+        CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<NotaDTO> query = cb.createQuery(NotaDTO.class);
+        Root<Nota> nota = query.from(Nota.class);
+        Join<Nota, Disciplina> disciplina = nota.join("disciplina");
+
+        query.select(cb.construct(NotaDTO.class,
+                nota.get("id"), nota.get("aluno").get("id"), disciplina.get("id"), disciplina.get("nome"),
+                nota.get("valor"), nota.get("tipoAvaliacao"), nota.get("dataAvaliacao"), nota.get("observacao")));
+        if (filtro != null) {
+            Predicate predicado = filtro.toPredicate(nota, query, cb);
+            if (predicado != null) {
+                query.where(predicado);
+            }
+        }
+        List<Order> ordem = new ArrayList<>();
+        if (porDisciplina) {
+            ordem.add(cb.asc(disciplina.get("id")));
+        }
+        ordem.add(cb.asc(nota.get("dataAvaliacao")));
+        ordem.add(cb.asc(nota.get("id")));
+        query.orderBy(ordem);
+
+        return this.entityManager.createQuery(query).setMaxResults(limite).getResultList();
+    }
+}
@@ -0,0 +1,79 @@
+package com.arthur.gestaoEscolar.model.repository;
+
+import com.arthur.gestaoEscolar.model.dto.FiltroNotaDTO;
+import com.arthur.gestaoEscolar.model.entity.Nota;
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import com.arthur.gestaoEscolar.util.CursorUtil;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+// Critérios nulos são ignorados: cada método devolve null e o Specification.and descarta
+public final class NotaSpecification {
+
+    private NotaSpecification() {
+    }
+
+    public static Specification<Nota> comFiltro(FiltroNotaDTO filtro) {
+        return Specification.where(doAluno(filtro.getAlunoId()))
+                .and(daDisciplina(filtro.getDisciplinaId()))
+                .and(daTurma(filtro.getTurmaId()))
+                .and(doTipo(filtro.getTipoAvaliacao()))
+                .and(aPartirDe(filtro.getDataInicio()))
+                .and(ate(filtro.getDataFim()))
+                .and(valorMinimo(filtro.getValorMinimo()))
+                .and(valorMaximo(filtro.getValorMaximo()));
+    }
+
+    public static Specification<Nota> doAluno(String alunoId) {
+        return alunoId == null ? null : (root, query, cb) -> cb.equal(root.get("aluno").get("id"), alunoId);
+    }
+
+    public static Specification<Nota> daDisciplina(String disciplinaId) {
+        return disciplinaId == null ? null : (root, query, cb) -> cb.equal(root.get("disciplina").get("id"), disciplinaId);
+    }
+
+    public static Specification<Nota> daTurma(String turmaId) {
+        return turmaId == null ? null : (root, query, cb) -> cb.equal(root.join("aluno").get("turma").get("id"), turmaId);
+    }
+
+    public static Specification<Nota> doTipo(TipoAvaliacao tipoAvaliacao) {
+        return tipoAvaliacao == null ? null : (root, query, cb) -> cb.equal(root.get("tipoAvaliacao"), tipoAvaliacao);
+    }
+
+    public static Specification<Nota> aPartirDe(LocalDate dataInicio) {
+        return dataInicio == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dataAvaliacao"), dataInicio);
+    }
+
+    public static Specification<Nota> ate(LocalDate dataFim) {
+        return dataFim == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("dataAvaliacao"), dataFim);
+    }
+
+    public static Specification<Nota> valorMinimo(Double valor) {
+        return valor == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("valor"), valor);
+    }
+
+    public static Specification<Nota> valorMaximo(Double valor) {
+        return valor == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("valor"), valor);
+    }
+
+    // Paginação por cursor na mesma ordem (dataAvaliacao, id) da listagem geral
+    public static Specification<Nota> apos(CursorUtil.Cursor cursor) {
+        return cursor == null ? null : (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("dataAvaliacao"), cursor.data()),
+                cb.and(cb.equal(root.get("dataAvaliacao"), cursor.data()), cb.greaterThan(root.get("id"), cursor.id())));
+    }
+
+    // Mesma ideia para a ordem (disciplina, dataAvaliacao, id) da listagem agrupada
+    public static Specification<Nota> apos(CursorUtil.CursorAgrupado cursor) {
+        return cursor == null ? null : (root, query, cb) -> {
+            Path<String> disciplinaId = root.get("disciplina").get("id");
+            return cb.or(
+                    cb.greaterThan(disciplinaId, cursor.grupo()),
+                    cb.and(cb.equal(disciplinaId, cursor.grupo()), cb.or(
+                            cb.greaterThan(root.get("dataAvaliacao"), cursor.data()),
+                            cb.and(cb.equal(root.get("dataAvaliacao"), cursor.data()), cb.greaterThan(root.get("id"), cursor.id())))));
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.arthur.gestaoEscolar.model.repository;
+
+import com.arthur.gestaoEscolar.model.entity.PoliticaAvaliacao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PoliticaAvaliacaoRepository extends JpaRepository<PoliticaAvaliacao, String> {
+
+    Optional<PoliticaAvaliacao> findByDisciplinaId(String disciplinaId);
+}
@@ -0,0 +1,38 @@
+package com.arthur.gestaoEscolar.model.repository;
+
+import com.arthur.gestaoEscolar.model.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Update condicional: só uma requisição concorrente consegue rotacionar o mesmo token
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.usadoEm = :agora WHERE r.id = :id AND r.usadoEm IS NULL AND r.revogado = false")
+    int marcarUsado(@Param("id") String id, @Param("agora") LocalDateTime agora);
+
+    // Leitura atual (com trava), e não a do snapshot da transação
+    @Query(value = "SELECT COUNT(*) FROM refresh_tokens WHERE token_hash = :tokenHash AND revogado = false FOR UPDATE", nativeQuery = true)
+    long contarAtivosComTrava(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revogado = true WHERE r.familia = :familia")
+    int revogarFamilia(@Param("familia") String familia);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revogado = true WHERE r.usuarioId = :usuarioId")
+    int revogarPorUsuario(@Param("usuarioId") String usuarioId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiraEm < :limite")
+    int excluirExpirados(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,13 @@
+package com.arthur.gestaoEscolar.model.repository;
+
+import com.arthur.gestaoEscolar.model.entity.ResumoFrequencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ResumoFrequenciaRepository extends JpaRepository<ResumoFrequencia, String> {
+
+    Optional<ResumoFrequencia> findByAlunoIdAndDisciplinaId(String alunoId, String disciplinaId);
+}
@@ -29,4 +29,6 @@ public interface TurmaRepository extends JpaRepository<Turma, String>, JpaSpecif
 
     @Query("SELECT t FROM Turma t JOIN t.disciplinas d WHERE d.id = :disciplinaId")
     List<Turma> findByDisciplinaId(@Param("disciplinaId") String disciplinaId);
+
+    boolean existsByIdAndDisciplinasId(String id, String disciplinaId);
 }
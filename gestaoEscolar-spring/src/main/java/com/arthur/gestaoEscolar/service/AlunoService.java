@@ -8,6 +8,7 @@ import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,6 +25,15 @@ public class AlunoService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private RankingNotaService rankingNotaService;
+
+    @Autowired
+    private NotaService notaService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
     public Aluno buscarPorId(String id) throws GestaoEscolarException {
         return this.alunoRepository.findById(id)
                 .orElseThrow(() -> new GestaoEscolarException("Aluno não encontrado"));
@@ -81,17 +91,28 @@ public class AlunoService {
         alunoEditado.setEmail(Optional.ofNullable(aluno.getEmail()).orElse(alunoEditado.getEmail()));
         alunoEditado.setMatricula(Optional.ofNullable(aluno.getMatricula()).orElse(alunoEditado.getMatricula()));
         
+        String turmaAnteriorId = alunoEditado.getTurma() != null ? alunoEditado.getTurma().getId() : null;
         if (aluno.getTurma() != null) {
             this.verificarTurmaExiste(aluno.getTurma().getId());
             alunoEditado.setTurma(aluno.getTurma());
         }
 
-        return this.salvar(alunoEditado);
+        Aluno alunoSalvo = this.salvar(alunoEditado);
+        if (aluno.getTurma() != null && !aluno.getTurma().getId().equals(turmaAnteriorId)) {
+            this.rankingNotaService.invalidarTurma(turmaAnteriorId);
+            this.rankingNotaService.invalidarTurma(aluno.getTurma().getId());
+        }
+        return alunoSalvo;
     }
 
+    @Transactional
     public void excluir(String id) throws GestaoEscolarException {
-        this.buscarPorId(id);
+        Aluno aluno = this.buscarPorId(id);
+        // As notas saem pelo NotaService, que registra os eventos de exclusão, e não pelo cascade do aluno
+        this.notaService.excluirPorAluno(id);
         this.alunoRepository.deleteById(id);
+        this.usuarioService.revogarAcessos(aluno);
+        this.rankingNotaService.invalidarTurma(aluno.getTurma() != null ? aluno.getTurma().getId() : null);
     }
 
     public void transferirTurma(String alunoId, String novaTurmaId) throws GestaoEscolarException {
@@ -99,8 +120,11 @@ public class AlunoService {
         Turma novaTurma = this.turmaRepository.findById(novaTurmaId)
                 .orElseThrow(() -> new GestaoEscolarException("Turma não encontrada"));
         
+        String turmaAnteriorId = aluno.getTurma() != null ? aluno.getTurma().getId() : null;
         aluno.setTurma(novaTurma);
         this.alunoRepository.save(aluno);
+        this.rankingNotaService.invalidarTurma(turmaAnteriorId);
+        this.rankingNotaService.invalidarTurma(novaTurmaId);
     }
 
     public void verificarMatriculaJaUtilizada(String matricula, String idAlunoAtual) throws GestaoEscolarException {
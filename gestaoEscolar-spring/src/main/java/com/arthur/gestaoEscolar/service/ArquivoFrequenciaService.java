@@ -0,0 +1,115 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.model.repository.FrequenciaArquivadaRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+public class ArquivoFrequenciaService {
+
+    private static final String PARTICAO_FUTURO = "p_futuro";
+
+    @Autowired
+    private FrequenciaArquivadaRepository frequenciaArquivadaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Quantidade de anos letivos (incluindo o atual) que permanecem na tabela quente
+    @Value("${gestaoEscolar.frequencia.arquivo.anos-quentes:2}")
+    private int anosQuentes;
+
+    // Último dia do último ano letivo arquivado: o ano inteiro fica somente leitura, não só até a última aula
+    private volatile LocalDate ultimaDataArquivada;
+
+    // Cada ano arquivado ganha sua partição; sem partições, vale o ano da última aula já arquivada
+    @PostConstruct
+    public void carregarUltimaDataArquivada() {
+        int maiorAno = this.maiorAnoParticionado();
+        if (maiorAno == Integer.MIN_VALUE) {
+            maiorAno = this.frequenciaArquivadaRepository.findUltimaDataArquivada().map(LocalDate::getYear).orElse(Integer.MIN_VALUE);
+        }
+        this.ultimaDataArquivada = maiorAno != Integer.MIN_VALUE ? LocalDate.of(maiorAno, 12, 31) : null;
+    }
+
+    public boolean isArquivada(LocalDate data) {
+        LocalDate ultima = this.ultimaDataArquivada;
+        return ultima != null && data != null && !data.isAfter(ultima);
+    }
+
+    public boolean possuiArquivadas(LocalDate dataInicio) {
+        return this.ultimaDataArquivada != null && (dataInicio == null || this.isArquivada(dataInicio));
+    }
+
+    public int arquivarAno(int ano) throws GestaoEscolarException {
+        if (ano > LocalDate.now().getYear() - this.anosQuentes) {
+            throw new GestaoEscolarException("O ano letivo " + ano + " ainda não pode ser arquivado");
+        }
+
+        // DDL de partição faz commit implícito no MySQL, por isso fica fora da transação de movimentação
+        this.garantirParticao(ano);
+
+        LocalDate inicio = LocalDate.of(ano, 1, 1);
+        LocalDate fim = inicio.plusYears(1);
+        Integer movidas = this.transactionTemplate.execute(status -> {
+            int inseridas = this.jdbcTemplate.update(
+                    "INSERT IGNORE INTO frequencias_arquivo (id, aluno_id, disciplina_id, data_aula, presente, observacao) " +
+                    "SELECT id, aluno_id, disciplina_id, data_aula, presente, observacao FROM frequencias " +
+                    "WHERE data_aula >= ? AND data_aula < ?", inicio, fim);
+            this.jdbcTemplate.update("DELETE FROM frequencias WHERE data_aula >= ? AND data_aula < ?", inicio, fim);
+            return inseridas;
+        });
+
+        LocalDate fimAno = LocalDate.of(ano, 12, 31);
+        if (this.ultimaDataArquivada == null || fimAno.isAfter(this.ultimaDataArquivada)) {
+            this.ultimaDataArquivada = fimAno;
+        }
+        return movidas != null ? movidas : 0;
+    }
+
+    @Scheduled(cron = "${gestaoEscolar.frequencia.arquivo.cron:0 0 4 1 2 *}")
+    public void arquivarAnosEncerrados() {
+        // MIN sobre a coluna usa o índice de data_aula; MIN(YEAR(...)) obrigaria a varrer a tabela
+        LocalDate primeiraAula = this.jdbcTemplate.queryForObject("SELECT MIN(data_aula) FROM frequencias", LocalDate.class);
+        if (primeiraAula == null) {
+            return;
+        }
+        for (int ano = primeiraAula.getYear(); ano <= LocalDate.now().getYear() - this.anosQuentes; ano++) {
+            this.arquivarAno(ano);
+        }
+    }
+
+    private void garantirParticao(int ano) {
+        // Partições só podem ser criadas em ordem; anos anteriores caem na primeira partição que os cobre
+        if (ano <= this.maiorAnoParticionado()) {
+            return;
+        }
+
+        this.jdbcTemplate.execute("ALTER TABLE frequencias_arquivo REORGANIZE PARTITION " + PARTICAO_FUTURO + " INTO (" +
+                "PARTITION p" + ano + " VALUES LESS THAN ('" + (ano + 1) + "-01-01'), " +
+                "PARTITION " + PARTICAO_FUTURO + " VALUES LESS THAN (MAXVALUE))");
+    }
+
+    private int maiorAnoParticionado() {
+        List<String> particoes = this.jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'frequencias_arquivo' AND PARTITION_NAME IS NOT NULL AND PARTITION_NAME <> ?",
+                String.class, PARTICAO_FUTURO);
+        return particoes.stream()
+                .mapToInt(p -> Integer.parseInt(p.substring(1)))
+                .max()
+                .orElse(Integer.MIN_VALUE);
+    }
+}
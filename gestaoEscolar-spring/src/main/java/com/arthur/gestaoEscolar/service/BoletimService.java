@@ -0,0 +1,174 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.model.dto.BoletimTurmaDTO;
+import com.arthur.gestaoEscolar.model.dto.MediaNotaDTO;
+import com.arthur.gestaoEscolar.model.dto.TotalFrequenciaDTO;
+import com.arthur.gestaoEscolar.model.entity.Aluno;
+import com.arthur.gestaoEscolar.model.entity.Disciplina;
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import com.arthur.gestaoEscolar.model.entity.Turma;
+import com.arthur.gestaoEscolar.model.repository.AlunoRepository;
+import com.arthur.gestaoEscolar.model.repository.DisciplinaRepository;
+import com.arthur.gestaoEscolar.model.repository.FrequenciaArquivadaRepository;
+import com.arthur.gestaoEscolar.model.repository.FrequenciaRepository;
+import com.arthur.gestaoEscolar.model.repository.NotaRepository;
+import com.arthur.gestaoEscolar.model.repository.TurmaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class BoletimService {
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private FrequenciaRepository frequenciaRepository;
+
+    @Autowired
+    private FrequenciaArquivadaRepository frequenciaArquivadaRepository;
+
+    @Autowired
+    private ArquivoFrequenciaService arquivoFrequenciaService;
+
+    @Autowired
+    private PoliticaAvaliacaoService politicaAvaliacaoService;
+
+    @Transactional(readOnly = true)
+    public BoletimTurmaDTO gerarBoletim(String turmaId, Integer anoLetivo) throws GestaoEscolarException {
+        Turma turma = this.turmaRepository.findById(turmaId)
+                .orElseThrow(() -> new GestaoEscolarException("Turma não encontrada"));
+        int ano = anoLetivo != null ? anoLetivo : turma.getAnoLetivo();
+        LocalDate dataInicio = LocalDate.of(ano, 1, 1);
+        LocalDate dataFim = LocalDate.of(ano, 12, 31);
+
+        List<Aluno> alunos = this.alunoRepository.findByTurmaIdOrderByNome(turmaId);
+        List<Disciplina> disciplinas = this.disciplinaRepository.findByTurmaIdOrderByNome(turmaId);
+
+        // Médias e frequências já chegam agregadas por aluno x disciplina: uma consulta agrupada para cada
+        List<MediaNotaDTO> medias = this.notaRepository.buscarMediasPorTurma(turmaId, dataInicio, dataFim);
+        List<TotalFrequenciaDTO> totais = new ArrayList<>(this.frequenciaRepository.contarPorTurma(turmaId, dataInicio, dataFim));
+        if (this.arquivoFrequenciaService.possuiArquivadas(dataInicio)) {
+            totais.addAll(this.frequenciaArquivadaRepository.contarPorTurma(turmaId, dataInicio, dataFim));
+        }
+
+        Map<String, Map<String, BoletimTurmaDTO.BoletimDisciplina>> linhas = new LinkedHashMap<>();
+        for (Aluno aluno : alunos) {
+            Map<String, BoletimTurmaDTO.BoletimDisciplina> colunas = new LinkedHashMap<>();
+            for (Disciplina disciplina : disciplinas) {
+                colunas.put(disciplina.getId(), this.novaDisciplina(disciplina.getId(), disciplina.getNome()));
+            }
+            linhas.put(aluno.getId(), colunas);
+        }
+
+        for (MediaNotaDTO media : medias) {
+            BoletimTurmaDTO.BoletimDisciplina item = this.buscarDisciplina(linhas, media.getAlunoId(), media.getDisciplinaId(), media.getDisciplinaNome());
+            if (item == null) {
+                continue;
+            }
+            item.getMediasPorTipo().put(media.getTipoAvaliacao(), media.getMedia());
+            item.setQuantidadeNotas(item.getQuantidadeNotas() + media.getQuantidade());
+        }
+        Map<String, Double> mediasFinais = this.calcularMediasFinais(turmaId, dataInicio, dataFim);
+
+        for (TotalFrequenciaDTO total : totais) {
+            BoletimTurmaDTO.BoletimDisciplina item = this.buscarDisciplina(linhas, total.getAlunoId(), total.getDisciplinaId(), total.getDisciplinaNome());
+            if (item == null) {
+                continue;
+            }
+            item.setTotalAulas(item.getTotalAulas() + total.getTotalAulas());
+            item.setTotalPresencas(item.getTotalPresencas() + total.getTotalPresencas());
+        }
+
+        BoletimTurmaDTO boletim = new BoletimTurmaDTO();
+        boletim.setTurmaId(turma.getId());
+        boletim.setTurmaNome(turma.getNome());
+        boletim.setAnoLetivo(ano);
+        for (Aluno aluno : alunos) {
+            BoletimTurmaDTO.BoletimAluno linha = new BoletimTurmaDTO.BoletimAluno();
+            linha.setAlunoId(aluno.getId());
+            linha.setAlunoNome(aluno.getNome());
+            linha.setMatricula(aluno.getMatricula());
+            for (BoletimTurmaDTO.BoletimDisciplina item : linhas.get(aluno.getId()).values()) {
+                Double media = mediasFinais.get(aluno.getId() + ":" + item.getDisciplinaId());
+                item.setMedia(media != null && !Double.isNaN(media) ? media : null);
+                item.setPercentualPresenca(item.getTotalAulas() > 0 ? item.getTotalPresencas() * 100.0 / item.getTotalAulas() : null);
+                linha.getDisciplinas().add(item);
+            }
+            boletim.getAlunos().add(linha);
+        }
+        return boletim;
+    }
+
+    // Média final de cada aluno x disciplina pela política da disciplina (pesos, descarte, recuperação),
+    // restrita às notas do ano letivo; sem política, a regra é a média simples
+    private Map<String, Double> calcularMediasFinais(String turmaId, LocalDate dataInicio, LocalDate dataFim) {
+        Map<String, Double> mediasFinais = new HashMap<>();
+        double[] valores = new double[16];
+        int[] tipos = new int[16];
+        int quantidade = 0;
+        String alunoAtual = null;
+        String disciplinaAtual = null;
+        for (Object[] nota : this.notaRepository.buscarValoresPorTurma(turmaId, dataInicio, dataFim)) {
+            String alunoId = (String) nota[0];
+            String disciplinaId = (String) nota[1];
+            if (!alunoId.equals(alunoAtual) || !disciplinaId.equals(disciplinaAtual)) {
+                if (alunoAtual != null) {
+                    mediasFinais.put(alunoAtual + ":" + disciplinaAtual,
+                            this.politicaAvaliacaoService.buscarRegra(disciplinaAtual).calcular(valores, tipos, quantidade));
+                }
+                alunoAtual = alunoId;
+                disciplinaAtual = disciplinaId;
+                quantidade = 0;
+            }
+            if (quantidade == valores.length) {
+                valores = Arrays.copyOf(valores, quantidade * 2);
+                tipos = Arrays.copyOf(tipos, quantidade * 2);
+            }
+            valores[quantidade] = ((Number) nota[2]).doubleValue();
+            tipos[quantidade] = ((TipoAvaliacao) nota[3]).ordinal();
+            quantidade++;
+        }
+        if (alunoAtual != null) {
+            mediasFinais.put(alunoAtual + ":" + disciplinaAtual,
+                    this.politicaAvaliacaoService.buscarRegra(disciplinaAtual).calcular(valores, tipos, quantidade));
+        }
+        return mediasFinais;
+    }
+
+    private BoletimTurmaDTO.BoletimDisciplina buscarDisciplina(Map<String, Map<String, BoletimTurmaDTO.BoletimDisciplina>> linhas,
+                                                              String alunoId, String disciplinaId, String disciplinaNome) {
+        Map<String, BoletimTurmaDTO.BoletimDisciplina> colunas = linhas.get(alunoId);
+        if (colunas == null) {
+            return null;
+        }
+        // Disciplina com lançamentos mas fora da grade atual da turma também aparece no boletim
+        return colunas.computeIfAbsent(disciplinaId, id -> this.novaDisciplina(id, disciplinaNome));
+    }
+
+    private BoletimTurmaDTO.BoletimDisciplina novaDisciplina(String disciplinaId, String disciplinaNome) {
+        BoletimTurmaDTO.BoletimDisciplina item = new BoletimTurmaDTO.BoletimDisciplina();
+        item.setDisciplinaId(disciplinaId);
+        item.setDisciplinaNome(disciplinaNome);
+        return item;
+    }
+}
@@ -0,0 +1,207 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.model.dto.EstatisticaNotaDTO;
+import com.arthur.gestaoEscolar.model.entity.EscopoEstatistica;
+import com.arthur.gestaoEscolar.model.entity.EstatisticaNota;
+import com.arthur.gestaoEscolar.model.entity.EventoNota;
+import com.arthur.gestaoEscolar.model.entity.TipoEventoNota;
+import com.arthur.gestaoEscolar.model.repository.EstatisticaNotaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+public class EstatisticaNotaService implements ProjecaoNota {
+
+    private static final int QUANTIDADE_FAIXAS = 101;
+    private static final int[] PERCENTIS = {10, 25, 50, 75, 90};
+
+    private static final String SQL_ATUALIZAR_FAIXA =
+            "ON DUPLICATE KEY UPDATE quantidade = quantidade + VALUES(quantidade), " +
+            "soma = soma + VALUES(soma), soma_quadrados = soma_quadrados + VALUES(soma_quadrados)";
+
+    // Upserts atômicos, um por escopo; a turma vem do próprio aluno na mesma instrução
+    private static final String SQL_AJUSTAR_DISCIPLINA =
+            "INSERT INTO estatisticas_notas (id, escopo, referencia_id, faixa, quantidade, soma, soma_quadrados) " +
+            "VALUES (UUID(), 'DISCIPLINA', ?, ?, ?, ?, ?) " + SQL_ATUALIZAR_FAIXA;
+
+    private static final String SQL_AJUSTAR_TURMA =
+            "INSERT INTO estatisticas_notas (id, escopo, referencia_id, faixa, quantidade, soma, soma_quadrados) " +
+            "SELECT UUID(), 'TURMA', a.turma_id, ?, ?, ?, ? FROM aluno a WHERE a.id = ? AND a.turma_id IS NOT NULL " +
+            SQL_ATUALIZAR_FAIXA;
+
+    private static final String SQL_AJUSTAR_TURMA_DISCIPLINA =
+            "INSERT INTO estatisticas_notas (id, escopo, referencia_id, faixa, quantidade, soma, soma_quadrados) " +
+            "SELECT UUID(), 'TURMA_DISCIPLINA', CONCAT(a.turma_id, ':', ?), ?, ?, ?, ? FROM aluno a WHERE a.id = ? AND a.turma_id IS NOT NULL " +
+            SQL_ATUALIZAR_FAIXA;
+
+    // FLOOR(x + 0.5) em vez de ROUND: mesmo arredondamento do Java, sem depender da libc do MySQL
+    private static final String EXPRESSAO_FAIXA = "FLOOR(n.valor * 10 + 0.5)";
+
+    private static final String SQL_RECONSTRUIR_DISCIPLINA =
+            "INSERT INTO estatisticas_notas (id, escopo, referencia_id, faixa, quantidade, soma, soma_quadrados) " +
+            "SELECT UUID(), 'DISCIPLINA', n.disciplina_id, " + EXPRESSAO_FAIXA + ", COUNT(*), SUM(n.valor), SUM(n.valor * n.valor) " +
+            "FROM notas n GROUP BY n.disciplina_id, " + EXPRESSAO_FAIXA;
+
+    private static final String SQL_RECONSTRUIR_TURMA =
+            "INSERT INTO estatisticas_notas (id, escopo, referencia_id, faixa, quantidade, soma, soma_quadrados) " +
+            "SELECT UUID(), 'TURMA', a.turma_id, " + EXPRESSAO_FAIXA + ", COUNT(*), SUM(n.valor), SUM(n.valor * n.valor) " +
+            "FROM notas n JOIN aluno a ON a.id = n.aluno_id WHERE a.turma_id IS NOT NULL " +
+            "GROUP BY a.turma_id, " + EXPRESSAO_FAIXA;
+
+    private static final String SQL_RECONSTRUIR_TURMA_DISCIPLINA =
+            "INSERT INTO estatisticas_notas (id, escopo, referencia_id, faixa, quantidade, soma, soma_quadrados) " +
+            "SELECT UUID(), 'TURMA_DISCIPLINA', CONCAT(a.turma_id, ':', n.disciplina_id), " + EXPRESSAO_FAIXA + ", " +
+            "COUNT(*), SUM(n.valor), SUM(n.valor * n.valor) " +
+            "FROM notas n JOIN aluno a ON a.id = n.aluno_id WHERE a.turma_id IS NOT NULL " +
+            "GROUP BY a.turma_id, n.disciplina_id, " + EXPRESSAO_FAIXA;
+
+    @Autowired
+    private EstatisticaNotaRepository estatisticaNotaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // sinal = +1 para nota incluída, -1 para nota removida
+    public record Ajuste(String alunoId, String disciplinaId, double valor, int sinal) {
+    }
+
+    @Override
+    public void aplicar(List<EventoNota> eventos) {
+        List<Ajuste> ajustes = new ArrayList<>();
+        for (EventoNota evento : eventos) {
+            if (evento.getTipo() == TipoEventoNota.ATUALIZADA && evento.getValorAnterior().equals(evento.getValorNovo())) {
+                continue;
+            }
+            if (evento.getValorAnterior() != null) {
+                ajustes.add(new Ajuste(evento.getAlunoId(), evento.getDisciplinaId(), evento.getValorAnterior(), -1));
+            }
+            if (evento.getValorNovo() != null) {
+                ajustes.add(new Ajuste(evento.getAlunoId(), evento.getDisciplinaId(), evento.getValorNovo(), 1));
+            }
+        }
+        this.ajustar(ajustes);
+    }
+
+    @Override
+    public void reiniciar() {
+        this.jdbcTemplate.update("DELETE FROM estatisticas_notas");
+    }
+
+    public void ajustar(List<Ajuste> ajustes) {
+        if (ajustes.isEmpty()) {
+            return;
+        }
+        // Ordem fixa das chaves reduz deadlocks entre lotes concorrentes
+        List<Ajuste> ordenados = new ArrayList<>(ajustes);
+        ordenados.sort(Comparator.comparing(Ajuste::disciplinaId).thenComparingInt(a -> faixa(a.valor())));
+
+        List<Object[]> disciplinas = new ArrayList<>();
+        List<Object[]> turmas = new ArrayList<>();
+        List<Object[]> turmasDisciplinas = new ArrayList<>();
+        for (Ajuste ajuste : ordenados) {
+            int faixa = faixa(ajuste.valor());
+            long quantidade = ajuste.sinal();
+            double soma = ajuste.sinal() * ajuste.valor();
+            double somaQuadrados = ajuste.sinal() * ajuste.valor() * ajuste.valor();
+            disciplinas.add(new Object[]{ajuste.disciplinaId(), faixa, quantidade, soma, somaQuadrados});
+            turmas.add(new Object[]{faixa, quantidade, soma, somaQuadrados, ajuste.alunoId()});
+            turmasDisciplinas.add(new Object[]{ajuste.disciplinaId(), faixa, quantidade, soma, somaQuadrados, ajuste.alunoId()});
+        }
+        this.jdbcTemplate.batchUpdate(SQL_AJUSTAR_DISCIPLINA, disciplinas);
+        this.jdbcTemplate.batchUpdate(SQL_AJUSTAR_TURMA, turmas);
+        this.jdbcTemplate.batchUpdate(SQL_AJUSTAR_TURMA_DISCIPLINA, turmasDisciplinas);
+    }
+
+    public EstatisticaNotaDTO buscarPorDisciplina(String disciplinaId) {
+        return this.calcular(EscopoEstatistica.DISCIPLINA, disciplinaId);
+    }
+
+    public EstatisticaNotaDTO buscarPorTurma(String turmaId) {
+        return this.calcular(EscopoEstatistica.TURMA, turmaId);
+    }
+
+    public EstatisticaNotaDTO buscarPorTurmaEDisciplina(String turmaId, String disciplinaId) {
+        return this.calcular(EscopoEstatistica.TURMA_DISCIPLINA, turmaId + ":" + disciplinaId);
+    }
+
+    // Recalcula o histograma a partir das notas; corrige trocas de turma e desvios de ponto flutuante
+    @Transactional
+    @Scheduled(cron = "${gestaoEscolar.notas.estatisticas.cron:0 15 3 * * *}")
+    public int reconstruir() {
+        this.jdbcTemplate.update("DELETE FROM estatisticas_notas");
+        return this.jdbcTemplate.update(SQL_RECONSTRUIR_DISCIPLINA)
+                + this.jdbcTemplate.update(SQL_RECONSTRUIR_TURMA)
+                + this.jdbcTemplate.update(SQL_RECONSTRUIR_TURMA_DISCIPLINA);
+    }
+
+    // No máximo 101 faixas por escopo: custo constante, independente da quantidade de notas
+    private EstatisticaNotaDTO calcular(EscopoEstatistica escopo, String referenciaId) {
+        long[] quantidades = new long[QUANTIDADE_FAIXAS];
+        long quantidade = 0;
+        double soma = 0;
+        double somaQuadrados = 0;
+        for (EstatisticaNota faixa : this.estatisticaNotaRepository.buscarFaixas(escopo, referenciaId)) {
+            if (faixa.getFaixa() < 0 || faixa.getFaixa() >= QUANTIDADE_FAIXAS) {
+                continue;
+            }
+            quantidades[faixa.getFaixa()] += faixa.getQuantidade();
+            quantidade += faixa.getQuantidade();
+            soma += faixa.getSoma();
+            somaQuadrados += faixa.getSomaQuadrados();
+        }
+
+        EstatisticaNotaDTO estatistica = new EstatisticaNotaDTO();
+        estatistica.setEscopo(escopo);
+        estatistica.setReferenciaId(referenciaId);
+        estatistica.setQuantidade(quantidade);
+        if (quantidade == 0) {
+            return estatistica;
+        }
+
+        double media = soma / quantidade;
+        estatistica.setMedia(media);
+        estatistica.setDesvioPadrao(Math.sqrt(Math.max(0.0, somaQuadrados / quantidade - media * media)));
+
+        long[] histograma = estatistica.getHistograma();
+        for (int faixa = 0; faixa < QUANTIDADE_FAIXAS; faixa++) {
+            if (quantidades[faixa] == 0) {
+                continue;
+            }
+            if (estatistica.getMinimo() == null) {
+                estatistica.setMinimo(faixa / 10.0);
+            }
+            estatistica.setMaximo(faixa / 10.0);
+            histograma[Math.min(faixa / 10, histograma.length - 1)] += quantidades[faixa];
+        }
+
+        for (int percentil : PERCENTIS) {
+            estatistica.getPercentis().put("p" + percentil, this.percentil(quantidades, quantidade, percentil));
+        }
+        estatistica.setMediana(estatistica.getPercentis().get("p50"));
+        return estatistica;
+    }
+
+    // Método do rank mais próximo sobre o histograma
+    private double percentil(long[] quantidades, long total, int percentil) {
+        long posicao = Math.max(1, (long) Math.ceil(percentil / 100.0 * total));
+        long acumulado = 0;
+        for (int faixa = 0; faixa < quantidades.length; faixa++) {
+            acumulado += quantidades[faixa];
+            if (acumulado >= posicao) {
+                return faixa / 10.0;
+            }
+        }
+        return (quantidades.length - 1) / 10.0;
+    }
+
+    private static int faixa(double valor) {
+        return (int) Math.floor(valor * 10 + 0.5);
+    }
+}
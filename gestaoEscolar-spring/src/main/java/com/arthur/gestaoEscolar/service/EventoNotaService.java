@@ -0,0 +1,157 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.model.entity.EventoNota;
+import com.arthur.gestaoEscolar.model.entity.Nota;
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import com.arthur.gestaoEscolar.model.entity.TipoEventoNota;
+import com.arthur.gestaoEscolar.model.repository.EventoNotaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class EventoNotaService {
+
+    private static final int TAMANHO_PAGINA_REPLAY = 1000;
+
+    private static final String SQL_INSERIR =
+            "INSERT INTO eventos_notas (tipo, nota_id, aluno_id, disciplina_id, tipo_avaliacao, data_avaliacao, " +
+            "valor_anterior, valor_novo, usuario, ocorrido_em) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_BUSCAR_APOS =
+            "SELECT id, tipo, nota_id, aluno_id, disciplina_id, tipo_avaliacao, data_avaliacao, valor_anterior, valor_novo, usuario, ocorrido_em " +
+            "FROM eventos_notas WHERE id > ? ORDER BY id LIMIT ?";
+
+    // Replay via JDBC: os eventos lidos não se acumulam no contexto de persistência
+    private static final RowMapper<EventoNota> MAPEADOR = (rs, linha) -> {
+        EventoNota evento = new EventoNota();
+        evento.setId(rs.getLong("id"));
+        evento.setTipo(TipoEventoNota.valueOf(rs.getString("tipo")));
+        evento.setNotaId(rs.getString("nota_id"));
+        evento.setAlunoId(rs.getString("aluno_id"));
+        evento.setDisciplinaId(rs.getString("disciplina_id"));
+        String tipoAvaliacao = rs.getString("tipo_avaliacao");
+        evento.setTipoAvaliacao(tipoAvaliacao != null ? TipoAvaliacao.valueOf(tipoAvaliacao) : null);
+        Date dataAvaliacao = rs.getDate("data_avaliacao");
+        evento.setDataAvaliacao(dataAvaliacao != null ? dataAvaliacao.toLocalDate() : null);
+        evento.setValorAnterior(rs.getObject("valor_anterior", Double.class));
+        evento.setValorNovo(rs.getObject("valor_novo", Double.class));
+        evento.setUsuario(rs.getString("usuario"));
+        evento.setOcorridoEm(rs.getTimestamp("ocorrido_em").toLocalDateTime());
+        return evento;
+    };
+
+    @Autowired
+    private EventoNotaRepository eventoNotaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private List<ProjecaoNota> projecoes;
+
+    public EventoNota criada(Nota nota) {
+        return this.novoEvento(TipoEventoNota.CRIADA, nota, null, nota.getValor());
+    }
+
+    // Para inserções feitas direto via JDBC, sem entidade Nota
+    public EventoNota criada(String notaId, String alunoId, String disciplinaId, TipoAvaliacao tipoAvaliacao,
+                             LocalDate dataAvaliacao, double valor) {
+        return this.novoEvento(TipoEventoNota.CRIADA, notaId, alunoId, disciplinaId, tipoAvaliacao, dataAvaliacao, null, valor);
+    }
+
+    public EventoNota atualizada(Nota nota, double valorAnterior) {
+        return this.novoEvento(TipoEventoNota.ATUALIZADA, nota, valorAnterior, nota.getValor());
+    }
+
+    public EventoNota excluida(Nota nota) {
+        return this.novoEvento(TipoEventoNota.EXCLUIDA, nota, nota.getValor(), null);
+    }
+
+    // Deve rodar na transação da alteração: o evento e as projeções são gravados junto com a nota
+    public void publicar(List<EventoNota> eventos) {
+        if (eventos.isEmpty()) {
+            return;
+        }
+        List<Object[]> parametros = new ArrayList<>(eventos.size());
+        for (EventoNota evento : eventos) {
+            parametros.add(new Object[]{
+                    evento.getTipo().name(), evento.getNotaId(), evento.getAlunoId(), evento.getDisciplinaId(),
+                    evento.getTipoAvaliacao() != null ? evento.getTipoAvaliacao().name() : null,
+                    evento.getDataAvaliacao() != null ? Date.valueOf(evento.getDataAvaliacao()) : null,
+                    evento.getValorAnterior(), evento.getValorNovo(), evento.getUsuario(), Timestamp.valueOf(evento.getOcorridoEm())});
+        }
+        this.jdbcTemplate.batchUpdate(SQL_INSERIR, parametros);
+        for (ProjecaoNota projecao : this.projecoes) {
+            projecao.aplicar(eventos);
+        }
+    }
+
+    public List<EventoNota> buscarHistoricoNota(String notaId) {
+        return this.eventoNotaRepository.findByNotaIdOrderById(notaId);
+    }
+
+    public List<EventoNota> buscarHistoricoAlunoDisciplina(String alunoId, String disciplinaId) {
+        return this.eventoNotaRepository.findByAlunoIdAndDisciplinaIdOrderById(alunoId, disciplinaId);
+    }
+
+    // Reinicia todas as projeções e reaplica o log inteiro, em páginas e na ordem dos ids
+    @Transactional
+    public long reprocessar() {
+        for (ProjecaoNota projecao : this.projecoes) {
+            projecao.reiniciar();
+        }
+        long ultimoId = 0;
+        long total = 0;
+        List<EventoNota> pagina;
+        do {
+            pagina = this.jdbcTemplate.query(SQL_BUSCAR_APOS, MAPEADOR, ultimoId, TAMANHO_PAGINA_REPLAY);
+            if (pagina.isEmpty()) {
+                break;
+            }
+            for (ProjecaoNota projecao : this.projecoes) {
+                projecao.aplicar(pagina);
+            }
+            ultimoId = pagina.get(pagina.size() - 1).getId();
+            total += pagina.size();
+        } while (pagina.size() == TAMANHO_PAGINA_REPLAY);
+        return total;
+    }
+
+    private EventoNota novoEvento(TipoEventoNota tipo, Nota nota, Double valorAnterior, Double valorNovo) {
+        return this.novoEvento(tipo, nota.getId(), nota.getAluno().getId(), nota.getDisciplina().getId(),
+                nota.getTipoAvaliacao(), nota.getDataAvaliacao(), valorAnterior, valorNovo);
+    }
+
+    private EventoNota novoEvento(TipoEventoNota tipo, String notaId, String alunoId, String disciplinaId, TipoAvaliacao tipoAvaliacao,
+                                  LocalDate dataAvaliacao, Double valorAnterior, Double valorNovo) {
+        EventoNota evento = new EventoNota();
+        evento.setTipo(tipo);
+        evento.setNotaId(notaId);
+        evento.setAlunoId(alunoId);
+        evento.setDisciplinaId(disciplinaId);
+        evento.setTipoAvaliacao(tipoAvaliacao);
+        evento.setDataAvaliacao(dataAvaliacao);
+        evento.setValorAnterior(valorAnterior);
+        evento.setValorNovo(valorNovo);
+        evento.setUsuario(this.usuarioAtual());
+        evento.setOcorridoEm(LocalDateTime.now());
+        return evento;
+    }
+
+    private String usuarioAtual() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+}
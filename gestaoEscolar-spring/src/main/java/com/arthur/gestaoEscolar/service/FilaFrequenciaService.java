@@ -0,0 +1,432 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.exception.FilaIndisponivelException;
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.model.dto.ChamadaDTO;
+import com.arthur.gestaoEscolar.model.dto.EnvioFrequenciaDTO;
+import com.arthur.gestaoEscolar.model.dto.FrequenciaDTO;
+import com.arthur.gestaoEscolar.model.dto.ResultadoLoteDTO;
+import com.arthur.gestaoEscolar.model.entity.Frequencia;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class FilaFrequenciaService {
+
+    public static final String STATUS_PENDENTE = "PENDENTE";
+    public static final String STATUS_CONCLUIDO = "CONCLUIDO";
+    public static final String STATUS_ERRO = "ERRO";
+
+    private static final String ARQUIVO_RECEBIDOS = "recebidos.log";
+    private static final String ARQUIVO_PROCESSADOS = "processados.log";
+    private static final long ESPERA_FALHA_MS = 5_000;
+    private static final long ESPERA_ENCERRAMENTO_MS = 30_000;
+
+    // Marca o envio como aplicado na transação das gravações; 0 linhas = já aplicado antes de uma queda
+    private static final String SQL_MARCAR_APLICADO =
+            "INSERT IGNORE INTO envios_fila_frequencia (id, processado_em) VALUES (?, ?)";
+
+    public enum TipoEnvio {
+        FREQUENCIA, PRESENCA_LOTE, FALTA_LOTE, CHAMADA
+    }
+
+    // Linha do log local: guarda o suficiente para refazer a chamada ao FrequenciaService
+    public record Envio(String id, TipoEnvio tipo, LocalDateTime recebidoEm, String disciplinaId, LocalDate dataAula,
+                        List<String> alunosIds, ChamadaDTO chamada, FrequenciaDTO frequencia) {
+    }
+
+    @Autowired
+    private FrequenciaService frequenciaService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${gestaoEscolar.frequencia.fila.enabled:false}")
+    private boolean enabled;
+
+    @Value("${gestaoEscolar.frequencia.fila.diretorio:dados/fila-frequencia}")
+    private String diretorio;
+
+    // Envios aceitos e ainda não gravados no banco; acima disso a API responde 503
+    @Value("${gestaoEscolar.frequencia.fila.capacidade:5000}")
+    private int capacidade;
+
+    @Value("${gestaoEscolar.frequencia.fila.tamanho-lote:20}")
+    private int tamanhoLote;
+
+    @Value("${gestaoEscolar.frequencia.fila.maximo-tentativas:5}")
+    private int maximoTentativas;
+
+    @Value("${gestaoEscolar.frequencia.fila.retencao-minutos:1440}")
+    private long retencaoMinutos;
+
+    private final BlockingDeque<Envio> fila = new LinkedBlockingDeque<>();
+    private final Map<String, EnvioFrequenciaDTO> envios = new ConcurrentHashMap<>();
+    private final Map<String, Integer> tentativas = new ConcurrentHashMap<>();
+
+    // Protege os arquivos de log e o contador de pendentes
+    private final Object trava = new Object();
+    private int pendentes;
+    private FileOutputStream recebidos;
+    private FileOutputStream processados;
+    private boolean fechado;
+    // Último truncamento dos logs: marcas anteriores não podem mais ser reprocessadas
+    private volatile LocalDateTime compactadoEm;
+
+    private volatile boolean ativo;
+    private Thread consumidor;
+
+    @PostConstruct
+    public void iniciar() throws IOException {
+        if (!this.enabled) {
+            return;
+        }
+
+        Path pasta = Paths.get(this.diretorio);
+        Files.createDirectories(pasta);
+        List<Envio> recuperados = this.recuperar(pasta.resolve(ARQUIVO_RECEBIDOS), pasta.resolve(ARQUIVO_PROCESSADOS));
+
+        this.recebidos = new FileOutputStream(pasta.resolve(ARQUIVO_RECEBIDOS).toFile(), true);
+        this.processados = new FileOutputStream(pasta.resolve(ARQUIVO_PROCESSADOS).toFile(), true);
+        for (Envio envio : recuperados) {
+            this.envios.put(envio.id(), this.status(envio));
+            this.fila.add(envio);
+            this.pendentes++;
+        }
+
+        this.ativo = true;
+        this.consumidor = new Thread(this::consumir, "fila-frequencia");
+        this.consumidor.setDaemon(true);
+        this.consumidor.start();
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException, IOException {
+        if (this.consumidor == null) {
+            return;
+        }
+        // Primeiro deixa o lote em andamento terminar; o restante continua no log para o próximo início
+        this.ativo = false;
+        this.consumidor.join(ESPERA_ENCERRAMENTO_MS);
+        if (this.consumidor.isAlive()) {
+            // Lote preso (banco lento, por exemplo): interrompe e aguarda a transação ser desfeita
+            this.consumidor.interrupt();
+            this.consumidor.join(ESPERA_ENCERRAMENTO_MS);
+        }
+        synchronized (this.trava) {
+            // Se o consumidor ainda não saiu, concluir() deixa de escrever; a marca no banco evita reaplicar
+            this.fechado = true;
+            this.recebidos.close();
+            this.processados.close();
+        }
+    }
+
+    public EnvioFrequenciaDTO enfileirarFrequencia(FrequenciaDTO frequenciaDTO) throws GestaoEscolarException {
+        if (frequenciaDTO.getAlunoId() == null || frequenciaDTO.getAlunoId().trim().isEmpty()) {
+            throw new GestaoEscolarException("ID do aluno é obrigatório");
+        }
+        this.validarDisciplinaEData(frequenciaDTO.getDisciplinaId(), frequenciaDTO.getDataAula());
+        if (frequenciaDTO.getPresente() == null) {
+            throw new GestaoEscolarException("O status de presença não pode ser nulo");
+        }
+        return this.enfileirar(new Envio(UUID.randomUUID().toString(), TipoEnvio.FREQUENCIA, LocalDateTime.now(),
+                null, null, null, null, frequenciaDTO));
+    }
+
+    public EnvioFrequenciaDTO enfileirarPresencaEmLote(String disciplinaId, LocalDate dataAula, List<String> alunosPresentes) throws GestaoEscolarException {
+        return this.enfileirarLote(TipoEnvio.PRESENCA_LOTE, disciplinaId, dataAula, alunosPresentes);
+    }
+
+    public EnvioFrequenciaDTO enfileirarFaltaEmLote(String disciplinaId, LocalDate dataAula, List<String> alunosFaltantes) throws GestaoEscolarException {
+        return this.enfileirarLote(TipoEnvio.FALTA_LOTE, disciplinaId, dataAula, alunosFaltantes);
+    }
+
+    public EnvioFrequenciaDTO enfileirarChamada(ChamadaDTO chamadaDTO) throws GestaoEscolarException {
+        if (chamadaDTO.getTurmaId() == null || chamadaDTO.getTurmaId().trim().isEmpty()) {
+            throw new GestaoEscolarException("ID da turma é obrigatório");
+        }
+        this.validarDisciplinaEData(chamadaDTO.getDisciplinaId(), chamadaDTO.getDataAula());
+        return this.enfileirar(new Envio(UUID.randomUUID().toString(), TipoEnvio.CHAMADA, LocalDateTime.now(),
+                null, null, null, chamadaDTO, null));
+    }
+
+    public EnvioFrequenciaDTO buscarEnvio(String id) throws GestaoEscolarException {
+        EnvioFrequenciaDTO envio = this.envios.get(id);
+        if (envio == null) {
+            throw new GestaoEscolarException("Envio não encontrado");
+        }
+        return envio;
+    }
+
+    @Scheduled(fixedDelayString = "${gestaoEscolar.frequencia.fila.limpeza-ms:600000}")
+    public void removerEnviosAntigos() {
+        LocalDateTime limite = LocalDateTime.now().minusMinutes(this.retencaoMinutos);
+        this.envios.values().removeIf(e -> e.getProcessadoEm() != null && e.getProcessadoEm().isBefore(limite));
+
+        LocalDateTime compactado = this.compactadoEm;
+        if (compactado != null) {
+            this.jdbcTemplate.update("DELETE FROM envios_fila_frequencia WHERE processado_em < ?", compactado);
+        }
+    }
+
+    private EnvioFrequenciaDTO enfileirarLote(TipoEnvio tipo, String disciplinaId, LocalDate dataAula, List<String> alunosIds) throws GestaoEscolarException {
+        if (alunosIds == null || alunosIds.isEmpty()) {
+            throw new GestaoEscolarException("A lista de alunos não pode ser vazia");
+        }
+        this.validarDisciplinaEData(disciplinaId, dataAula);
+        return this.enfileirar(new Envio(UUID.randomUUID().toString(), tipo, LocalDateTime.now(),
+                disciplinaId, dataAula, List.copyOf(alunosIds), null, null));
+    }
+
+    // Só validações em memória: a requisição não ocupa conexão do pool
+    private void validarDisciplinaEData(String disciplinaId, LocalDate dataAula) throws GestaoEscolarException {
+        if (disciplinaId == null || disciplinaId.trim().isEmpty()) {
+            throw new GestaoEscolarException("ID da disciplina é obrigatório");
+        }
+        this.frequenciaService.validarDataAula(dataAula);
+    }
+
+    private EnvioFrequenciaDTO enfileirar(Envio envio) throws GestaoEscolarException {
+        if (!this.enabled) {
+            throw new FilaIndisponivelException("Fila de frequências desabilitada");
+        }
+
+        EnvioFrequenciaDTO status = this.status(envio);
+        synchronized (this.trava) {
+            if (this.fechado) {
+                throw new FilaIndisponivelException("Fila de frequências encerrada");
+            }
+            if (this.pendentes >= this.capacidade) {
+                throw new FilaIndisponivelException("Fila de frequências cheia, tente novamente em instantes");
+            }
+            // O envio só é confirmado ao cliente depois de estar em disco
+            this.gravar(this.recebidos, this.serializar(envio), true);
+            this.pendentes++;
+            this.envios.put(envio.id(), status);
+            this.fila.add(envio);
+        }
+        return status;
+    }
+
+    private void consumir() {
+        List<Envio> lote = new ArrayList<>(this.tamanhoLote);
+        while (this.ativo) {
+            try {
+                Envio primeiro = this.fila.poll(500, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                this.fila.drainTo(lote, this.tamanhoLote - 1);
+                this.processarLote(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Falha de infraestrutura (banco fora, por exemplo): devolve o que falta à frente da fila e espera
+                this.devolverPendentes(lote, e);
+                try {
+                    Thread.sleep(ESPERA_FALHA_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void processarLote(List<Envio> lote) {
+        Map<String, ResultadoLoteDTO> resultados;
+        try {
+            // Todo o lote em uma transação: uma conexão e um commit
+            resultados = this.transactionTemplate.execute(s -> {
+                Map<String, ResultadoLoteDTO> r = new LinkedHashMap<>();
+                for (Envio envio : lote) {
+                    r.put(envio.id(), this.executar(envio));
+                }
+                return r;
+            });
+        } catch (RuntimeException e) {
+            if (lote.size() == 1) {
+                if (!(e instanceof GestaoEscolarException)) {
+                    throw e;
+                }
+                this.concluir(lote.get(0), null, e.getMessage());
+                return;
+            }
+            // Algum envio falhou: refaz um a um para isolar o erro
+            for (Envio envio : lote) {
+                try {
+                    this.concluir(envio, this.transactionTemplate.execute(s -> this.executar(envio)), null);
+                } catch (GestaoEscolarException erro) {
+                    this.concluir(envio, null, erro.getMessage());
+                }
+            }
+            return;
+        }
+        for (Envio envio : lote) {
+            this.concluir(envio, resultados.get(envio.id()), null);
+        }
+    }
+
+    private ResultadoLoteDTO executar(Envio envio) {
+        if (this.jdbcTemplate.update(SQL_MARCAR_APLICADO, envio.id(), LocalDateTime.now()) == 0) {
+            // Aplicado e confirmado antes de uma queda, mas não registrado em processados.log: reaplicar
+            // sobrescreveria gravações feitas depois dele
+            ResultadoLoteDTO resultado = new ResultadoLoteDTO();
+            resultado.setTotalRecebidos(envio.alunosIds() != null ? envio.alunosIds().size() : 1);
+            return resultado;
+        }
+        return switch (envio.tipo()) {
+            case FREQUENCIA -> {
+                Frequencia frequencia = this.frequenciaService.salvarComDTO(envio.frequencia());
+                ResultadoLoteDTO resultado = new ResultadoLoteDTO();
+                resultado.setTotalRecebidos(1);
+                resultado.adicionarSucesso(frequencia.getAluno().getId());
+                yield resultado;
+            }
+            case PRESENCA_LOTE -> this.frequenciaService.marcarPresencaEmLote(envio.disciplinaId(), envio.dataAula(), envio.alunosIds());
+            case FALTA_LOTE -> this.frequenciaService.marcarFaltaEmLote(envio.disciplinaId(), envio.dataAula(), envio.alunosIds());
+            case CHAMADA -> this.frequenciaService.registrarChamada(envio.chamada());
+        };
+    }
+
+    private void devolverPendentes(List<Envio> lote, RuntimeException causa) {
+        for (int i = lote.size() - 1; i >= 0; i--) {
+            Envio envio = lote.get(i);
+            EnvioFrequenciaDTO status = this.envios.get(envio.id());
+            if (status != null && !STATUS_PENDENTE.equals(status.getStatus())) {
+                continue;
+            }
+            int tentativa = this.tentativas.merge(envio.id(), 1, Integer::sum);
+            if (tentativa >= this.maximoTentativas) {
+                this.concluir(envio, null, "Falha ao gravar frequências: " + causa.getMessage());
+            } else {
+                this.fila.addFirst(envio);
+            }
+        }
+    }
+
+    private void concluir(Envio envio, ResultadoLoteDTO resultado, String erro) {
+        // Substitui o objeto em vez de alterá-lo: quem consulta nunca vê um status pela metade
+        EnvioFrequenciaDTO status = this.status(envio);
+        status.setResultado(resultado);
+        status.setMensagem(erro);
+        status.setProcessadoEm(LocalDateTime.now());
+        status.setStatus(erro == null ? STATUS_CONCLUIDO : STATUS_ERRO);
+        this.envios.put(envio.id(), status);
+        this.tentativas.remove(envio.id());
+
+        synchronized (this.trava) {
+            if (this.fechado) {
+                return;
+            }
+            // Sem fsync: perder esta linha só faz o envio ser reprocessado, e a marca no banco o ignora
+            this.gravar(this.processados, envio.id(), false);
+            this.pendentes--;
+            if (this.pendentes == 0) {
+                this.compactar();
+            }
+        }
+    }
+
+    private void compactar() {
+        try {
+            this.recebidos.getChannel().truncate(0);
+            this.processados.getChannel().truncate(0);
+            this.compactadoEm = LocalDateTime.now();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Envio> recuperar(Path arquivoRecebidos, Path arquivoProcessados) throws IOException {
+        if (!Files.exists(arquivoRecebidos)) {
+            return List.of();
+        }
+        Set<String> processados = Files.exists(arquivoProcessados)
+                ? new HashSet<>(Files.readAllLines(arquivoProcessados, StandardCharsets.UTF_8))
+                : Set.of();
+
+        List<Envio> pendentes = new ArrayList<>();
+        for (String linha : Files.readAllLines(arquivoRecebidos, StandardCharsets.UTF_8)) {
+            if (linha.isBlank()) {
+                continue;
+            }
+            try {
+                Envio envio = this.objectMapper.readValue(linha, Envio.class);
+                if (!processados.contains(envio.id())) {
+                    pendentes.add(envio);
+                }
+            } catch (JsonProcessingException e) {
+                // Linha truncada por queda durante a escrita: nunca foi confirmada ao cliente
+            }
+        }
+        return pendentes;
+    }
+
+    private String serializar(Envio envio) {
+        try {
+            return this.objectMapper.writeValueAsString(envio);
+        } catch (JsonProcessingException e) {
+            throw new GestaoEscolarException("Erro ao registrar envio de frequência", e);
+        }
+    }
+
+    private void gravar(FileOutputStream arquivo, String linha, boolean sincronizar) {
+        try {
+            arquivo.write((linha + "\n").getBytes(StandardCharsets.UTF_8));
+            if (sincronizar) {
+                arquivo.getFD().sync();
+            }
+        } catch (IOException e) {
+            throw new FilaIndisponivelException("Erro ao gravar o log da fila de frequências");
+        }
+    }
+
+    private EnvioFrequenciaDTO status(Envio envio) {
+        EnvioFrequenciaDTO status = new EnvioFrequenciaDTO();
+        status.setId(envio.id());
+        status.setTipo(envio.tipo().name());
+        status.setStatus(STATUS_PENDENTE);
+        status.setRecebidoEm(envio.recebidoEm());
+        return status;
+    }
+}
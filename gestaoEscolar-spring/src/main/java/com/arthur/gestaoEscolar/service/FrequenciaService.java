@@ -1,23 +1,59 @@
 package com.arthur.gestaoEscolar.service;
 
 import com.arthur.gestaoEscolar.model.entity.Frequencia;
-import com.arthur.gestaoEscolar.model.entity.Aluno;
-import com.arthur.gestaoEscolar.model.entity.Disciplina;
+import com.arthur.gestaoEscolar.model.entity.FrequenciaArquivada;
+import com.arthur.gestaoEscolar.model.dto.ChamadaDTO;
 import com.arthur.gestaoEscolar.model.dto.FrequenciaDTO;
+import com.arthur.gestaoEscolar.model.dto.PaginaCursorDTO;
+import com.arthur.gestaoEscolar.model.dto.ResultadoLoteDTO;
 import com.arthur.gestaoEscolar.model.repository.FrequenciaRepository;
+import com.arthur.gestaoEscolar.model.repository.FrequenciaArquivadaRepository;
 import com.arthur.gestaoEscolar.model.repository.AlunoRepository;
 import com.arthur.gestaoEscolar.model.repository.DisciplinaRepository;
+import com.arthur.gestaoEscolar.model.repository.TurmaRepository;
 import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.util.CursorUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Date;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 public class FrequenciaService {
 
+    private static final int TAMANHO_PAGINA_PADRAO = 100;
+    private static final int TAMANHO_PAGINA_MAXIMO = 500;
+    private static final int TAMANHO_LOTE_EXPORTACAO = 1000;
+    private static final String MENSAGEM_JA_REGISTRADA = "Frequência já registrada";
+    private static final String MENSAGEM_DUPLICADA = "Já existe frequência registrada para este aluno nesta disciplina e data";
+
+    // Upsert que nunca falha por duplicidade: se a aula já existe, a linha fica como está (e bloqueada)
+    private static final String SQL_INSERIR_SE_AUSENTE =
+            "INSERT INTO frequencias (id, aluno_id, disciplina_id, data_aula, presente, observacao, data_criacao, data_atualizacao) " +
+            "VALUES (?, ?, ?, ?, ?, ?, CURRENT_DATE, CURRENT_DATE) ON DUPLICATE KEY UPDATE id = id";
+
+    private static final String SQL_ATUALIZAR =
+            "UPDATE frequencias SET presente = ?, observacao = ?, data_atualizacao = CURRENT_DATE WHERE id = ?";
+
     @Autowired
     private FrequenciaRepository frequenciaRepository;
 
@@ -27,27 +63,73 @@ public class FrequenciaService {
     @Autowired
     private DisciplinaRepository disciplinaRepository;
 
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private ResumoFrequenciaService resumoFrequenciaService;
+
+    @Autowired
+    private LinhaTempoFrequenciaService linhaTempoFrequenciaService;
+
+    @Autowired
+    private ArquivoFrequenciaService arquivoFrequenciaService;
+
+    @Autowired
+    private FrequenciaArquivadaRepository frequenciaArquivadaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Resultado da gravação de uma aula; presenteAnterior == null quando a linha foi inserida agora
+    private record Gravacao(String id, Boolean presenteAnterior, boolean alterada) {
+    }
+
     public Frequencia buscarPorId(String id) throws GestaoEscolarException {
-        return this.frequenciaRepository.findById(id)
-                .orElseThrow(() -> new GestaoEscolarException("Frequência não encontrada"));
+        Optional<Frequencia> frequencia = this.frequenciaRepository.findById(id);
+        if (frequencia.isEmpty() && this.arquivoFrequenciaService.possuiArquivadas(null)) {
+            frequencia = this.frequenciaArquivadaRepository.findById(id).map(FrequenciaArquivada::toFrequencia);
+        }
+        return frequencia.orElseThrow(() -> new GestaoEscolarException("Frequência não encontrada"));
     }
 
-    public List<Frequencia> buscarTodas() throws GestaoEscolarException {
-        List<Frequencia> frequencias = this.frequenciaRepository.findAll();
-        if (frequencias.isEmpty()) {
-            throw new GestaoEscolarException("Nenhuma frequência encontrada");
+    public PaginaCursorDTO<FrequenciaDTO> buscarPagina(String cursor, Integer tamanho) throws GestaoEscolarException {
+        int tamanhoPagina = this.limitarTamanhoPagina(tamanho);
+
+        // Busca um registro a mais para saber se existe próxima página
+        List<FrequenciaDTO> frequencias = this.buscarLote(cursor != null ? CursorUtil.decodificar(cursor) : null, tamanhoPagina + 1);
+
+        boolean possuiProxima = frequencias.size() > tamanhoPagina;
+        if (possuiProxima) {
+            frequencias = frequencias.subList(0, tamanhoPagina);
         }
-        return frequencias;
+        String proximoCursor = possuiProxima ? this.cursorApos(frequencias.get(frequencias.size() - 1)) : null;
+        return new PaginaCursorDTO<>(frequencias, proximoCursor, possuiProxima);
+    }
+
+    public void exportar(Consumer<List<FrequenciaDTO>> consumidor) throws GestaoEscolarException {
+        CursorUtil.Cursor cursor = null;
+        List<FrequenciaDTO> lote;
+        do {
+            lote = this.buscarLote(cursor, TAMANHO_LOTE_EXPORTACAO);
+            if (!lote.isEmpty()) {
+                consumidor.accept(lote);
+                FrequenciaDTO ultimo = lote.get(lote.size() - 1);
+                cursor = new CursorUtil.Cursor(ultimo.getDataAula(), ultimo.getId());
+            }
+        } while (lote.size() == TAMANHO_LOTE_EXPORTACAO);
     }
 
     public List<Frequencia> buscarPorAluno(String alunoId) throws GestaoEscolarException {
-        List<Frequencia> frequencias = this.frequenciaRepository.findByAlunoId(alunoId);
+        List<Frequencia> frequencias = this.incluirArquivadas(this.frequenciaRepository.findByAlunoId(alunoId), null,
+                () -> this.frequenciaArquivadaRepository.findByAlunoId(alunoId));
         // Retornar lista vazia ao invés de lançar exceção
         return frequencias;
     }
 
     public List<Frequencia> buscarPorDisciplina(String disciplinaId) throws GestaoEscolarException {
-        List<Frequencia> frequencias = this.frequenciaRepository.findByDisciplinaId(disciplinaId);
+        List<Frequencia> frequencias = this.incluirArquivadas(this.frequenciaRepository.findByDisciplinaId(disciplinaId), null,
+                () -> this.frequenciaArquivadaRepository.findByDisciplinaId(disciplinaId));
         if (frequencias.isEmpty()) {
             throw new GestaoEscolarException("Nenhuma frequência encontrada para esta disciplina");
         }
@@ -55,7 +137,9 @@ public class FrequenciaService {
     }
 
     public List<Frequencia> buscarPorAlunoEDisciplina(String alunoId, String disciplinaId) throws GestaoEscolarException {
-        List<Frequencia> frequencias = this.frequenciaRepository.findByAlunoAndDisciplinaOrderByData(alunoId, disciplinaId);
+        // Arquivadas são sempre anteriores às quentes, então a ordem decrescente por data se mantém
+        List<Frequencia> frequencias = this.incluirArquivadas(this.frequenciaRepository.findByAlunoAndDisciplinaOrderByData(alunoId, disciplinaId), null,
+                () -> this.frequenciaArquivadaRepository.findByAlunoAndDisciplinaOrderByData(alunoId, disciplinaId));
         if (frequencias.isEmpty()) {
             throw new GestaoEscolarException("Nenhuma frequência encontrada para este aluno nesta disciplina");
         }
@@ -63,7 +147,8 @@ public class FrequenciaService {
     }
 
     public List<Frequencia> buscarPorPeriodo(LocalDate dataInicio, LocalDate dataFim) throws GestaoEscolarException {
-        List<Frequencia> frequencias = this.frequenciaRepository.findByPeriodo(dataInicio, dataFim);
+        List<Frequencia> frequencias = this.incluirArquivadas(this.frequenciaRepository.findByPeriodo(dataInicio, dataFim), dataInicio,
+                () -> this.frequenciaArquivadaRepository.findByPeriodo(dataInicio, dataFim));
         if (frequencias.isEmpty()) {
             throw new GestaoEscolarException("Nenhuma frequência encontrada para o período especificado");
         }
@@ -71,7 +156,8 @@ public class FrequenciaService {
     }
 
     public List<Frequencia> buscarPorAlunoEPeriodo(String alunoId, LocalDate dataInicio, LocalDate dataFim) throws GestaoEscolarException {
-        List<Frequencia> frequencias = this.frequenciaRepository.findByAlunoAndPeriodo(alunoId, dataInicio, dataFim);
+        List<Frequencia> frequencias = this.incluirArquivadas(this.frequenciaRepository.findByAlunoAndPeriodo(alunoId, dataInicio, dataFim), dataInicio,
+                () -> this.frequenciaArquivadaRepository.findByAlunoAndPeriodo(alunoId, dataInicio, dataFim));
         if (frequencias.isEmpty()) {
             throw new GestaoEscolarException("Nenhuma frequência encontrada para este aluno no período especificado");
         }
@@ -79,26 +165,35 @@ public class FrequenciaService {
     }
 
     public Long contarPresencas(String alunoId, String disciplinaId) throws GestaoEscolarException {
-        return this.frequenciaRepository.countPresencasByAlunoAndDisciplina(alunoId, disciplinaId);
+        return this.resumoFrequenciaService.contarPresencas(alunoId, disciplinaId);
     }
 
     public Long contarTotalAulas(String alunoId, String disciplinaId) throws GestaoEscolarException {
-        return this.frequenciaRepository.countTotalAulasByAlunoAndDisciplina(alunoId, disciplinaId);
+        return this.resumoFrequenciaService.contarTotalAulas(alunoId, disciplinaId);
     }
 
     public Double calcularPercentualPresenca(String alunoId, String disciplinaId) throws GestaoEscolarException {
-        Optional<Double> percentual = this.frequenciaRepository.calcularPercentualPresenca(alunoId, disciplinaId);
-        return percentual.orElse(0.0);
+        return this.resumoFrequenciaService.calcularPercentualPresenca(alunoId, disciplinaId);
     }
 
+    @Transactional
     public Frequencia salvar(Frequencia frequencia) throws GestaoEscolarException {
         this.validarFrequencia(frequencia);
         this.verificarAlunoExiste(frequencia.getAluno().getId());
         this.verificarDisciplinaExiste(frequencia.getDisciplina().getId());
-        
-        return frequenciaRepository.save(frequencia);
+        this.verificarFrequenciaDuplicada(frequencia);
+
+        boolean nova = frequencia.getId() == null;
+        Frequencia frequenciaSalva = this.gravarEntidade(frequencia);
+        if (nova) {
+            this.resumoFrequenciaService.ajustar(frequencia.getAluno().getId(), frequencia.getDisciplina().getId(),
+                    1, Boolean.TRUE.equals(frequencia.getPresente()) ? 1 : 0);
+            this.linhaTempoFrequenciaService.registrar(List.of(this.marcacao(frequencia)));
+        }
+        return frequenciaSalva;
     }
 
+    @Transactional
     public Frequencia salvarComDTO(FrequenciaDTO frequenciaDTO) throws GestaoEscolarException {
         // Validar se os IDs foram fornecidos
         if (frequenciaDTO.getAlunoId() == null || frequenciaDTO.getAlunoId().trim().isEmpty()) {
@@ -112,94 +207,348 @@ public class FrequenciaService {
         this.verificarAlunoExiste(frequenciaDTO.getAlunoId());
         this.verificarDisciplinaExiste(frequenciaDTO.getDisciplinaId());
 
-        // Buscar as entidades
-        Aluno aluno = this.alunoRepository.findById(frequenciaDTO.getAlunoId())
-                .orElseThrow(() -> new GestaoEscolarException("Aluno não encontrado"));
-        Disciplina disciplina = this.disciplinaRepository.findById(frequenciaDTO.getDisciplinaId())
-                .orElseThrow(() -> new GestaoEscolarException("Disciplina não encontrada"));
-
-        // Criar a entidade Frequencia
-        Frequencia frequencia = new Frequencia();
-        frequencia.setAluno(aluno);
-        frequencia.setDisciplina(disciplina);
-        frequencia.setDataAula(frequenciaDTO.getDataAula());
-        frequencia.setPresente(frequenciaDTO.getPresente());
-        frequencia.setObservacao(frequenciaDTO.getObservacao());
-
-        // Validar a frequencia
-        this.validarFrequencia(frequencia);
-        
-        return frequenciaRepository.save(frequencia);
+        if (frequenciaDTO.getPresente() == null) {
+            throw new GestaoEscolarException("O status de presença não pode ser nulo");
+        }
+        this.validarDataAula(frequenciaDTO.getDataAula());
+
+        // Reenvio da mesma aula atualiza o registro existente em vez de duplicar, também entre requisições concorrentes
+        Gravacao gravacao = this.gravar(frequenciaDTO.getDisciplinaId(), frequenciaDTO.getDataAula(),
+                Map.of(frequenciaDTO.getAlunoId(), frequenciaDTO.getPresente()), true, frequenciaDTO.getObservacao())
+                .get(frequenciaDTO.getAlunoId());
+
+        if (gravacao.alterada()) {
+            this.resumoFrequenciaService.ajustar(frequenciaDTO.getAlunoId(), frequenciaDTO.getDisciplinaId(),
+                    gravacao.presenteAnterior() == null ? 1 : 0, this.deltaPresenca(gravacao.presenteAnterior(), frequenciaDTO.getPresente()));
+            this.linhaTempoFrequenciaService.registrar(List.of(new LinhaTempoFrequenciaService.Marcacao(frequenciaDTO.getAlunoId(),
+                    frequenciaDTO.getDisciplinaId(), frequenciaDTO.getDataAula(), frequenciaDTO.getPresente())));
+        }
+        return this.buscarPorId(gravacao.id());
     }
 
+    @Transactional
     public Frequencia atualizar(String id, Frequencia frequencia) throws GestaoEscolarException {
-        Frequencia frequenciaEditada = this.buscarPorId(id);
+        Frequencia frequenciaEditada = this.buscarParaAlterar(id);
+        boolean presenteAnterior = frequenciaEditada.getPresente();
+        LocalDate dataAnterior = frequenciaEditada.getDataAula();
+        LocalDate dataAula = Optional.ofNullable(frequencia.getDataAula()).orElse(dataAnterior);
+        String alunoId = frequenciaEditada.getAluno().getId();
+        String disciplinaId = frequenciaEditada.getDisciplina().getId();
+
+        // Validações antes de alterar a entidade gerenciada: as consultas disparam o flush automático do Hibernate,
+        // e um UPDATE já com a data nova colidiria com a restrição única antes da verificação amigável
+        this.validarDataAula(dataAula);
+        if (!dataAula.equals(dataAnterior)) {
+            this.verificarFrequenciaDuplicada(alunoId, disciplinaId, dataAula, id);
+        }
 
         frequenciaEditada.setPresente(Optional.ofNullable(frequencia.getPresente()).orElse(frequenciaEditada.getPresente()));
-        frequenciaEditada.setDataAula(Optional.ofNullable(frequencia.getDataAula()).orElse(frequenciaEditada.getDataAula()));
+        frequenciaEditada.setDataAula(dataAula);
         frequenciaEditada.setObservacao(Optional.ofNullable(frequencia.getObservacao()).orElse(frequenciaEditada.getObservacao()));
 
-        return this.salvar(frequenciaEditada);
+        Frequencia frequenciaSalva = this.gravarEntidade(frequenciaEditada);
+        this.resumoFrequenciaService.ajustar(alunoId, disciplinaId, 0, this.deltaPresenca(presenteAnterior, frequenciaEditada.getPresente()));
+
+        // Troca de data move a marcação na linha do tempo
+        List<LinhaTempoFrequenciaService.Marcacao> marcacoes = new ArrayList<>();
+        if (!dataAnterior.equals(frequenciaEditada.getDataAula())) {
+            marcacoes.add(this.remocao(alunoId, disciplinaId, dataAnterior));
+        }
+        marcacoes.add(this.marcacao(frequenciaEditada));
+        this.linhaTempoFrequenciaService.registrar(marcacoes);
+        return frequenciaSalva;
     }
 
+    @Transactional
     public void excluir(String id) throws GestaoEscolarException {
-        this.buscarPorId(id);
+        Frequencia frequencia = this.buscarParaAlterar(id);
         this.frequenciaRepository.deleteById(id);
+        this.resumoFrequenciaService.ajustar(frequencia.getAluno().getId(), frequencia.getDisciplina().getId(),
+                -1, frequencia.getPresente() ? -1 : 0);
+        this.linhaTempoFrequenciaService.registrar(List.of(
+                this.remocao(frequencia.getAluno().getId(), frequencia.getDisciplina().getId(), frequencia.getDataAula())));
     }
 
+    @Transactional
     public void excluirPorAlunoEDisciplina(String alunoId, String disciplinaId) throws GestaoEscolarException {
-        List<Frequencia> frequencias = this.buscarPorAlunoEDisciplina(alunoId, disciplinaId);
+        List<Frequencia> frequencias = this.frequenciaRepository.findByAlunoIdAndDisciplinaId(alunoId, disciplinaId);
+        if (frequencias.isEmpty()) {
+            throw new GestaoEscolarException("Nenhuma frequência encontrada para este aluno nesta disciplina");
+        }
+        long presencas = frequencias.stream().filter(Frequencia::getPresente).count();
         this.frequenciaRepository.deleteAll(frequencias);
+        this.resumoFrequenciaService.ajustar(alunoId, disciplinaId, -frequencias.size(), -presencas);
+        this.linhaTempoFrequenciaService.registrar(frequencias.stream()
+                .map(f -> this.remocao(alunoId, disciplinaId, f.getDataAula()))
+                .collect(Collectors.toList()));
     }
 
-    public void marcarPresencaEmLote(String disciplinaId, LocalDate dataAula, List<String> alunosPresentes) throws GestaoEscolarException {
-        Disciplina disciplina = this.disciplinaRepository.findById(disciplinaId)
-                .orElseThrow(() -> new GestaoEscolarException("Disciplina não encontrada"));
+    @Transactional
+    public ResultadoLoteDTO marcarPresencaEmLote(String disciplinaId, LocalDate dataAula, List<String> alunosPresentes) throws GestaoEscolarException {
+        return this.registrarEmLote(disciplinaId, dataAula, alunosPresentes, true);
+    }
+
+    @Transactional
+    public ResultadoLoteDTO marcarFaltaEmLote(String disciplinaId, LocalDate dataAula, List<String> alunosFaltantes) throws GestaoEscolarException {
+        return this.registrarEmLote(disciplinaId, dataAula, alunosFaltantes, false);
+    }
+
+    @Transactional
+    public ResultadoLoteDTO registrarChamada(ChamadaDTO chamadaDTO) throws GestaoEscolarException {
+        if (chamadaDTO.getTurmaId() == null || chamadaDTO.getTurmaId().trim().isEmpty()) {
+            throw new GestaoEscolarException("ID da turma é obrigatório");
+        }
+        if (chamadaDTO.getDisciplinaId() == null || chamadaDTO.getDisciplinaId().trim().isEmpty()) {
+            throw new GestaoEscolarException("ID da disciplina é obrigatório");
+        }
+        this.validarDataAula(chamadaDTO.getDataAula());
 
-        for (String alunoId : alunosPresentes) {
-            Aluno aluno = this.alunoRepository.findById(alunoId)
-                    .orElseThrow(() -> new GestaoEscolarException("Aluno não encontrado"));
+        if (!this.turmaRepository.existsById(chamadaDTO.getTurmaId())) {
+            throw new GestaoEscolarException("Turma não encontrada");
+        }
+        if (!this.turmaRepository.existsByIdAndDisciplinasId(chamadaDTO.getTurmaId(), chamadaDTO.getDisciplinaId())) {
+            throw new GestaoEscolarException("Disciplina não pertence a esta turma");
+        }
 
-            Frequencia frequencia = new Frequencia();
-            frequencia.setAluno(aluno);
-            frequencia.setDisciplina(disciplina);
-            frequencia.setDataAula(dataAula);
-            frequencia.setPresente(true);
+        List<String> alunosTurma = this.alunoRepository.findIdsByTurmaId(chamadaDTO.getTurmaId());
+        if (alunosTurma.isEmpty()) {
+            throw new GestaoEscolarException("Nenhum aluno encontrado para esta turma");
+        }
 
-            this.salvar(frequencia);
+        Set<String> ausentes = chamadaDTO.getAlunosAusentes() != null
+                ? new HashSet<>(chamadaDTO.getAlunosAusentes())
+                : new HashSet<>();
+        if (!alunosTurma.containsAll(ausentes)) {
+            throw new GestaoEscolarException("Há alunos ausentes que não pertencem a esta turma");
+        }
+
+        ResultadoLoteDTO resultado = new ResultadoLoteDTO();
+        resultado.setTotalRecebidos(alunosTurma.size());
+
+        // Chamada repetida no mesmo dia substitui a anterior: as linhas já gravadas são atualizadas
+        Map<String, Boolean> presencas = new HashMap<>();
+        for (String alunoId : alunosTurma) {
+            presencas.put(alunoId, !ausentes.contains(alunoId));
+        }
+        this.aplicarGravacoes(chamadaDTO.getDisciplinaId(), chamadaDTO.getDataAula(), alunosTurma, presencas, resultado);
+        return resultado;
+    }
+
+    private ResultadoLoteDTO registrarEmLote(String disciplinaId, LocalDate dataAula, List<String> alunosIds, boolean presente) throws GestaoEscolarException {
+        if (alunosIds == null || alunosIds.isEmpty()) {
+            throw new GestaoEscolarException("A lista de alunos não pode ser vazia");
+        }
+        this.validarDataAula(dataAula);
+        this.verificarDisciplinaExiste(disciplinaId);
+
+        ResultadoLoteDTO resultado = new ResultadoLoteDTO();
+        resultado.setTotalRecebidos(alunosIds.size());
+
+        // Resolve todos os alunos do lote em uma única consulta
+        Set<String> idsExistentes = new HashSet<>(this.alunoRepository.findIdsExistentes(alunosIds));
+
+        Set<String> processados = new HashSet<>();
+        List<String> validos = new ArrayList<>();
+        Map<String, Boolean> presencas = new HashMap<>();
+        for (String alunoId : alunosIds) {
+            if (!processados.add(alunoId)) {
+                resultado.adicionarErro(alunoId, "Aluno repetido no lote");
+                continue;
+            }
+            if (!idsExistentes.contains(alunoId)) {
+                resultado.adicionarErro(alunoId, "Aluno não encontrado");
+                continue;
+            }
+            validos.add(alunoId);
+            presencas.put(alunoId, presente);
+        }
+
+        this.aplicarGravacoes(disciplinaId, dataAula, validos, presencas, resultado);
+        return resultado;
+    }
+
+    // Grava as presenças de uma aula e propaga as alterações para o resumo e a linha do tempo
+    private void aplicarGravacoes(String disciplinaId, LocalDate dataAula, List<String> alunosIds, Map<String, Boolean> presencas,
+                                  ResultadoLoteDTO resultado) {
+        Map<String, Gravacao> gravacoes = this.gravar(disciplinaId, dataAula, presencas, false, null);
+
+        List<ResumoFrequenciaService.Ajuste> ajustes = new ArrayList<>();
+        List<LinhaTempoFrequenciaService.Marcacao> marcacoes = new ArrayList<>();
+        for (String alunoId : alunosIds) {
+            Gravacao gravacao = gravacoes.get(alunoId);
+            boolean presente = presencas.get(alunoId);
+            if (!gravacao.alterada()) {
+                resultado.adicionarSucesso(alunoId, MENSAGEM_JA_REGISTRADA);
+                continue;
+            }
+            ajustes.add(new ResumoFrequenciaService.Ajuste(alunoId, disciplinaId, gravacao.presenteAnterior() == null ? 1 : 0,
+                    this.deltaPresenca(gravacao.presenteAnterior(), presente)));
+            marcacoes.add(new LinhaTempoFrequenciaService.Marcacao(alunoId, disciplinaId, dataAula, presente));
+            resultado.adicionarSucesso(alunoId);
+        }
+
+        this.resumoFrequenciaService.ajustar(ajustes);
+        this.linhaTempoFrequenciaService.registrar(marcacoes);
+    }
+
+    // Upsert por (aluno, disciplina, data): insere o que falta sem erro de duplicidade e depois lê com bloqueio
+    // as linhas da aula. Linha cujo id não é o gerado aqui já existia e recebe um UPDATE se algo mudou.
+    // Alunos em ordem fixa para que lotes concorrentes bloqueiem as linhas na mesma sequência
+    private Map<String, Gravacao> gravar(String disciplinaId, LocalDate dataAula, Map<String, Boolean> presencas,
+                                         boolean substituirObservacao, String observacao) {
+        if (presencas.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> idsGerados = new TreeMap<>();
+        List<Object[]> insercoes = new ArrayList<>();
+        for (String alunoId : new TreeMap<>(presencas).keySet()) {
+            String id = UUID.randomUUID().toString();
+            idsGerados.put(alunoId, id);
+            insercoes.add(new Object[]{id, alunoId, disciplinaId, Date.valueOf(dataAula), presencas.get(alunoId), observacao});
+        }
+        this.jdbcTemplate.batchUpdate(SQL_INSERIR_SE_AUSENTE, insercoes);
+
+        List<Object> parametros = new ArrayList<>();
+        parametros.add(disciplinaId);
+        parametros.add(Date.valueOf(dataAula));
+        parametros.addAll(idsGerados.keySet());
+        String marcadores = String.join(", ", Collections.nCopies(idsGerados.size(), "?"));
+
+        Map<String, Gravacao> gravacoes = new HashMap<>();
+        List<Object[]> atualizacoes = new ArrayList<>();
+        this.jdbcTemplate.query("SELECT id, aluno_id, presente, observacao FROM frequencias " +
+                        "WHERE disciplina_id = ? AND data_aula = ? AND aluno_id IN (" + marcadores + ") FOR UPDATE",
+                rs -> {
+                    String id = rs.getString(1);
+                    String alunoId = rs.getString(2);
+                    if (id.equals(idsGerados.get(alunoId))) {
+                        gravacoes.put(alunoId, new Gravacao(id, null, true));
+                        return;
+                    }
+                    boolean presenteAnterior = rs.getBoolean(3);
+                    String observacaoAnterior = rs.getString(4);
+                    boolean presente = presencas.get(alunoId);
+                    String observacaoFinal = substituirObservacao ? observacao : observacaoAnterior;
+                    boolean alterada = presente != presenteAnterior || !Objects.equals(observacaoFinal, observacaoAnterior);
+                    if (alterada) {
+                        atualizacoes.add(new Object[]{presente, observacaoFinal, id});
+                    }
+                    gravacoes.put(alunoId, new Gravacao(id, presenteAnterior, alterada));
+                },
+                parametros.toArray());
+
+        if (!atualizacoes.isEmpty()) {
+            this.jdbcTemplate.batchUpdate(SQL_ATUALIZAR, atualizacoes);
+        }
+        return gravacoes;
+    }
+
+    // Corrida com outra gravação da mesma aula entre a verificação e o flush vira erro de negócio, não 500
+    private Frequencia gravarEntidade(Frequencia frequencia) throws GestaoEscolarException {
+        try {
+            return this.frequenciaRepository.saveAndFlush(frequencia);
+        } catch (DataIntegrityViolationException e) {
+            throw new GestaoEscolarException(MENSAGEM_DUPLICADA, e);
         }
     }
 
-    public void marcarFaltaEmLote(String disciplinaId, LocalDate dataAula, List<String> alunosFaltantes) throws GestaoEscolarException {
-        Disciplina disciplina = this.disciplinaRepository.findById(disciplinaId)
-                .orElseThrow(() -> new GestaoEscolarException("Disciplina não encontrada"));
+    private LinhaTempoFrequenciaService.Marcacao marcacao(Frequencia frequencia) {
+        return new LinhaTempoFrequenciaService.Marcacao(frequencia.getAluno().getId(), frequencia.getDisciplina().getId(),
+                frequencia.getDataAula(), frequencia.getPresente());
+    }
+
+    private LinhaTempoFrequenciaService.Marcacao remocao(String alunoId, String disciplinaId, LocalDate dataAula) {
+        return new LinhaTempoFrequenciaService.Marcacao(alunoId, disciplinaId, dataAula, null);
+    }
 
-        for (String alunoId : alunosFaltantes) {
-            Aluno aluno = this.alunoRepository.findById(alunoId)
-                    .orElseThrow(() -> new GestaoEscolarException("Aluno não encontrado"));
+    private List<Frequencia> incluirArquivadas(List<Frequencia> quentes, LocalDate dataInicio, Supplier<List<FrequenciaArquivada>> arquivadas) {
+        // Só consulta o arquivo quando o intervalo alcança algum ano já arquivado
+        if (!this.arquivoFrequenciaService.possuiArquivadas(dataInicio)) {
+            return quentes;
+        }
+        List<Frequencia> frequencias = new ArrayList<>(quentes);
+        arquivadas.get().forEach(f -> frequencias.add(f.toFrequencia()));
+        return frequencias;
+    }
 
-            Frequencia frequencia = new Frequencia();
-            frequencia.setAluno(aluno);
-            frequencia.setDisciplina(disciplina);
-            frequencia.setDataAula(dataAula);
-            frequencia.setPresente(false);
+    private void verificarFrequenciaDuplicada(Frequencia frequencia) throws GestaoEscolarException {
+        this.verificarFrequenciaDuplicada(frequencia.getAluno().getId(), frequencia.getDisciplina().getId(),
+                frequencia.getDataAula(), frequencia.getId());
+    }
 
-            this.salvar(frequencia);
+    private void verificarFrequenciaDuplicada(String alunoId, String disciplinaId, LocalDate dataAula, String id) throws GestaoEscolarException {
+        Optional<Frequencia> existente = this.frequenciaRepository.findByAlunoIdAndDisciplinaIdAndDataAula(alunoId, disciplinaId, dataAula);
+        if (existente.isPresent() && !existente.get().getId().equals(id)) {
+            throw new GestaoEscolarException(MENSAGEM_DUPLICADA);
         }
     }
 
+    private int deltaPresenca(Boolean presenteAnterior, Boolean presenteAtual) {
+        return (Boolean.TRUE.equals(presenteAtual) ? 1 : 0) - (Boolean.TRUE.equals(presenteAnterior) ? 1 : 0);
+    }
+
     private void validarFrequencia(Frequencia frequencia) throws GestaoEscolarException {
         if (frequencia.getPresente() == null) {
             throw new GestaoEscolarException("O status de presença não pode ser nulo");
         }
         
-        if (frequencia.getDataAula() == null) {
+        this.validarDataAula(frequencia.getDataAula());
+    }
+
+    public void validarDataAula(LocalDate dataAula) throws GestaoEscolarException {
+        if (dataAula == null) {
             throw new GestaoEscolarException("A data da aula não pode ser nula");
         }
-        
-        if (frequencia.getDataAula().isAfter(LocalDate.now())) {
+
+        if (dataAula.isAfter(LocalDate.now())) {
             throw new GestaoEscolarException("A data da aula não pode ser futura");
         }
+
+        if (this.arquivoFrequenciaService.isArquivada(dataAula)) {
+            throw new GestaoEscolarException("Frequências de anos letivos arquivados não podem ser alteradas");
+        }
+    }
+
+    // Registros arquivados são sempre anteriores aos quentes: a paginação por (data, id) percorre o arquivo
+    // primeiro e completa o lote com o início da tabela quente quando o arquivo acaba
+    private List<FrequenciaDTO> buscarLote(CursorUtil.Cursor cursor, int limite) {
+        if (cursor != null && !this.arquivoFrequenciaService.isArquivada(cursor.data())) {
+            return this.frequenciaRepository.buscarPaginaApos(cursor.data(), cursor.id(), PageRequest.of(0, limite));
+        }
+
+        List<FrequenciaDTO> lote = new ArrayList<>();
+        if (this.arquivoFrequenciaService.possuiArquivadas(null)) {
+            lote.addAll(cursor == null
+                    ? this.frequenciaArquivadaRepository.buscarPrimeiraPagina(PageRequest.of(0, limite))
+                    : this.frequenciaArquivadaRepository.buscarPaginaApos(cursor.data(), cursor.id(), PageRequest.of(0, limite)));
+        }
+        if (lote.size() < limite) {
+            lote.addAll(this.frequenciaRepository.buscarPrimeiraPagina(PageRequest.of(0, limite - lote.size())));
+        }
+        return lote;
+    }
+
+    // Arquivadas são somente leitura: alteração e exclusão só enxergam a tabela quente
+    private Frequencia buscarParaAlterar(String id) throws GestaoEscolarException {
+        Optional<Frequencia> frequencia = this.frequenciaRepository.findById(id);
+        if (frequencia.isPresent()) {
+            return frequencia.get();
+        }
+        if (this.arquivoFrequenciaService.possuiArquivadas(null) && this.frequenciaArquivadaRepository.existsById(id)) {
+            throw new GestaoEscolarException("Frequências de anos letivos arquivados não podem ser alteradas");
+        }
+        throw new GestaoEscolarException("Frequência não encontrada");
+    }
+
+    private String cursorApos(FrequenciaDTO ultimo) {
+        return CursorUtil.codificar(ultimo.getDataAula(), ultimo.getId());
+    }
+
+    private int limitarTamanhoPagina(Integer tamanho) {
+        if (tamanho == null || tamanho <= 0) {
+            return TAMANHO_PAGINA_PADRAO;
+        }
+        return Math.min(tamanho, TAMANHO_PAGINA_MAXIMO);
     }
 
     private void verificarAlunoExiste(String alunoId) throws GestaoEscolarException {
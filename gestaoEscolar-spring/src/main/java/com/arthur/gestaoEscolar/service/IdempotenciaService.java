@@ -0,0 +1,118 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.exception.IdempotenciaConflitanteException;
+import com.arthur.gestaoEscolar.exception.IdempotenciaEmAndamentoException;
+import com.arthur.gestaoEscolar.util.CacheLimitado;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Service
+public class IdempotenciaService {
+
+    @Value("${gestaoEscolar.idempotencia.validade-minutos:1440}")
+    private long validadeMinutos;
+
+    @Value("${gestaoEscolar.idempotencia.maximo-chaves:10000}")
+    private int maximoChaves;
+
+    // Quanto uma repetição espera pela execução original antes de desistir com 409
+    @Value("${gestaoEscolar.idempotencia.espera-ms:10000}")
+    private long esperaMs;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Acima do máximo sai a chave usada há mais tempo; uma execução em andamento é sempre das mais recentes
+    private CacheLimitado<String, Registro> registros;
+
+    // impressao: SHA-256 da requisição que usou a chave pela primeira vez
+    private record Registro(CompletableFuture<Object> resultado, byte[] impressao, long expiraEm) {
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        this.registros = new CacheLimitado<>(this.maximoChaves);
+    }
+
+    // Executa a ação uma única vez por chave; repetições com a mesma requisição recebem o resultado original
+    // e a mesma chave com outra requisição é recusada
+    @SuppressWarnings("unchecked")
+    public <T> T executar(String operacao, String chave, Object requisicao, Supplier<T> acao) {
+        if (chave == null || chave.isBlank()) {
+            return acao.get();
+        }
+
+        String chaveCompleta = this.usuarioAtual() + ":" + operacao + ":" + chave;
+        long agora = System.currentTimeMillis();
+        Registro novo = new Registro(new CompletableFuture<>(), this.impressao(requisicao), agora + this.validadeMinutos * 60_000);
+        Registro existente = this.registros.calcular(chaveCompleta,
+                (k, atual) -> atual == null || atual.expiraEm() < agora ? novo : atual);
+
+        if (existente != novo) {
+            if (!Arrays.equals(existente.impressao(), novo.impressao())) {
+                throw new IdempotenciaConflitanteException("Idempotency-Key já utilizada com outra requisição");
+            }
+            return (T) this.aguardar(existente.resultado());
+        }
+
+        try {
+            T resultado = acao.get();
+            novo.resultado().complete(resultado);
+            return resultado;
+        } catch (RuntimeException e) {
+            // Falhas não são memorizadas: a próxima tentativa executa novamente
+            this.registros.calcular(chaveCompleta, (k, atual) -> atual == novo ? null : atual);
+            novo.resultado().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // A thread da repetição não fica presa indefinidamente se a execução original travar
+    private Object aguardar(CompletableFuture<Object> resultado) {
+        try {
+            return resultado.get(this.esperaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotenciaEmAndamentoException("Requisição com a mesma Idempotency-Key ainda em andamento");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotenciaEmAndamentoException("Espera pela requisição original interrompida");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException causa ? causa : new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${gestaoEscolar.idempotencia.limpeza-ms:600000}")
+    public void removerExpirados() {
+        long agora = System.currentTimeMillis();
+        this.registros.removerSe((chave, registro) -> registro.expiraEm() < agora);
+    }
+
+    private byte[] impressao(Object requisicao) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(this.objectMapper.writeValueAsBytes(requisicao));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String usuarioAtual() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "anonimo";
+    }
+}
@@ -0,0 +1,375 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.model.dto.ResultadoImportacaoDTO;
+import com.arthur.gestaoEscolar.model.entity.EventoNota;
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import com.arthur.gestaoEscolar.model.repository.AlunoRepository;
+import com.arthur.gestaoEscolar.model.repository.DisciplinaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+public class ImportacaoNotaService {
+
+    private static final int TAMANHO_LOTE = 1000;
+    private static final int MAXIMO_ERROS_LISTADOS = 500;
+    // Tamanho da coluna notas.observacao: acima disso o lote inteiro falharia no banco
+    private static final int MAXIMO_OBSERVACAO = 255;
+    // STRICT: 31/02 é rejeitado em vez de virar o último dia do mês
+    private static final DateTimeFormatter DATA_BRASILEIRA = DateTimeFormatter.ofPattern("dd/MM/uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    // Linhas extras que um campo entre aspas pode ocupar (observação com quebras de linha); acima disso
+    // as aspas são consideradas não fechadas
+    static final int MAXIMO_LINHAS_REGISTRO = 20;
+
+    // Nome da disciplina repetido entre disciplinas: exige o id na planilha
+    private static final String DISCIPLINA_AMBIGUA = "";
+
+    private static final String SQL_INSERIR =
+            "INSERT INTO notas (id, aluno_id, disciplina_id, valor, tipo_avaliacao, data_avaliacao, observacao, data_criacao, data_atualizacao) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private NotaService notaService;
+
+    @Autowired
+    private EventoNotaService eventoNotaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Nome e apelidos já na forma do cabeçalho normalizado: minúsculas, sem acentos e sem espaços
+    record Coluna(String nome, String... apelidos) {
+    }
+
+    static final Coluna MATRICULA = new Coluna("matricula");
+    static final Coluna DISCIPLINA = new Coluna("disciplina", "disciplinaid", "disciplina_id");
+    static final Coluna VALOR = new Coluna("valor", "nota");
+    static final Coluna TIPO = new Coluna("tipoavaliacao", "tipo", "tipo_avaliacao", "tipodeavaliacao");
+    static final Coluna DATA = new Coluna("dataavaliacao", "data", "data_avaliacao", "datadaavaliacao");
+    static final Coluna OBSERVACAO = new Coluna("observacao", "obs", "observacoes");
+
+    // Lê o CSV registro a registro; os registros válidos são gravados em lotes JDBC e os inválidos entram no relatório.
+    // disciplinaPadraoId vale para as linhas sem coluna/valor de disciplina
+    @Transactional
+    public ResultadoImportacaoDTO importarCsv(InputStream entrada, String nomeArquivo, String disciplinaPadraoId) throws GestaoEscolarException {
+        if (nomeArquivo != null && nomeArquivo.toLowerCase(Locale.ROOT).endsWith(".xlsx")) {
+            throw new GestaoEscolarException("Planilhas XLSX não são suportadas; exporte a planilha como CSV");
+        }
+        if (disciplinaPadraoId != null && !this.disciplinaRepository.existsById(disciplinaPadraoId)) {
+            throw new GestaoEscolarException("Disciplina não encontrada");
+        }
+
+        // Pré-carga: uma consulta para todos os alunos e outra para todas as disciplinas
+        Map<String, String> alunosPorMatricula = new HashMap<>();
+        for (Object[] aluno : this.alunoRepository.buscarMatriculasEIds()) {
+            alunosPorMatricula.put(((String) aluno[0]).trim(), (String) aluno[1]);
+        }
+        Map<String, String> disciplinas = new HashMap<>();
+        for (Object[] disciplina : this.disciplinaRepository.buscarIdsENomes()) {
+            String id = (String) disciplina[0];
+            disciplinas.put(id, id);
+            if (disciplina[1] != null) {
+                String nome = normalizar((String) disciplina[1]);
+                disciplinas.merge(nome, id, (atual, novo) -> atual.equals(novo) ? atual : DISCIPLINA_AMBIGUA);
+            }
+        }
+
+        ResultadoImportacaoDTO resultado = new ResultadoImportacaoDTO();
+        try (BufferedReader arquivo = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            LeitorCsv leitor = new LeitorCsv(arquivo);
+            LeitorCsv.Registro registroCabecalho = leitor.proximo();
+            if (registroCabecalho == null) {
+                throw new GestaoEscolarException("Arquivo vazio");
+            }
+            if (registroCabecalho.aspasAbertas()) {
+                throw new GestaoEscolarException("Cabeçalho com aspas não fechadas");
+            }
+            String cabecalho = registroCabecalho.texto();
+            if (cabecalho.startsWith("\uFEFF")) {
+                cabecalho = cabecalho.substring(1);
+            }
+            // Excel em português separa com ';' e usa vírgula decimal
+            char separador = cabecalho.indexOf(';') >= 0 ? ';' : ',';
+            Map<String, Integer> indices = lerCabecalho(separarCampos(cabecalho, separador));
+            for (Coluna obrigatoria : List.of(MATRICULA, VALOR, TIPO, DATA)) {
+                if (!indices.containsKey(obrigatoria.nome())) {
+                    throw new GestaoEscolarException("Coluna obrigatória ausente: " + obrigatoria.nome());
+                }
+            }
+            if (!indices.containsKey(DISCIPLINA.nome()) && disciplinaPadraoId == null) {
+                throw new GestaoEscolarException("Informe a coluna disciplina ou o parâmetro disciplinaId");
+            }
+
+            List<Object[]> lote = new ArrayList<>(TAMANHO_LOTE);
+            List<EventoNota> eventos = new ArrayList<>(TAMANHO_LOTE);
+            Date hoje = Date.valueOf(LocalDate.now());
+            LeitorCsv.Registro registro;
+            while ((registro = leitor.proximo()) != null) {
+                if (registro.texto().isBlank()) {
+                    continue;
+                }
+                resultado.setTotalLinhas(resultado.getTotalLinhas() + 1);
+                // Erros são reportados na linha do arquivo onde o registro começa
+                int numeroLinha = registro.linha();
+                try {
+                    if (registro.aspasAbertas()) {
+                        throw new GestaoEscolarException("Aspas não fechadas");
+                    }
+                    List<String> campos = separarCampos(registro.texto(), separador);
+                    String alunoId = alunosPorMatricula.get(campo(campos, indices, MATRICULA));
+                    if (alunoId == null) {
+                        throw new GestaoEscolarException("Matrícula não encontrada");
+                    }
+                    String disciplinaId = this.resolverDisciplina(campo(campos, indices, DISCIPLINA), disciplinas, disciplinaPadraoId);
+                    double valor = lerValor(campo(campos, indices, VALOR));
+                    TipoAvaliacao tipo = lerTipo(campo(campos, indices, TIPO));
+                    LocalDate data = lerData(campo(campos, indices, DATA));
+                    this.notaService.validarAvaliacao(tipo, data);
+                    String observacao = campo(campos, indices, OBSERVACAO);
+                    if (observacao != null && observacao.length() > MAXIMO_OBSERVACAO) {
+                        throw new GestaoEscolarException("A observação deve ter no máximo " + MAXIMO_OBSERVACAO + " caracteres");
+                    }
+
+                    String id = UUID.randomUUID().toString();
+                    lote.add(new Object[]{id, alunoId, disciplinaId, valor, tipo.name(), Date.valueOf(data), observacao, hoje, hoje});
+                    eventos.add(this.eventoNotaService.criada(id, alunoId, disciplinaId, tipo, data, valor));
+                } catch (GestaoEscolarException e) {
+                    resultado.adicionarErro(numeroLinha, e.getMessage(), MAXIMO_ERROS_LISTADOS);
+                }
+
+                if (lote.size() == TAMANHO_LOTE) {
+                    this.gravar(lote, eventos, resultado);
+                }
+            }
+            this.gravar(lote, eventos, resultado);
+        } catch (IOException e) {
+            throw new GestaoEscolarException("Não foi possível ler o arquivo", e);
+        }
+        return resultado;
+    }
+
+    private void gravar(List<Object[]> lote, List<EventoNota> eventos, ResultadoImportacaoDTO resultado) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        this.jdbcTemplate.batchUpdate(SQL_INSERIR, lote);
+        this.eventoNotaService.publicar(eventos);
+        resultado.setTotalImportadas(resultado.getTotalImportadas() + lote.size());
+        lote.clear();
+        eventos.clear();
+    }
+
+    static Map<String, Integer> lerCabecalho(List<String> colunas) {
+        Map<String, Integer> indices = new HashMap<>();
+        for (int i = 0; i < colunas.size(); i++) {
+            String nome = normalizar(colunas.get(i)).replace(" ", "");
+            for (Coluna coluna : List.of(MATRICULA, DISCIPLINA, VALOR, TIPO, DATA, OBSERVACAO)) {
+                if (coluna.nome().equals(nome) || List.of(coluna.apelidos()).contains(nome)) {
+                    indices.putIfAbsent(coluna.nome(), i);
+                }
+            }
+        }
+        return indices;
+    }
+
+    private String resolverDisciplina(String valor, Map<String, String> disciplinas, String disciplinaPadraoId) throws GestaoEscolarException {
+        if (valor == null) {
+            if (disciplinaPadraoId == null) {
+                throw new GestaoEscolarException("Disciplina não informada");
+            }
+            return disciplinaPadraoId;
+        }
+        String disciplinaId = disciplinas.get(valor);
+        if (disciplinaId == null) {
+            disciplinaId = disciplinas.get(normalizar(valor));
+        }
+        if (disciplinaId == null) {
+            throw new GestaoEscolarException("Disciplina não encontrada: " + valor);
+        }
+        if (disciplinaId.equals(DISCIPLINA_AMBIGUA)) {
+            throw new GestaoEscolarException("Mais de uma disciplina com o nome " + valor + "; use o id");
+        }
+        return disciplinaId;
+    }
+
+    private static String campo(List<String> campos, Map<String, Integer> indices, Coluna coluna) {
+        Integer indice = indices.get(coluna.nome());
+        if (indice == null || indice >= campos.size()) {
+            return null;
+        }
+        String valor = campos.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    static double lerValor(String valor) throws GestaoEscolarException {
+        if (valor == null) {
+            throw new GestaoEscolarException("O valor da nota não pode ser nulo");
+        }
+        double nota;
+        try {
+            nota = Double.parseDouble(valor.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw new GestaoEscolarException("Valor de nota inválido: " + valor);
+        }
+        // parseDouble aceita "NaN" e "Infinity", que passariam pela faixa abaixo
+        if (!Double.isFinite(nota)) {
+            throw new GestaoEscolarException("Valor de nota inválido: " + valor);
+        }
+        if (nota < 0.0 || nota > 10.0) {
+            throw new GestaoEscolarException("A nota deve estar entre 0.0 e 10.0");
+        }
+        return nota;
+    }
+
+    private static TipoAvaliacao lerTipo(String valor) throws GestaoEscolarException {
+        if (valor == null) {
+            throw new GestaoEscolarException("O tipo de avaliação não pode ser nulo");
+        }
+        try {
+            return TipoAvaliacao.valueOf(normalizar(valor).toUpperCase(Locale.ROOT).replace(' ', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new GestaoEscolarException("Tipo de avaliação inválido: " + valor);
+        }
+    }
+
+    static LocalDate lerData(String valor) throws GestaoEscolarException {
+        if (valor == null) {
+            throw new GestaoEscolarException("A data da avaliação não pode ser nula");
+        }
+        try {
+            return valor.contains("/") ? LocalDate.parse(valor, DATA_BRASILEIRA) : LocalDate.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new GestaoEscolarException("Data inválida: " + valor);
+        }
+    }
+
+    // Minúsculas e sem acentos, para casar cabeçalhos e nomes digitados de formas diferentes
+    private static String normalizar(String valor) {
+        return Normalizer.normalize(valor.trim().toLowerCase(Locale.ROOT), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+    }
+
+    // Registros do CSV: um campo entre aspas pode conter quebras de linha, então um registro pode ocupar
+    // várias linhas do arquivo. Se as aspas não fecham em MAXIMO_LINHAS_REGISTRO linhas (ou até o fim),
+    // só a linha de origem vira erro e a leitura recomeça na linha seguinte a ela
+    static final class LeitorCsv {
+
+        record Registro(int linha, String texto, boolean aspasAbertas) {
+        }
+
+        private final BufferedReader leitor;
+        private final Deque<String> devolvidas = new ArrayDeque<>();
+        private int proximaLinha = 1;
+
+        LeitorCsv(BufferedReader leitor) {
+            this.leitor = leitor;
+        }
+
+        Registro proximo() throws IOException {
+            int inicio = this.proximaLinha;
+            String linha = this.linha();
+            if (linha == null) {
+                return null;
+            }
+            // Cada aspa alterna o estado; o "" de escape alterna duas vezes e não muda nada
+            boolean aspasAbertas = quantidadeAspasImpar(linha);
+            if (!aspasAbertas) {
+                return new Registro(inicio, linha, false);
+            }
+
+            StringBuilder texto = new StringBuilder(linha);
+            List<String> continuacao = new ArrayList<>();
+            String proxima;
+            while (continuacao.size() < MAXIMO_LINHAS_REGISTRO && (proxima = this.linha()) != null) {
+                continuacao.add(proxima);
+                texto.append('\n').append(proxima);
+                if (quantidadeAspasImpar(proxima)) {
+                    return new Registro(inicio, texto.toString(), false);
+                }
+            }
+            for (int i = continuacao.size() - 1; i >= 0; i--) {
+                this.devolvidas.addFirst(continuacao.get(i));
+            }
+            this.proximaLinha -= continuacao.size();
+            return new Registro(inicio, linha, true);
+        }
+
+        private String linha() throws IOException {
+            String linha = this.devolvidas.isEmpty() ? this.leitor.readLine() : this.devolvidas.pollFirst();
+            if (linha != null) {
+                this.proximaLinha++;
+            }
+            return linha;
+        }
+
+        private static boolean quantidadeAspasImpar(String linha) {
+            int aspas = 0;
+            for (int i = 0; i < linha.length(); i++) {
+                if (linha.charAt(i) == '"') {
+                    aspas++;
+                }
+            }
+            return aspas % 2 == 1;
+        }
+    }
+
+    // Separação simples de CSV com suporte a aspas ("" dentro de aspas vira ")
+    static List<String> separarCampos(String linha, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        campos.add(atual.toString());
+        return campos;
+    }
+}
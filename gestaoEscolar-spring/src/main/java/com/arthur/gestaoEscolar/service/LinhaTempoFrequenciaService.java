@@ -0,0 +1,196 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.model.dto.LinhaTempoFrequenciaDTO;
+import com.arthur.gestaoEscolar.model.entity.LinhaTempoFrequencia;
+import com.arthur.gestaoEscolar.model.repository.LinhaTempoFrequenciaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class LinhaTempoFrequenciaService {
+
+    private static final int TAMANHO_LOTE_MIGRACAO = 500;
+
+    // Uma instrução por marcação, sem leitura prévia nem bloqueio explícito: a linha é criada ou tem o bit
+    // do dia limpo (AND com a máscara) e regravado (OR com o valor inserido). RPAD normaliza bitmaps
+    // gravados com tamanho menor, já que AND/OR entre strings binárias exige o mesmo comprimento
+    private static final String SQL_MARCAR =
+            "INSERT INTO linhas_tempo_frequencia (aluno_id, disciplina_id, ano_letivo, dias_aula, dias_presenca) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "dias_aula = (RPAD(dias_aula, " + LinhaTempoFrequencia.TAMANHO_BYTES + ", 0x00) & ?) | VALUES(dias_aula), " +
+            "dias_presenca = (RPAD(dias_presenca, " + LinhaTempoFrequencia.TAMANHO_BYTES + ", 0x00) & ?) | VALUES(dias_presenca)";
+
+    private static final byte[] VAZIO = new byte[LinhaTempoFrequencia.TAMANHO_BYTES];
+
+    @Autowired
+    private LinhaTempoFrequenciaRepository linhaTempoFrequenciaRepository;
+
+    @Autowired
+    private ArquivoFrequenciaService arquivoFrequenciaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // presente == null remove a aula da linha do tempo
+    public record Marcacao(String alunoId, String disciplinaId, LocalDate dataAula, Boolean presente) {
+    }
+
+    public void registrar(List<Marcacao> marcacoes) {
+        if (marcacoes.isEmpty()) {
+            return;
+        }
+        // Ordem fixa de chaves para que chamadas concorrentes travem as linhas na mesma sequência;
+        // a ordenação é estável, então remoção e nova marcação do mesmo dia mantêm a ordem original
+        List<Marcacao> ordenadas = new ArrayList<>(marcacoes);
+        ordenadas.sort(Comparator.comparing(Marcacao::alunoId)
+                .thenComparing(Marcacao::disciplinaId)
+                .thenComparingInt(m -> m.dataAula().getYear()));
+
+        List<Object[]> parametros = new ArrayList<>();
+        for (Marcacao marcacao : ordenadas) {
+            int dia = marcacao.dataAula().getDayOfYear() - 1;
+            byte[] bit = Arrays.copyOf(VAZIO, VAZIO.length);
+            bit[dia / 8] = (byte) (1 << (dia % 8));
+            byte[] limpar = new byte[VAZIO.length];
+            Arrays.fill(limpar, (byte) 0xFF);
+            limpar[dia / 8] = (byte) ~(1 << (dia % 8));
+
+            parametros.add(new Object[]{marcacao.alunoId(), marcacao.disciplinaId(), marcacao.dataAula().getYear(),
+                    marcacao.presente() != null ? bit : VAZIO,
+                    Boolean.TRUE.equals(marcacao.presente()) ? bit : VAZIO,
+                    limpar, limpar});
+        }
+        this.jdbcTemplate.batchUpdate(SQL_MARCAR, parametros);
+    }
+
+    public LinhaTempoFrequenciaDTO buscarLinhaTempo(String alunoId, String disciplinaId, LocalDate dataInicio, LocalDate dataFim) throws GestaoEscolarException {
+        LocalDate inicio = dataInicio != null ? dataInicio : LocalDate.now().withDayOfYear(1);
+        LocalDate fim = dataFim != null ? dataFim : inicio.withDayOfYear(inicio.lengthOfYear());
+        if (fim.isBefore(inicio)) {
+            throw new GestaoEscolarException("A data final não pode ser anterior à data inicial");
+        }
+
+        // Observações continuam só nas linhas de frequência: raras, lidas pelo índice (aluno_id, data_aula)
+        Map<LocalDate, String> observacoes = new HashMap<>();
+        String sqlObservacoes = "SELECT data_aula, observacao FROM %s WHERE aluno_id = ? AND disciplina_id = ? " +
+                "AND data_aula BETWEEN ? AND ? AND observacao IS NOT NULL AND observacao <> ''";
+        List<String> tabelas = this.arquivoFrequenciaService.possuiArquivadas(inicio)
+                ? List.of("frequencias", "frequencias_arquivo")
+                : List.of("frequencias");
+        for (String tabela : tabelas) {
+            this.jdbcTemplate.query(String.format(sqlObservacoes, tabela),
+                    rs -> {
+                        observacoes.put(rs.getDate(1).toLocalDate(), rs.getString(2));
+                    },
+                    alunoId, disciplinaId, Date.valueOf(inicio), Date.valueOf(fim));
+        }
+
+        LinhaTempoFrequenciaDTO dto = new LinhaTempoFrequenciaDTO();
+        dto.setAlunoId(alunoId);
+        dto.setDisciplinaId(disciplinaId);
+        dto.setDataInicio(inicio);
+        dto.setDataFim(fim);
+
+        for (LinhaTempoFrequencia linha : this.linhaTempoFrequenciaRepository
+                .findByAlunoDisciplinaEAnos(alunoId, disciplinaId, inicio.getYear(), fim.getYear())) {
+            BitSet aulas = BitSet.valueOf(linha.getDiasAula());
+            BitSet presencas = BitSet.valueOf(linha.getDiasPresenca());
+
+            // Recorta o ano ao intervalo pedido
+            LocalDate primeiroDia = LocalDate.of(linha.getAnoLetivo(), 1, 1);
+            int de = linha.getAnoLetivo() == inicio.getYear() ? inicio.getDayOfYear() - 1 : 0;
+            int ate = linha.getAnoLetivo() == fim.getYear() ? fim.getDayOfYear() : primeiroDia.lengthOfYear();
+            BitSet aulasPeriodo = aulas.get(de, ate);
+            BitSet presencasPeriodo = presencas.get(de, ate);
+
+            dto.setTotalAulas(dto.getTotalAulas() + aulasPeriodo.cardinality());
+            dto.setTotalPresencas(dto.getTotalPresencas() + presencasPeriodo.cardinality());
+            for (int dia = aulasPeriodo.nextSetBit(0); dia >= 0; dia = aulasPeriodo.nextSetBit(dia + 1)) {
+                LocalDate data = primeiroDia.plusDays(de + dia);
+                dto.getAulas().add(new LinhaTempoFrequenciaDTO.Aula(data, presencasPeriodo.get(dia), observacoes.get(data)));
+            }
+        }
+
+        dto.setPercentualPresenca(dto.getTotalAulas() > 0 ? dto.getTotalPresencas() * 100.0 / dto.getTotalAulas() : 0.0);
+        return dto;
+    }
+
+    // Reconstrói todas as linhas do tempo a partir das frequências em linhas (quentes e arquivadas)
+    @Transactional
+    public int migrarDasFrequencias() {
+        this.jdbcTemplate.update("DELETE FROM linhas_tempo_frequencia");
+
+        List<Object[]> linhas = new ArrayList<>();
+        Map<String, BitSet[]> atual = new HashMap<>();
+        String[] chaveAtual = {null};
+        int[] total = {0};
+
+        // Leitura em streaming (fetch size mínimo no MySQL), ordenada por (aluno, disciplina, data):
+        // cada linha do tempo é fechada assim que a chave muda. As inserções ficam para depois da leitura,
+        // pois a conexão não aceita outros comandos enquanto o streaming está aberto.
+        JdbcTemplate leitura = new JdbcTemplate(this.jdbcTemplate.getDataSource());
+        leitura.setFetchSize(Integer.MIN_VALUE);
+        leitura.query(
+                "SELECT aluno_id, disciplina_id, data_aula, presente FROM (" +
+                "SELECT aluno_id, disciplina_id, data_aula, presente FROM frequencias " +
+                "UNION ALL " +
+                "SELECT aluno_id, disciplina_id, data_aula, presente FROM frequencias_arquivo) f " +
+                "ORDER BY aluno_id, disciplina_id, data_aula",
+                rs -> {
+                    String alunoId = rs.getString(1);
+                    String disciplinaId = rs.getString(2);
+                    LocalDate dataAula = rs.getDate(3).toLocalDate();
+                    String chave = alunoId + ":" + disciplinaId;
+
+                    if (!chave.equals(chaveAtual[0])) {
+                        total[0] += this.fecharLinhas(chaveAtual[0], atual, linhas);
+                        chaveAtual[0] = chave;
+                    }
+
+                    BitSet[] bits = atual.computeIfAbsent(String.valueOf(dataAula.getYear()), k -> new BitSet[]{new BitSet(), new BitSet()});
+                    bits[0].set(dataAula.getDayOfYear() - 1);
+                    if (rs.getBoolean(4)) {
+                        bits[1].set(dataAula.getDayOfYear() - 1);
+                    }
+                });
+
+        total[0] += this.fecharLinhas(chaveAtual[0], atual, linhas);
+        this.inserirLinhas(linhas);
+        return total[0];
+    }
+
+    private int fecharLinhas(String chave, Map<String, BitSet[]> atual, List<Object[]> linhas) {
+        if (chave == null) {
+            return 0;
+        }
+        String[] ids = chave.split(":", 2);
+        atual.forEach((ano, bits) -> linhas.add(new Object[]{
+                ids[0], ids[1], Integer.parseInt(ano),
+                Arrays.copyOf(bits[0].toByteArray(), LinhaTempoFrequencia.TAMANHO_BYTES),
+                Arrays.copyOf(bits[1].toByteArray(), LinhaTempoFrequencia.TAMANHO_BYTES)}));
+        int fechadas = atual.size();
+        atual.clear();
+        return fechadas;
+    }
+
+    private void inserirLinhas(List<Object[]> linhas) {
+        for (int i = 0; i < linhas.size(); i += TAMANHO_LOTE_MIGRACAO) {
+            this.jdbcTemplate.batchUpdate("INSERT INTO linhas_tempo_frequencia (aluno_id, disciplina_id, ano_letivo, dias_aula, dias_presenca) " +
+                    "VALUES (?, ?, ?, ?, ?)", linhas.subList(i, Math.min(i + TAMANHO_LOTE_MIGRACAO, linhas.size())));
+        }
+    }
+}
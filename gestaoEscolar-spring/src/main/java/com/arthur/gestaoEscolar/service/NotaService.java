@@ -4,21 +4,43 @@ import com.arthur.gestaoEscolar.model.entity.Nota;
 import com.arthur.gestaoEscolar.model.entity.Aluno;
 import com.arthur.gestaoEscolar.model.entity.Disciplina;
 import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import com.arthur.gestaoEscolar.model.dto.FiltroNotaDTO;
+import com.arthur.gestaoEscolar.model.dto.GrupoNotasDisciplinaDTO;
+import com.arthur.gestaoEscolar.model.dto.LancamentoNotasDTO;
 import com.arthur.gestaoEscolar.model.dto.NotaDTO;
+import com.arthur.gestaoEscolar.model.dto.PaginaCursorDTO;
+import com.arthur.gestaoEscolar.model.dto.ResultadoLoteDTO;
 import com.arthur.gestaoEscolar.model.repository.NotaRepository;
 import com.arthur.gestaoEscolar.model.repository.AlunoRepository;
 import com.arthur.gestaoEscolar.model.repository.DisciplinaRepository;
+import com.arthur.gestaoEscolar.model.repository.NotaSpecification;
 import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.util.CursorUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 public class NotaService {
 
+    private static final int TAMANHO_PAGINA_PADRAO = 100;
+    private static final int TAMANHO_PAGINA_MAXIMO = 500;
+    private static final int TAMANHO_LOTE_EXPORTACAO = 1000;
+
     @Autowired
     private NotaRepository notaRepository;
 
@@ -28,17 +50,58 @@ public class NotaService {
     @Autowired
     private DisciplinaRepository disciplinaRepository;
 
+    @Autowired
+    private PoliticaAvaliacaoService politicaAvaliacaoService;
+
+    @Autowired
+    private EventoNotaService eventoNotaService;
+
     public Nota buscarPorId(String id) throws GestaoEscolarException {
         return this.notaRepository.findById(id)
                 .orElseThrow(() -> new GestaoEscolarException("Nota não encontrada"));
     }
 
-    public List<Nota> buscarTodas() throws GestaoEscolarException {
-        List<Nota> notas = this.notaRepository.findAll();
-        if (notas.isEmpty()) {
-            throw new GestaoEscolarException("Nenhuma nota encontrada");
+    public PaginaCursorDTO<NotaDTO> buscarPagina(String cursor, Integer tamanho) throws GestaoEscolarException {
+        int tamanhoPagina = this.limitarTamanhoPagina(tamanho);
+
+        // Busca um registro a mais para saber se existe próxima página
+        List<NotaDTO> notas = this.buscarLote(cursor != null ? CursorUtil.decodificar(cursor) : null, tamanhoPagina + 1);
+
+        boolean possuiProxima = notas.size() > tamanhoPagina;
+        if (possuiProxima) {
+            notas = notas.subList(0, tamanhoPagina);
         }
-        return notas;
+        String proximoCursor = possuiProxima ? this.cursorApos(notas.get(notas.size() - 1)) : null;
+        return new PaginaCursorDTO<>(notas, proximoCursor, possuiProxima);
+    }
+
+    public void exportar(Consumer<List<NotaDTO>> consumidor) throws GestaoEscolarException {
+        CursorUtil.Cursor cursor = null;
+        List<NotaDTO> lote;
+        do {
+            lote = this.buscarLote(cursor, TAMANHO_LOTE_EXPORTACAO);
+            if (!lote.isEmpty()) {
+                consumidor.accept(lote);
+                NotaDTO ultimo = lote.get(lote.size() - 1);
+                cursor = new CursorUtil.Cursor(ultimo.getDataAvaliacao(), ultimo.getId());
+            }
+        } while (lote.size() == TAMANHO_LOTE_EXPORTACAO);
+    }
+
+    public PaginaCursorDTO<NotaDTO> filtrar(FiltroNotaDTO filtro, String cursor, Integer tamanho) throws GestaoEscolarException {
+        this.validarFiltro(filtro);
+        int tamanhoPagina = this.limitarTamanhoPagina(tamanho);
+
+        Specification<Nota> especificacao = NotaSpecification.comFiltro(filtro)
+                .and(NotaSpecification.apos(cursor != null ? CursorUtil.decodificar(cursor) : null));
+        List<NotaDTO> notas = this.notaRepository.buscarProjetado(especificacao, tamanhoPagina + 1);
+
+        boolean possuiProxima = notas.size() > tamanhoPagina;
+        if (possuiProxima) {
+            notas = notas.subList(0, tamanhoPagina);
+        }
+        String proximoCursor = possuiProxima ? this.cursorApos(notas.get(notas.size() - 1)) : null;
+        return new PaginaCursorDTO<>(notas, proximoCursor, possuiProxima);
     }
 
     public List<Nota> buscarPorAluno(String alunoId) throws GestaoEscolarException {
@@ -63,16 +126,47 @@ public class NotaService {
         return notas;
     }
 
-    public List<Nota> buscarPorPeriodo(LocalDate dataInicio, LocalDate dataFim) throws GestaoEscolarException {
-        List<Nota> notas = this.notaRepository.findByPeriodo(dataInicio, dataFim);
-        if (notas.isEmpty()) {
-            throw new GestaoEscolarException("Nenhuma nota encontrada para o período especificado");
+    public PaginaCursorDTO<NotaDTO> buscarPorPeriodo(LocalDate dataInicio, LocalDate dataFim, String cursor, Integer tamanho) throws GestaoEscolarException {
+        return this.filtrar(this.filtroPeriodo(dataInicio, dataFim), cursor, tamanho);
+    }
+
+    // Página ordenada por disciplina: um grupo pode continuar na página seguinte com o mesmo disciplinaId
+    public PaginaCursorDTO<GrupoNotasDisciplinaDTO> buscarPorPeriodoAgrupado(LocalDate dataInicio, LocalDate dataFim, String cursor, Integer tamanho) throws GestaoEscolarException {
+        FiltroNotaDTO filtro = this.filtroPeriodo(dataInicio, dataFim);
+        this.validarFiltro(filtro);
+        int tamanhoPagina = this.limitarTamanhoPagina(tamanho);
+
+        Specification<Nota> especificacao = NotaSpecification.comFiltro(filtro)
+                .and(NotaSpecification.apos(cursor != null ? CursorUtil.decodificarAgrupado(cursor) : null));
+        List<NotaDTO> notas = this.notaRepository.buscarProjetadoPorDisciplina(especificacao, tamanhoPagina + 1);
+
+        boolean possuiProxima = notas.size() > tamanhoPagina;
+        if (possuiProxima) {
+            notas = notas.subList(0, tamanhoPagina);
         }
-        return notas;
+
+        List<GrupoNotasDisciplinaDTO> grupos = new ArrayList<>();
+        GrupoNotasDisciplinaDTO grupo = null;
+        for (NotaDTO nota : notas) {
+            if (grupo == null || !grupo.getDisciplinaId().equals(nota.getDisciplinaId())) {
+                grupo = new GrupoNotasDisciplinaDTO();
+                grupo.setDisciplinaId(nota.getDisciplinaId());
+                grupo.setDisciplinaNome(nota.getDisciplinaNome());
+                grupos.add(grupo);
+            }
+            grupo.getNotas().add(nota);
+        }
+
+        String proximoCursor = null;
+        if (possuiProxima) {
+            NotaDTO ultima = notas.get(notas.size() - 1);
+            proximoCursor = CursorUtil.codificar(ultima.getDisciplinaId(), ultima.getDataAvaliacao(), ultima.getId());
+        }
+        return new PaginaCursorDTO<>(grupos, proximoCursor, possuiProxima);
     }
 
-    public List<Nota> buscarPorAlunoEDisciplinaETipo(String alunoId, String disciplinaId, TipoAvaliacao tipoAvaliacao) throws GestaoEscolarException {
-        List<Nota> notas = this.notaRepository.findByAlunoDisciplinaAndTipo(alunoId, disciplinaId, tipoAvaliacao.name());
+    public List<NotaDTO> buscarPorAlunoEDisciplinaETipo(String alunoId, String disciplinaId, TipoAvaliacao tipoAvaliacao) throws GestaoEscolarException {
+        List<NotaDTO> notas = this.notaRepository.findByAlunoDisciplinaAndTipo(alunoId, disciplinaId, tipoAvaliacao);
         if (notas.isEmpty()) {
             throw new GestaoEscolarException("Nenhuma nota encontrada para os critérios especificados");
         }
@@ -80,18 +174,34 @@ public class NotaService {
     }
 
     public Double calcularMediaAlunoDisciplina(String alunoId, String disciplinaId) throws GestaoEscolarException {
-        Optional<Double> media = this.notaRepository.calcularMediaAlunoDisciplina(alunoId, disciplinaId);
-        return media.orElse(0.0);
+        // Aplica a política de avaliação da disciplina; sem política equivale ao AVG simples
+        double media = this.politicaAvaliacaoService.calcularMediaFinal(alunoId, disciplinaId);
+        return Double.isNaN(media) ? 0.0 : media;
+    }
+
+    public Map<String, Double> calcularMediasFinaisDisciplina(String disciplinaId) throws GestaoEscolarException {
+        this.verificarDisciplinaExiste(disciplinaId);
+        Map<String, Double> medias = new LinkedHashMap<>(this.politicaAvaliacaoService.calcularMediasFinais(disciplinaId));
+        // Aluno só com notas de peso zero fica sem média
+        medias.replaceAll((alunoId, media) -> Double.isNaN(media) ? null : media);
+        return medias;
     }
 
+    @Transactional
     public Nota salvar(Nota nota) throws GestaoEscolarException {
         this.validarNota(nota);
         this.verificarAlunoExiste(nota.getAluno().getId());
         this.verificarDisciplinaExiste(nota.getDisciplina().getId());
         
-        return notaRepository.save(nota);
+        boolean nova = nota.getId() == null;
+        Nota notaSalva = notaRepository.save(nota);
+        if (nova) {
+            this.eventoNotaService.publicar(List.of(this.eventoNotaService.criada(notaSalva)));
+        }
+        return notaSalva;
     }
 
+    @Transactional
     public Nota salvarComDTO(NotaDTO notaDTO) throws GestaoEscolarException {
         // Validar se os IDs foram fornecidos
         if (notaDTO.getAlunoId() == null || notaDTO.getAlunoId().trim().isEmpty()) {
@@ -123,28 +233,139 @@ public class NotaService {
         // Validar a nota
         this.validarNota(nota);
         
-        return notaRepository.save(nota);
+        Nota notaSalva = notaRepository.save(nota);
+        this.eventoNotaService.publicar(List.of(this.eventoNotaService.criada(notaSalva)));
+        return notaSalva;
     }
 
+    @Transactional
+    public ResultadoLoteDTO salvarEmLote(LancamentoNotasDTO lancamentoDTO) throws GestaoEscolarException {
+        if (lancamentoDTO.getDisciplinaId() == null || lancamentoDTO.getDisciplinaId().trim().isEmpty()) {
+            throw new GestaoEscolarException("ID da disciplina é obrigatório");
+        }
+        if (lancamentoDTO.getNotas() == null || lancamentoDTO.getNotas().isEmpty()) {
+            throw new GestaoEscolarException("A lista de notas não pode ser vazia");
+        }
+        this.validarAvaliacao(lancamentoDTO.getTipoAvaliacao(), lancamentoDTO.getDataAvaliacao());
+        this.verificarDisciplinaExiste(lancamentoDTO.getDisciplinaId());
+
+        ResultadoLoteDTO resultado = new ResultadoLoteDTO();
+        resultado.setTotalRecebidos(lancamentoDTO.getNotas().size());
+
+        // Resolve todos os alunos da avaliação em uma única consulta
+        List<String> alunosIds = lancamentoDTO.getNotas().stream()
+                .map(LancamentoNotasDTO.ItemNota::getAlunoId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Set<String> idsExistentes = alunosIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(this.alunoRepository.findIdsExistentes(alunosIds));
+        Disciplina disciplina = this.disciplinaRepository.getReferenceById(lancamentoDTO.getDisciplinaId());
+
+        Set<String> processados = new HashSet<>();
+        List<Nota> notas = new ArrayList<>();
+        for (LancamentoNotasDTO.ItemNota item : lancamentoDTO.getNotas()) {
+            String alunoId = item.getAlunoId();
+            if (alunoId == null || alunoId.trim().isEmpty()) {
+                resultado.adicionarErro(alunoId, "ID do aluno é obrigatório");
+                continue;
+            }
+            if (!processados.add(alunoId)) {
+                resultado.adicionarErro(alunoId, "Aluno repetido no lote");
+                continue;
+            }
+            if (!idsExistentes.contains(alunoId)) {
+                resultado.adicionarErro(alunoId, "Aluno não encontrado");
+                continue;
+            }
+            if (item.getValor() == null) {
+                resultado.adicionarErro(alunoId, "O valor da nota não pode ser nulo");
+                continue;
+            }
+            // NaN passaria pelas comparações de faixa; "NaN" e "Infinity" chegam pelo JSON como texto
+            if (!Double.isFinite(item.getValor()) || item.getValor() < 0.0 || item.getValor() > 10.0) {
+                resultado.adicionarErro(alunoId, "A nota deve estar entre 0.0 e 10.0");
+                continue;
+            }
+
+            Nota nota = new Nota();
+            nota.setAluno(this.alunoRepository.getReferenceById(alunoId));
+            nota.setDisciplina(disciplina);
+            nota.setValor(item.getValor());
+            nota.setTipoAvaliacao(lancamentoDTO.getTipoAvaliacao());
+            nota.setDataAvaliacao(lancamentoDTO.getDataAvaliacao());
+            nota.setObservacao(item.getObservacao() != null ? item.getObservacao() : lancamentoDTO.getObservacao());
+            notas.add(nota);
+            resultado.adicionarSucesso(alunoId);
+        }
+
+        // Inserções agrupadas via hibernate.jdbc.batch_size (ids UUID não exigem ida ao banco)
+        this.notaRepository.saveAll(notas);
+        this.eventoNotaService.publicar(notas.stream()
+                .map(this.eventoNotaService::criada)
+                .collect(Collectors.toList()));
+        return resultado;
+    }
+
+    @Transactional
     public Nota atualizar(String id, Nota nota) throws GestaoEscolarException {
         Nota notaEditada = this.buscarPorId(id);
+        double valorAnterior = notaEditada.getValor();
 
         notaEditada.setValor(Optional.ofNullable(nota.getValor()).orElse(notaEditada.getValor()));
         notaEditada.setTipoAvaliacao(Optional.ofNullable(nota.getTipoAvaliacao()).orElse(notaEditada.getTipoAvaliacao()));
         notaEditada.setDataAvaliacao(Optional.ofNullable(nota.getDataAvaliacao()).orElse(notaEditada.getDataAvaliacao()));
         notaEditada.setObservacao(Optional.ofNullable(nota.getObservacao()).orElse(notaEditada.getObservacao()));
 
-        return this.salvar(notaEditada);
+        Nota notaSalva = this.salvar(notaEditada);
+        this.eventoNotaService.publicar(List.of(this.eventoNotaService.atualizada(notaSalva, valorAnterior)));
+        return notaSalva;
     }
 
+    @Transactional
     public void excluir(String id) throws GestaoEscolarException {
-        this.buscarPorId(id);
+        Nota nota = this.buscarPorId(id);
         this.notaRepository.deleteById(id);
+        this.eventoNotaService.publicar(List.of(this.eventoNotaService.excluida(nota)));
     }
 
+    @Transactional
     public void excluirPorAlunoEDisciplina(String alunoId, String disciplinaId) throws GestaoEscolarException {
         List<Nota> notas = this.buscarPorAlunoEDisciplina(alunoId, disciplinaId);
         this.notaRepository.deleteAll(notas);
+        this.eventoNotaService.publicar(notas.stream()
+                .map(this.eventoNotaService::excluida)
+                .collect(Collectors.toList()));
+    }
+
+    // Usado na exclusão do aluno: sem os eventos de exclusão, um replay do log recriaria essas notas nas projeções
+    @Transactional
+    public void excluirPorAluno(String alunoId) {
+        List<Nota> notas = this.notaRepository.findByAlunoId(alunoId);
+        this.notaRepository.deleteAll(notas);
+        this.eventoNotaService.publicar(notas.stream()
+                .map(this.eventoNotaService::excluida)
+                .collect(Collectors.toList()));
+    }
+
+    private FiltroNotaDTO filtroPeriodo(LocalDate dataInicio, LocalDate dataFim) throws GestaoEscolarException {
+        if (dataInicio == null || dataFim == null) {
+            throw new GestaoEscolarException("As datas inicial e final são obrigatórias");
+        }
+        FiltroNotaDTO filtro = new FiltroNotaDTO();
+        filtro.setDataInicio(dataInicio);
+        filtro.setDataFim(dataFim);
+        return filtro;
+    }
+
+    private void validarFiltro(FiltroNotaDTO filtro) throws GestaoEscolarException {
+        if (filtro.getDataInicio() != null && filtro.getDataFim() != null && filtro.getDataInicio().isAfter(filtro.getDataFim())) {
+            throw new GestaoEscolarException("A data inicial não pode ser posterior à data final");
+        }
+        if (filtro.getValorMinimo() != null && filtro.getValorMaximo() != null && filtro.getValorMinimo() > filtro.getValorMaximo()) {
+            throw new GestaoEscolarException("O valor mínimo não pode ser maior que o valor máximo");
+        }
     }
 
     private void validarNota(Nota nota) throws GestaoEscolarException {
@@ -152,23 +373,45 @@ public class NotaService {
             throw new GestaoEscolarException("O valor da nota não pode ser nulo");
         }
         
-        if (nota.getValor() < 0.0 || nota.getValor() > 10.0) {
+        if (!Double.isFinite(nota.getValor()) || nota.getValor() < 0.0 || nota.getValor() > 10.0) {
             throw new GestaoEscolarException("A nota deve estar entre 0.0 e 10.0");
         }
-        
-        if (nota.getTipoAvaliacao() == null) {
+
+        this.validarAvaliacao(nota.getTipoAvaliacao(), nota.getDataAvaliacao());
+    }
+
+    public void validarAvaliacao(TipoAvaliacao tipoAvaliacao, LocalDate dataAvaliacao) throws GestaoEscolarException {
+        if (tipoAvaliacao == null) {
             throw new GestaoEscolarException("O tipo de avaliação não pode ser nulo");
         }
         
-        if (nota.getDataAvaliacao() == null) {
+        if (dataAvaliacao == null) {
             throw new GestaoEscolarException("A data da avaliação não pode ser nula");
         }
         
-        if (nota.getDataAvaliacao().isAfter(LocalDate.now())) {
+        if (dataAvaliacao.isAfter(LocalDate.now())) {
             throw new GestaoEscolarException("A data da avaliação não pode ser futura");
         }
     }
 
+    private List<NotaDTO> buscarLote(CursorUtil.Cursor cursor, int limite) {
+        if (cursor == null) {
+            return this.notaRepository.buscarPrimeiraPagina(PageRequest.of(0, limite));
+        }
+        return this.notaRepository.buscarPaginaApos(cursor.data(), cursor.id(), PageRequest.of(0, limite));
+    }
+
+    private String cursorApos(NotaDTO ultimo) {
+        return CursorUtil.codificar(ultimo.getDataAvaliacao(), ultimo.getId());
+    }
+
+    private int limitarTamanhoPagina(Integer tamanho) {
+        if (tamanho == null || tamanho <= 0) {
+            return TAMANHO_PAGINA_PADRAO;
+        }
+        return Math.min(tamanho, TAMANHO_PAGINA_MAXIMO);
+    }
+
     private void verificarAlunoExiste(String alunoId) throws GestaoEscolarException {
         if (!this.alunoRepository.existsById(alunoId)) {
             throw new GestaoEscolarException("Aluno não encontrado");
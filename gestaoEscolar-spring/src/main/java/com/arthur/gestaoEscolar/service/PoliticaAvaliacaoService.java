@@ -0,0 +1,386 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.model.entity.EventoNota;
+import com.arthur.gestaoEscolar.model.entity.PoliticaAvaliacao;
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import com.arthur.gestaoEscolar.model.repository.DisciplinaRepository;
+import com.arthur.gestaoEscolar.model.repository.NotaRepository;
+import com.arthur.gestaoEscolar.model.repository.PoliticaAvaliacaoRepository;
+import com.arthur.gestaoEscolar.util.CacheLimitado;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Service
+public class PoliticaAvaliacaoService implements ProjecaoNota {
+
+    private static final int QUANTIDADE_TIPOS = TipoAvaliacao.values().length;
+    private static final int TIPO_RECUPERACAO = TipoAvaliacao.RECUPERACAO.ordinal();
+    private static final int QUANTIDADE_CARIMBOS = 1024;
+
+    // Regra de cálculo da média final; recebe as notas de um aluno em arrays primitivos
+    @FunctionalInterface
+    public interface RegraMedia {
+        double calcular(double[] valores, int[] tipos, int quantidade);
+    }
+
+    // Disciplina sem política: média simples de todas as notas, igual ao AVG do banco
+    public static final RegraMedia MEDIA_SIMPLES = (valores, tipos, quantidade) -> {
+        if (quantidade == 0) {
+            return Double.NaN;
+        }
+        double soma = 0;
+        for (int i = 0; i < quantidade; i++) {
+            soma += valores[i];
+        }
+        return soma / quantidade;
+    };
+
+    // Pesos indexados por TipoAvaliacao.ordinal()
+    public record RegraPonderada(double[] pesos, boolean descartarMenorNota, double mediaAprovacao) implements RegraMedia {
+
+        @Override
+        public double calcular(double[] valores, int[] tipos, int quantidade) {
+            double[] somas = new double[QUANTIDADE_TIPOS];
+            double[] menores = new double[QUANTIDADE_TIPOS];
+            int[] quantidades = new int[QUANTIDADE_TIPOS];
+            Arrays.fill(menores, Double.MAX_VALUE);
+            double recuperacao = Double.NaN;
+
+            for (int i = 0; i < quantidade; i++) {
+                int tipo = tipos[i];
+                double valor = valores[i];
+                if (tipo == TIPO_RECUPERACAO) {
+                    recuperacao = Double.isNaN(recuperacao) ? valor : Math.max(recuperacao, valor);
+                    continue;
+                }
+                somas[tipo] += valor;
+                quantidades[tipo]++;
+                if (valor < menores[tipo]) {
+                    menores[tipo] = valor;
+                }
+            }
+
+            double somaPonderada = 0;
+            double somaPesos = 0;
+            for (int tipo = 0; tipo < QUANTIDADE_TIPOS; tipo++) {
+                if (quantidades[tipo] == 0 || this.pesos[tipo] == 0) {
+                    continue;
+                }
+                double soma = somas[tipo];
+                int total = quantidades[tipo];
+                if (this.descartarMenorNota && total > 1) {
+                    soma -= menores[tipo];
+                    total--;
+                }
+                somaPonderada += this.pesos[tipo] * soma / total;
+                somaPesos += this.pesos[tipo];
+            }
+
+            double media = somaPesos > 0 ? somaPonderada / somaPesos : Double.NaN;
+            if (!Double.isNaN(recuperacao) && (Double.isNaN(media) || media < this.mediaAprovacao)) {
+                media = Double.isNaN(media) ? recuperacao : Math.max(media, recuperacao);
+            }
+            return media;
+        }
+    }
+
+    @Autowired
+    private PoliticaAvaliacaoRepository politicaAvaliacaoRepository;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Value("${gestaoEscolar.politica.cache.maximo-regras:2000}")
+    private int maximoRegras;
+
+    @Value("${gestaoEscolar.politica.cache.maximo-medias:50000}")
+    private int maximoMedias;
+
+    private CacheLimitado<String, RegraMedia> regras;
+
+    // Médias finais por "disciplinaId:alunoId"; NaN quando o aluno não tem notas
+    private CacheLimitado<String, Double> medias;
+
+    // Carimbos de invalidação espalhados por hash da chave (disciplina ou disciplina:aluno), com um extra
+    // para reiniciar(). Um cálculo só grava no cache se os carimbos das suas chaves não mudaram desde que
+    // começou; colisões só descartam cálculos à toa, nunca deixam valor antigo, e a memória é fixa
+    private final AtomicLongArray carimbos = new AtomicLongArray(QUANTIDADE_CARIMBOS + 1);
+
+    // Notificados depois do commit com (alunoId, disciplinaId); alunoId nulo quando a política da disciplina muda
+    private final List<BiConsumer<String, String>> ouvintes = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    public void iniciar() {
+        this.regras = new CacheLimitado<>(this.maximoRegras);
+        this.medias = new CacheLimitado<>(this.maximoMedias);
+    }
+
+    public PoliticaAvaliacao buscarPolitica(String disciplinaId) throws GestaoEscolarException {
+        return this.politicaAvaliacaoRepository.findByDisciplinaId(disciplinaId)
+                .orElseThrow(() -> new GestaoEscolarException("Política de avaliação não encontrada"));
+    }
+
+    @Transactional
+    public PoliticaAvaliacao salvarPolitica(String disciplinaId, PoliticaAvaliacao politica) throws GestaoEscolarException {
+        if (!this.disciplinaRepository.existsById(disciplinaId)) {
+            throw new GestaoEscolarException("Disciplina não encontrada");
+        }
+        this.validarPolitica(politica);
+
+        PoliticaAvaliacao politicaEditada = this.politicaAvaliacaoRepository.findByDisciplinaId(disciplinaId)
+                .orElseGet(PoliticaAvaliacao::new);
+        politicaEditada.setDisciplinaId(disciplinaId);
+        politicaEditada.getPesos().clear();
+        politicaEditada.getPesos().putAll(politica.getPesos());
+        politicaEditada.setDescartarMenorNota(Boolean.TRUE.equals(politica.getDescartarMenorNota()));
+        politicaEditada.setMediaAprovacao(politica.getMediaAprovacao() != null ? politica.getMediaAprovacao() : 6.0);
+
+        PoliticaAvaliacao politicaSalva = this.politicaAvaliacaoRepository.save(politicaEditada);
+        this.aposCommit(() -> {
+            this.invalidarDisciplina(disciplinaId);
+            this.notificar(null, disciplinaId);
+        });
+        return politicaSalva;
+    }
+
+    @Transactional
+    public void excluirPolitica(String disciplinaId) throws GestaoEscolarException {
+        PoliticaAvaliacao politica = this.buscarPolitica(disciplinaId);
+        this.politicaAvaliacaoRepository.delete(politica);
+        this.aposCommit(() -> {
+            this.invalidarDisciplina(disciplinaId);
+            this.notificar(null, disciplinaId);
+        });
+    }
+
+    public double calcularMediaFinal(String alunoId, String disciplinaId) {
+        String chave = chaveMedia(disciplinaId, alunoId);
+        Double media = this.medias.buscar(chave);
+        if (media != null) {
+            return media;
+        }
+
+        long carimboInicial = this.carimbo(disciplinaId, alunoId);
+        List<Object[]> notas = this.notaRepository.buscarValoresPorAlunoEDisciplina(alunoId, disciplinaId);
+        double[] valores = new double[notas.size()];
+        int[] tipos = new int[notas.size()];
+        for (int i = 0; i < notas.size(); i++) {
+            valores[i] = ((Number) notas.get(i)[0]).doubleValue();
+            tipos[i] = ((TipoAvaliacao) notas.get(i)[1]).ordinal();
+        }
+        double calculada = this.buscarRegra(disciplinaId).calcular(valores, tipos, notas.size());
+
+        this.medias.guardarSe(chave, calculada, () -> this.carimbo(disciplinaId, alunoId) == carimboInicial);
+        return calculada;
+    }
+
+    // Médias finais de todos os alunos com nota na disciplina, calculadas a partir de uma única consulta
+    public Map<String, Double> calcularMediasFinais(String disciplinaId) {
+        // Os alunos só são conhecidos depois da consulta: guarda todos os carimbos (8 KB) para comparar depois
+        long[] carimbosIniciais = this.copiarCarimbos();
+        Map<String, Double> resultado = agrupar(this.notaRepository.buscarValoresPorDisciplina(disciplinaId),
+                this.buscarRegra(disciplinaId));
+
+        resultado.forEach((alunoId, media) -> this.medias.guardarSe(chaveMedia(disciplinaId, alunoId), media,
+                () -> this.carimbo(disciplinaId, alunoId) == carimbo(carimbosIniciais, disciplinaId, alunoId)));
+        return resultado;
+    }
+
+    // Restritas a um período (o ano letivo do ranking, como no boletim): fora do cache de médias, que é de todas as notas
+    public Map<String, Double> calcularMediasFinais(String turmaId, String disciplinaId, LocalDate dataInicio, LocalDate dataFim) {
+        return agrupar(this.notaRepository.buscarValoresPorTurmaEDisciplina(turmaId, disciplinaId, dataInicio, dataFim),
+                this.buscarRegra(disciplinaId));
+    }
+
+    public double calcularMediaFinal(String alunoId, String disciplinaId, LocalDate dataInicio, LocalDate dataFim) {
+        List<Object[]> notas = this.notaRepository.buscarValoresPorAlunoEDisciplina(alunoId, disciplinaId, dataInicio, dataFim);
+        double[] valores = new double[notas.size()];
+        int[] tipos = new int[notas.size()];
+        for (int i = 0; i < notas.size(); i++) {
+            valores[i] = ((Number) notas.get(i)[0]).doubleValue();
+            tipos[i] = ((TipoAvaliacao) notas.get(i)[1]).ordinal();
+        }
+        return this.buscarRegra(disciplinaId).calcular(valores, tipos, notas.size());
+    }
+
+    // Linhas (alunoId, valor, tipo) ordenadas por aluno: uma média por aluno, sem objetos intermediários
+    private static Map<String, Double> agrupar(List<Object[]> notas, RegraMedia regra) {
+        Map<String, Double> resultado = new LinkedHashMap<>();
+        double[] valores = new double[16];
+        int[] tipos = new int[16];
+        int quantidade = 0;
+        String alunoAtual = null;
+        for (Object[] nota : notas) {
+            String alunoId = (String) nota[0];
+            if (!alunoId.equals(alunoAtual)) {
+                if (alunoAtual != null) {
+                    resultado.put(alunoAtual, regra.calcular(valores, tipos, quantidade));
+                }
+                alunoAtual = alunoId;
+                quantidade = 0;
+            }
+            if (quantidade == valores.length) {
+                valores = Arrays.copyOf(valores, quantidade * 2);
+                tipos = Arrays.copyOf(tipos, quantidade * 2);
+            }
+            valores[quantidade] = ((Number) nota[1]).doubleValue();
+            tipos[quantidade] = ((TipoAvaliacao) nota[2]).ordinal();
+            quantidade++;
+        }
+        if (alunoAtual != null) {
+            resultado.put(alunoAtual, regra.calcular(valores, tipos, quantidade));
+        }
+        return resultado;
+    }
+
+    // Qualquer evento (inclusive troca de tipo sem mudar o valor) invalida a média final do aluno
+    @Override
+    public void aplicar(List<EventoNota> eventos) {
+        Set<String> alterados = new HashSet<>();
+        for (EventoNota evento : eventos) {
+            if (alterados.add(evento.getAlunoId() + ":" + evento.getDisciplinaId())) {
+                this.invalidar(evento.getAlunoId(), evento.getDisciplinaId());
+            }
+        }
+    }
+
+    @Override
+    public void reiniciar() {
+        this.aposCommit(() -> {
+            this.carimbos.incrementAndGet(QUANTIDADE_CARIMBOS);
+            Set<String> disciplinas = new HashSet<>();
+            this.medias.removerSe((chave, media) -> {
+                disciplinas.add(chave.substring(0, chave.indexOf(':')));
+                return true;
+            });
+            disciplinas.forEach(disciplinaId -> this.notificar(null, disciplinaId));
+        });
+    }
+
+    public void invalidar(String alunoId, String disciplinaId) {
+        this.aposCommit(() -> {
+            // Carimbo antes da remoção: um cálculo em andamento ou vê o carimbo novo ou grava antes e é removido
+            String chave = chaveMedia(disciplinaId, alunoId);
+            this.carimbos.incrementAndGet(indice(chave));
+            this.medias.remover(chave);
+            this.notificar(alunoId, disciplinaId);
+        });
+    }
+
+    public void registrarOuvinte(BiConsumer<String, String> ouvinte) {
+        this.ouvintes.add(ouvinte);
+    }
+
+    private void notificar(String alunoId, String disciplinaId) {
+        for (BiConsumer<String, String> ouvinte : this.ouvintes) {
+            ouvinte.accept(alunoId, disciplinaId);
+        }
+    }
+
+    public RegraMedia buscarRegra(String disciplinaId) {
+        RegraMedia regra = this.regras.buscar(disciplinaId);
+        if (regra == null) {
+            int indice = indice(disciplinaId);
+            long carimboInicial = this.carimbos.get(indice);
+            regra = this.politicaAvaliacaoRepository.findByDisciplinaId(disciplinaId)
+                    .<RegraMedia>map(this::compilar)
+                    .orElse(MEDIA_SIMPLES);
+            this.regras.guardarSe(disciplinaId, regra, () -> this.carimbos.get(indice) == carimboInicial);
+        }
+        return regra;
+    }
+
+    private void invalidarDisciplina(String disciplinaId) {
+        this.carimbos.incrementAndGet(indice(disciplinaId));
+        this.regras.remover(disciplinaId);
+        String prefixo = disciplinaId + ":";
+        this.medias.removerSe((chave, media) -> chave.startsWith(prefixo));
+    }
+
+    // Soma de contadores que só crescem: muda sempre que qualquer um deles for incrementado
+    private long carimbo(String disciplinaId, String alunoId) {
+        return this.carimbos.get(indice(disciplinaId))
+                + this.carimbos.get(indice(chaveMedia(disciplinaId, alunoId)))
+                + this.carimbos.get(QUANTIDADE_CARIMBOS);
+    }
+
+    private static long carimbo(long[] carimbos, String disciplinaId, String alunoId) {
+        return carimbos[indice(disciplinaId)] + carimbos[indice(chaveMedia(disciplinaId, alunoId))] + carimbos[QUANTIDADE_CARIMBOS];
+    }
+
+    private long[] copiarCarimbos() {
+        long[] copia = new long[this.carimbos.length()];
+        for (int i = 0; i < copia.length; i++) {
+            copia[i] = this.carimbos.get(i);
+        }
+        return copia;
+    }
+
+    private static int indice(String chave) {
+        int hash = chave.hashCode();
+        return (hash ^ (hash >>> 16)) & (QUANTIDADE_CARIMBOS - 1);
+    }
+
+    private static String chaveMedia(String disciplinaId, String alunoId) {
+        return disciplinaId + ":" + alunoId;
+    }
+
+    private RegraPonderada compilar(PoliticaAvaliacao politica) {
+        double[] pesos = new double[QUANTIDADE_TIPOS];
+        Arrays.fill(pesos, 1.0);
+        Map<TipoAvaliacao, Double> pesosInformados = new HashMap<>(politica.getPesos());
+        pesosInformados.forEach((tipo, peso) -> pesos[tipo.ordinal()] = peso);
+        return new RegraPonderada(pesos, Boolean.TRUE.equals(politica.getDescartarMenorNota()), politica.getMediaAprovacao());
+    }
+
+    private void validarPolitica(PoliticaAvaliacao politica) throws GestaoEscolarException {
+        if (politica.getPesos() == null) {
+            throw new GestaoEscolarException("Os pesos da política não podem ser nulos");
+        }
+        for (Map.Entry<TipoAvaliacao, Double> peso : politica.getPesos().entrySet()) {
+            // NaN e infinito passariam por "< 0" e contaminariam todas as médias da disciplina
+            if (peso.getValue() == null || !Double.isFinite(peso.getValue()) || peso.getValue() < 0) {
+                throw new GestaoEscolarException("O peso de " + peso.getKey() + " deve ser maior ou igual a zero");
+            }
+        }
+        if (politica.getMediaAprovacao() != null && (!Double.isFinite(politica.getMediaAprovacao())
+                || politica.getMediaAprovacao() < 0.0 || politica.getMediaAprovacao() > 10.0)) {
+            throw new GestaoEscolarException("A média de aprovação deve estar entre 0.0 e 10.0");
+        }
+    }
+
+    // Só limpa o cache depois do commit, para que nenhuma leitura concorrente recoloque o valor antigo
+    private void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
@@ -27,6 +27,9 @@ public class ProfessorService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UsuarioService usuarioService;
+
     public Professor buscarProfessorLogado() throws GestaoEscolarException {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
@@ -137,6 +140,7 @@ public class ProfessorService {
         }
         
         this.professorRepository.deleteById(id);
+        this.usuarioService.revogarAcessos(professor);
     }
 
     public void adicionarDisciplina(String professorId, String disciplinaId) throws GestaoEscolarException {
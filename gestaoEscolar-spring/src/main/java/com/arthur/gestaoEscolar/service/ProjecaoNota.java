@@ -0,0 +1,15 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.model.entity.EventoNota;
+
+import java.util.List;
+
+// Visão derivada das notas alimentada pelo log de eventos: recebe os eventos na ordem do log,
+// dentro da transação que os gravou, e pode ser refeita do zero por replay
+public interface ProjecaoNota {
+
+    void aplicar(List<EventoNota> eventos);
+
+    // Descarta o estado da projeção antes de um replay completo
+    void reiniciar();
+}
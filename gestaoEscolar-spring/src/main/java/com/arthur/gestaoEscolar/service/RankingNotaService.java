@@ -0,0 +1,296 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.model.dto.PosicaoRankingDTO;
+import com.arthur.gestaoEscolar.model.dto.RankingTurmaDTO;
+import com.arthur.gestaoEscolar.model.entity.Aluno;
+import com.arthur.gestaoEscolar.model.repository.AlunoRepository;
+import com.arthur.gestaoEscolar.model.repository.DisciplinaRepository;
+import com.arthur.gestaoEscolar.model.repository.TurmaRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class RankingNotaService {
+
+    private static final int ANO_MINIMO = 2000;
+
+    @Autowired
+    private PoliticaAvaliacaoService politicaAvaliacaoService;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    // Reconstrução completa periódica: cobre transferências e exclusões que não passam pelo NotaService
+    @Value("${gestaoEscolar.notas.ranking.validade-minutos:30}")
+    private long validadeMinutos;
+
+    // Chave: turmaId:disciplinaId:anoLetivo
+    private final Map<String, Ranking> rankings = new ConcurrentHashMap<>();
+
+    // Ano letivo de cada turma, para o ano padrão não custar uma consulta a cada leitura; limpo em invalidarTurma
+    private final Map<String, Integer> anosPorTurma = new ConcurrentHashMap<>();
+
+    // Incrementada a cada alteração, antes de percorrer os rankings: um ranking montado durante uma
+    // alteração não fica no cache
+    private final AtomicLong versao = new AtomicLong();
+
+    @PostConstruct
+    public void registrarOuvinte() {
+        this.politicaAvaliacaoService.registrarOuvinte(this::marcarAlteracao);
+    }
+
+    public RankingTurmaDTO buscarMelhores(String turmaId, String disciplinaId, Integer anoLetivo, Integer limite) throws GestaoEscolarException {
+        if (limite != null && limite <= 0) {
+            throw new GestaoEscolarException("O limite deve ser maior que zero");
+        }
+        Ranking ranking = this.buscarRanking(turmaId, disciplinaId, anoLetivo);
+        return ranking.melhores(limite != null ? limite : Integer.MAX_VALUE);
+    }
+
+    public PosicaoRankingDTO buscarPosicao(String turmaId, String disciplinaId, Integer anoLetivo, String alunoId) throws GestaoEscolarException {
+        PosicaoRankingDTO posicao = this.buscarRanking(turmaId, disciplinaId, anoLetivo).posicao(alunoId);
+        if (posicao == null) {
+            throw new GestaoEscolarException("Aluno sem notas na disciplina ou fora da turma");
+        }
+        return posicao;
+    }
+
+    // Chamado depois do commit de qualquer alteração de nota; alunoId nulo = a disciplina inteira mudou
+    public void marcarAlteracao(String alunoId, String disciplinaId) {
+        this.versao.incrementAndGet();
+        this.rankings.entrySet().removeIf(entrada -> {
+            Ranking ranking = entrada.getValue();
+            if (!ranking.disciplinaId.equals(disciplinaId)) {
+                return false;
+            }
+            if (alunoId == null) {
+                return true;
+            }
+            ranking.pendentes.add(alunoId);
+            return false;
+        });
+    }
+
+    // Chamado quando a composição da turma muda
+    public void invalidarTurma(String turmaId) {
+        if (turmaId == null) {
+            return;
+        }
+        this.versao.incrementAndGet();
+        this.anosPorTurma.remove(turmaId);
+        this.rankings.values().removeIf(ranking -> ranking.turmaId.equals(turmaId));
+    }
+
+    // Mesmo recorte do boletim: notas do ano letivo informado ou, sem ele, do ano letivo da turma
+    private Ranking buscarRanking(String turmaId, String disciplinaId, Integer anoLetivo) throws GestaoEscolarException {
+        // O ano faz parte da chave do cache: um ano arbitrário não pode criar rankings sem limite
+        if (anoLetivo != null && (anoLetivo < ANO_MINIMO || anoLetivo > LocalDate.now().getYear() + 1)) {
+            throw new GestaoEscolarException("Ano letivo inválido: " + anoLetivo);
+        }
+        int ano = anoLetivo != null ? anoLetivo : this.buscarAnoLetivo(turmaId);
+        String chave = turmaId + ":" + disciplinaId + ":" + ano;
+        Ranking ranking = this.rankings.get(chave);
+        if (ranking != null && System.currentTimeMillis() - ranking.construidoEm < this.validadeMinutos * 60_000) {
+            ranking.aplicarPendentes(this.politicaAvaliacaoService);
+            return ranking;
+        }
+
+        if (anoLetivo != null && !this.turmaRepository.existsById(turmaId)) {
+            throw new GestaoEscolarException("Turma não encontrada");
+        }
+        if (!this.disciplinaRepository.existsById(disciplinaId)) {
+            throw new GestaoEscolarException("Disciplina não encontrada");
+        }
+
+        long versaoInicial = this.versao.get();
+        Map<String, String> membros = new HashMap<>();
+        for (Aluno aluno : this.alunoRepository.findByTurmaIdOrderByNome(turmaId)) {
+            membros.put(aluno.getId(), aluno.getNome());
+        }
+        LocalDate dataInicio = LocalDate.of(ano, 1, 1);
+        LocalDate dataFim = LocalDate.of(ano, 12, 31);
+        Map<String, Double> medias = new LinkedHashMap<>();
+        this.politicaAvaliacaoService.calcularMediasFinais(turmaId, disciplinaId, dataInicio, dataFim).forEach((alunoId, media) -> {
+            if (membros.containsKey(alunoId) && !Double.isNaN(media)) {
+                medias.put(alunoId, media);
+            }
+        });
+
+        ranking = new Ranking(turmaId, disciplinaId, dataInicio, dataFim, membros, medias);
+        if (this.versao.get() == versaoInicial) {
+            this.rankings.put(chave, ranking);
+            // Uma alteração entre a conferência e o put pode ter percorrido o mapa sem ver este ranking:
+            // confere de novo depois de publicado e, se algo mudou, retira só o que foi colocado aqui
+            if (this.versao.get() != versaoInicial) {
+                this.rankings.remove(chave, ranking);
+            }
+        }
+        return ranking;
+    }
+
+    private int buscarAnoLetivo(String turmaId) throws GestaoEscolarException {
+        Integer ano = this.anosPorTurma.get(turmaId);
+        if (ano == null) {
+            ano = this.turmaRepository.findById(turmaId)
+                    .orElseThrow(() -> new GestaoEscolarException("Turma não encontrada"))
+                    .getAnoLetivo();
+            this.anosPorTurma.put(turmaId, ano);
+        }
+        return ano;
+    }
+
+    // Alunos ordenados por média decrescente em arrays paralelos, com índice da posição de cada aluno.
+    // Uma alteração reposiciona só o aluno afetado, sem reordenar a turma
+    private static final class Ranking {
+
+        private final String turmaId;
+        private final String disciplinaId;
+        private final LocalDate dataInicio;
+        private final LocalDate dataFim;
+        private final Map<String, String> membros;
+        private final long construidoEm = System.currentTimeMillis();
+        private final Set<String> pendentes = ConcurrentHashMap.newKeySet();
+
+        private String[] alunos;
+        private double[] medias;
+        private int tamanho;
+        private final Map<String, Integer> indices = new HashMap<>();
+
+        private Ranking(String turmaId, String disciplinaId, LocalDate dataInicio, LocalDate dataFim,
+                        Map<String, String> membros, Map<String, Double> mediasPorAluno) {
+            this.turmaId = turmaId;
+            this.disciplinaId = disciplinaId;
+            this.dataInicio = dataInicio;
+            this.dataFim = dataFim;
+            this.membros = membros;
+
+            String[] ordenados = mediasPorAluno.keySet().toArray(new String[0]);
+            Arrays.sort(ordenados, (a, b) -> comparar(mediasPorAluno.get(a), a, mediasPorAluno.get(b), b));
+            this.alunos = new String[Math.max(ordenados.length, 8)];
+            this.medias = new double[this.alunos.length];
+            for (String alunoId : ordenados) {
+                this.alunos[this.tamanho] = alunoId;
+                this.medias[this.tamanho] = mediasPorAluno.get(alunoId);
+                this.indices.put(alunoId, this.tamanho);
+                this.tamanho++;
+            }
+        }
+
+        private synchronized void aplicarPendentes(PoliticaAvaliacaoService politicaAvaliacaoService) {
+            if (this.pendentes.isEmpty()) {
+                return;
+            }
+            for (String alunoId : this.pendentes.toArray(new String[0])) {
+                this.pendentes.remove(alunoId);
+                if (!this.membros.containsKey(alunoId)) {
+                    continue;
+                }
+                // Uma consulta pelo índice (aluno, disciplina, data) só com as notas do ano do ranking
+                this.remover(alunoId);
+                double media = politicaAvaliacaoService.calcularMediaFinal(alunoId, this.disciplinaId, this.dataInicio, this.dataFim);
+                if (!Double.isNaN(media)) {
+                    this.inserir(alunoId, media);
+                }
+            }
+        }
+
+        private synchronized RankingTurmaDTO melhores(int limite) {
+            RankingTurmaDTO ranking = new RankingTurmaDTO();
+            ranking.setTurmaId(this.turmaId);
+            ranking.setDisciplinaId(this.disciplinaId);
+            ranking.setQuantidadeAlunos(this.tamanho);
+            for (int i = 0; i < Math.min(limite, this.tamanho); i++) {
+                ranking.getPosicoes().add(this.montarPosicao(i));
+            }
+            return ranking;
+        }
+
+        private synchronized PosicaoRankingDTO posicao(String alunoId) {
+            Integer indice = this.indices.get(alunoId);
+            return indice != null ? this.montarPosicao(indice) : null;
+        }
+
+        private PosicaoRankingDTO montarPosicao(int indice) {
+            double media = this.medias[indice];
+            int primeiro = indice;
+            while (primeiro > 0 && this.medias[primeiro - 1] == media) {
+                primeiro--;
+            }
+            int ultimo = indice;
+            while (ultimo < this.tamanho - 1 && this.medias[ultimo + 1] == media) {
+                ultimo++;
+            }
+            int abaixo = this.tamanho - ultimo - 1;
+            int empatados = ultimo - primeiro + 1;
+            double percentil = (abaixo + empatados / 2.0) * 100.0 / this.tamanho;
+            String alunoId = this.alunos[indice];
+            return new PosicaoRankingDTO(alunoId, this.membros.get(alunoId), media, primeiro + 1, percentil);
+        }
+
+        private void remover(String alunoId) {
+            Integer indice = this.indices.remove(alunoId);
+            if (indice == null) {
+                return;
+            }
+            System.arraycopy(this.alunos, indice + 1, this.alunos, indice, this.tamanho - indice - 1);
+            System.arraycopy(this.medias, indice + 1, this.medias, indice, this.tamanho - indice - 1);
+            this.tamanho--;
+            this.alunos[this.tamanho] = null;
+            this.reindexar(indice, this.tamanho);
+        }
+
+        private void inserir(String alunoId, double media) {
+            if (this.tamanho == this.alunos.length) {
+                this.alunos = Arrays.copyOf(this.alunos, this.tamanho * 2);
+                this.medias = Arrays.copyOf(this.medias, this.tamanho * 2);
+            }
+            // Busca binária pela posição de inserção na ordem decrescente
+            int inicio = 0;
+            int fim = this.tamanho;
+            while (inicio < fim) {
+                int meio = (inicio + fim) >>> 1;
+                if (comparar(this.medias[meio], this.alunos[meio], media, alunoId) < 0) {
+                    inicio = meio + 1;
+                } else {
+                    fim = meio;
+                }
+            }
+            System.arraycopy(this.alunos, inicio, this.alunos, inicio + 1, this.tamanho - inicio);
+            System.arraycopy(this.medias, inicio, this.medias, inicio + 1, this.tamanho - inicio);
+            this.alunos[inicio] = alunoId;
+            this.medias[inicio] = media;
+            this.tamanho++;
+            this.reindexar(inicio, this.tamanho);
+        }
+
+        private void reindexar(int inicio, int fim) {
+            for (int i = inicio; i < fim; i++) {
+                this.indices.put(this.alunos[i], i);
+            }
+        }
+
+        // Média decrescente; desempate pelo id para manter a ordem estável entre reconstruções
+        private static int comparar(double mediaA, String alunoA, double mediaB, String alunoB) {
+            int comparacao = Double.compare(mediaB, mediaA);
+            return comparacao != 0 ? comparacao : alunoA.compareTo(alunoB);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.model.entity.RefreshToken;
+import com.arthur.gestaoEscolar.model.entity.Usuario;
+import com.arthur.gestaoEscolar.model.repository.RefreshTokenRepository;
+import com.arthur.gestaoEscolar.model.repository.UsuarioRepository;
+import com.arthur.gestaoEscolar.util.CacheLimitado;
+import com.arthur.gestaoEscolar.util.JwtUtil;
+import com.arthur.gestaoEscolar.util.VerificadorToken;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseCookie;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+// Refresh tokens opacos e rotativos: cada uso devolve um novo par (acesso + refresh).
+// Um refresh já rotacionado que volta a ser apresentado indica vazamento e revoga a família inteira,
+// exceto dentro de uma tolerância curta, em que abas do mesmo navegador renovam ao mesmo tempo
+@Service
+public class RefreshTokenService {
+
+    public static final String COOKIE = "refreshToken";
+
+    private final SecureRandom aleatorio = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${gestaoEscolar.jwt.validade-refresh-dias:7}")
+    private long validadeDias;
+
+    @Value("${gestaoEscolar.jwt.cookie-seguro:false}")
+    private boolean cookieSeguro;
+
+    @Value("${gestaoEscolar.jwt.refresh.tolerancia-segundos:10}")
+    private long toleranciaSegundos;
+
+    @Value("${gestaoEscolar.jwt.refresh.maximo-sucessores:10000}")
+    private int maximoSucessores;
+
+    public record Renovacao(String tokenAcesso, String refreshToken) {
+    }
+
+    // Renovação entregue a quem rotacionou primeiro, guardada só em memória e só pela tolerância
+    private record Sucessor(Renovacao renovacao, long emitidoEm) {
+    }
+
+    // Chave: hash do refresh token rotacionado
+    private CacheLimitado<String, Sucessor> sucessores;
+
+    @PostConstruct
+    public void iniciar() {
+        this.sucessores = new CacheLimitado<>(this.maximoSucessores);
+    }
+
+    @Transactional
+    public String emitir(Usuario usuario) {
+        return this.emitir(usuario.getId(), UUID.randomUUID().toString());
+    }
+
+    // noRollbackFor: a revogação da família por reutilização precisa ser gravada mesmo com o erro
+    @Transactional(noRollbackFor = GestaoEscolarException.class)
+    public Renovacao rotacionar(String token) throws GestaoEscolarException {
+        if (token == null || token.isBlank()) {
+            throw new GestaoEscolarException("Refresh token não informado");
+        }
+        String hash = VerificadorToken.hash(token);
+        RefreshToken atual = this.refreshTokenRepository.findByTokenHash(hash)
+                .orElseThrow(() -> new GestaoEscolarException("Refresh token inválido"));
+        if (atual.getRevogado()) {
+            throw new GestaoEscolarException("Refresh token revogado");
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        if (atual.getUsadoEm() != null || this.refreshTokenRepository.marcarUsado(atual.getId(), agora) == 0) {
+            Renovacao sucessor = this.buscarSucessor(hash);
+            if (sucessor != null) {
+                return sucessor;
+            }
+            this.refreshTokenRepository.revogarFamilia(atual.getFamilia());
+            throw new GestaoEscolarException("Refresh token reutilizado; sessão encerrada");
+        }
+        if (atual.getExpiraEm().isBefore(agora)) {
+            throw new GestaoEscolarException("Refresh token expirado");
+        }
+        Usuario usuario = this.usuarioRepository.findById(atual.getUsuarioId())
+                .filter(Usuario::getAtivo)
+                .orElseThrow(() -> new GestaoEscolarException("Usuário inativo ou inexistente"));
+
+        String novo = this.emitir(usuario.getId(), atual.getFamilia());
+        String tokenAcesso = this.jwtUtil.generateToken(usuario.getEmail(), usuario.getTipoUsuario().name());
+        Renovacao renovacao = new Renovacao(tokenAcesso, novo);
+        // Antes do commit: a requisição concorrente fica presa no marcarUsado até ele e já encontra o sucessor
+        this.sucessores.guardar(hash, new Sucessor(renovacao, System.currentTimeMillis()));
+        return renovacao;
+    }
+
+    // Token rotacionado há menos que a tolerância e cujo sucessor continua ativo: devolve o mesmo sucessor,
+    // para que abas concorrentes terminem com o mesmo cookie em vez de revogar a família
+    private Renovacao buscarSucessor(String hash) {
+        Sucessor sucessor = this.sucessores.buscar(hash);
+        if (sucessor == null || System.currentTimeMillis() - sucessor.emitidoEm() > this.toleranciaSegundos * 1000) {
+            return null;
+        }
+        // Leitura com trava, fora do snapshot da transação: enxerga logout ou revogação recém-confirmados
+        if (this.refreshTokenRepository.contarAtivosComTrava(VerificadorToken.hash(sucessor.renovacao().refreshToken())) == 0) {
+            return null;
+        }
+        return sucessor.renovacao();
+    }
+
+    @Transactional
+    public void revogar(String token) {
+        if (token == null || token.isBlank()) {
+            return;
+        }
+        this.refreshTokenRepository.findByTokenHash(VerificadorToken.hash(token))
+                .ifPresent(refreshToken -> this.refreshTokenRepository.revogarFamilia(refreshToken.getFamilia()));
+    }
+
+    @Transactional
+    public void revogarUsuario(String usuarioId) {
+        this.refreshTokenRepository.revogarPorUsuario(usuarioId);
+    }
+
+    // HttpOnly: o token não fica acessível ao JavaScript; o caminho restringe o envio às rotas de /api/auth
+    public ResponseCookie montarCookie(String token, String contextPath) {
+        return ResponseCookie.from(COOKIE, token != null ? token : "")
+                .httpOnly(true)
+                .secure(this.cookieSeguro)
+                .sameSite("Strict")
+                .path(contextPath + "/api/auth")
+                .maxAge(token != null ? Duration.ofDays(this.validadeDias) : Duration.ZERO)
+                .build();
+    }
+
+    @Transactional
+    @Scheduled(cron = "${gestaoEscolar.jwt.refresh.limpeza-cron:0 45 3 * * *}")
+    public int excluirExpirados() {
+        return this.refreshTokenRepository.excluirExpirados(LocalDateTime.now());
+    }
+
+    private String emitir(String usuarioId, String familia) {
+        byte[] bytes = new byte[32];
+        this.aleatorio.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(VerificadorToken.hash(token));
+        refreshToken.setUsuarioId(usuarioId);
+        refreshToken.setFamilia(familia);
+        refreshToken.setCriadoEm(LocalDateTime.now());
+        refreshToken.setExpiraEm(refreshToken.getCriadoEm().plusDays(this.validadeDias));
+        this.refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+}
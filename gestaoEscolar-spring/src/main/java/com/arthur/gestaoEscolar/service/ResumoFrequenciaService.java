@@ -0,0 +1,126 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.model.entity.ResumoFrequencia;
+import com.arthur.gestaoEscolar.model.repository.FrequenciaArquivadaRepository;
+import com.arthur.gestaoEscolar.model.repository.FrequenciaRepository;
+import com.arthur.gestaoEscolar.model.repository.ResumoFrequenciaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+public class ResumoFrequenciaService {
+
+    // Upsert atômico: evita ler-modificar-gravar sob concorrência
+    private static final String SQL_AJUSTAR =
+            "INSERT INTO resumo_frequencias (id, aluno_id, disciplina_id, total_aulas, total_presencas, data_atualizacao) " +
+            "VALUES (UUID(), ?, ?, ?, ?, CURRENT_DATE) " +
+            "ON DUPLICATE KEY UPDATE total_aulas = total_aulas + VALUES(total_aulas), " +
+            "total_presencas = total_presencas + VALUES(total_presencas), data_atualizacao = CURRENT_DATE";
+
+    @Autowired
+    private ResumoFrequenciaRepository resumoFrequenciaRepository;
+
+    @Autowired
+    private FrequenciaRepository frequenciaRepository;
+
+    @Autowired
+    private FrequenciaArquivadaRepository frequenciaArquivadaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public record Ajuste(String alunoId, String disciplinaId, long aulas, long presencas) {
+    }
+
+    public Long contarPresencas(String alunoId, String disciplinaId) {
+        return this.buscar(alunoId, disciplinaId).map(ResumoFrequencia::getTotalPresencas).orElse(0L);
+    }
+
+    public Long contarTotalAulas(String alunoId, String disciplinaId) {
+        return this.buscar(alunoId, disciplinaId).map(ResumoFrequencia::getTotalAulas).orElse(0L);
+    }
+
+    public Double calcularPercentualPresenca(String alunoId, String disciplinaId) {
+        return this.buscar(alunoId, disciplinaId)
+                .filter(r -> r.getTotalAulas() > 0)
+                .map(r -> r.getTotalPresencas() * 100.0 / r.getTotalAulas())
+                .orElse(0.0);
+    }
+
+    public void ajustar(String alunoId, String disciplinaId, long aulas, long presencas) {
+        this.ajustar(List.of(new Ajuste(alunoId, disciplinaId, aulas, presencas)));
+    }
+
+    public void ajustar(List<Ajuste> ajustes) {
+        List<Object[]> parametros = new ArrayList<>();
+        for (Ajuste ajuste : ajustes) {
+            if (ajuste.aulas() != 0 || ajuste.presencas() != 0) {
+                parametros.add(new Object[]{ajuste.alunoId(), ajuste.disciplinaId(), ajuste.aulas(), ajuste.presencas()});
+            }
+        }
+        if (!parametros.isEmpty()) {
+            this.jdbcTemplate.batchUpdate(SQL_AJUSTAR, parametros);
+        }
+    }
+
+    // Recalcula os resumos a partir das frequências e retorna quantos pares estavam divergentes.
+    // Contagens e resumos são lidos no mesmo snapshot da transação (REPEATABLE READ), e só a diferença
+    // é aplicada com o upsert incremental: gravações concorrentes à reconstrução não são sobrescritas
+    @Transactional
+    @Scheduled(cron = "${gestaoEscolar.frequencia.resumo.cron:0 0 3 * * *}")
+    public int reconstruir() {
+        Map<String, ResumoFrequencia> atuais = new HashMap<>();
+        for (ResumoFrequencia resumo : this.resumoFrequenciaRepository.findAll()) {
+            atuais.put(this.chave(resumo.getAlunoId(), resumo.getDisciplinaId()), resumo);
+        }
+
+        // Soma frequências quentes e arquivadas: o resumo cobre todo o histórico
+        Map<String, long[]> contagens = new HashMap<>();
+        List<Object[]> linhas = new ArrayList<>(this.frequenciaRepository.contarPorAlunoEDisciplina());
+        linhas.addAll(this.frequenciaArquivadaRepository.contarPorAlunoEDisciplina());
+        for (Object[] linha : linhas) {
+            long[] contagem = contagens.computeIfAbsent(this.chave((String) linha[0], (String) linha[1]), k -> new long[2]);
+            contagem[0] += ((Number) linha[2]).longValue();
+            contagem[1] += linha[3] != null ? ((Number) linha[3]).longValue() : 0L;
+        }
+
+        List<Ajuste> ajustes = new ArrayList<>();
+        for (Map.Entry<String, long[]> entrada : contagens.entrySet()) {
+            String[] ids = entrada.getKey().split(":", 2);
+            ResumoFrequencia resumo = atuais.remove(entrada.getKey());
+            long aulas = entrada.getValue()[0] - (resumo != null ? resumo.getTotalAulas() : 0L);
+            long presencas = entrada.getValue()[1] - (resumo != null ? resumo.getTotalPresencas() : 0L);
+            if (aulas != 0 || presencas != 0) {
+                ajustes.add(new Ajuste(ids[0], ids[1], aulas, presencas));
+            }
+        }
+
+        // O que sobrou não tem mais nenhuma frequência correspondente: zera pela diferença
+        for (ResumoFrequencia resumo : atuais.values()) {
+            if (resumo.getTotalAulas() != 0 || resumo.getTotalPresencas() != 0) {
+                ajustes.add(new Ajuste(resumo.getAlunoId(), resumo.getDisciplinaId(), -resumo.getTotalAulas(), -resumo.getTotalPresencas()));
+            }
+        }
+
+        this.ajustar(ajustes);
+        this.jdbcTemplate.update("DELETE FROM resumo_frequencias WHERE total_aulas = 0 AND total_presencas = 0");
+        return ajustes.size();
+    }
+
+    private Optional<ResumoFrequencia> buscar(String alunoId, String disciplinaId) {
+        return this.resumoFrequenciaRepository.findByAlunoIdAndDisciplinaId(alunoId, disciplinaId);
+    }
+
+    private String chave(String alunoId, String disciplinaId) {
+        return alunoId + ":" + disciplinaId;
+    }
+}
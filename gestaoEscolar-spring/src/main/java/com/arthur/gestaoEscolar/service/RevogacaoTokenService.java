@@ -0,0 +1,164 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.util.FiltroBloom;
+import com.arthur.gestaoEscolar.util.JwtUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Lista de revogação consultada pelo filtro JWT a cada requisição, sem acesso ao banco.
+// Tokens avulsos (logout) ficam num filtro de Bloom confirmado pelo conjunto exato;
+// usuários desativados revogam todo token emitido até o instante da desativação.
+// Cada revogação é anexada a um log local e relida na inicialização
+@Service
+public class RevogacaoTokenService {
+
+    private static final String ARQUIVO = "revogacoes.log";
+    private static final String TIPO_TOKEN = "T";
+    private static final String TIPO_USUARIO = "U";
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${gestaoEscolar.jwt.revogacao.diretorio:dados/revogacoes}")
+    private String diretorio;
+
+    @Value("${gestaoEscolar.jwt.revogacao.capacidade-filtro:100000}")
+    private int capacidadeFiltro;
+
+    // jti -> expiração do token (ms); depois dela a entrada é descartada
+    private final Map<String, Long> tokensRevogados = new ConcurrentHashMap<>();
+
+    // email -> instante da revogação (ms)
+    private final Map<String, Long> usuariosRevogados = new ConcurrentHashMap<>();
+
+    private volatile FiltroBloom filtro;
+
+    private final Object trava = new Object();
+    private FileOutputStream log;
+
+    @PostConstruct
+    public void iniciar() throws IOException {
+        Path pasta = Paths.get(this.diretorio);
+        Files.createDirectories(pasta);
+        Path arquivo = pasta.resolve(ARQUIVO);
+        long agora = System.currentTimeMillis();
+        if (Files.exists(arquivo)) {
+            for (String linha : Files.readAllLines(arquivo, StandardCharsets.UTF_8)) {
+                String[] partes = linha.split("\\|");
+                if (partes.length != 3) {
+                    continue;
+                }
+                long valor = Long.parseLong(partes[2]);
+                if (TIPO_TOKEN.equals(partes[0]) && valor > agora) {
+                    this.tokensRevogados.put(partes[1], valor);
+                } else if (TIPO_USUARIO.equals(partes[0]) && valor + this.jwtUtil.getValidadeMs() > agora) {
+                    this.usuariosRevogados.merge(partes[1], valor, Math::max);
+                }
+            }
+        }
+        this.reconstruirFiltro();
+        this.reescreverLog();
+    }
+
+    @PreDestroy
+    public void encerrar() throws IOException {
+        synchronized (this.trava) {
+            if (this.log != null) {
+                this.log.close();
+            }
+        }
+    }
+
+    public void revogarToken(String jti, long expiraEm) {
+        if (jti == null || expiraEm <= System.currentTimeMillis()) {
+            return;
+        }
+        this.tokensRevogados.put(jti, expiraEm);
+        this.filtro.adicionar(jti);
+        this.anexar(TIPO_TOKEN + "|" + jti + "|" + expiraEm);
+    }
+
+    public void revogarUsuario(String email) {
+        long agora = System.currentTimeMillis();
+        this.usuariosRevogados.merge(email, agora, Math::max);
+        this.anexar(TIPO_USUARIO + "|" + email + "|" + agora);
+    }
+
+    // O(1): o filtro de Bloom descarta quase todos os tokens sem tocar no conjunto exato
+    public boolean estaRevogado(String jti, String email, long emitidoEm) {
+        if (!this.usuariosRevogados.isEmpty()) {
+            Long revogadoEm = this.usuariosRevogados.get(email);
+            if (revogadoEm != null && emitidoEm <= revogadoEm) {
+                return true;
+            }
+        }
+        return jti != null && this.filtro.podeConter(jti) && this.tokensRevogados.containsKey(jti);
+    }
+
+    // Remove entradas cujos tokens já expiraram, refaz o filtro e compacta o log
+    @Scheduled(fixedDelayString = "${gestaoEscolar.jwt.revogacao.compactacao-ms:600000}")
+    public void compactar() {
+        long agora = System.currentTimeMillis();
+        this.tokensRevogados.values().removeIf(expiraEm -> expiraEm <= agora);
+        this.usuariosRevogados.values().removeIf(revogadoEm -> revogadoEm + this.jwtUtil.getValidadeMs() <= agora);
+        this.reconstruirFiltro();
+        try {
+            this.reescreverLog();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void reconstruirFiltro() {
+        FiltroBloom novo = new FiltroBloom(Math.max(this.capacidadeFiltro, this.tokensRevogados.size() * 2), 0.01);
+        this.tokensRevogados.keySet().forEach(novo::adicionar);
+        this.filtro = novo;
+        // Revogação concorrente com a troca: garante que o jti também esteja no filtro novo
+        this.tokensRevogados.keySet().forEach(novo::adicionar);
+    }
+
+    private void reescreverLog() throws IOException {
+        synchronized (this.trava) {
+            Path pasta = Paths.get(this.diretorio);
+            Path temporario = pasta.resolve(ARQUIVO + ".tmp");
+            List<String> linhas = new ArrayList<>();
+            this.tokensRevogados.forEach((jti, expiraEm) -> linhas.add(TIPO_TOKEN + "|" + jti + "|" + expiraEm));
+            this.usuariosRevogados.forEach((email, revogadoEm) -> linhas.add(TIPO_USUARIO + "|" + email + "|" + revogadoEm));
+            Files.write(temporario, linhas, StandardCharsets.UTF_8);
+            if (this.log != null) {
+                this.log.close();
+            }
+            Files.move(temporario, pasta.resolve(ARQUIVO), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.log = new FileOutputStream(pasta.resolve(ARQUIVO).toFile(), true);
+        }
+    }
+
+    // Revogações são raras: cada uma vai para o disco com fsync antes de responder
+    private void anexar(String linha) {
+        synchronized (this.trava) {
+            try {
+                this.log.write((linha + "\n").getBytes(StandardCharsets.UTF_8));
+                this.log.getFD().sync();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
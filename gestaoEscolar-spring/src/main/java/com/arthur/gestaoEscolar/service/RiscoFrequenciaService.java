@@ -0,0 +1,120 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.model.dto.RelatorioRiscoFrequenciaDTO;
+import com.arthur.gestaoEscolar.model.dto.RiscoFrequenciaDTO;
+import com.arthur.gestaoEscolar.model.repository.FrequenciaArquivadaRepository;
+import com.arthur.gestaoEscolar.model.repository.FrequenciaRepository;
+import com.arthur.gestaoEscolar.model.repository.TurmaRepository;
+import com.arthur.gestaoEscolar.util.CacheLimitado;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class RiscoFrequenciaService {
+
+    @Autowired
+    private FrequenciaRepository frequenciaRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private FrequenciaArquivadaRepository frequenciaArquivadaRepository;
+
+    @Autowired
+    private ArquivoFrequenciaService arquivoFrequenciaService;
+
+    @Value("${gestaoEscolar.frequencia.risco.limite:75}")
+    private Double limitePadrao;
+
+    private static final int ANO_MINIMO = 2000;
+    private static final int MAXIMO_RELATORIOS = 10;
+
+    // Último relatório gerado por ano letivo, lido pelo painel sem ir ao banco. Poucos anos são consultados
+    // de fato; o limite impede que anos arbitrários vindos da requisição façam o mapa crescer
+    private final CacheLimitado<Integer, RelatorioRiscoFrequenciaDTO> relatoriosPorAno = new CacheLimitado<>(MAXIMO_RELATORIOS);
+
+    public List<RiscoFrequenciaDTO> buscarPorTurma(String turmaId, Double limite) throws GestaoEscolarException {
+        if (!this.turmaRepository.existsById(turmaId)) {
+            throw new GestaoEscolarException("Turma não encontrada");
+        }
+        Double limiteValidado = this.validarLimite(limite);
+        if (!this.arquivoFrequenciaService.possuiArquivadas(null)) {
+            return this.frequenciaRepository.buscarRiscoPorTurma(turmaId, limiteValidado);
+        }
+
+        // A turma pode ter aulas nas duas tabelas: soma os totais por aluno e disciplina antes de aplicar o limite
+        Map<String, RiscoFrequenciaDTO> totais = new LinkedHashMap<>();
+        for (List<RiscoFrequenciaDTO> parciais : List.of(this.frequenciaArquivadaRepository.buscarTotaisPorTurma(turmaId),
+                this.frequenciaRepository.buscarTotaisPorTurma(turmaId))) {
+            for (RiscoFrequenciaDTO parcial : parciais) {
+                totais.merge(parcial.getAlunoId() + ":" + parcial.getDisciplinaId(), parcial, (a, b) -> new RiscoFrequenciaDTO(
+                        a.getAlunoId(), a.getAlunoNome(), a.getMatricula(), a.getTurmaId(), a.getTurmaNome(), a.getDisciplinaId(),
+                        a.getDisciplinaNome(), a.getTotalAulas() + b.getTotalAulas(), a.getTotalPresencas() + b.getTotalPresencas()));
+            }
+        }
+        return totais.values().stream()
+                .filter(r -> r.getPercentualPresenca() < limiteValidado)
+                .sorted(Comparator.comparing(RiscoFrequenciaDTO::getAlunoNome).thenComparing(RiscoFrequenciaDTO::getDisciplinaNome))
+                .toList();
+    }
+
+    public List<RiscoFrequenciaDTO> buscarPorAnoLetivo(Integer anoLetivo, Double limite) throws GestaoEscolarException {
+        this.validarAnoLetivo(anoLetivo);
+        LocalDate inicio = LocalDate.of(anoLetivo, 1, 1);
+        LocalDate fim = LocalDate.of(anoLetivo, 12, 31);
+        // O arquivamento move o ano inteiro de uma vez, então cada ano está todo em uma das tabelas
+        if (this.arquivoFrequenciaService.isArquivada(fim)) {
+            return this.frequenciaArquivadaRepository.buscarRiscoPorPeriodo(inicio, fim, this.validarLimite(limite));
+        }
+        return this.frequenciaRepository.buscarRiscoPorPeriodo(inicio, fim, this.validarLimite(limite));
+    }
+
+    public RelatorioRiscoFrequenciaDTO buscarRelatorio(Integer anoLetivo) throws GestaoEscolarException {
+        int ano = anoLetivo != null ? anoLetivo : LocalDate.now().getYear();
+        this.validarAnoLetivo(ano);
+        RelatorioRiscoFrequenciaDTO relatorio = this.relatoriosPorAno.buscar(ano);
+        return relatorio != null ? relatorio : this.gerarRelatorio(ano);
+    }
+
+    public RelatorioRiscoFrequenciaDTO gerarRelatorio(Integer anoLetivo) throws GestaoEscolarException {
+        List<RiscoFrequenciaDTO> alunos = this.buscarPorAnoLetivo(anoLetivo, this.limitePadrao);
+        RelatorioRiscoFrequenciaDTO relatorio = new RelatorioRiscoFrequenciaDTO(anoLetivo, this.limitePadrao, LocalDateTime.now(), alunos);
+        this.relatoriosPorAno.guardar(anoLetivo, relatorio);
+        return relatorio;
+    }
+
+    @Scheduled(cron = "${gestaoEscolar.frequencia.risco.cron:0 30 3 * * *}")
+    public void gerarRelatorioNoturno() {
+        this.gerarRelatorio(LocalDate.now().getYear());
+    }
+
+    private void validarAnoLetivo(Integer anoLetivo) throws GestaoEscolarException {
+        if (anoLetivo == null) {
+            throw new GestaoEscolarException("O ano letivo é obrigatório");
+        }
+        if (anoLetivo < ANO_MINIMO || anoLetivo > LocalDate.now().getYear() + 1) {
+            throw new GestaoEscolarException("Ano letivo inválido: " + anoLetivo);
+        }
+    }
+
+    private Double validarLimite(Double limite) throws GestaoEscolarException {
+        if (limite == null) {
+            return this.limitePadrao;
+        }
+        if (limite < 0.0 || limite > 100.0) {
+            throw new GestaoEscolarException("O limite deve estar entre 0 e 100");
+        }
+        return limite;
+    }
+}
@@ -0,0 +1,213 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.model.dto.ResultadoSimulacaoDTO;
+import com.arthur.gestaoEscolar.model.dto.SimulacaoNotaDTO;
+import com.arthur.gestaoEscolar.model.entity.EventoNota;
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import com.arthur.gestaoEscolar.model.repository.NotaRepository;
+import com.arthur.gestaoEscolar.util.CacheLimitado;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Service
+public class SimuladorNotaService implements ProjecaoNota {
+
+    private static final int MAXIMO_AVALIACOES_RESTANTES = 50;
+    private static final double MEDIA_APROVACAO_PADRAO = 6.0;
+    private static final double PRECISAO = 0.01;
+    private static final int QUANTIDADE_CARIMBOS = 1024;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private PoliticaAvaliacaoService politicaAvaliacaoService;
+
+    @Value("${gestaoEscolar.notas.simulador.maximo-alunos:5000}")
+    private int maximoAlunos;
+
+    // Notas do aluno por disciplina, carregadas numa única consulta no primeiro acesso (LRU)
+    private CacheLimitado<String, Retrato> retratos;
+
+    // Carimbos de invalidação por hash do aluno, mais um para reiniciar(): um retrato só entra no cache
+    // se os carimbos não mudaram desde o início da carga, conferidos com o segmento do cache travado
+    private final AtomicLongArray carimbos = new AtomicLongArray(QUANTIDADE_CARIMBOS + 1);
+
+    private record NotasDisciplina(double[] valores, int[] tipos) {
+    }
+
+    private record Retrato(Map<String, NotasDisciplina> disciplinas) {
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        this.retratos = new CacheLimitado<>(this.maximoAlunos);
+    }
+
+    public ResultadoSimulacaoDTO simular(String alunoId, String disciplinaId, SimulacaoNotaDTO simulacao) throws GestaoEscolarException {
+        List<TipoAvaliacao> restantes = simulacao.getAvaliacoesRestantes() != null ? simulacao.getAvaliacoesRestantes() : List.of();
+        if (restantes.size() > MAXIMO_AVALIACOES_RESTANTES) {
+            throw new GestaoEscolarException("No máximo " + MAXIMO_AVALIACOES_RESTANTES + " avaliações restantes por simulação");
+        }
+        if (restantes.contains(null)) {
+            throw new GestaoEscolarException("O tipo de cada avaliação restante é obrigatório");
+        }
+        if (simulacao.getMediaAprovacao() != null && (simulacao.getMediaAprovacao() < 0.0 || simulacao.getMediaAprovacao() > 10.0)) {
+            throw new GestaoEscolarException("A média de aprovação deve estar entre 0.0 e 10.0");
+        }
+
+        PoliticaAvaliacaoService.RegraMedia regra = this.politicaAvaliacaoService.buscarRegra(disciplinaId);
+        double mediaAprovacao = simulacao.getMediaAprovacao() != null ? simulacao.getMediaAprovacao()
+                : regra instanceof PoliticaAvaliacaoService.RegraPonderada ponderada ? ponderada.mediaAprovacao() : MEDIA_APROVACAO_PADRAO;
+
+        NotasDisciplina atuais = this.buscarRetrato(alunoId).disciplinas()
+                .getOrDefault(disciplinaId, new NotasDisciplina(new double[0], new int[0]));
+        int quantidadeAtual = atuais.valores().length;
+        int total = quantidadeAtual + restantes.size();
+
+        // Notas atuais seguidas das restantes, que recebem o mesmo valor hipotético
+        double[] valores = Arrays.copyOf(atuais.valores(), total);
+        int[] tipos = Arrays.copyOf(atuais.tipos(), total);
+        for (int i = 0; i < restantes.size(); i++) {
+            tipos[quantidadeAtual + i] = restantes.get(i).ordinal();
+        }
+
+        ResultadoSimulacaoDTO resultado = new ResultadoSimulacaoDTO();
+        resultado.setAlunoId(alunoId);
+        resultado.setDisciplinaId(disciplinaId);
+        resultado.setQuantidadeNotas(quantidadeAtual);
+        resultado.setMediaAprovacao(mediaAprovacao);
+        resultado.setAvaliacoesRestantes(restantes.size());
+        double mediaAtual = regra.calcular(atuais.valores(), atuais.tipos(), quantidadeAtual);
+        resultado.setMediaAtual(Double.isNaN(mediaAtual) ? null : mediaAtual);
+
+        double mediaMinima = this.simularMedia(regra, valores, tipos, quantidadeAtual, 0.0);
+        double mediaMaxima = this.simularMedia(regra, valores, tipos, quantidadeAtual, 10.0);
+        resultado.setMediaMaximaPossivel(Double.isNaN(mediaMaxima) ? null : mediaMaxima);
+        resultado.setAprovado(!Double.isNaN(mediaMinima) && mediaMinima >= mediaAprovacao);
+        resultado.setPossivel(!Double.isNaN(mediaMaxima) && mediaMaxima >= mediaAprovacao);
+        if (resultado.isAprovado()) {
+            resultado.setNotaMinima(0.0);
+        } else if (resultado.isPossivel() && !restantes.isEmpty()) {
+            resultado.setNotaMinima(this.buscarNotaMinima(regra, valores, tipos, quantidadeAtual, mediaAprovacao));
+        }
+        return resultado;
+    }
+
+    // Qualquer alteração de nota descarta o retrato do aluno, depois do commit
+    @Override
+    public void aplicar(List<EventoNota> eventos) {
+        Set<String> alunos = new HashSet<>();
+        for (EventoNota evento : eventos) {
+            alunos.add(evento.getAlunoId());
+        }
+        this.aposCommit(() -> alunos.forEach(alunoId -> {
+            // Carimbo antes da remoção: uma carga em andamento ou vê o carimbo novo ou grava antes e é removida
+            this.carimbos.incrementAndGet(indice(alunoId));
+            this.retratos.remover(alunoId);
+        }));
+    }
+
+    @Override
+    public void reiniciar() {
+        this.aposCommit(() -> {
+            this.carimbos.incrementAndGet(QUANTIDADE_CARIMBOS);
+            this.retratos.limpar();
+        });
+    }
+
+    // As regras de média são monótonas na nota: busca binária pelo menor valor que atinge a média
+    private double buscarNotaMinima(PoliticaAvaliacaoService.RegraMedia regra, double[] valores, int[] tipos,
+                                    int quantidadeAtual, double mediaAprovacao) {
+        double inferior = 0.0;
+        double superior = 10.0;
+        while (superior - inferior > PRECISAO / 2) {
+            double meio = (inferior + superior) / 2;
+            if (this.simularMedia(regra, valores, tipos, quantidadeAtual, meio) >= mediaAprovacao) {
+                superior = meio;
+            } else {
+                inferior = meio;
+            }
+        }
+        // Arredonda para cima na precisão de 0.01 e confere, para nunca sugerir uma nota insuficiente
+        double nota = Math.min(10.0, Math.ceil(superior / PRECISAO) * PRECISAO);
+        while (nota > 0.0 && this.simularMedia(regra, valores, tipos, quantidadeAtual, nota - PRECISAO) >= mediaAprovacao) {
+            nota -= PRECISAO;
+        }
+        return Math.round(nota * 100) / 100.0;
+    }
+
+    private double simularMedia(PoliticaAvaliacaoService.RegraMedia regra, double[] valores, int[] tipos,
+                                int quantidadeAtual, double nota) {
+        Arrays.fill(valores, quantidadeAtual, valores.length, nota);
+        return regra.calcular(valores, tipos, valores.length);
+    }
+
+    private Retrato buscarRetrato(String alunoId) {
+        Retrato retrato = this.retratos.buscar(alunoId);
+        if (retrato != null) {
+            return retrato;
+        }
+
+        long carimboInicial = this.carimbo(alunoId);
+        Map<String, double[]> valores = new HashMap<>();
+        Map<String, int[]> tipos = new HashMap<>();
+        Map<String, Integer> quantidades = new HashMap<>();
+        for (Object[] nota : this.notaRepository.buscarValoresPorAluno(alunoId)) {
+            String disciplinaId = (String) nota[0];
+            int posicao = quantidades.merge(disciplinaId, 1, Integer::sum) - 1;
+            double[] valoresDisciplina = valores.computeIfAbsent(disciplinaId, id -> new double[8]);
+            if (posicao == valoresDisciplina.length) {
+                valoresDisciplina = Arrays.copyOf(valoresDisciplina, posicao * 2);
+                valores.put(disciplinaId, valoresDisciplina);
+                tipos.put(disciplinaId, Arrays.copyOf(tipos.get(disciplinaId), posicao * 2));
+            }
+            valoresDisciplina[posicao] = ((Number) nota[1]).doubleValue();
+            tipos.computeIfAbsent(disciplinaId, id -> new int[8])[posicao] = ((TipoAvaliacao) nota[2]).ordinal();
+        }
+
+        Map<String, NotasDisciplina> disciplinas = new HashMap<>();
+        quantidades.forEach((disciplinaId, quantidade) -> disciplinas.put(disciplinaId, new NotasDisciplina(
+                Arrays.copyOf(valores.get(disciplinaId), quantidade), Arrays.copyOf(tipos.get(disciplinaId), quantidade))));
+        retrato = new Retrato(disciplinas);
+
+        this.retratos.guardarSe(alunoId, retrato, () -> this.carimbo(alunoId) == carimboInicial);
+        return retrato;
+    }
+
+    // Soma de contadores que só crescem: muda sempre que qualquer um deles for incrementado
+    private long carimbo(String alunoId) {
+        return this.carimbos.get(indice(alunoId)) + this.carimbos.get(QUANTIDADE_CARIMBOS);
+    }
+
+    private static int indice(String alunoId) {
+        int hash = alunoId.hashCode();
+        return (hash ^ (hash >>> 16)) & (QUANTIDADE_CARIMBOS - 1);
+    }
+
+    private void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
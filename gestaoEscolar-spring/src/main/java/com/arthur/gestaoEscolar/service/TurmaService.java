@@ -25,6 +25,9 @@ public class TurmaService {
     @Autowired
     private DisciplinaRepository disciplinaRepository;
 
+    @Autowired
+    private RankingNotaService rankingNotaService;
+
     public Turma buscarPorId(String id) throws GestaoEscolarException {
         return this.turmaRepository.findById(id)
                 .orElseThrow(() -> new GestaoEscolarException("Turma não encontrada"));
@@ -76,7 +79,10 @@ public class TurmaService {
         turmaEditada.setNome(Optional.ofNullable(turma.getNome()).orElse(turmaEditada.getNome()));
         turmaEditada.setAnoLetivo(Optional.ofNullable(turma.getAnoLetivo()).orElse(turmaEditada.getAnoLetivo()));
 
-        return this.salvar(turmaEditada);
+        Turma turmaSalva = this.salvar(turmaEditada);
+        // O ano letivo padrão do ranking vem da turma
+        this.rankingNotaService.invalidarTurma(id);
+        return turmaSalva;
     }
 
     public void excluir(String id) throws GestaoEscolarException {
@@ -88,6 +94,7 @@ public class TurmaService {
         }
         
         this.turmaRepository.deleteById(id);
+        this.rankingNotaService.invalidarTurma(id);
     }
 
     public void adicionarAluno(String turmaId, String alunoId) throws GestaoEscolarException {
@@ -100,7 +107,9 @@ public class TurmaService {
         }
         
         // Remove o aluno da turma anterior se existir
+        String turmaAnteriorId = null;
         if (aluno.getTurma() != null) {
+            turmaAnteriorId = aluno.getTurma().getId();
             aluno.getTurma().getAlunos().remove(aluno);
         }
         
@@ -109,6 +118,8 @@ public class TurmaService {
         
         this.turmaRepository.save(turma);
         this.alunoRepository.save(aluno);
+        this.rankingNotaService.invalidarTurma(turmaAnteriorId);
+        this.rankingNotaService.invalidarTurma(turmaId);
     }
 
     public void removerAluno(String turmaId, String alunoId) throws GestaoEscolarException {
@@ -125,6 +136,7 @@ public class TurmaService {
         
         this.turmaRepository.save(turma);
         this.alunoRepository.save(aluno);
+        this.rankingNotaService.invalidarTurma(turmaId);
     }
 
     public void adicionarDisciplina(String turmaId, String disciplinaId) throws GestaoEscolarException {
@@ -23,6 +23,12 @@ public class UsuarioService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private RevogacaoTokenService revogacaoTokenService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         return this.buscarPorEmail(username);
@@ -92,23 +98,41 @@ public class UsuarioService implements UserDetailsService {
         usuarioEditado.setNome(Optional.ofNullable(usuario.getNome()).orElse(usuarioEditado.getNome()));
         usuarioEditado.setDataNascimento(Optional.ofNullable(usuario.getDataNascimento()).orElse(usuarioEditado.getDataNascimento()));
         usuarioEditado.setEmail(Optional.ofNullable(usuario.getEmail()).orElse(usuarioEditado.getEmail()));
-        
-        if (usuario.getSenha() != null && !usuario.getSenha().trim().isEmpty()) {
+        this.verificarEmailJaUtilizado(usuarioEditado.getEmail(), id);
+
+        // Grava direto: salvar() codificaria de novo o hash que já está no usuário
+        boolean senhaAlterada = usuario.getSenha() != null && !usuario.getSenha().trim().isEmpty();
+        if (senhaAlterada) {
             usuarioEditado.setSenha(passwordEncoder.encode(usuario.getSenha()));
         }
 
-        return this.salvar(usuarioEditado);
+        Usuario usuarioSalvo = this.usuarioRepository.save(usuarioEditado);
+        if (senhaAlterada) {
+            // Sessões abertas com a senha antiga não renovam mais; o token de acesso expira em minutos
+            this.refreshTokenService.revogarUsuario(id);
+        }
+        return usuarioSalvo;
     }
 
     public void excluir(String id) throws GestaoEscolarException {
-        this.buscarPorId(id);
+        Usuario usuario = this.buscarPorId(id);
         this.usuarioRepository.deleteById(id);
+        this.revogarAcessos(usuario);
     }
 
     public void ativarDesativar(String id) throws GestaoEscolarException {
         Usuario usuario = this.buscarPorId(id);
         usuario.setAtivo(!usuario.getAtivo());
         this.usuarioRepository.save(usuario);
+        if (!usuario.getAtivo()) {
+            this.revogarAcessos(usuario);
+        }
+    }
+
+    // Tokens de acesso já emitidos deixam de valer na hora, sem consulta ao banco no filtro JWT
+    public void revogarAcessos(Usuario usuario) {
+        this.revogacaoTokenService.revogarUsuario(usuario.getEmail());
+        this.refreshTokenService.revogarUsuario(usuario.getId());
     }
 
     public void verificarEmailJaUtilizado(String email, String idUsuarioAtual) throws GestaoEscolarException {
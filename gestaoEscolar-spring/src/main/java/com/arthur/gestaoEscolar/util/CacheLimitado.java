@@ -0,0 +1,129 @@
+package com.arthur.gestaoEscolar.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+// Mapa com tamanho máximo e remoção do menos usado (LRU) em O(1). Dividido em segmentos, cada um um
+// LinkedHashMap em ordem de acesso sob sua própria trava, para que threads em chaves diferentes não
+// disputem a mesma trava; o LRU vale por segmento, o que basta para limitar memória
+public class CacheLimitado<K, V> {
+
+    private static final int MAXIMO_SEGMENTOS = 16;
+    // Caches pequenos ficam num só segmento, com LRU exato
+    private static final int MINIMO_POR_SEGMENTO = 64;
+
+    private final Segmento<K, V>[] segmentos;
+
+    @SuppressWarnings("unchecked")
+    public CacheLimitado(int capacidade) {
+        int quantidade = 1;
+        while (quantidade < MAXIMO_SEGMENTOS && quantidade * 2 * MINIMO_POR_SEGMENTO <= capacidade) {
+            quantidade *= 2;
+        }
+        this.segmentos = (Segmento<K, V>[]) new Segmento<?, ?>[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            this.segmentos[i] = new Segmento<>(Math.max(1, capacidade / quantidade));
+        }
+    }
+
+    public V buscar(K chave) {
+        Segmento<K, V> segmento = this.segmento(chave);
+        synchronized (segmento) {
+            return segmento.get(chave);
+        }
+    }
+
+    public void guardar(K chave, V valor) {
+        Segmento<K, V> segmento = this.segmento(chave);
+        synchronized (segmento) {
+            segmento.put(chave, valor);
+        }
+    }
+
+    // Grava só se a condição ainda valer, avaliada com o segmento travado: quem invalida e depois remove
+    // a chave nunca deixa para trás um valor calculado antes da invalidação
+    public boolean guardarSe(K chave, V valor, BooleanSupplier condicao) {
+        Segmento<K, V> segmento = this.segmento(chave);
+        synchronized (segmento) {
+            if (!condicao.getAsBoolean()) {
+                return false;
+            }
+            segmento.put(chave, valor);
+            return true;
+        }
+    }
+
+    // A função roda com o segmento travado: deve ser curta e não acessar este cache
+    public V buscarOuCalcular(K chave, Function<? super K, ? extends V> funcao) {
+        Segmento<K, V> segmento = this.segmento(chave);
+        synchronized (segmento) {
+            return segmento.computeIfAbsent(chave, funcao);
+        }
+    }
+
+    // Idem; devolver null remove a chave
+    public V calcular(K chave, BiFunction<? super K, ? super V, ? extends V> funcao) {
+        Segmento<K, V> segmento = this.segmento(chave);
+        synchronized (segmento) {
+            return segmento.compute(chave, funcao);
+        }
+    }
+
+    public V remover(K chave) {
+        Segmento<K, V> segmento = this.segmento(chave);
+        synchronized (segmento) {
+            return segmento.remove(chave);
+        }
+    }
+
+    // Percorre todos os segmentos: para invalidações em grupo, fora do caminho de cada requisição
+    public void removerSe(BiPredicate<? super K, ? super V> filtro) {
+        for (Segmento<K, V> segmento : this.segmentos) {
+            synchronized (segmento) {
+                segmento.entrySet().removeIf(entrada -> filtro.test(entrada.getKey(), entrada.getValue()));
+            }
+        }
+    }
+
+    public void limpar() {
+        for (Segmento<K, V> segmento : this.segmentos) {
+            synchronized (segmento) {
+                segmento.clear();
+            }
+        }
+    }
+
+    public int tamanho() {
+        int tamanho = 0;
+        for (Segmento<K, V> segmento : this.segmentos) {
+            synchronized (segmento) {
+                tamanho += segmento.size();
+            }
+        }
+        return tamanho;
+    }
+
+    private Segmento<K, V> segmento(K chave) {
+        int hash = chave.hashCode();
+        return this.segmentos[(hash ^ (hash >>> 16)) & (this.segmentos.length - 1)];
+    }
+
+    private static final class Segmento<K, V> extends LinkedHashMap<K, V> {
+
+        private final int capacidade;
+
+        Segmento(int capacidade) {
+            super(16, 0.75f, true);
+            this.capacidade = capacidade;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> maisAntiga) {
+            return this.size() > this.capacidade;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.arthur.gestaoEscolar.util;
+
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Cursor opaco para paginação por chave (data, id)
+public final class CursorUtil {
+
+    private static final String SEPARADOR = "|";
+
+    private CursorUtil() {
+    }
+
+    public static String codificar(LocalDate data, String id) {
+        String valor = data + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decodificar(String cursor) throws GestaoEscolarException {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.indexOf(SEPARADOR);
+            if (separador < 0) {
+                throw new GestaoEscolarException("Cursor inválido");
+            }
+            return new Cursor(LocalDate.parse(valor.substring(0, separador)), valor.substring(separador + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new GestaoEscolarException("Cursor inválido", e);
+        }
+    }
+
+    // Variante com um grupo à frente da chave: (grupo, data, id)
+    public static String codificar(String grupo, LocalDate data, String id) {
+        return codificar(data, grupo + SEPARADOR + id);
+    }
+
+    public static CursorAgrupado decodificarAgrupado(String cursor) throws GestaoEscolarException {
+        Cursor base = decodificar(cursor);
+        int separador = base.id().indexOf(SEPARADOR);
+        if (separador < 0) {
+            throw new GestaoEscolarException("Cursor inválido");
+        }
+        return new CursorAgrupado(base.id().substring(0, separador), base.data(), base.id().substring(separador + 1));
+    }
+
+    public record Cursor(LocalDate data, String id) {
+    }
+
+    public record CursorAgrupado(String grupo, LocalDate data, String id) {
+    }
+}
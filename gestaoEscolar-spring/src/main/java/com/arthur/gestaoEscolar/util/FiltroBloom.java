@@ -0,0 +1,64 @@
+package com.arthur.gestaoEscolar.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Filtro de Bloom thread-safe: "não contém" é definitivo, "contém" precisa de confirmação
+public class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final int quantidadeBits;
+    private final int quantidadeHashes;
+
+    // Dimensionado para a capacidade e a taxa de falso positivo desejadas
+    public FiltroBloom(int capacidade, double taxaFalsoPositivo) {
+        int capacidadeMinima = Math.max(1, capacidade);
+        long bitsCalculados = (long) Math.ceil(-capacidadeMinima * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.quantidadeBits = (int) Math.max(64, Math.min(Integer.MAX_VALUE - 63, bitsCalculados));
+        this.quantidadeHashes = Math.max(1, (int) Math.round((double) this.quantidadeBits / capacidadeMinima * Math.log(2)));
+        this.bits = new AtomicLongArray((this.quantidadeBits + 63) / 64);
+    }
+
+    public void adicionar(String valor) {
+        long hash = hash64(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < this.quantidadeHashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, this.quantidadeBits);
+            int palavra = bit >>> 6;
+            long mascara = 1L << (bit & 63);
+            long atual;
+            do {
+                atual = this.bits.get(palavra);
+            } while ((atual & mascara) == 0 && !this.bits.compareAndSet(palavra, atual, atual | mascara));
+        }
+    }
+
+    public boolean podeConter(String valor) {
+        long hash = hash64(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < this.quantidadeHashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, this.quantidadeBits);
+            if ((this.bits.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a de 64 bits seguido de mistura final (splitmix64)
+    private static long hash64(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
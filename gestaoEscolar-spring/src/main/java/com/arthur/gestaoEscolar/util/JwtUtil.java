@@ -1,22 +1,37 @@
 package com.arthur.gestaoEscolar.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
-    private static final long JWT_TOKEN_VALIDITY = 5 * 60 * 60; // 5 horas
-    private static final Key SECRET_KEY = Keys.hmacShaKeyFor("minhaChaveSecretaMuitoLongaParaHS512Algoritmo123456789".getBytes());
+    private final Key secretKey;
+
+    // O parser é imutável e thread-safe: montado uma vez em vez de a cada leitura
+    private final JwtParser parser;
+
+    // Token de acesso curto: a renovação é feita pelo refresh token
+    private final long validadeMs;
+
+    public JwtUtil(@Value("${gestaoEscolar.jwt.segredo:minhaChaveSecretaMuitoLongaParaHS512Algoritmo123456789}") String segredo,
+                   @Value("${gestaoEscolar.jwt.validade-acesso-minutos:15}") long validadeMinutos) {
+        this.secretKey = Keys.hmacShaKeyFor(segredo.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(this.secretKey).build();
+        this.validadeMs = validadeMinutos * 60_000;
+    }
 
     public String generateToken(String email, String tipoUsuario) {
         Map<String, Object> claims = new HashMap<>();
@@ -24,13 +39,20 @@ public class JwtUtil {
         return createToken(claims, email);
     }
 
+    public long getValidadeMs() {
+        return this.validadeMs;
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
+        long agora = System.currentTimeMillis();
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + JWT_TOKEN_VALIDITY * 1000))
-                .signWith(SECRET_KEY)
+                // jti identifica o token na lista de revogação
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date(agora))
+                .setExpiration(new Date(agora + this.validadeMs))
+                .signWith(this.secretKey)
                 .compact();
     }
 
@@ -57,12 +79,9 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Verifica assinatura e expiração; lança JwtException se o token for inválido
+    public Claims extractAllClaims(String token) {
+        return this.parser.parseClaimsJws(token).getBody();
     }
 
     private Boolean isTokenExpired(String token) {
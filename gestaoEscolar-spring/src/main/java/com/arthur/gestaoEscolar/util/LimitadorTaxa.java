@@ -0,0 +1,80 @@
+package com.arthur.gestaoEscolar.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Balde de tokens na forma GCRA: cada chave guarda só o instante teórico em que o balde volta a
+// ficar cheio, atualizado por CAS. Consumir um token de uma chave conhecida custa um get no
+// ConcurrentHashMap e um CAS, sem trava; só a primeira requisição de uma chave trava o bin do mapa
+public class LimitadorTaxa {
+
+    private final long intervaloNanos;
+    private final long limiteNanos;
+    private final int maximoChaves;
+
+    // chave -> instante (System.nanoTime) em que o balde estará cheio de novo. Balde que já recarregou
+    // não guarda estado útil e sai na varredura, fora do caminho da requisição
+    private final ConcurrentHashMap<String, AtomicLong> baldes = new ConcurrentHashMap<>();
+    private final AtomicBoolean varrendo = new AtomicBoolean();
+
+    public LimitadorTaxa(int capacidade, int porMinuto, int maximoChaves) {
+        this.intervaloNanos = 60_000_000_000L / Math.max(1, porMinuto);
+        this.limiteNanos = this.intervaloNanos * Math.max(1, capacidade);
+        this.maximoChaves = Math.max(1, maximoChaves);
+    }
+
+    // Devolve 0 se a requisição pode seguir, ou quantos nanossegundos faltam para haver um token
+    public long consumir(String chave) {
+        return this.consumir(chave, System.nanoTime());
+    }
+
+    // Relógio explícito para os testes
+    long consumir(String chave, long agora) {
+        AtomicLong balde = this.baldes.get(chave);
+        if (balde == null) {
+            balde = this.criarBalde(chave, agora);
+        }
+        while (true) {
+            long cheioEm = balde.get();
+            long novo = (cheioEm - agora > 0 ? cheioEm : agora) + this.intervaloNanos;
+            long espera = novo - agora - this.limiteNanos;
+            if (espera > 0) {
+                return espera;
+            }
+            if (balde.compareAndSet(cheioEm, novo)) {
+                return 0;
+            }
+        }
+    }
+
+    // Remove os baldes que já recarregaram. Aproximada: uma requisição que pegou o balde antes da remoção
+    // grava num balde descartado, e a chave pode ganhar no máximo um token a mais
+    public int varrer() {
+        return this.varrer(System.nanoTime());
+    }
+
+    int varrer(long agora) {
+        int antes = this.baldes.size();
+        this.baldes.values().removeIf(balde -> balde.get() - agora <= 0);
+        return antes - this.baldes.size();
+    }
+
+    public int quantidadeChaves() {
+        return this.baldes.size();
+    }
+
+    // Acima do máximo entre duas varreduras (muitas chaves novas, por exemplo IPs variados), a varredura
+    // roda na requisição que criaria a chave, e só numa thread por vez. Baldes ainda vazando não saem:
+    // descartá-los liberaria a chave do limite
+    private AtomicLong criarBalde(String chave, long agora) {
+        if (this.baldes.size() >= this.maximoChaves && this.varrendo.compareAndSet(false, true)) {
+            try {
+                this.varrer(agora);
+            } finally {
+                this.varrendo.set(false);
+            }
+        }
+        return this.baldes.computeIfAbsent(chave, k -> new AtomicLong(agora));
+    }
+}
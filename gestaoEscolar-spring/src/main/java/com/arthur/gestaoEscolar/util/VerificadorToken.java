@@ -0,0 +1,111 @@
+package com.arthur.gestaoEscolar.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import com.arthur.gestaoEscolar.service.RevogacaoTokenService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+// Verifica o JWT uma única vez e guarda as claims já verificadas até a expiração do token.
+// A chave do cache é o próprio token: dispensa o SHA-256 a cada requisição (VerificadorTokenBenchmarkTest).
+// Não pode ser só a assinatura, que casaria com qualquer header.payload. Acima do máximo sai o token usado
+// há mais tempo, e expirados são descartados quando consultados
+@Component
+public class VerificadorToken {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private RevogacaoTokenService revogacaoTokenService;
+
+    @Value("${gestaoEscolar.jwt.cache.maximo-tokens:10000}")
+    private int maximoTokens;
+
+    private CacheLimitado<String, TokenVerificado> verificados;
+
+    public record TokenVerificado(String id, String username, String tipoUsuario, long emitidoEm, long expiraEm) {
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        this.verificados = new CacheLimitado<>(this.maximoTokens);
+    }
+
+    public enum Resultado {
+        VALIDO,
+        EXPIRADO,
+        MALFORMADO,
+        REVOGADO,
+        AUSENTE
+    }
+
+    // token só é preenchido quando o resultado é VALIDO
+    public record Verificacao(Resultado resultado, TokenVerificado token) {
+    }
+
+    public Verificacao verificar(String token) {
+        if (token == null || token.isBlank()) {
+            return new Verificacao(Resultado.AUSENTE, null);
+        }
+        long agora = System.currentTimeMillis();
+        TokenVerificado verificado = this.verificados.buscar(token);
+        if (verificado != null) {
+            if (verificado.expiraEm() <= agora) {
+                this.verificados.remover(token);
+                return new Verificacao(Resultado.EXPIRADO, null);
+            }
+            // A revogação é consultada a cada requisição, também para tokens já em cache
+            return this.conferirRevogacao(verificado);
+        }
+
+        Claims claims;
+        try {
+            claims = this.jwtUtil.extractAllClaims(token);
+        } catch (ExpiredJwtException e) {
+            return new Verificacao(Resultado.EXPIRADO, null);
+        } catch (JwtException | IllegalArgumentException e) {
+            return new Verificacao(Resultado.MALFORMADO, null);
+        }
+        if (claims.getSubject() == null || claims.getExpiration() == null || claims.getIssuedAt() == null) {
+            return new Verificacao(Resultado.MALFORMADO, null);
+        }
+        verificado = new TokenVerificado(claims.getId(), claims.getSubject(), claims.get("tipoUsuario", String.class),
+                claims.getIssuedAt().getTime(), claims.getExpiration().getTime());
+        this.verificados.guardar(token, verificado);
+        return this.conferirRevogacao(verificado);
+    }
+
+    private Verificacao conferirRevogacao(TokenVerificado verificado) {
+        if (this.revogacaoTokenService.estaRevogado(verificado.id(), verificado.username(), verificado.emitidoEm())) {
+            return new Verificacao(Resultado.REVOGADO, null);
+        }
+        return new Verificacao(Resultado.VALIDO, verificado);
+    }
+
+    // Identificador curto e não reversível do token, seguro para aparecer em log
+    public static String impressaoDigital(String token) {
+        return hash(token).substring(0, 12);
+    }
+
+    public void invalidar(String token) {
+        this.verificados.remover(token);
+    }
+
+    public static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,2 @@
+-- Observações da linha do tempo passam a ser lidas direto de frequencias/frequencias_arquivo
+DROP TABLE IF EXISTS observacoes_frequencia;
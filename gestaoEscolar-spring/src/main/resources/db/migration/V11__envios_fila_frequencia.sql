@@ -0,0 +1,7 @@
+-- Envios da fila de frequências já aplicados (marcados na mesma transação das gravações)
+CREATE TABLE IF NOT EXISTS envios_fila_frequencia (
+    id VARCHAR(255) NOT NULL,
+    processado_em DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_envios_fila_frequencia_processado_em (processado_em)
+) ENGINE = InnoDB;
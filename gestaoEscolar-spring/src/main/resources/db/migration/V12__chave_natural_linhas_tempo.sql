@@ -0,0 +1,7 @@
+-- A linha do tempo é um índice derivado de frequencias: a chave natural vira a chave primária e o id
+-- sintético sai, junto com o índice único que o InnoDB mantinha além da chave primária
+ALTER TABLE linhas_tempo_frequencia
+    DROP PRIMARY KEY,
+    DROP COLUMN id,
+    DROP INDEX uk_linhas_tempo_aluno_disciplina_ano,
+    ADD PRIMARY KEY (aluno_id, disciplina_id, ano_letivo);
@@ -0,0 +1,111 @@
+-- Schema base equivalente ao gerado pelo Hibernate; IF NOT EXISTS preserva bancos já existentes
+
+CREATE TABLE IF NOT EXISTS usuarios (
+    id VARCHAR(255) NOT NULL,
+    nome VARCHAR(255),
+    data_nascimento DATE NOT NULL,
+    email VARCHAR(255),
+    senha VARCHAR(4000),
+    tipo_usuario ENUM('ALUNO', 'PROFESSOR', 'ADMINISTRADOR') NOT NULL,
+    ativo BIT NOT NULL,
+    data_criacao DATE,
+    data_atualizacao DATE,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_usuarios_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS turmas (
+    id VARCHAR(255) NOT NULL,
+    nome VARCHAR(255),
+    serie VARCHAR(255) NOT NULL,
+    ano_letivo INT NOT NULL,
+    data_criacao DATE,
+    data_atualizacao DATE,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_turmas_nome UNIQUE (nome)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS aluno (
+    id VARCHAR(255) NOT NULL,
+    matricula VARCHAR(255),
+    turma_id VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_aluno_matricula UNIQUE (matricula),
+    CONSTRAINT fk_aluno_usuario FOREIGN KEY (id) REFERENCES usuarios (id),
+    CONSTRAINT fk_aluno_turma FOREIGN KEY (turma_id) REFERENCES turmas (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS professor (
+    id VARCHAR(255) NOT NULL,
+    cpf VARCHAR(14),
+    formacao_academica VARCHAR(255),
+    telefone VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_professor_cpf UNIQUE (cpf),
+    CONSTRAINT fk_professor_usuario FOREIGN KEY (id) REFERENCES usuarios (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS administrador (
+    id VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_administrador_usuario FOREIGN KEY (id) REFERENCES usuarios (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS disciplinas (
+    id VARCHAR(255) NOT NULL,
+    nome VARCHAR(255),
+    carga_horaria INT NOT NULL,
+    professor_id VARCHAR(255),
+    data_criacao DATE,
+    data_atualizacao DATE,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_disciplinas_nome UNIQUE (nome),
+    CONSTRAINT fk_disciplinas_professor FOREIGN KEY (professor_id) REFERENCES professor (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS turma_disciplinas (
+    turma_id VARCHAR(255) NOT NULL,
+    disciplina_id VARCHAR(255) NOT NULL,
+    CONSTRAINT fk_turma_disciplinas_turma FOREIGN KEY (turma_id) REFERENCES turmas (id),
+    CONSTRAINT fk_turma_disciplinas_disciplina FOREIGN KEY (disciplina_id) REFERENCES disciplinas (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS notas (
+    id VARCHAR(255) NOT NULL,
+    aluno_id VARCHAR(255) NOT NULL,
+    disciplina_id VARCHAR(255) NOT NULL,
+    valor DOUBLE NOT NULL,
+    tipo_avaliacao ENUM('PROVA', 'TRABALHO', 'PROJETO', 'APRESENTACAO', 'PARTICIPACAO', 'OUTRO') NOT NULL,
+    data_avaliacao DATE NOT NULL,
+    observacao VARCHAR(255),
+    data_criacao DATE,
+    data_atualizacao DATE,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_notas_aluno FOREIGN KEY (aluno_id) REFERENCES aluno (id),
+    CONSTRAINT fk_notas_disciplina FOREIGN KEY (disciplina_id) REFERENCES disciplinas (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS frequencias (
+    id VARCHAR(255) NOT NULL,
+    aluno_id VARCHAR(255) NOT NULL,
+    disciplina_id VARCHAR(255) NOT NULL,
+    data_aula DATE NOT NULL,
+    presente BIT NOT NULL,
+    observacao VARCHAR(255),
+    data_criacao DATE,
+    data_atualizacao DATE,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_frequencias_aluno FOREIGN KEY (aluno_id) REFERENCES aluno (id),
+    CONSTRAINT fk_frequencias_disciplina FOREIGN KEY (disciplina_id) REFERENCES disciplinas (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS resumo_frequencias (
+    id VARCHAR(255) NOT NULL,
+    aluno_id VARCHAR(255) NOT NULL,
+    disciplina_id VARCHAR(255) NOT NULL,
+    total_aulas BIGINT NOT NULL,
+    total_presencas BIGINT NOT NULL,
+    data_atualizacao DATE,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_resumo_frequencias_aluno_disciplina UNIQUE (aluno_id, disciplina_id)
+) ENGINE = InnoDB;
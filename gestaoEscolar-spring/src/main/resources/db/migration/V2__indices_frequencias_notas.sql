@@ -0,0 +1,11 @@
+-- Índices compostos para as consultas por (aluno, disciplina) e por período
+
+CREATE INDEX idx_frequencias_aluno_disciplina_data ON frequencias (aluno_id, disciplina_id, data_aula);
+CREATE INDEX idx_frequencias_aluno_data ON frequencias (aluno_id, data_aula);
+CREATE INDEX idx_frequencias_disciplina_data ON frequencias (disciplina_id, data_aula, aluno_id);
+CREATE INDEX idx_frequencias_data_aula ON frequencias (data_aula);
+
+CREATE INDEX idx_notas_aluno_disciplina_data ON notas (aluno_id, disciplina_id, data_avaliacao);
+CREATE INDEX idx_notas_aluno_disciplina_tipo ON notas (aluno_id, disciplina_id, tipo_avaliacao);
+CREATE INDEX idx_notas_disciplina_data ON notas (disciplina_id, data_avaliacao);
+CREATE INDEX idx_notas_data_avaliacao ON notas (data_avaliacao);
@@ -0,0 +1,18 @@
+-- Remove frequências duplicadas (mesmo aluno, disciplina e data), mantendo o registro de menor id
+DELETE f1 FROM frequencias f1
+    JOIN frequencias f2
+      ON f1.aluno_id = f2.aluno_id
+     AND f1.disciplina_id = f2.disciplina_id
+     AND f1.data_aula = f2.data_aula
+     AND f1.id > f2.id;
+
+-- A restrição única substitui o índice composto criado na V2
+ALTER TABLE frequencias ADD CONSTRAINT uk_frequencias_aluno_disciplina_data UNIQUE (aluno_id, disciplina_id, data_aula);
+DROP INDEX idx_frequencias_aluno_disciplina_data ON frequencias;
+
+-- Recalcula os resumos após a remoção das duplicatas
+DELETE FROM resumo_frequencias;
+INSERT INTO resumo_frequencias (id, aluno_id, disciplina_id, total_aulas, total_presencas, data_atualizacao)
+SELECT UUID(), aluno_id, disciplina_id, COUNT(*), SUM(CASE WHEN presente THEN 1 ELSE 0 END), CURRENT_DATE
+  FROM frequencias
+ GROUP BY aluno_id, disciplina_id;
@@ -0,0 +1,17 @@
+-- Armazenamento frio das frequências de anos encerrados: compactado e particionado por data da aula.
+-- Tabelas particionadas não aceitam chaves estrangeiras e exigem a coluna de partição na chave primária.
+CREATE TABLE IF NOT EXISTS frequencias_arquivo (
+    id VARCHAR(255) NOT NULL,
+    aluno_id VARCHAR(255) NOT NULL,
+    disciplina_id VARCHAR(255) NOT NULL,
+    data_aula DATE NOT NULL,
+    presente BIT NOT NULL,
+    observacao VARCHAR(255),
+    PRIMARY KEY (id, data_aula),
+    KEY idx_frequencias_arquivo_aluno_disciplina_data (aluno_id, disciplina_id, data_aula),
+    KEY idx_frequencias_arquivo_aluno_data (aluno_id, data_aula),
+    KEY idx_frequencias_arquivo_disciplina_data (disciplina_id, data_aula)
+) ENGINE = InnoDB ROW_FORMAT = COMPRESSED
+PARTITION BY RANGE COLUMNS (data_aula) (
+    PARTITION p_futuro VALUES LESS THAN (MAXVALUE)
+);
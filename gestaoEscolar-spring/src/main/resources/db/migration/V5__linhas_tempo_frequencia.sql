@@ -0,0 +1,22 @@
+-- Representação compacta da frequência: bitmap de dias do ano letivo por (aluno, disciplina, ano)
+CREATE TABLE IF NOT EXISTS linhas_tempo_frequencia (
+    id VARCHAR(255) NOT NULL,
+    aluno_id VARCHAR(255) NOT NULL,
+    disciplina_id VARCHAR(255) NOT NULL,
+    ano_letivo INT NOT NULL,
+    dias_aula VARBINARY(46) NOT NULL,
+    dias_presenca VARBINARY(46) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_linhas_tempo_aluno_disciplina_ano UNIQUE (aluno_id, disciplina_id, ano_letivo)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS observacoes_frequencia (
+    id VARCHAR(255) NOT NULL,
+    aluno_id VARCHAR(255) NOT NULL,
+    disciplina_id VARCHAR(255) NOT NULL,
+    data_aula DATE NOT NULL,
+    observacao VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_observacoes_frequencia_aluno_disciplina_data UNIQUE (aluno_id, disciplina_id, data_aula),
+    KEY idx_observacoes_frequencia_disciplina_data (disciplina_id, data_aula)
+) ENGINE = InnoDB;
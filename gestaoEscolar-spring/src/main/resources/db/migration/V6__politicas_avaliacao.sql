@@ -0,0 +1,22 @@
+-- Recuperação passa a ser um tipo de avaliação
+ALTER TABLE notas
+    MODIFY tipo_avaliacao ENUM('PROVA', 'TRABALHO', 'PROJETO', 'APRESENTACAO', 'PARTICIPACAO', 'RECUPERACAO', 'OUTRO') NOT NULL;
+
+-- Política de cálculo da média final por disciplina
+CREATE TABLE IF NOT EXISTS politicas_avaliacao (
+    id VARCHAR(255) NOT NULL,
+    disciplina_id VARCHAR(255) NOT NULL,
+    descartar_menor_nota BIT NOT NULL,
+    media_aprovacao DOUBLE NOT NULL,
+    data_atualizacao DATE,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_politicas_avaliacao_disciplina UNIQUE (disciplina_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS politica_avaliacao_pesos (
+    politica_id VARCHAR(255) NOT NULL,
+    tipo_avaliacao ENUM('PROVA', 'TRABALHO', 'PROJETO', 'APRESENTACAO', 'PARTICIPACAO', 'RECUPERACAO', 'OUTRO') NOT NULL,
+    peso DOUBLE NOT NULL,
+    PRIMARY KEY (politica_id, tipo_avaliacao),
+    CONSTRAINT fk_politica_avaliacao_pesos_politica FOREIGN KEY (politica_id) REFERENCES politicas_avaliacao (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,30 @@
+-- Histograma incremental das notas por disciplina, turma e turma x disciplina
+CREATE TABLE IF NOT EXISTS estatisticas_notas (
+    id VARCHAR(255) NOT NULL,
+    escopo ENUM('DISCIPLINA', 'TURMA', 'TURMA_DISCIPLINA') NOT NULL,
+    referencia_id VARCHAR(511) NOT NULL,
+    faixa INT NOT NULL,
+    quantidade BIGINT NOT NULL,
+    soma DOUBLE NOT NULL,
+    soma_quadrados DOUBLE NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_estatisticas_notas_escopo_referencia_faixa UNIQUE (escopo, referencia_id, faixa)
+) ENGINE = InnoDB;
+
+-- Carga inicial a partir das notas existentes (FLOOR(x + 0.5) é o mesmo arredondamento usado pela aplicação)
+INSERT INTO estatisticas_notas (id, escopo, referencia_id, faixa, quantidade, soma, soma_quadrados)
+SELECT UUID(), 'DISCIPLINA', n.disciplina_id, FLOOR(n.valor * 10 + 0.5), COUNT(*), SUM(n.valor), SUM(n.valor * n.valor)
+FROM notas n
+GROUP BY n.disciplina_id, FLOOR(n.valor * 10 + 0.5);
+
+INSERT INTO estatisticas_notas (id, escopo, referencia_id, faixa, quantidade, soma, soma_quadrados)
+SELECT UUID(), 'TURMA', a.turma_id, FLOOR(n.valor * 10 + 0.5), COUNT(*), SUM(n.valor), SUM(n.valor * n.valor)
+FROM notas n JOIN aluno a ON a.id = n.aluno_id
+WHERE a.turma_id IS NOT NULL
+GROUP BY a.turma_id, FLOOR(n.valor * 10 + 0.5);
+
+INSERT INTO estatisticas_notas (id, escopo, referencia_id, faixa, quantidade, soma, soma_quadrados)
+SELECT UUID(), 'TURMA_DISCIPLINA', CONCAT(a.turma_id, ':', n.disciplina_id), FLOOR(n.valor * 10 + 0.5), COUNT(*), SUM(n.valor), SUM(n.valor * n.valor)
+FROM notas n JOIN aluno a ON a.id = n.aluno_id
+WHERE a.turma_id IS NOT NULL
+GROUP BY a.turma_id, n.disciplina_id, FLOOR(n.valor * 10 + 0.5);
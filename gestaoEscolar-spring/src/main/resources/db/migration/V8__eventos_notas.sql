@@ -0,0 +1,24 @@
+-- Log append-only das alterações de nota, consumido pelas projeções (estatísticas, médias finais, ranking)
+CREATE TABLE IF NOT EXISTS eventos_notas (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    tipo ENUM('CRIADA', 'ATUALIZADA', 'EXCLUIDA') NOT NULL,
+    nota_id VARCHAR(255) NOT NULL,
+    aluno_id VARCHAR(255) NOT NULL,
+    disciplina_id VARCHAR(255) NOT NULL,
+    tipo_avaliacao VARCHAR(32),
+    data_avaliacao DATE,
+    valor_anterior DOUBLE,
+    valor_novo DOUBLE,
+    usuario VARCHAR(255),
+    ocorrido_em DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    KEY idx_eventos_notas_nota (nota_id),
+    KEY idx_eventos_notas_aluno_disciplina (aluno_id, disciplina_id)
+) ENGINE = InnoDB;
+
+-- Um evento CRIADA por nota já existente: o replay do log reproduz o estado atual
+INSERT INTO eventos_notas (tipo, nota_id, aluno_id, disciplina_id, tipo_avaliacao, data_avaliacao, valor_anterior, valor_novo, ocorrido_em)
+SELECT 'CRIADA', n.id, n.aluno_id, n.disciplina_id, n.tipo_avaliacao, n.data_avaliacao, NULL, n.valor,
+       COALESCE(n.data_criacao, CURRENT_DATE)
+FROM notas n
+ORDER BY n.data_criacao, n.id;
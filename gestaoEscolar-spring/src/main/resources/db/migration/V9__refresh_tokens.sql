@@ -0,0 +1,16 @@
+-- Refresh tokens rotativos (só o hash SHA-256 é guardado)
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id VARCHAR(255) NOT NULL,
+    token_hash VARCHAR(64) NOT NULL,
+    usuario_id VARCHAR(255) NOT NULL,
+    familia VARCHAR(255) NOT NULL,
+    criado_em DATETIME(6) NOT NULL,
+    expira_em DATETIME(6) NOT NULL,
+    usado_em DATETIME(6),
+    revogado BIT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash),
+    KEY idx_refresh_tokens_familia (familia),
+    KEY idx_refresh_tokens_usuario (usuario_id),
+    KEY idx_refresh_tokens_expira_em (expira_em)
+) ENGINE = InnoDB;
@@ -0,0 +1,145 @@
+package com.arthur.gestaoEscolar.config;
+
+import com.arthur.gestaoEscolar.exception.FilaIndisponivelException;
+import com.arthur.gestaoEscolar.suporte.Medicao;
+import com.arthur.gestaoEscolar.util.JwtUtil;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Latência do login (verificação BCrypt + emissão do JWT, sem banco) com os parâmetros de produção:
+// login isolado, pico de logins simultâneos com BCrypt no thread da requisição (antes) e no pool limitado
+// (depois), e pico acima da fila. Durante o pico, uma sonda simula as demais requisições da API
+// (validação de um JWT a cada 5 ms) e mede quanto elas esperam pela CPU
+@Tag("benchmark")
+class CodificadorSenhaLimitadoBenchmarkTest {
+
+    private static final int CUSTO = 10;
+    private static final int CLIENTES = 16;
+    private static final int LOGINS_POR_CLIENTE = 4;
+    private static final long ESPERA_MAXIMA_MS = 5_000;
+    private static final String SENHA = "senhaDoProfessor123";
+
+    private final JwtUtil jwtUtil = new JwtUtil("minhaChaveSecretaMuitoLongaParaHS512Algoritmo123456789", 15);
+    private final int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    @Test
+    void latenciaDoLoginSobPicoDeAcessos() throws Exception {
+        String hash = new BCryptPasswordEncoder(CUSTO).encode(SENHA);
+        CodificadorSenhaLimitado limitado = new CodificadorSenhaLimitado(CUSTO, this.threads, 200, ESPERA_MAXIMA_MS);
+        CodificadorSenhaLimitado filaCurta = new CodificadorSenhaLimitado(CUSTO, this.threads, 4, ESPERA_MAXIMA_MS);
+        try {
+            Medicao.Resultado isolado = Medicao.medir("login isolado (pool)", 3, 20, it -> this.login(limitado, hash));
+
+            Pico antes = this.pico("pico de " + CLIENTES + " clientes, BCrypt no thread da requisicao",
+                    new BCryptPasswordEncoder(CUSTO), hash);
+            Pico depois = this.pico("pico de " + CLIENTES + " clientes, pool de " + this.threads + " thread(s)",
+                    limitado, hash);
+            Pico saturado = this.pico("pico de " + CLIENTES + " clientes, pool com fila de 4", filaCurta, hash);
+
+            Medicao.imprimir(String.format(Locale.ROOT, "login p99: isolado %.1f ms, pico antes %.1f ms, pico depois %.1f ms; "
+                            + "demais requisicoes p99: antes %.2f ms, depois %.2f ms",
+                    isolado.percentilMicros(99) / 1_000, antes.logins().percentilMicros(99) / 1_000,
+                    depois.logins().percentilMicros(99) / 1_000, antes.sonda().percentilMicros(99) / 1_000,
+                    depois.sonda().percentilMicros(99) / 1_000));
+            Medicao.imprimir(String.format(Locale.ROOT, "fila de 4: %d de %d logins recusados com 503, recusa p99 %.3f ms",
+                    saturado.recusados(), CLIENTES * LOGINS_POR_CLIENTE, saturado.recusas().percentilMicros(99) / 1_000));
+
+            assertEquals(0, antes.recusados());
+            assertEquals(0, depois.recusados());
+            assertTrue(isolado.percentilMicros(99) < 1_000_000, "login isolado acima de 1 s no p99");
+            // Com fila de 200 o pico inteiro cabe na espera máxima: nenhum login passa de 5 s nem vira 503
+            assertTrue(depois.logins().percentilMicros(99) < ESPERA_MAXIMA_MS * 1_000, "login no pico acima da espera máxima");
+            // Acima da fila a recusa é imediata, sem esperar o BCrypt de ninguém
+            assertTrue(saturado.recusados() > 0, "fila de 4 deveria recusar parte do pico");
+            assertTrue(saturado.recusas().percentilMicros(99) < 50_000, "503 deveria sair sem esperar a fila");
+        } finally {
+            limitado.shutdown();
+            filaCurta.shutdown();
+        }
+    }
+
+    private record Pico(Medicao.Resultado logins, Medicao.Resultado recusas, int recusados, Medicao.Resultado sonda) {
+    }
+
+    private void login(PasswordEncoder codificador, String hash) {
+        if (!codificador.matches(SENHA, hash)) {
+            throw new IllegalStateException("senha não confere");
+        }
+        this.jwtUtil.generateToken("professor@escola.com", "PROFESSOR");
+    }
+
+    private Pico pico(String nome, PasswordEncoder codificador, String hash) throws Exception {
+        int total = CLIENTES * LOGINS_POR_CLIENTE;
+        long[] logins = new long[total];
+        long[] recusas = new long[total];
+        AtomicInteger concluidos = new AtomicInteger();
+        AtomicInteger recusados = new AtomicInteger();
+        AtomicBoolean emAndamento = new AtomicBoolean(true);
+        CountDownLatch largada = new CountDownLatch(1);
+        String token = this.jwtUtil.generateToken("aluno@escola.com", "ALUNO");
+
+        ExecutorService clientes = Executors.newFixedThreadPool(CLIENTES + 1);
+        try {
+            // Sonda: uma requisição comum a cada 5 ms, medida desde o instante em que deveria começar
+            Future<long[]> sonda = clientes.submit(() -> {
+                long[] atrasos = new long[4_096];
+                int medidas = 0;
+                largada.await();
+                long agendada = System.nanoTime();
+                while (emAndamento.get() && medidas < atrasos.length) {
+                    agendada += TimeUnit.MILLISECONDS.toNanos(5);
+                    LockSupport.parkNanos(agendada - System.nanoTime());
+                    this.jwtUtil.extractAllClaims(token);
+                    atrasos[medidas++] = System.nanoTime() - agendada;
+                }
+                return Arrays.copyOf(atrasos, medidas);
+            });
+
+            Future<?>[] futuros = new Future<?>[CLIENTES];
+            for (int c = 0; c < CLIENTES; c++) {
+                futuros[c] = clientes.submit(() -> {
+                    largada.await();
+                    for (int l = 0; l < LOGINS_POR_CLIENTE; l++) {
+                        long inicio = System.nanoTime();
+                        try {
+                            this.login(codificador, hash);
+                            logins[concluidos.getAndIncrement()] = System.nanoTime() - inicio;
+                        } catch (FilaIndisponivelException e) {
+                            recusas[recusados.getAndIncrement()] = System.nanoTime() - inicio;
+                        }
+                    }
+                    return null;
+                });
+            }
+            largada.countDown();
+            for (Future<?> futuro : futuros) {
+                futuro.get();
+            }
+            emAndamento.set(false);
+
+            long[] recusasMedidas = recusados.get() > 0 ? Arrays.copyOf(recusas, recusados.get()) : new long[]{0};
+            return new Pico(new Medicao.Resultado(nome, Arrays.copyOf(logins, concluidos.get())).imprimir(),
+                    new Medicao.Resultado(nome + " (503)", recusasMedidas),
+                    recusados.get(),
+                    new Medicao.Resultado("  demais requisicoes durante o pico", sonda.get()).imprimir());
+        } finally {
+            clientes.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.arthur.gestaoEscolar.config;
+
+import com.arthur.gestaoEscolar.config.LimiteRequisicaoFilter.GrupoLimite;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LimiteRequisicaoFilterTest {
+
+    @Test
+    void loginERegistroSaoAutenticacao() {
+        assertEquals(GrupoLimite.AUTENTICACAO, LimiteRequisicaoFilter.classificar("POST", "/api/auth/login"));
+        assertEquals(GrupoLimite.AUTENTICACAO, LimiteRequisicaoFilter.classificar("POST", "/api/auth/registro"));
+        assertEquals(GrupoLimite.AUTENTICACAO, LimiteRequisicaoFilter.classificar("POST", "/api/auth/registro-com-confirmacao"));
+    }
+
+    @Test
+    void refreshELogoutNaoSaoLimitados() {
+        assertNull(LimiteRequisicaoFilter.classificar("POST", "/api/auth/refresh"));
+        assertNull(LimiteRequisicaoFilter.classificar("POST", "/api/auth/logout"));
+        assertNull(LimiteRequisicaoFilter.classificar("GET", "/api/auth/metricas"));
+    }
+
+    @Test
+    void verificacaoDeEmailTemGrupoProprio() {
+        assertEquals(GrupoLimite.VERIFICACAO_EMAIL, LimiteRequisicaoFilter.classificar("GET", "/api/auth/verificar-email"));
+    }
+
+    @Test
+    void cadastroDeUsuario() {
+        assertEquals(GrupoLimite.CADASTRO, LimiteRequisicaoFilter.classificar("POST", "/api/usuarios"));
+        assertEquals(GrupoLimite.ESCRITA, LimiteRequisicaoFilter.classificar("PUT", "/api/usuarios/1"));
+    }
+
+    @Test
+    void escritasSaoLimitadasELeiturasNao() {
+        assertEquals(GrupoLimite.ESCRITA, LimiteRequisicaoFilter.classificar("POST", "/api/notas"));
+        assertEquals(GrupoLimite.ESCRITA, LimiteRequisicaoFilter.classificar("PATCH", "/api/alunos/1"));
+        assertEquals(GrupoLimite.ESCRITA, LimiteRequisicaoFilter.classificar("DELETE", "/api/turmas/1"));
+        assertNull(LimiteRequisicaoFilter.classificar("GET", "/api/notas"));
+        assertNull(LimiteRequisicaoFilter.classificar("OPTIONS", "/api/notas"));
+        assertNull(LimiteRequisicaoFilter.classificar("POST", "/actuator/health"));
+    }
+
+    @Test
+    void loginPorEmailIgnoraCaixaEEspacos() {
+        LimiteRequisicaoFilter filtro = this.criarFiltro(2);
+
+        assertEquals(0, filtro.consumirLogin("Professor@Escola.com"));
+        assertEquals(0, filtro.consumirLogin(" professor@escola.com "));
+        assertTrue(filtro.consumirLogin("PROFESSOR@ESCOLA.COM") > 0);
+        assertEquals(0, filtro.consumirLogin("outro@escola.com"));
+    }
+
+    @Test
+    void esperaArredondaParaCima() {
+        assertEquals(1, LimiteRequisicaoFilter.segundosEspera(1));
+        assertEquals(1, LimiteRequisicaoFilter.segundosEspera(1_000_000_000L));
+        assertEquals(2, LimiteRequisicaoFilter.segundosEspera(1_000_000_001L));
+    }
+
+    private LimiteRequisicaoFilter criarFiltro(int capacidadeLogin) {
+        LimiteRequisicaoFilter filtro = new LimiteRequisicaoFilter();
+        ReflectionTestUtils.setField(filtro, "habilitado", true);
+        ReflectionTestUtils.setField(filtro, "maximoChaves", 100);
+        ReflectionTestUtils.setField(filtro, "capacidadeAutenticacao", 200);
+        ReflectionTestUtils.setField(filtro, "porMinutoAutenticacao", 120);
+        ReflectionTestUtils.setField(filtro, "capacidadeLogin", capacidadeLogin);
+        ReflectionTestUtils.setField(filtro, "porMinutoLogin", 1);
+        ReflectionTestUtils.setField(filtro, "capacidadeVerificacaoEmail", 20);
+        ReflectionTestUtils.setField(filtro, "porMinutoVerificacaoEmail", 30);
+        ReflectionTestUtils.setField(filtro, "capacidadeCadastro", 5);
+        ReflectionTestUtils.setField(filtro, "porMinutoCadastro", 5);
+        ReflectionTestUtils.setField(filtro, "capacidadeEscrita", 60);
+        ReflectionTestUtils.setField(filtro, "porMinutoEscrita", 120);
+        filtro.iniciar();
+        return filtro;
+    }
+}
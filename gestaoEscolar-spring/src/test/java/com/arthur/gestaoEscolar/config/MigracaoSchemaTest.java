@@ -0,0 +1,117 @@
+package com.arthur.gestaoEscolar.config;
+
+import com.arthur.gestaoEscolar.config.MigracaoSchemaConfig.MigracaoSchema;
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.suporte.TravaNomeadaH2;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MigracaoSchemaTest {
+
+    private static final String SCRIPTS = "classpath:db/migracao-teste/V*__*.sql";
+    private static final String SCRIPTS_ALTERADOS = "classpath:db/migracao-teste-alterada/V*__*.sql";
+
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void criarBanco() {
+        this.dataSource = new JdbcDataSource();
+        this.dataSource.setURL("jdbc:h2:mem:migracao-" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+        TravaNomeadaH2.registrar(this.jdbcTemplate);
+    }
+
+    @Test
+    void aplicaEmOrdemERegistraChecksum() {
+        new MigracaoSchema(this.dataSource, SCRIPTS).migrar();
+
+        List<Map<String, Object>> versoes = this.jdbcTemplate.queryForList("SELECT versao, checksum FROM schema_versoes ORDER BY versao");
+        assertEquals(2, versoes.size());
+        assertEquals(1, versoes.get(0).get("versao"));
+        assertEquals(64, ((String) versoes.get(0).get("checksum")).length());
+        assertEquals(0, this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM turmas_teste", Integer.class));
+    }
+
+    @Test
+    void segundaExecucaoNaoReaplica() {
+        new MigracaoSchema(this.dataSource, SCRIPTS).migrar();
+        new MigracaoSchema(this.dataSource, SCRIPTS).migrar();
+
+        assertEquals(2, this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schema_versoes", Integer.class));
+    }
+
+    @Test
+    void scriptAlteradoDepoisDeAplicadoImpedeASubida() {
+        new MigracaoSchema(this.dataSource, SCRIPTS).migrar();
+
+        GestaoEscolarException erro = assertThrows(GestaoEscolarException.class,
+                () -> new MigracaoSchema(this.dataSource, SCRIPTS_ALTERADOS).migrar());
+        assertTrue(erro.getMessage().contains("V1__cria_turmas.sql"));
+    }
+
+    @Test
+    void bancoAnteriorAoChecksumRecebeAColunaEOValor() {
+        this.jdbcTemplate.execute("CREATE TABLE schema_versoes (versao INT NOT NULL PRIMARY KEY, descricao VARCHAR(255) NOT NULL, " +
+                "script VARCHAR(255) NOT NULL, aplicada_em DATETIME NOT NULL)");
+        this.jdbcTemplate.execute("CREATE TABLE turmas_teste (id VARCHAR(36) NOT NULL PRIMARY KEY, nome VARCHAR(255) NOT NULL)");
+        this.jdbcTemplate.update("INSERT INTO schema_versoes VALUES (1, 'cria turmas', 'V1__cria_turmas.sql', NOW())");
+
+        new MigracaoSchema(this.dataSource, SCRIPTS).migrar();
+
+        assertEquals(0, this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schema_versoes WHERE checksum IS NULL", Integer.class));
+        assertEquals(2, this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schema_versoes", Integer.class));
+    }
+
+    @Test
+    void instanciasSubindoJuntasAplicamCadaVersaoUmaVez() throws Exception {
+        int instancias = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(instancias);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Void>> subidas = new ArrayList<>();
+        for (int i = 0; i < instancias; i++) {
+            Callable<Void> subida = () -> {
+                largada.await();
+                new MigracaoSchema(this.dataSource, SCRIPTS).migrar();
+                return null;
+            };
+            subidas.add(executor.submit(subida));
+        }
+        largada.countDown();
+        try {
+            for (Future<Void> subida : subidas) {
+                subida.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2, this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schema_versoes", Integer.class));
+    }
+
+    @Test
+    void checksumIgnoraFimDeLinhaDoWindows() {
+        ByteArrayResource unix = new ByteArrayResource("SELECT 1;\nSELECT 2;\n".getBytes());
+        ByteArrayResource windows = new ByteArrayResource("SELECT 1;\r\nSELECT 2;\r\n".getBytes());
+
+        assertEquals(MigracaoSchema.checksum(unix), MigracaoSchema.checksum(windows));
+    }
+}
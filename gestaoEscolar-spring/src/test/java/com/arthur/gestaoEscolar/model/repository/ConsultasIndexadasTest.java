@@ -0,0 +1,210 @@
+package com.arthur.gestaoEscolar.model.repository;
+
+import com.arthur.gestaoEscolar.model.entity.Aluno;
+import com.arthur.gestaoEscolar.model.entity.Disciplina;
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import com.arthur.gestaoEscolar.model.entity.Turma;
+import com.arthur.gestaoEscolar.suporte.ContadorSql;
+import com.arthur.gestaoEscolar.suporte.DadosTeste;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Roda EXPLAIN no SQL que cada consulta quente de FrequenciaRepository e NotaRepository realmente gera
+// (capturado com os parâmetros pelo ContadorSql) e falha se alguma varrer frequencias ou notas inteira.
+// Por padrão usa o H2; para conferir no MySQL, aponte para um schema descartável (o teste recria as tabelas):
+//   mvn test -Dtest=ConsultasIndexadasTest -Dspring.datasource.url=jdbc:mysql://localhost:3306/gestao_teste
+//     -Dspring.datasource.username=... -Dspring.datasource.password=... -Dspring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver
+//     -Dspring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect
+@DataJpaTest
+@ActiveProfiles("teste")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ContadorSql.Configuracao.class)
+class ConsultasIndexadasTest {
+
+    private static final List<String> TABELAS_QUENTES = List.of("frequencias", "notas");
+    private static final int DIAS = 30;
+
+    @Autowired
+    private FrequenciaRepository frequenciaRepository;
+
+    @Autowired
+    private NotaRepository notaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String alunoId;
+    private String disciplinaId;
+    private String turmaId;
+    private final LocalDate inicio = LocalDate.of(2024, 3, 1);
+    private final LocalDate fim = LocalDate.of(2024, 3, 10);
+
+    // Volume suficiente para o otimizador do MySQL preferir o índice à varredura
+    @BeforeEach
+    void carregar() {
+        List<Disciplina> disciplinas = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            disciplinas.add(DadosTeste.disciplina(this.entityManager, "Disciplina " + i + " " + UUID.randomUUID()));
+        }
+        Turma turma = DadosTeste.turma(this.entityManager, 2024, disciplinas.toArray(new Disciplina[0]));
+        List<Aluno> alunos = DadosTeste.alunos(this.entityManager, turma, 40);
+        DadosTeste.alunos(this.entityManager, DadosTeste.turma(this.entityManager, 2024, disciplinas.toArray(new Disciplina[0])), 40);
+        this.entityManager.flush();
+
+        List<Object[]> frequencias = new ArrayList<>();
+        List<Object[]> notas = new ArrayList<>();
+        for (Aluno aluno : alunos) {
+            for (Disciplina disciplina : disciplinas) {
+                for (int dia = 0; dia < DIAS; dia++) {
+                    Date data = Date.valueOf(this.inicio.plusDays(dia));
+                    frequencias.add(new Object[]{UUID.randomUUID().toString(), aluno.getId(), disciplina.getId(), data, dia % 7 != 0});
+                    if (dia % 10 == 0) {
+                        notas.add(new Object[]{UUID.randomUUID().toString(), aluno.getId(), disciplina.getId(), 5.0 + dia % 5,
+                                TipoAvaliacao.values()[dia % TipoAvaliacao.values().length].name(), data});
+                    }
+                }
+            }
+        }
+        this.jdbcTemplate.batchUpdate("INSERT INTO frequencias (id, aluno_id, disciplina_id, data_aula, presente) VALUES (?, ?, ?, ?, ?)", frequencias);
+        this.jdbcTemplate.batchUpdate("INSERT INTO notas (id, aluno_id, disciplina_id, valor, tipo_avaliacao, data_avaliacao) VALUES (?, ?, ?, ?, ?, ?)", notas);
+        this.analisar();
+
+        this.alunoId = alunos.get(7).getId();
+        this.disciplinaId = disciplinas.get(2).getId();
+        this.turmaId = turma.getId();
+        this.entityManager.clear();
+    }
+
+    @Test
+    void consultasDeFrequenciaUsamIndice() {
+        this.verificar("findByAlunoId", () -> this.frequenciaRepository.findByAlunoId(this.alunoId));
+        this.verificar("findByDisciplinaId", () -> this.frequenciaRepository.findByDisciplinaId(this.disciplinaId));
+        this.verificar("findByAlunoIdAndDisciplinaId", () -> this.frequenciaRepository.findByAlunoIdAndDisciplinaId(this.alunoId, this.disciplinaId));
+        this.verificar("findByAlunoIdAndDisciplinaIdAndDataAula",
+                () -> this.frequenciaRepository.findByAlunoIdAndDisciplinaIdAndDataAula(this.alunoId, this.disciplinaId, this.inicio));
+        this.verificar("findByAlunoAndDisciplinaOrderByData",
+                () -> this.frequenciaRepository.findByAlunoAndDisciplinaOrderByData(this.alunoId, this.disciplinaId));
+        this.verificar("findByPeriodo", () -> this.frequenciaRepository.findByPeriodo(this.inicio, this.fim));
+        this.verificar("findByAlunoAndPeriodo", () -> this.frequenciaRepository.findByAlunoAndPeriodo(this.alunoId, this.inicio, this.fim));
+        this.verificarPrimeiraPagina("buscarPrimeiraPagina", () -> this.frequenciaRepository.buscarPrimeiraPagina(PageRequest.of(0, 100)));
+        this.verificar("buscarPaginaApos", () -> this.frequenciaRepository.buscarPaginaApos(this.fim, "", PageRequest.of(0, 100)));
+        this.verificar("contarPorTurma", () -> this.frequenciaRepository.contarPorTurma(this.turmaId, this.inicio, this.fim));
+    }
+
+    @Test
+    void consultasDeNotaUsamIndice() {
+        this.verificar("findByAlunoId", () -> this.notaRepository.findByAlunoId(this.alunoId));
+        this.verificar("findByDisciplinaId", () -> this.notaRepository.findByDisciplinaId(this.disciplinaId));
+        this.verificar("findByAlunoIdAndDisciplinaId", () -> this.notaRepository.findByAlunoIdAndDisciplinaId(this.alunoId, this.disciplinaId));
+        this.verificar("findByAlunoAndDisciplinaOrderByData",
+                () -> this.notaRepository.findByAlunoAndDisciplinaOrderByData(this.alunoId, this.disciplinaId));
+        this.verificar("calcularMediaAlunoDisciplina", () -> this.notaRepository.calcularMediaAlunoDisciplina(this.alunoId, this.disciplinaId));
+        this.verificar("buscarValoresPorAlunoEDisciplina",
+                () -> this.notaRepository.buscarValoresPorAlunoEDisciplina(this.alunoId, this.disciplinaId));
+        this.verificar("buscarValoresPorAluno", () -> this.notaRepository.buscarValoresPorAluno(this.alunoId));
+        this.verificar("buscarValoresPorDisciplina", () -> this.notaRepository.buscarValoresPorDisciplina(this.disciplinaId));
+        this.verificar("findByAlunoDisciplinaAndTipo",
+                () -> this.notaRepository.findByAlunoDisciplinaAndTipo(this.alunoId, this.disciplinaId, TipoAvaliacao.PROVA));
+        this.verificarPrimeiraPagina("buscarPrimeiraPagina", () -> this.notaRepository.buscarPrimeiraPagina(PageRequest.of(0, 100)));
+        this.verificar("buscarPaginaApos", () -> this.notaRepository.buscarPaginaApos(this.fim, "", PageRequest.of(0, 100)));
+        this.verificar("buscarMediasPorTurma", () -> this.notaRepository.buscarMediasPorTurma(this.turmaId, this.inicio, this.fim));
+        this.verificar("buscarValoresPorTurma", () -> this.notaRepository.buscarValoresPorTurma(this.turmaId, this.inicio, this.fim));
+    }
+
+    // Primeira página sem filtro: o MySQL lê o índice de data em ordem e para no LIMIT (type = index). O H2
+    // não usa índice para ordenar com JOIN e sempre varre, então aqui a conferência só vale no MySQL
+    private void verificarPrimeiraPagina(String consulta, Runnable execucao) {
+        if (this.mysql()) {
+            this.verificar(consulta, execucao);
+        } else {
+            execucao.run();
+        }
+    }
+
+    private void verificar(String consulta, Runnable execucao) {
+        ContadorSql.zerar();
+        execucao.run();
+        List<ContadorSql.Comando> comandos = ContadorSql.consultas();
+        assertFalse(comandos.isEmpty(), consulta + ": nenhuma consulta executada");
+        for (ContadorSql.Comando comando : comandos) {
+            String varredura = this.jdbcTemplate.execute((Connection connection) -> this.varredura(connection, comando));
+            assertTrue(varredura == null, consulta + " varre a tabela " + varredura + " inteira:\n" + comando.sql());
+        }
+    }
+
+    // Devolve a tabela quente lida por varredura completa, ou null se todas foram acessadas por índice
+    private String varredura(Connection connection, ContadorSql.Comando comando) throws SQLException {
+        boolean mysql = this.mysql();
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + comando.sql())) {
+            for (int i = 0; i < comando.parametros().size(); i++) {
+                explain.setObject(i + 1, comando.parametros().get(i));
+            }
+            try (ResultSet plano = explain.executeQuery()) {
+                while (plano.next()) {
+                    if (mysql) {
+                        // type = ALL é varredura completa; as tabelas aparecem pelo apelido, então confere o índice usado
+                        String tabela = plano.getString("table");
+                        if ("ALL".equals(plano.getString("type")) && this.tabelaQuente(comando.sql(), tabela) != null) {
+                            return this.tabelaQuente(comando.sql(), tabela);
+                        }
+                    } else {
+                        String texto = plano.getString(1).toLowerCase(Locale.ROOT);
+                        for (String tabela : TABELAS_QUENTES) {
+                            if (texto.contains("." + tabela + ".tablescan")) {
+                                return tabela;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private String tabelaQuente(String sql, String apelido) {
+        String normalizado = sql.toLowerCase(Locale.ROOT);
+        for (String tabela : TABELAS_QUENTES) {
+            if (apelido.equals(tabela) || normalizado.contains(" " + tabela + " " + apelido.toLowerCase(Locale.ROOT))) {
+                return tabela;
+            }
+        }
+        return null;
+    }
+
+    // O H2 escolhe índice sem estatísticas (e o ANALYZE dele encerraria a transação do teste)
+    private void analisar() {
+        if (this.mysql()) {
+            this.jdbcTemplate.execute("ANALYZE TABLE frequencias, notas");
+        }
+    }
+
+    private boolean mysql() {
+        String produto = this.jdbcTemplate.execute((Connection connection) -> connection.getMetaData().getDatabaseProductName());
+        return produto != null && produto.toLowerCase(Locale.ROOT).contains("mysql");
+    }
+}
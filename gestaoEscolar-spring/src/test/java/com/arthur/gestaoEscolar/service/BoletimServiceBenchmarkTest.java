@@ -0,0 +1,111 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.model.dto.BoletimTurmaDTO;
+import com.arthur.gestaoEscolar.model.entity.Aluno;
+import com.arthur.gestaoEscolar.model.entity.Disciplina;
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import com.arthur.gestaoEscolar.model.entity.Turma;
+import com.arthur.gestaoEscolar.suporte.ContadorSql;
+import com.arthur.gestaoEscolar.suporte.DadosTeste;
+import com.arthur.gestaoEscolar.suporte.Medicao;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Boletim de uma turma de 40 alunos x 12 disciplinas com um ano de notas e frequências
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("teste")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({BoletimService.class, PoliticaAvaliacaoService.class, ContadorSql.Configuracao.class})
+class BoletimServiceBenchmarkTest {
+
+    private static final int ALUNOS = 40;
+    private static final int DISCIPLINAS = 12;
+    private static final int AULAS_POR_DISCIPLINA = 40;
+    private static final TipoAvaliacao[] AVALIACOES = {TipoAvaliacao.PROVA, TipoAvaliacao.PROVA, TipoAvaliacao.TRABALHO, TipoAvaliacao.PROJETO};
+
+    @Autowired
+    private BoletimService boletimService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private ArquivoFrequenciaService arquivoFrequenciaService;
+
+    @Test
+    void boletimDeTurmaCom40AlunosE12Disciplinas() throws Exception {
+        int ano = LocalDate.now().getYear() - 1;
+        List<Disciplina> disciplinas = new ArrayList<>();
+        for (int d = 0; d < DISCIPLINAS; d++) {
+            disciplinas.add(DadosTeste.disciplina(this.entityManager, "Disciplina " + d + " " + UUID.randomUUID()));
+        }
+        Turma turma = DadosTeste.turma(this.entityManager, ano, disciplinas.toArray(new Disciplina[0]));
+        List<Aluno> alunos = DadosTeste.alunos(this.entityManager, turma, ALUNOS);
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        List<Object[]> notas = new ArrayList<>();
+        List<Object[]> frequencias = new ArrayList<>();
+        LocalDate inicio = LocalDate.of(ano, 2, 1);
+        for (Aluno aluno : alunos) {
+            for (Disciplina disciplina : disciplinas) {
+                for (int n = 0; n < AVALIACOES.length; n++) {
+                    notas.add(new Object[]{UUID.randomUUID().toString(), aluno.getId(), disciplina.getId(), 4.0 + (notas.size() % 60) / 10.0,
+                            AVALIACOES[n].name(), Date.valueOf(inicio.plusMonths(2L * n))});
+                }
+                for (int a = 0; a < AULAS_POR_DISCIPLINA; a++) {
+                    frequencias.add(new Object[]{UUID.randomUUID().toString(), aluno.getId(), disciplina.getId(),
+                            Date.valueOf(inicio.plusDays(a * 5L)), frequencias.size() % 7 != 0});
+                }
+            }
+        }
+        this.jdbcTemplate.batchUpdate("INSERT INTO notas (id, aluno_id, disciplina_id, valor, tipo_avaliacao, data_avaliacao) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", notas);
+        this.jdbcTemplate.batchUpdate("INSERT INTO frequencias (id, aluno_id, disciplina_id, data_aula, presente) VALUES (?, ?, ?, ?, ?)",
+                frequencias);
+
+        ContadorSql.zerar();
+        BoletimTurmaDTO boletim = this.boletimService.gerarBoletim(turma.getId(), ano);
+        int idasPrimeira = ContadorSql.idasAoBanco();
+        ContadorSql.zerar();
+        this.boletimService.gerarBoletim(turma.getId(), ano);
+        int idasSeguintes = ContadorSql.idasAoBanco();
+
+        assertEquals(ALUNOS, boletim.getAlunos().size());
+        assertEquals(DISCIPLINAS, boletim.getAlunos().get(0).getDisciplinas().size());
+        assertEquals(AULAS_POR_DISCIPLINA, boletim.getAlunos().get(0).getDisciplinas().get(0).getTotalAulas());
+
+        Medicao.Resultado resultado = Medicao.medir("gerarBoletim 40 alunos x 12 disciplinas", 20, 100, i -> {
+            this.boletimService.gerarBoletim(turma.getId(), ano);
+            this.entityManager.clear();
+        });
+
+        Medicao.imprimir("carga: " + notas.size() + " notas, " + frequencias.size() + " frequencias");
+        Medicao.imprimir("idas ao banco por boletim: primeira=" + idasPrimeira + " (regras fora do cache), seguintes=" + idasSeguintes);
+        Medicao.imprimir(String.format(Locale.ROOT, "com 0,5 ms de rede por ida: ~%.1f ms",
+                resultado.mediaMicros() / 1000 + idasSeguintes * 0.5));
+        assertTrue(resultado.percentilMicros(99) < 200_000, "boletim acima de 200 ms no p99");
+    }
+}
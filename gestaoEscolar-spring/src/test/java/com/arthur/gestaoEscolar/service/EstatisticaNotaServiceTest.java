@@ -0,0 +1,101 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.model.dto.EstatisticaNotaDTO;
+import com.arthur.gestaoEscolar.model.entity.EscopoEstatistica;
+import com.arthur.gestaoEscolar.model.entity.EstatisticaNota;
+import com.arthur.gestaoEscolar.model.repository.EstatisticaNotaRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EstatisticaNotaServiceTest {
+
+    @Mock
+    private EstatisticaNotaRepository estatisticaNotaRepository;
+
+    @InjectMocks
+    private EstatisticaNotaService estatisticaNotaService;
+
+    @Test
+    void percentisPeloRankMaisProximoSobreAsFaixas() {
+        // 10 notas: 1.0, 2.0, ..., 10.0
+        double[] notas = new double[10];
+        for (int i = 0; i < notas.length; i++) {
+            notas[i] = i + 1.0;
+        }
+        EstatisticaNotaDTO estatistica = this.calcular(notas);
+
+        // Rank mais próximo: posição ceil(p/100 * n)
+        assertEquals(1.0, estatistica.getPercentis().get("p10"), 1e-9);
+        assertEquals(3.0, estatistica.getPercentis().get("p25"), 1e-9);
+        assertEquals(5.0, estatistica.getPercentis().get("p50"), 1e-9);
+        assertEquals(8.0, estatistica.getPercentis().get("p75"), 1e-9);
+        assertEquals(9.0, estatistica.getPercentis().get("p90"), 1e-9);
+        assertEquals(5.0, estatistica.getMediana(), 1e-9);
+        assertEquals(5.5, estatistica.getMedia(), 1e-9);
+        assertEquals(Math.sqrt(8.25), estatistica.getDesvioPadrao(), 1e-9);
+        assertArrayEquals(new long[]{0, 1, 1, 1, 1, 1, 1, 1, 1, 2}, estatistica.getHistograma());
+    }
+
+    @Test
+    void extremosEPercentisFicamDentroDaPrecisaoDasNotasReais() {
+        double[] notas = {7.26, 3.04, 9.95, 0.04, 5.55, 5.55, 6.849, 8.0};
+        EstatisticaNotaDTO estatistica = this.calcular(notas);
+        double[] ordenadas = notas.clone();
+        Arrays.sort(ordenadas);
+
+        assertEquals(ordenadas[0], estatistica.getMinimo(), estatistica.getPrecisao() + 1e-9);
+        assertEquals(ordenadas[ordenadas.length - 1], estatistica.getMaximo(), estatistica.getPrecisao() + 1e-9);
+        for (int p : new int[]{10, 25, 50, 75, 90}) {
+            double exato = ordenadas[(int) Math.ceil(p / 100.0 * ordenadas.length) - 1];
+            assertEquals(exato, estatistica.getPercentis().get("p" + p), estatistica.getPrecisao() + 1e-9, "p" + p);
+        }
+        assertTrue(estatistica.getMinimo() <= estatistica.getMediana() && estatistica.getMediana() <= estatistica.getMaximo());
+    }
+
+    @Test
+    void escopoSemNotasNaoTemExtremosNemPercentis() {
+        EstatisticaNotaDTO estatistica = this.calcular(new double[0]);
+
+        assertEquals(0, estatistica.getQuantidade());
+        assertNull(estatistica.getMinimo());
+        assertNull(estatistica.getMediana());
+        assertTrue(estatistica.getPercentis().isEmpty());
+    }
+
+    // Monta as faixas como o upsert as deixaria no banco
+    private EstatisticaNotaDTO calcular(double[] notas) {
+        Map<Integer, EstatisticaNota> faixas = new TreeMap<>();
+        for (double nota : notas) {
+            int faixa = (int) Math.floor(nota * 10 + 0.5);
+            EstatisticaNota linha = faixas.computeIfAbsent(faixa, f -> {
+                EstatisticaNota nova = new EstatisticaNota();
+                nova.setEscopo(EscopoEstatistica.DISCIPLINA);
+                nova.setReferenciaId("d1");
+                nova.setFaixa(f);
+                return nova;
+            });
+            linha.setQuantidade(linha.getQuantidade() + 1);
+            linha.setSoma(linha.getSoma() + nota);
+            linha.setSomaQuadrados(linha.getSomaQuadrados() + nota * nota);
+        }
+        List<EstatisticaNota> linhas = new ArrayList<>(faixas.values());
+        when(this.estatisticaNotaRepository.buscarFaixas(EscopoEstatistica.DISCIPLINA, "d1")).thenReturn(linhas);
+        return this.estatisticaNotaService.buscarPorDisciplina("d1");
+    }
+}
@@ -0,0 +1,116 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.model.dto.EstatisticaNotaDTO;
+import com.arthur.gestaoEscolar.model.entity.Aluno;
+import com.arthur.gestaoEscolar.model.entity.Disciplina;
+import com.arthur.gestaoEscolar.model.entity.EventoNota;
+import com.arthur.gestaoEscolar.model.entity.Nota;
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import com.arthur.gestaoEscolar.model.entity.TipoEventoNota;
+import com.arthur.gestaoEscolar.model.entity.Turma;
+import com.arthur.gestaoEscolar.suporte.DadosTeste;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@ActiveProfiles("teste")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({EventoNotaService.class, NotaService.class, AlunoService.class, RankingNotaService.class,
+        PoliticaAvaliacaoService.class, EstatisticaNotaService.class})
+class EventoNotaServiceTest {
+
+    @Autowired
+    private EventoNotaService eventoNotaService;
+
+    @Autowired
+    private NotaService notaService;
+
+    @Autowired
+    private AlunoService alunoService;
+
+    @Autowired
+    private EstatisticaNotaService estatisticaNotaService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private ArquivoFrequenciaService arquivoFrequenciaService;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private UsuarioService usuarioService;
+
+    @Test
+    void replayDoLogReproduzAsProjecoesDepoisDeAlteracoesEExclusoes() {
+        Disciplina disciplina = DadosTeste.disciplina(this.entityManager, "Biologia " + UUID.randomUUID());
+        Turma turma = DadosTeste.turma(this.entityManager, LocalDate.now().getYear(), disciplina);
+        List<Aluno> alunos = DadosTeste.alunos(this.entityManager, turma, 2);
+        Aluno mantido = alunos.get(0);
+        Aluno excluido = alunos.get(1);
+
+        Nota primeira = this.notaService.salvar(this.nota(mantido, disciplina, 7.0));
+        Nota segunda = this.notaService.salvar(this.nota(mantido, disciplina, 8.0));
+        this.notaService.salvar(this.nota(excluido, disciplina, 5.0));
+        this.notaService.salvar(this.nota(excluido, disciplina, 9.0));
+
+        Nota alteracao = new Nota();
+        alteracao.setValor(6.0);
+        this.notaService.atualizar(segunda.getId(), alteracao);
+        this.notaService.excluir(primeira.getId());
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        // As notas do aluno excluído também precisam sair do log, não só da tabela
+        this.alunoService.excluir(excluido.getId());
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        List<EventoNota> historico = this.eventoNotaService.buscarHistoricoAlunoDisciplina(excluido.getId(), disciplina.getId());
+        assertEquals(2, historico.stream().filter(evento -> evento.getTipo() == TipoEventoNota.EXCLUIDA).count());
+        verify(this.usuarioService).revogarAcessos(argThat(usuario -> excluido.getId().equals(usuario.getId())));
+
+        EstatisticaNotaDTO incremental = this.estatisticaNotaService.buscarPorDisciplina(disciplina.getId());
+        assertEquals(1, incremental.getQuantidade());
+        assertEquals(6.0, incremental.getMedia(), 1e-9);
+
+        // Replay do log inteiro (4 criações, 1 alteração, 3 exclusões): mesmo estado da projeção incremental
+        // e da reconstrução a partir da tabela de notas
+        assertEquals(8, this.eventoNotaService.reprocessar());
+        EstatisticaNotaDTO replay = this.estatisticaNotaService.buscarPorDisciplina(disciplina.getId());
+        assertEquals(incremental.getQuantidade(), replay.getQuantidade());
+        assertEquals(incremental.getMedia(), replay.getMedia(), 1e-9);
+
+        this.estatisticaNotaService.reconstruir();
+        EstatisticaNotaDTO reconstruida = this.estatisticaNotaService.buscarPorDisciplina(disciplina.getId());
+        assertEquals(replay.getQuantidade(), reconstruida.getQuantidade());
+        assertEquals(replay.getMedia(), reconstruida.getMedia(), 1e-9);
+    }
+
+    private Nota nota(Aluno aluno, Disciplina disciplina, double valor) {
+        Nota nota = new Nota();
+        nota.setAluno(aluno);
+        nota.setDisciplina(disciplina);
+        nota.setValor(valor);
+        nota.setTipoAvaliacao(TipoAvaliacao.PROVA);
+        nota.setDataAvaliacao(LocalDate.now().minusDays(1));
+        return nota;
+    }
+}
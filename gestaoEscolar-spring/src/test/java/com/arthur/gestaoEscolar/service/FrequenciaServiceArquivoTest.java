@@ -0,0 +1,115 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.model.dto.FrequenciaDTO;
+import com.arthur.gestaoEscolar.model.dto.PaginaCursorDTO;
+import com.arthur.gestaoEscolar.model.entity.Aluno;
+import com.arthur.gestaoEscolar.model.entity.Disciplina;
+import com.arthur.gestaoEscolar.model.entity.Frequencia;
+import com.arthur.gestaoEscolar.model.entity.FrequenciaArquivada;
+import com.arthur.gestaoEscolar.model.entity.Turma;
+import com.arthur.gestaoEscolar.suporte.DadosTeste;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+// Leituras de FrequenciaService enxergam as frequências já movidas para frequencias_arquivo
+@DataJpaTest
+@ActiveProfiles("teste")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({FrequenciaService.class, ResumoFrequenciaService.class})
+class FrequenciaServiceArquivoTest {
+
+    private static final int ANO_ARQUIVADO = LocalDate.now().getYear() - 3;
+
+    @Autowired
+    private FrequenciaService frequenciaService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private LinhaTempoFrequenciaService linhaTempoFrequenciaService;
+
+    @MockBean
+    private ArquivoFrequenciaService arquivoFrequenciaService;
+
+    private final List<String> arquivadas = new ArrayList<>();
+    private final List<String> quentes = new ArrayList<>();
+
+    @BeforeEach
+    void carregar() {
+        Disciplina disciplina = DadosTeste.disciplina(this.entityManager, "Ciências " + UUID.randomUUID());
+        Turma turma = DadosTeste.turma(this.entityManager, LocalDate.now().getYear(), disciplina);
+        Aluno aluno = DadosTeste.alunos(this.entityManager, turma, 1).get(0);
+        for (int i = 0; i < 5; i++) {
+            FrequenciaArquivada arquivada = new FrequenciaArquivada();
+            arquivada.setId(UUID.randomUUID().toString());
+            arquivada.setAluno(aluno);
+            arquivada.setDisciplina(disciplina);
+            arquivada.setDataAula(LocalDate.of(ANO_ARQUIVADO, 5, 1 + i));
+            arquivada.setPresente(true);
+            this.entityManager.persist(arquivada);
+            this.arquivadas.add(arquivada.getId());
+
+            Frequencia quente = new Frequencia();
+            quente.setAluno(aluno);
+            quente.setDisciplina(disciplina);
+            quente.setDataAula(LocalDate.now().minusDays(1 + i));
+            quente.setPresente(false);
+            this.entityManager.persist(quente);
+            this.quentes.add(quente.getId());
+        }
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        when(this.arquivoFrequenciaService.possuiArquivadas(any())).thenReturn(true);
+        when(this.arquivoFrequenciaService.isArquivada(any())).thenAnswer(i -> ((LocalDate) i.getArgument(0)).getYear() <= ANO_ARQUIVADO);
+    }
+
+    @Test
+    void buscaPorIdEncontraArquivadaMasNaoPermiteAlterar() {
+        String id = this.arquivadas.get(0);
+
+        assertEquals(LocalDate.of(ANO_ARQUIVADO, 5, 1), this.frequenciaService.buscarPorId(id).getDataAula());
+        GestaoEscolarException erro = assertThrows(GestaoEscolarException.class, () -> this.frequenciaService.excluir(id));
+        assertTrue(erro.getMessage().contains("arquivados"));
+    }
+
+    @Test
+    void paginacaoPercorreArquivoEDepoisTabelaQuente() {
+        List<String> vistos = new ArrayList<>();
+        String cursor = null;
+        PaginaCursorDTO<FrequenciaDTO> pagina;
+        do {
+            pagina = this.frequenciaService.buscarPagina(cursor, 3);
+            pagina.getItens().forEach(f -> vistos.add(f.getId()));
+            cursor = pagina.getProximoCursor();
+        } while (pagina.isPossuiProxima());
+
+        assertEquals(10, vistos.size());
+        assertTrue(vistos.subList(0, 5).containsAll(this.arquivadas));
+        assertTrue(vistos.subList(5, 10).containsAll(this.quentes));
+
+        List<String> exportados = new ArrayList<>();
+        this.frequenciaService.exportar(lote -> lote.forEach(f -> exportados.add(f.getId())));
+        assertEquals(vistos, exportados);
+    }
+}
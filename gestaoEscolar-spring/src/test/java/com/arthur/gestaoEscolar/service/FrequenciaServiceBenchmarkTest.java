@@ -0,0 +1,158 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.model.dto.ChamadaDTO;
+import com.arthur.gestaoEscolar.model.dto.ResultadoLoteDTO;
+import com.arthur.gestaoEscolar.model.entity.Aluno;
+import com.arthur.gestaoEscolar.model.entity.Disciplina;
+import com.arthur.gestaoEscolar.model.entity.Frequencia;
+import com.arthur.gestaoEscolar.model.entity.Turma;
+import com.arthur.gestaoEscolar.model.repository.AlunoRepository;
+import com.arthur.gestaoEscolar.model.repository.DisciplinaRepository;
+import com.arthur.gestaoEscolar.model.repository.FrequenciaRepository;
+import com.arthur.gestaoEscolar.suporte.ContadorSql;
+import com.arthur.gestaoEscolar.suporte.DadosTeste;
+import com.arthur.gestaoEscolar.suporte.Medicao;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Lote de frequências: caminho em conjunto (uma consulta + batch) contra o caminho antigo, um aluno por vez,
+// e latência da chamada da turma inteira
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("teste")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({FrequenciaService.class, ResumoFrequenciaService.class, ContadorSql.Configuracao.class})
+class FrequenciaServiceBenchmarkTest {
+
+    private static final int ALUNOS = 40;
+
+    @Autowired
+    private FrequenciaService frequenciaService;
+
+    @Autowired
+    private FrequenciaRepository frequenciaRepository;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private LinhaTempoFrequenciaService linhaTempoFrequenciaService;
+
+    @MockBean
+    private ArquivoFrequenciaService arquivoFrequenciaService;
+
+    private Disciplina disciplina;
+    private List<String> alunosIds;
+
+    @BeforeEach
+    void carregar() {
+        this.disciplina = DadosTeste.disciplina(this.entityManager, "Matemática");
+        Turma turma = DadosTeste.turma(this.entityManager, LocalDate.now().getYear(), this.disciplina);
+        this.alunosIds = DadosTeste.alunos(this.entityManager, turma, ALUNOS).stream().map(Aluno::getId).toList();
+        this.entityManager.flush();
+        this.entityManager.clear();
+    }
+
+    @Test
+    void loteEmConjuntoContraUmAlunoPorVez() throws Exception {
+        LocalDate inicio = LocalDate.now().minusYears(1);
+
+        ContadorSql.zerar();
+        this.caminhoAntigo(inicio.minusDays(1000));
+        int idasAntigo = ContadorSql.idasAoBanco();
+        ContadorSql.zerar();
+        ResultadoLoteDTO resultado = this.frequenciaService.marcarPresencaEmLote(this.disciplina.getId(), inicio.minusDays(999), this.alunosIds);
+        int idasLote = ContadorSql.idasAoBanco();
+        assertEquals(ALUNOS, resultado.getTotalRegistrados());
+
+        Medicao.Resultado antigo = Medicao.medir("marcarPresencaEmLote antigo (40 alunos)", 30, 100, i -> {
+            this.caminhoAntigo(inicio.minusDays(i));
+            this.entityManager.clear();
+        });
+        Medicao.Resultado lote = Medicao.medir("marcarPresencaEmLote em conjunto (40 alunos)", 30, 100, i -> {
+            this.frequenciaService.marcarPresencaEmLote(this.disciplina.getId(), inicio.minusDays(500 + i), this.alunosIds);
+            this.entityManager.clear();
+        });
+
+        Medicao.imprimir("idas ao banco por lote de " + ALUNOS + ": antigo=" + idasAntigo + ", em conjunto=" + idasLote);
+        Medicao.imprimir(String.format(Locale.ROOT, "com 0,5 ms de rede por ida: antigo~%.1f ms, em conjunto~%.1f ms",
+                antigo.mediaMicros() / 1000 + idasAntigo * 0.5, lote.mediaMicros() / 1000 + idasLote * 0.5));
+    }
+
+    @Test
+    void chamadaDeTurmaCom60Alunos() throws Exception {
+        Turma turma = DadosTeste.turma(this.entityManager, LocalDate.now().getYear(), this.disciplina);
+        List<String> alunos = DadosTeste.alunos(this.entityManager, turma, 60).stream().map(Aluno::getId).toList();
+        this.entityManager.flush();
+        this.entityManager.clear();
+        LocalDate inicio = LocalDate.now().minusYears(1);
+
+        ContadorSql.zerar();
+        ResultadoLoteDTO resultado = this.frequenciaService.registrarChamada(this.chamada(turma, inicio.minusDays(1000), alunos.subList(0, 5)));
+        int idasNova = ContadorSql.idasAoBanco();
+        assertEquals(60, resultado.getTotalRegistrados());
+
+        Medicao.Resultado nova = Medicao.medir("registrarChamada, aula nova (60 alunos, 5 ausentes)", 30, 100, i -> {
+            this.frequenciaService.registrarChamada(this.chamada(turma, inicio.minusDays(i), alunos.subList(0, 5)));
+            this.entityManager.clear();
+        });
+
+        // Chamada repetida no mesmo dia: outra lista de ausentes substitui a anterior
+        ContadorSql.zerar();
+        this.frequenciaService.registrarChamada(this.chamada(turma, inicio.minusDays(1000), alunos.subList(5, 10)));
+        int idasRepetida = ContadorSql.idasAoBanco();
+        Medicao.Resultado repetida = Medicao.medir("registrarChamada, repetida (10 alunos mudam)", 0, 100, i -> {
+            this.frequenciaService.registrarChamada(this.chamada(turma, inicio.minusDays(i), alunos.subList(5, 10)));
+            this.entityManager.clear();
+        });
+
+        Medicao.imprimir("idas ao banco por chamada de 60: nova=" + idasNova + ", repetida=" + idasRepetida);
+        Medicao.imprimir(String.format(Locale.ROOT, "com 0,5 ms de rede por ida: nova~%.1f ms, repetida~%.1f ms",
+                nova.mediaMicros() / 1000 + idasNova * 0.5, repetida.mediaMicros() / 1000 + idasRepetida * 0.5));
+    }
+
+    private ChamadaDTO chamada(Turma turma, LocalDate dataAula, List<String> ausentes) {
+        ChamadaDTO chamada = new ChamadaDTO();
+        chamada.setTurmaId(turma.getId());
+        chamada.setDisciplinaId(this.disciplina.getId());
+        chamada.setDataAula(dataAula);
+        chamada.setAlunosAusentes(ausentes);
+        return chamada;
+    }
+
+    // Reprodução do caminho anterior: findById por aluno, dois existsById e um INSERT por linha
+    private void caminhoAntigo(LocalDate dataAula) {
+        Disciplina disciplinaAula = this.disciplinaRepository.findById(this.disciplina.getId()).orElseThrow();
+        for (String alunoId : this.alunosIds) {
+            Aluno aluno = this.alunoRepository.findById(alunoId).orElseThrow();
+            Frequencia frequencia = new Frequencia();
+            frequencia.setAluno(aluno);
+            frequencia.setDisciplina(disciplinaAula);
+            frequencia.setDataAula(dataAula);
+            frequencia.setPresente(true);
+            this.alunoRepository.existsById(alunoId);
+            this.disciplinaRepository.existsById(disciplinaAula.getId());
+            this.frequenciaRepository.saveAndFlush(frequencia);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.exception.IdempotenciaConflitanteException;
+import com.arthur.gestaoEscolar.exception.IdempotenciaEmAndamentoException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotenciaServiceTest {
+
+    private IdempotenciaService idempotenciaService;
+
+    @BeforeEach
+    void configurar() {
+        this.idempotenciaService = new IdempotenciaService();
+        ReflectionTestUtils.setField(this.idempotenciaService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(this.idempotenciaService, "validadeMinutos", 60L);
+        ReflectionTestUtils.setField(this.idempotenciaService, "maximoChaves", 100);
+        ReflectionTestUtils.setField(this.idempotenciaService, "esperaMs", 200L);
+        this.idempotenciaService.iniciar();
+    }
+
+    @Test
+    void repeticaoRecebeOResultadoOriginalSemExecutarDeNovo() {
+        AtomicInteger execucoes = new AtomicInteger();
+
+        String primeiro = this.idempotenciaService.executar("op", "k1", List.of("a"), () -> "r" + execucoes.incrementAndGet());
+        String segundo = this.idempotenciaService.executar("op", "k1", List.of("a"), () -> "r" + execucoes.incrementAndGet());
+
+        assertEquals("r1", primeiro);
+        assertEquals("r1", segundo);
+        assertEquals(1, execucoes.get());
+        assertThrows(IdempotenciaConflitanteException.class,
+                () -> this.idempotenciaService.executar("op", "k1", List.of("b"), () -> "outro"));
+    }
+
+    @Test
+    void repeticaoDesisteQuandoAOriginalNaoTerminaNoPrazo() throws Exception {
+        CountDownLatch iniciou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<String> original = CompletableFuture.supplyAsync(() ->
+                this.idempotenciaService.executar("op", "k2", List.of("a"), () -> {
+                    iniciou.countDown();
+                    try {
+                        liberar.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "original";
+                }));
+        assertTrue(iniciou.await(5, TimeUnit.SECONDS));
+
+        long inicio = System.nanoTime();
+        assertThrows(IdempotenciaEmAndamentoException.class,
+                () -> this.idempotenciaService.executar("op", "k2", List.of("a"), () -> "repetida"));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) < 2_000);
+
+        liberar.countDown();
+        assertEquals("original", original.get(5, TimeUnit.SECONDS));
+        assertEquals("original", this.idempotenciaService.executar("op", "k2", List.of("a"), () -> "repetida"));
+    }
+}
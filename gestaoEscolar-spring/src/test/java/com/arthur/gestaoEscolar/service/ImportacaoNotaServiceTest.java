@@ -0,0 +1,151 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImportacaoNotaServiceTest {
+
+    @Test
+    void separaCamposSimples() {
+        assertEquals(List.of("123", "Matemática", "7,5", ""), ImportacaoNotaService.separarCampos("123;Matemática;7,5;", ';'));
+    }
+
+    @Test
+    void separaCamposEntreAspas() {
+        List<String> campos = ImportacaoNotaService.separarCampos("123,\"Prova, parte 1\",\"disse \"\"ótimo\"\"\"", ',');
+
+        assertEquals(List.of("123", "Prova, parte 1", "disse \"ótimo\""), campos);
+    }
+
+    @Test
+    void campoEntreAspasPodeConterQuebraDeLinha() throws IOException {
+        ImportacaoNotaService.LeitorCsv leitor = leitor("matricula;valor;observacao\n"
+                + "123;7,5;\"primeira linha\r\nsegunda; \"\"citada\"\"\"\n"
+                + "456;8;ok\n");
+
+        leitor.proximo();
+        ImportacaoNotaService.LeitorCsv.Registro registro = leitor.proximo();
+        assertEquals(2, registro.linha());
+        assertFalse(registro.aspasAbertas());
+        assertEquals(List.of("123", "7,5", "primeira linha\nsegunda; \"citada\""),
+                ImportacaoNotaService.separarCampos(registro.texto(), ';'));
+
+        ImportacaoNotaService.LeitorCsv.Registro seguinte = leitor.proximo();
+        assertEquals(4, seguinte.linha());
+        assertEquals("456;8;ok", seguinte.texto());
+        assertNull(leitor.proximo());
+    }
+
+    @Test
+    void aspasNaoFechadasViramErroSoDaLinhaDeOrigem() throws IOException {
+        StringBuilder csv = new StringBuilder("matricula;valor;observacao\n123;7;\"sem fechar\n");
+        for (int i = 0; i < ImportacaoNotaService.MAXIMO_LINHAS_REGISTRO + 5; i++) {
+            csv.append("45").append(i).append(";8;ok\n");
+        }
+        ImportacaoNotaService.LeitorCsv leitor = leitor(csv.toString());
+
+        leitor.proximo();
+        ImportacaoNotaService.LeitorCsv.Registro quebrado = leitor.proximo();
+        assertEquals(2, quebrado.linha());
+        assertTrue(quebrado.aspasAbertas());
+        assertEquals("123;7;\"sem fechar", quebrado.texto());
+
+        // As linhas lidas à frente voltam para a leitura, com a numeração original
+        for (int i = 0; i < ImportacaoNotaService.MAXIMO_LINHAS_REGISTRO + 5; i++) {
+            ImportacaoNotaService.LeitorCsv.Registro registro = leitor.proximo();
+            assertEquals(3 + i, registro.linha());
+            assertEquals("45" + i + ";8;ok", registro.texto());
+        }
+        assertNull(leitor.proximo());
+    }
+
+    @Test
+    void aspasNaoFechadasAteOFimDoArquivo() throws IOException {
+        ImportacaoNotaService.LeitorCsv leitor = leitor("matricula;valor\n123;\"7\n456;8\n");
+
+        leitor.proximo();
+        assertTrue(leitor.proximo().aspasAbertas());
+        ImportacaoNotaService.LeitorCsv.Registro registro = leitor.proximo();
+        assertEquals(3, registro.linha());
+        assertEquals("456;8", registro.texto());
+        assertNull(leitor.proximo());
+    }
+
+    @Test
+    void leValorComVirgulaOuPontoDecimal() {
+        assertEquals(7.5, ImportacaoNotaService.lerValor("7,5"));
+        assertEquals(7.5, ImportacaoNotaService.lerValor("7.5"));
+        assertEquals(10.0, ImportacaoNotaService.lerValor("10"));
+        assertEquals(0.0, ImportacaoNotaService.lerValor("0"));
+    }
+
+    @Test
+    void rejeitaValorForaDaFaixaOuNaoNumerico() {
+        assertThrows(GestaoEscolarException.class, () -> ImportacaoNotaService.lerValor(null));
+        assertThrows(GestaoEscolarException.class, () -> ImportacaoNotaService.lerValor("dez"));
+        assertThrows(GestaoEscolarException.class, () -> ImportacaoNotaService.lerValor("-0,5"));
+        assertThrows(GestaoEscolarException.class, () -> ImportacaoNotaService.lerValor("10,1"));
+    }
+
+    @Test
+    void rejeitaValorNaoFinito() {
+        assertThrows(GestaoEscolarException.class, () -> ImportacaoNotaService.lerValor("NaN"));
+        assertThrows(GestaoEscolarException.class, () -> ImportacaoNotaService.lerValor("Infinity"));
+        assertThrows(GestaoEscolarException.class, () -> ImportacaoNotaService.lerValor("-Infinity"));
+    }
+
+    @Test
+    void leDataBrasileiraEIso() {
+        assertEquals(LocalDate.of(2024, 3, 15), ImportacaoNotaService.lerData("15/03/2024"));
+        assertEquals(LocalDate.of(2024, 3, 15), ImportacaoNotaService.lerData("2024-03-15"));
+        assertEquals(LocalDate.of(2024, 2, 29), ImportacaoNotaService.lerData("29/02/2024"));
+    }
+
+    @Test
+    void rejeitaDataInvalida() {
+        assertThrows(GestaoEscolarException.class, () -> ImportacaoNotaService.lerData(null));
+        assertThrows(GestaoEscolarException.class, () -> ImportacaoNotaService.lerData("31/02/2024"));
+        assertThrows(GestaoEscolarException.class, () -> ImportacaoNotaService.lerData("2024/03/15"));
+        assertThrows(GestaoEscolarException.class, () -> ImportacaoNotaService.lerData("15-03-2024"));
+    }
+
+    @Test
+    void reconheceCabecalhosComAcentosEApelidos() {
+        Map<String, Integer> indices = ImportacaoNotaService.lerCabecalho(
+                List.of("Matrícula", "Disciplina", "Nota", "Tipo de Avaliação", "Data", "Observação"));
+
+        assertEquals(0, indices.get(ImportacaoNotaService.MATRICULA.nome()));
+        assertEquals(1, indices.get(ImportacaoNotaService.DISCIPLINA.nome()));
+        assertEquals(2, indices.get(ImportacaoNotaService.VALOR.nome()));
+        assertEquals(3, indices.get(ImportacaoNotaService.TIPO.nome()));
+        assertEquals(4, indices.get(ImportacaoNotaService.DATA.nome()));
+        assertEquals(5, indices.get(ImportacaoNotaService.OBSERVACAO.nome()));
+    }
+
+    @Test
+    void reconheceCabecalhosComSublinhado() {
+        Map<String, Integer> indices = ImportacaoNotaService.lerCabecalho(
+                List.of("matricula", "disciplina_id", "valor", "tipo_avaliacao", "data_avaliacao"));
+
+        assertEquals(1, indices.get(ImportacaoNotaService.DISCIPLINA.nome()));
+        assertEquals(3, indices.get(ImportacaoNotaService.TIPO.nome()));
+        assertEquals(4, indices.get(ImportacaoNotaService.DATA.nome()));
+    }
+
+    private static ImportacaoNotaService.LeitorCsv leitor(String conteudo) {
+        return new ImportacaoNotaService.LeitorCsv(new BufferedReader(new StringReader(conteudo)));
+    }
+}
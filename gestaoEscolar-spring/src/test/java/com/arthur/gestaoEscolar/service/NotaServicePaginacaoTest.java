@@ -0,0 +1,131 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.model.dto.GrupoNotasDisciplinaDTO;
+import com.arthur.gestaoEscolar.model.dto.NotaDTO;
+import com.arthur.gestaoEscolar.model.dto.PaginaCursorDTO;
+import com.arthur.gestaoEscolar.model.entity.Aluno;
+import com.arthur.gestaoEscolar.model.entity.Disciplina;
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import com.arthur.gestaoEscolar.model.entity.Turma;
+import com.arthur.gestaoEscolar.suporte.ContadorSql;
+import com.arthur.gestaoEscolar.suporte.DadosTeste;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// A consulta de notas por período é projetada direto em NotaDTO: cada página custa uma única ida ao banco,
+// sem contagem, sem carregar aluno ou disciplina e sem N+1, qualquer que seja o tamanho da página
+@DataJpaTest
+@ActiveProfiles("teste")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({NotaService.class, PoliticaAvaliacaoService.class, EventoNotaService.class, ContadorSql.Configuracao.class})
+class NotaServicePaginacaoTest {
+
+    private static final int DISCIPLINAS = 3;
+    private static final int ALUNOS = 5;
+    private static final int NOTAS_POR_ALUNO = 4;
+    private static final int TOTAL = DISCIPLINAS * ALUNOS * NOTAS_POR_ALUNO;
+
+    @Autowired
+    private NotaService notaService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private ArquivoFrequenciaService arquivoFrequenciaService;
+
+    private LocalDate inicio;
+    private LocalDate fim;
+
+    @BeforeEach
+    void carregarNotas() {
+        int ano = LocalDate.now().getYear() - 1;
+        this.inicio = LocalDate.of(ano, 1, 1);
+        this.fim = LocalDate.of(ano, 12, 31);
+
+        List<Disciplina> disciplinas = new ArrayList<>();
+        for (int d = 0; d < DISCIPLINAS; d++) {
+            disciplinas.add(DadosTeste.disciplina(this.entityManager, "Disciplina " + d + " " + UUID.randomUUID()));
+        }
+        Turma turma = DadosTeste.turma(this.entityManager, ano, disciplinas.toArray(new Disciplina[0]));
+        List<Aluno> alunos = DadosTeste.alunos(this.entityManager, turma, ALUNOS);
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        List<Object[]> notas = new ArrayList<>();
+        for (Disciplina disciplina : disciplinas) {
+            for (Aluno aluno : alunos) {
+                for (int n = 0; n < NOTAS_POR_ALUNO; n++) {
+                    notas.add(new Object[]{UUID.randomUUID().toString(), aluno.getId(), disciplina.getId(), 5.0 + n,
+                            TipoAvaliacao.PROVA.name(), Date.valueOf(LocalDate.of(ano, 3 + n, 10))});
+                }
+            }
+        }
+        this.jdbcTemplate.batchUpdate("INSERT INTO notas (id, aluno_id, disciplina_id, valor, tipo_avaliacao, data_avaliacao) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", notas);
+    }
+
+    @Test
+    void cadaPaginaPorPeriodoCustaUmaConsulta() {
+        for (int tamanho : new int[]{7, 25, TOTAL}) {
+            Set<String> ids = new HashSet<>();
+            String cursor = null;
+            do {
+                ContadorSql.zerar();
+                PaginaCursorDTO<NotaDTO> pagina = this.notaService.buscarPorPeriodo(this.inicio, this.fim, cursor, tamanho);
+                assertEquals(1, ContadorSql.idasAoBanco(), "idas ao banco por página de " + tamanho);
+                assertEquals(1, ContadorSql.consultas().size());
+
+                // Os nomes vêm na projeção: ler a página não dispara consultas preguiçosas
+                for (NotaDTO nota : pagina.getItens()) {
+                    assertNotNull(nota.getDisciplinaNome());
+                    ids.add(nota.getId());
+                }
+                assertEquals(1, ContadorSql.idasAoBanco());
+                cursor = pagina.getProximoCursor();
+            } while (cursor != null);
+            assertEquals(TOTAL, ids.size());
+        }
+    }
+
+    @Test
+    void cadaPaginaAgrupadaPorDisciplinaCustaUmaConsulta() {
+        for (int tamanho : new int[]{7, 25, TOTAL}) {
+            int total = 0;
+            String cursor = null;
+            do {
+                ContadorSql.zerar();
+                PaginaCursorDTO<GrupoNotasDisciplinaDTO> pagina = this.notaService.buscarPorPeriodoAgrupado(this.inicio, this.fim, cursor, tamanho);
+                assertEquals(1, ContadorSql.idasAoBanco(), "idas ao banco por página agrupada de " + tamanho);
+
+                for (GrupoNotasDisciplinaDTO grupo : pagina.getItens()) {
+                    total += grupo.getNotas().size();
+                }
+                cursor = pagina.getProximoCursor();
+            } while (cursor != null);
+            assertEquals(TOTAL, total);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.model.dto.LancamentoNotasDTO;
+import com.arthur.gestaoEscolar.model.dto.ResultadoLoteDTO;
+import com.arthur.gestaoEscolar.model.entity.Nota;
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import com.arthur.gestaoEscolar.model.repository.AlunoRepository;
+import com.arthur.gestaoEscolar.model.repository.DisciplinaRepository;
+import com.arthur.gestaoEscolar.model.repository.NotaRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotaServiceTest {
+
+    @Mock
+    private NotaRepository notaRepository;
+
+    @Mock
+    private AlunoRepository alunoRepository;
+
+    @Mock
+    private DisciplinaRepository disciplinaRepository;
+
+    @Mock
+    private PoliticaAvaliacaoService politicaAvaliacaoService;
+
+    @Mock
+    private EventoNotaService eventoNotaService;
+
+    @InjectMocks
+    private NotaService notaService;
+
+    @Test
+    void valorNaoFinitoEhRecusadoAntesDeGravar() {
+        for (double valor : new double[]{Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}) {
+            Nota nota = new Nota();
+            nota.setValor(valor);
+            nota.setTipoAvaliacao(TipoAvaliacao.PROVA);
+            nota.setDataAvaliacao(LocalDate.now());
+
+            assertThrows(GestaoEscolarException.class, () -> this.notaService.salvar(nota));
+        }
+        verifyNoInteractions(this.notaRepository);
+    }
+
+    @Test
+    void loteRegistraErroParaValorNaoFinito() {
+        when(this.disciplinaRepository.existsById(anyString())).thenReturn(true);
+        when(this.alunoRepository.findIdsExistentes(anyList())).thenReturn(List.of("a1", "a2"));
+
+        LancamentoNotasDTO lancamento = new LancamentoNotasDTO();
+        lancamento.setDisciplinaId("d1");
+        lancamento.setTipoAvaliacao(TipoAvaliacao.PROVA);
+        lancamento.setDataAvaliacao(LocalDate.now());
+        lancamento.getNotas().add(this.item("a1", Double.NaN));
+        lancamento.getNotas().add(this.item("a2", 7.5));
+
+        ResultadoLoteDTO resultado = this.notaService.salvarEmLote(lancamento);
+
+        assertEquals(1, resultado.getTotalRegistrados());
+        assertEquals(1, resultado.getTotalErros());
+        assertEquals("a1", resultado.getItens().stream().filter(i -> !i.isSucesso()).findFirst().orElseThrow().getAlunoId());
+    }
+
+    private LancamentoNotasDTO.ItemNota item(String alunoId, double valor) {
+        LancamentoNotasDTO.ItemNota item = new LancamentoNotasDTO.ItemNota();
+        item.setAlunoId(alunoId);
+        item.setValor(valor);
+        return item;
+    }
+}
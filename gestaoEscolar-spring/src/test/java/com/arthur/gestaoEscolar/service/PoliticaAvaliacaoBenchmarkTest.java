@@ -0,0 +1,123 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.model.entity.PoliticaAvaliacao;
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import com.arthur.gestaoEscolar.model.repository.DisciplinaRepository;
+import com.arthur.gestaoEscolar.model.repository.NotaRepository;
+import com.arthur.gestaoEscolar.model.repository.PoliticaAvaliacaoRepository;
+import com.arthur.gestaoEscolar.suporte.Medicao;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Avaliação das políticas para 100 mil alunos: o motor sobre arrays primitivos, o cálculo de uma disciplina
+// inteira a partir das linhas da consulta (sem o banco) e a leitura das médias já em cache
+@Tag("benchmark")
+class PoliticaAvaliacaoBenchmarkTest {
+
+    private static final int ALUNOS = 100_000;
+    private static final TipoAvaliacao[] NOTAS_POR_ALUNO = {TipoAvaliacao.PROVA, TipoAvaliacao.PROVA, TipoAvaliacao.PROVA,
+            TipoAvaliacao.TRABALHO, TipoAvaliacao.TRABALHO, TipoAvaliacao.PROJETO, TipoAvaliacao.PROJETO, TipoAvaliacao.RECUPERACAO};
+
+    private final PoliticaAvaliacaoService.RegraPonderada regra = new PoliticaAvaliacaoService.RegraPonderada(
+            pesos(), true, 6.0);
+
+    @Test
+    void motorSobreArraysPrimitivos() throws Exception {
+        int n = NOTAS_POR_ALUNO.length;
+        double[] valores = new double[ALUNOS * n];
+        int[] tipos = new int[ALUNOS * n];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = (i * 37 % 101) / 10.0;
+            tipos[i] = NOTAS_POR_ALUNO[i % n].ordinal();
+        }
+        double[] aluno = new double[n];
+        int[] tiposAluno = new int[n];
+        double[] soma = new double[1];
+
+        Medicao.Resultado ponderada = Medicao.medir("RegraPonderada, 100k alunos x 8 notas", 10, 30, it -> {
+            double total = 0;
+            for (int a = 0; a < ALUNOS; a++) {
+                System.arraycopy(valores, a * n, aluno, 0, n);
+                System.arraycopy(tipos, a * n, tiposAluno, 0, n);
+                total += this.regra.calcular(aluno, tiposAluno, n);
+            }
+            soma[0] += total;
+        });
+        Medicao.Resultado simples = Medicao.medir("MEDIA_SIMPLES, 100k alunos x 8 notas", 10, 30, it -> {
+            double total = 0;
+            for (int a = 0; a < ALUNOS; a++) {
+                System.arraycopy(valores, a * n, aluno, 0, n);
+                total += PoliticaAvaliacaoService.MEDIA_SIMPLES.calcular(aluno, tiposAluno, n);
+            }
+            soma[0] += total;
+        });
+
+        Medicao.imprimir(String.format(Locale.ROOT, "por aluno: ponderada=%.0f ns, simples=%.0f ns (checksum %.1f)",
+                ponderada.percentilMicros(50) * 1000 / ALUNOS, simples.percentilMicros(50) * 1000 / ALUNOS, soma[0]));
+    }
+
+    @Test
+    void mediasFinaisDeUmaDisciplinaCom100kAlunos() throws Exception {
+        PoliticaAvaliacaoRepository politicaAvaliacaoRepository = mock(PoliticaAvaliacaoRepository.class);
+        NotaRepository notaRepository = mock(NotaRepository.class);
+        PoliticaAvaliacao politica = new PoliticaAvaliacao();
+        politica.setDisciplinaId("d1");
+        politica.getPesos().put(TipoAvaliacao.PROVA, 2.0);
+        politica.getPesos().put(TipoAvaliacao.TRABALHO, 1.0);
+        politica.setDescartarMenorNota(true);
+        when(politicaAvaliacaoRepository.findByDisciplinaId("d1")).thenReturn(Optional.of(politica));
+
+        // Linhas como a consulta as devolve: (alunoId, valor, tipo) ordenadas por aluno
+        List<Object[]> linhas = new ArrayList<>(ALUNOS * NOTAS_POR_ALUNO.length);
+        List<String> alunos = new ArrayList<>(ALUNOS);
+        for (int a = 0; a < ALUNOS; a++) {
+            String alunoId = String.format("aluno-%06d", a);
+            alunos.add(alunoId);
+            for (int i = 0; i < NOTAS_POR_ALUNO.length; i++) {
+                linhas.add(new Object[]{alunoId, ((a + i) * 37 % 101) / 10.0, NOTAS_POR_ALUNO[i]});
+            }
+        }
+        when(notaRepository.buscarValoresPorDisciplina("d1")).thenReturn(linhas);
+
+        PoliticaAvaliacaoService servico = new PoliticaAvaliacaoService();
+        ReflectionTestUtils.setField(servico, "politicaAvaliacaoRepository", politicaAvaliacaoRepository);
+        ReflectionTestUtils.setField(servico, "notaRepository", notaRepository);
+        ReflectionTestUtils.setField(servico, "disciplinaRepository", mock(DisciplinaRepository.class));
+        ReflectionTestUtils.setField(servico, "maximoRegras", 100);
+        // Folga sobre os 100k: o LRU é por segmento e a distribuição das chaves entre segmentos não é exata
+        ReflectionTestUtils.setField(servico, "maximoMedias", ALUNOS * 2);
+        servico.iniciar();
+
+        AtomicReference<Map<String, Double>> resultado = new AtomicReference<>();
+        Medicao.Resultado disciplina = Medicao.medir("calcularMediasFinais, 1 disciplina x 100k alunos", 5, 20,
+                it -> resultado.set(servico.calcularMediasFinais("d1")));
+        assertEquals(ALUNOS, resultado.get().size());
+
+        double[] soma = new double[1];
+        Medicao.Resultado cache = Medicao.medirEmLotes("calcularMediaFinal em cache", 100, 200, 1_000,
+                it -> soma[0] += servico.calcularMediaFinal(alunos.get(it % ALUNOS), "d1"));
+
+        Medicao.imprimir(String.format(Locale.ROOT, "disciplina inteira: %.0f ns por aluno; leitura em cache: %.0f ns",
+                disciplina.percentilMicros(50) * 1000 / ALUNOS, cache.percentilMicros(50) * 1000));
+    }
+
+    private static double[] pesos() {
+        double[] pesos = new double[TipoAvaliacao.values().length];
+        pesos[TipoAvaliacao.PROVA.ordinal()] = 2.0;
+        pesos[TipoAvaliacao.TRABALHO.ordinal()] = 1.0;
+        pesos[TipoAvaliacao.PROJETO.ordinal()] = 1.5;
+        return pesos;
+    }
+}
@@ -0,0 +1,52 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.model.entity.PoliticaAvaliacao;
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import com.arthur.gestaoEscolar.model.repository.DisciplinaRepository;
+import com.arthur.gestaoEscolar.model.repository.NotaRepository;
+import com.arthur.gestaoEscolar.model.repository.PoliticaAvaliacaoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PoliticaAvaliacaoServiceTest {
+
+    @Mock
+    private PoliticaAvaliacaoRepository politicaAvaliacaoRepository;
+
+    @Mock
+    private NotaRepository notaRepository;
+
+    @Mock
+    private DisciplinaRepository disciplinaRepository;
+
+    @InjectMocks
+    private PoliticaAvaliacaoService politicaAvaliacaoService;
+
+    @Test
+    void pesoOuMediaNaoFinitosSaoRecusados() {
+        when(this.disciplinaRepository.existsById("d1")).thenReturn(true);
+
+        for (double invalido : new double[]{Double.NaN, Double.POSITIVE_INFINITY}) {
+            PoliticaAvaliacao comPeso = new PoliticaAvaliacao();
+            comPeso.getPesos().put(TipoAvaliacao.PROVA, invalido);
+            assertThrows(GestaoEscolarException.class, () -> this.politicaAvaliacaoService.salvarPolitica("d1", comPeso));
+
+            PoliticaAvaliacao comMedia = new PoliticaAvaliacao();
+            comMedia.getPesos().put(TipoAvaliacao.PROVA, 1.0);
+            comMedia.setMediaAprovacao(invalido);
+            assertThrows(GestaoEscolarException.class, () -> this.politicaAvaliacaoService.salvarPolitica("d1", comMedia));
+        }
+        verify(this.politicaAvaliacaoRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,96 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.model.dto.RankingTurmaDTO;
+import com.arthur.gestaoEscolar.model.entity.Aluno;
+import com.arthur.gestaoEscolar.model.entity.Disciplina;
+import com.arthur.gestaoEscolar.model.entity.Nota;
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import com.arthur.gestaoEscolar.model.entity.Turma;
+import com.arthur.gestaoEscolar.suporte.DadosTeste;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@ActiveProfiles("teste")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RankingNotaService.class, PoliticaAvaliacaoService.class})
+class RankingNotaServiceTest {
+
+    @Autowired
+    private RankingNotaService rankingNotaService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private ArquivoFrequenciaService arquivoFrequenciaService;
+
+    @Test
+    void rankingUsaSoAsNotasDoAnoLetivo() {
+        int ano = LocalDate.now().getYear();
+        Disciplina disciplina = DadosTeste.disciplina(this.entityManager, "Química " + UUID.randomUUID());
+        Turma turma = DadosTeste.turma(this.entityManager, ano, disciplina);
+        List<Aluno> alunos = DadosTeste.alunos(this.entityManager, turma, 2);
+
+        // Aluno 0 foi melhor no ano anterior; aluno 1 é melhor no ano da turma
+        this.nota(alunos.get(0), disciplina, 10.0, LocalDate.of(ano - 1, 5, 10));
+        this.nota(alunos.get(0), disciplina, 5.0, LocalDate.of(ano, 3, 10));
+        this.nota(alunos.get(1), disciplina, 2.0, LocalDate.of(ano - 1, 5, 10));
+        this.nota(alunos.get(1), disciplina, 7.0, LocalDate.of(ano, 3, 10));
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        RankingTurmaDTO atual = this.rankingNotaService.buscarMelhores(turma.getId(), disciplina.getId(), null, null);
+        assertEquals(alunos.get(1).getId(), atual.getPosicoes().get(0).getAlunoId());
+        assertEquals(7.0, atual.getPosicoes().get(0).getMedia(), 1e-9);
+        assertEquals(5.0, atual.getPosicoes().get(1).getMedia(), 1e-9);
+
+        RankingTurmaDTO anterior = this.rankingNotaService.buscarMelhores(turma.getId(), disciplina.getId(), ano - 1, null);
+        assertEquals(alunos.get(0).getId(), anterior.getPosicoes().get(0).getAlunoId());
+        assertEquals(10.0, anterior.getPosicoes().get(0).getMedia(), 1e-9);
+
+        // Nota nova no ano da turma: o aluno é reposicionado com a média só desse ano
+        this.nota(alunos.get(0), disciplina, 10.0, LocalDate.of(ano, 4, 10));
+        this.entityManager.flush();
+        this.rankingNotaService.marcarAlteracao(alunos.get(0).getId(), disciplina.getId());
+
+        assertEquals(7.5, this.rankingNotaService.buscarPosicao(turma.getId(), disciplina.getId(), null, alunos.get(0).getId()).getMedia(), 1e-9);
+        assertEquals(1, this.rankingNotaService.buscarPosicao(turma.getId(), disciplina.getId(), ano, alunos.get(0).getId()).getPosicao());
+        assertEquals(10.0, this.rankingNotaService.buscarPosicao(turma.getId(), disciplina.getId(), ano - 1, alunos.get(0).getId()).getMedia(), 1e-9);
+    }
+
+    @Test
+    void anoLetivoForaDoIntervaloEhRejeitado() {
+        Disciplina disciplina = DadosTeste.disciplina(this.entityManager, "Física " + UUID.randomUUID());
+        Turma turma = DadosTeste.turma(this.entityManager, LocalDate.now().getYear(), disciplina);
+
+        assertThrows(GestaoEscolarException.class,
+                () -> this.rankingNotaService.buscarMelhores(turma.getId(), disciplina.getId(), 1500, null));
+        assertThrows(GestaoEscolarException.class,
+                () -> this.rankingNotaService.buscarMelhores(turma.getId(), disciplina.getId(), LocalDate.now().getYear() + 2, null));
+    }
+
+    private void nota(Aluno aluno, Disciplina disciplina, double valor, LocalDate data) {
+        Nota nota = new Nota();
+        nota.setAluno(aluno);
+        nota.setDisciplina(disciplina);
+        nota.setValor(valor);
+        nota.setTipoAvaliacao(TipoAvaliacao.PROVA);
+        nota.setDataAvaliacao(data);
+        this.entityManager.persist(nota);
+    }
+}
@@ -0,0 +1,162 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.model.entity.RefreshToken;
+import com.arthur.gestaoEscolar.model.entity.TipoUsuario;
+import com.arthur.gestaoEscolar.model.entity.Usuario;
+import com.arthur.gestaoEscolar.model.repository.RefreshTokenRepository;
+import com.arthur.gestaoEscolar.model.repository.UsuarioRepository;
+import com.arthur.gestaoEscolar.util.JwtUtil;
+import com.arthur.gestaoEscolar.util.VerificadorToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    private static final String TOKEN = "refresh-original";
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    private RefreshToken atual;
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(this.refreshTokenService, "validadeDias", 7L);
+        ReflectionTestUtils.setField(this.refreshTokenService, "toleranciaSegundos", 10L);
+        ReflectionTestUtils.setField(this.refreshTokenService, "maximoSucessores", 100);
+        this.refreshTokenService.iniciar();
+
+        this.atual = new RefreshToken();
+        this.atual.setId("rt-1");
+        this.atual.setTokenHash(VerificadorToken.hash(TOKEN));
+        this.atual.setUsuarioId("u-1");
+        this.atual.setFamilia("familia-1");
+        this.atual.setCriadoEm(LocalDateTime.now().minusDays(1));
+        this.atual.setExpiraEm(LocalDateTime.now().plusDays(6));
+    }
+
+    @Test
+    void rotacaoEmiteNovoRefreshNaMesmaFamilia() {
+        this.prepararRotacao();
+
+        RefreshTokenService.Renovacao renovacao = this.refreshTokenService.rotacionar(TOKEN);
+
+        assertEquals("acesso", renovacao.tokenAcesso());
+        assertNotEquals(TOKEN, renovacao.refreshToken());
+        ArgumentCaptor<RefreshToken> salvo = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(this.refreshTokenRepository).save(salvo.capture());
+        assertEquals("familia-1", salvo.getValue().getFamilia());
+        assertEquals("u-1", salvo.getValue().getUsuarioId());
+        assertEquals(VerificadorToken.hash(renovacao.refreshToken()), salvo.getValue().getTokenHash());
+        verify(this.refreshTokenRepository, never()).revogarFamilia(anyString());
+    }
+
+    @Test
+    void reutilizacaoDeTokenJaRotacionadoRevogaAFamilia() {
+        this.atual.setUsadoEm(LocalDateTime.now().minusMinutes(5));
+        when(this.refreshTokenRepository.findByTokenHash(VerificadorToken.hash(TOKEN))).thenReturn(Optional.of(this.atual));
+
+        assertThrows(GestaoEscolarException.class, () -> this.refreshTokenService.rotacionar(TOKEN));
+
+        verify(this.refreshTokenRepository).revogarFamilia("familia-1");
+        verify(this.refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void rotacaoConcorrenteDentroDaToleranciaRecebeOMesmoSucessor() {
+        this.prepararRotacao();
+        RefreshTokenService.Renovacao primeira = this.refreshTokenService.rotacionar(TOKEN);
+
+        // A outra aba perde o update condicional, mas o sucessor segue ativo
+        when(this.refreshTokenRepository.marcarUsado(eq("rt-1"), any())).thenReturn(0);
+        when(this.refreshTokenRepository.contarAtivosComTrava(VerificadorToken.hash(primeira.refreshToken()))).thenReturn(1L);
+
+        RefreshTokenService.Renovacao segunda = this.refreshTokenService.rotacionar(TOKEN);
+
+        assertEquals(primeira, segunda);
+        verify(this.refreshTokenRepository, never()).revogarFamilia(anyString());
+    }
+
+    @Test
+    void sucessorRevogadoNaoEhReaproveitado() {
+        this.prepararRotacao();
+        RefreshTokenService.Renovacao primeira = this.refreshTokenService.rotacionar(TOKEN);
+
+        // Logout na outra aba entre as duas renovações
+        when(this.refreshTokenRepository.marcarUsado(eq("rt-1"), any())).thenReturn(0);
+        when(this.refreshTokenRepository.contarAtivosComTrava(VerificadorToken.hash(primeira.refreshToken()))).thenReturn(0L);
+
+        assertThrows(GestaoEscolarException.class, () -> this.refreshTokenService.rotacionar(TOKEN));
+        verify(this.refreshTokenRepository).revogarFamilia("familia-1");
+    }
+
+    @Test
+    void tokenRevogadoEhRecusadoSemRotacionar() {
+        this.atual.setRevogado(true);
+        when(this.refreshTokenRepository.findByTokenHash(VerificadorToken.hash(TOKEN))).thenReturn(Optional.of(this.atual));
+
+        assertThrows(GestaoEscolarException.class, () -> this.refreshTokenService.rotacionar(TOKEN));
+
+        verify(this.refreshTokenRepository, never()).marcarUsado(anyString(), any());
+        verify(this.refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void tokenDesconhecidoOuAusenteEhRecusado() {
+        when(this.refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(GestaoEscolarException.class, () -> this.refreshTokenService.rotacionar("desconhecido"));
+        assertThrows(GestaoEscolarException.class, () -> this.refreshTokenService.rotacionar(null));
+        assertThrows(GestaoEscolarException.class, () -> this.refreshTokenService.rotacionar(" "));
+    }
+
+    @Test
+    void revogarPorTokenRevogaAFamilia() {
+        when(this.refreshTokenRepository.findByTokenHash(VerificadorToken.hash(TOKEN))).thenReturn(Optional.of(this.atual));
+
+        this.refreshTokenService.revogar(TOKEN);
+
+        verify(this.refreshTokenRepository).revogarFamilia("familia-1");
+    }
+
+    private void prepararRotacao() {
+        Usuario usuario = new Usuario();
+        usuario.setId("u-1");
+        usuario.setEmail("professor@escola.com");
+        usuario.setTipoUsuario(TipoUsuario.PROFESSOR);
+        when(this.refreshTokenRepository.findByTokenHash(VerificadorToken.hash(TOKEN))).thenReturn(Optional.of(this.atual));
+        when(this.refreshTokenRepository.marcarUsado(eq("rt-1"), any())).thenReturn(1);
+        when(this.usuarioRepository.findById("u-1")).thenReturn(Optional.of(usuario));
+        when(this.jwtUtil.generateToken("professor@escola.com", "PROFESSOR")).thenReturn("acesso");
+    }
+}
@@ -0,0 +1,93 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.model.entity.TipoAvaliacao;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegraPonderadaTest {
+
+    private static final int PROVA = TipoAvaliacao.PROVA.ordinal();
+    private static final int TRABALHO = TipoAvaliacao.TRABALHO.ordinal();
+    private static final int RECUPERACAO = TipoAvaliacao.RECUPERACAO.ordinal();
+
+    @Test
+    void aplicaPesosPorTipo() {
+        PoliticaAvaliacaoService.RegraPonderada regra = regra(false, 6.0, PROVA, 2.0, TRABALHO, 1.0);
+
+        // (2 * média das provas + 1 * média dos trabalhos) / 3
+        double media = regra.calcular(new double[]{7.0, 9.0, 5.0}, new int[]{PROVA, PROVA, TRABALHO}, 3);
+
+        assertEquals(7.0, media, 1e-9);
+    }
+
+    @Test
+    void ignoraTipoComPesoZero() {
+        PoliticaAvaliacaoService.RegraPonderada regra = regra(false, 6.0, PROVA, 1.0, TRABALHO, 0.0);
+
+        double media = regra.calcular(new double[]{8.0, 2.0}, new int[]{PROVA, TRABALHO}, 2);
+
+        assertEquals(8.0, media, 1e-9);
+    }
+
+    @Test
+    void descartaMenorNotaDeCadaTipo() {
+        PoliticaAvaliacaoService.RegraPonderada regra = regra(true, 6.0, PROVA, 1.0, TRABALHO, 1.0);
+
+        // Provas: descarta o 4 -> 8.5; trabalho único não é descartado -> 6.5
+        double media = regra.calcular(new double[]{4.0, 8.0, 9.0, 6.5}, new int[]{PROVA, PROVA, PROVA, TRABALHO}, 4);
+
+        assertEquals(7.5, media, 1e-9);
+    }
+
+    @Test
+    void recuperacaoSubstituiMediaAbaixoDaAprovacao() {
+        PoliticaAvaliacaoService.RegraPonderada regra = regra(false, 6.0, PROVA, 1.0);
+
+        assertEquals(7.0, regra.calcular(new double[]{4.0, 7.0}, new int[]{PROVA, RECUPERACAO}, 2), 1e-9);
+        // Recuperação pior que a média não a reduz
+        assertEquals(5.0, regra.calcular(new double[]{5.0, 3.0}, new int[]{PROVA, RECUPERACAO}, 2), 1e-9);
+        // Aluno já aprovado mantém a média
+        assertEquals(8.0, regra.calcular(new double[]{8.0, 10.0}, new int[]{PROVA, RECUPERACAO}, 2), 1e-9);
+    }
+
+    @Test
+    void consideraMaiorRecuperacaoEUsaElaSemOutrasNotas() {
+        PoliticaAvaliacaoService.RegraPonderada regra = regra(false, 6.0, PROVA, 1.0);
+
+        double media = regra.calcular(new double[]{5.0, 6.5}, new int[]{RECUPERACAO, RECUPERACAO}, 2);
+
+        assertEquals(6.5, media, 1e-9);
+    }
+
+    @Test
+    void semNotasDevolveNaN() {
+        PoliticaAvaliacaoService.RegraPonderada regra = regra(true, 6.0, PROVA, 1.0);
+
+        assertTrue(Double.isNaN(regra.calcular(new double[0], new int[0], 0)));
+        assertTrue(Double.isNaN(PoliticaAvaliacaoService.MEDIA_SIMPLES.calcular(new double[0], new int[0], 0)));
+    }
+
+    @Test
+    void consideraSoAsPrimeirasNotasInformadas() {
+        PoliticaAvaliacaoService.RegraPonderada regra = regra(false, 6.0, PROVA, 1.0);
+
+        // Arrays reaproveitados entre alunos podem ter sobras depois de quantidade
+        double media = regra.calcular(new double[]{6.0, 8.0, 0.0, 0.0}, new int[]{PROVA, PROVA, PROVA, PROVA}, 2);
+
+        assertEquals(7.0, media, 1e-9);
+    }
+
+    // Pesos informados em pares (tipo, peso); os demais tipos ficam com peso zero
+    private static PoliticaAvaliacaoService.RegraPonderada regra(boolean descartarMenorNota, double mediaAprovacao, Object... pesosPorTipo) {
+        double[] pesos = new double[TipoAvaliacao.values().length];
+        Arrays.fill(pesos, 0.0);
+        for (int i = 0; i < pesosPorTipo.length; i += 2) {
+            pesos[(Integer) pesosPorTipo[i]] = (Double) pesosPorTipo[i + 1];
+        }
+        return new PoliticaAvaliacaoService.RegraPonderada(pesos, descartarMenorNota, mediaAprovacao);
+    }
+}
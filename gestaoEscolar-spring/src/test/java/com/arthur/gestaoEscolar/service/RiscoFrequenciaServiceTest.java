@@ -0,0 +1,133 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import com.arthur.gestaoEscolar.model.dto.RiscoFrequenciaDTO;
+import com.arthur.gestaoEscolar.model.entity.Aluno;
+import com.arthur.gestaoEscolar.model.entity.Disciplina;
+import com.arthur.gestaoEscolar.model.entity.Frequencia;
+import com.arthur.gestaoEscolar.model.entity.FrequenciaArquivada;
+import com.arthur.gestaoEscolar.model.entity.Turma;
+import com.arthur.gestaoEscolar.suporte.DadosTeste;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("teste")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RiscoFrequenciaService.class)
+class RiscoFrequenciaServiceTest {
+
+    @Autowired
+    private RiscoFrequenciaService riscoFrequenciaService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private ArquivoFrequenciaService arquivoFrequenciaService;
+
+    @Test
+    void alunoQueTrocouDeTurmaContinuaNoRelatorioDoAnoAnterior() {
+        int anoAnterior = LocalDate.now().getYear() - 1;
+        Disciplina disciplina = DadosTeste.disciplina(this.entityManager, "Geografia " + UUID.randomUUID());
+        Turma turmaAnterior = DadosTeste.turma(this.entityManager, anoAnterior, disciplina);
+        Turma turmaAtual = DadosTeste.turma(this.entityManager, anoAnterior + 1, disciplina);
+        Aluno aluno = DadosTeste.alunos(this.entityManager, turmaAnterior, 1).get(0);
+
+        // Quatro aulas no ano anterior, uma presença; e uma aula com presença no ano atual
+        LocalDate inicio = LocalDate.of(anoAnterior, 3, 2);
+        for (int i = 0; i < 4; i++) {
+            this.frequencia(aluno, disciplina, inicio.plusDays(i), i == 0);
+        }
+        this.frequencia(aluno, disciplina, LocalDate.of(anoAnterior + 1, 2, 10), true);
+
+        aluno.setTurma(turmaAtual);
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        List<RiscoFrequenciaDTO> risco = this.riscoFrequenciaService.buscarPorAnoLetivo(anoAnterior, 75.0);
+
+        assertEquals(1, risco.size());
+        assertEquals(aluno.getId(), risco.get(0).getAlunoId());
+        assertEquals(4L, risco.get(0).getTotalAulas());
+        assertEquals(1L, risco.get(0).getTotalPresencas());
+        assertTrue(this.riscoFrequenciaService.buscarPorAnoLetivo(anoAnterior + 1, 75.0).isEmpty());
+    }
+
+    @Test
+    void riscoDaTurmaSomaAulasArquivadasEQuentes() {
+        int anoArquivado = LocalDate.now().getYear() - 3;
+        Disciplina disciplina = DadosTeste.disciplina(this.entityManager, "História " + UUID.randomUUID());
+        Turma turma = DadosTeste.turma(this.entityManager, LocalDate.now().getYear(), disciplina);
+        List<Aluno> alunos = DadosTeste.alunos(this.entityManager, turma, 2);
+
+        // Aluno 0: 3 faltas arquivadas + 1 presença quente = 25%. Aluno 1: 3 presenças arquivadas + 1 falta quente = 75%
+        for (int i = 0; i < 3; i++) {
+            this.arquivada(alunos.get(0), disciplina, LocalDate.of(anoArquivado, 4, 1 + i), false);
+            this.arquivada(alunos.get(1), disciplina, LocalDate.of(anoArquivado, 4, 1 + i), true);
+        }
+        this.frequencia(alunos.get(0), disciplina, LocalDate.now().minusDays(1), true);
+        this.frequencia(alunos.get(1), disciplina, LocalDate.now().minusDays(1), false);
+        this.entityManager.flush();
+        this.entityManager.clear();
+
+        when(this.arquivoFrequenciaService.possuiArquivadas(any())).thenReturn(true);
+        when(this.arquivoFrequenciaService.isArquivada(any())).thenAnswer(i -> ((LocalDate) i.getArgument(0)).getYear() <= anoArquivado);
+
+        List<RiscoFrequenciaDTO> risco = this.riscoFrequenciaService.buscarPorTurma(turma.getId(), 50.0);
+
+        assertEquals(1, risco.size());
+        assertEquals(alunos.get(0).getId(), risco.get(0).getAlunoId());
+        assertEquals(4L, risco.get(0).getTotalAulas());
+        assertEquals(25.0, risco.get(0).getPercentualPresenca(), 1e-9);
+
+        // Ano arquivado inteiro vem do arquivo: só as 3 faltas do aluno 0
+        List<RiscoFrequenciaDTO> riscoArquivado = this.riscoFrequenciaService.buscarPorAnoLetivo(anoArquivado, 50.0);
+        assertEquals(1, riscoArquivado.size());
+        assertEquals(3L, riscoArquivado.get(0).getTotalAulas());
+    }
+
+    @Test
+    void anoLetivoForaDoIntervaloEhRejeitado() {
+        int proximo = LocalDate.now().getYear() + 2;
+
+        assertThrows(GestaoEscolarException.class, () -> this.riscoFrequenciaService.buscarRelatorio(proximo));
+        assertThrows(GestaoEscolarException.class, () -> this.riscoFrequenciaService.buscarPorAnoLetivo(1500, 75.0));
+        assertThrows(GestaoEscolarException.class, () -> this.riscoFrequenciaService.gerarRelatorio(null));
+    }
+
+    private void arquivada(Aluno aluno, Disciplina disciplina, LocalDate data, boolean presente) {
+        FrequenciaArquivada frequencia = new FrequenciaArquivada();
+        frequencia.setId(UUID.randomUUID().toString());
+        frequencia.setAluno(aluno);
+        frequencia.setDisciplina(disciplina);
+        frequencia.setDataAula(data);
+        frequencia.setPresente(presente);
+        this.entityManager.persist(frequencia);
+    }
+
+    private void frequencia(Aluno aluno, Disciplina disciplina, LocalDate data, boolean presente) {
+        Frequencia frequencia = new Frequencia();
+        frequencia.setAluno(aluno);
+        frequencia.setDisciplina(disciplina);
+        frequencia.setDataAula(data);
+        frequencia.setPresente(presente);
+        this.entityManager.persist(frequencia);
+    }
+}
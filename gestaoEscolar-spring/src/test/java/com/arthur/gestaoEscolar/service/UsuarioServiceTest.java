@@ -0,0 +1,103 @@
+package com.arthur.gestaoEscolar.service;
+
+import com.arthur.gestaoEscolar.model.entity.Professor;
+import com.arthur.gestaoEscolar.model.entity.Usuario;
+import com.arthur.gestaoEscolar.model.repository.ProfessorRepository;
+import com.arthur.gestaoEscolar.model.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UsuarioServiceTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private RevogacaoTokenService revogacaoTokenService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @InjectMocks
+    private UsuarioService usuarioService;
+
+    @Test
+    void trocaDeSenhaRevogaOsRefreshTokensDoUsuario() {
+        Usuario existente = this.usuario("hash-antigo");
+        when(this.usuarioRepository.findById("u-1")).thenReturn(Optional.of(existente));
+        when(this.usuarioRepository.save(existente)).thenReturn(existente);
+        when(this.passwordEncoder.encode("novaSenha123")).thenReturn("hash-novo");
+
+        Usuario alteracao = new Usuario();
+        alteracao.setSenha("novaSenha123");
+        Usuario salvo = this.usuarioService.atualizar("u-1", alteracao);
+
+        // A senha é codificada uma única vez
+        assertEquals("hash-novo", salvo.getSenha());
+        verify(this.passwordEncoder, times(1)).encode(anyString());
+        verify(this.refreshTokenService).revogarUsuario("u-1");
+    }
+
+    @Test
+    void atualizacaoSemSenhaMantemHashESessoes() {
+        Usuario existente = this.usuario("hash-antigo");
+        when(this.usuarioRepository.findById("u-1")).thenReturn(Optional.of(existente));
+        when(this.usuarioRepository.save(existente)).thenReturn(existente);
+
+        Usuario alteracao = new Usuario();
+        alteracao.setNome("Nome Novo");
+        Usuario salvo = this.usuarioService.atualizar("u-1", alteracao);
+
+        assertEquals("hash-antigo", salvo.getSenha());
+        assertEquals("Nome Novo", salvo.getNome());
+        verify(this.passwordEncoder, never()).encode(anyString());
+        verify(this.refreshTokenService, never()).revogarUsuario(anyString());
+    }
+
+    @Test
+    void exclusaoDeProfessorRevogaAcessos() {
+        ProfessorRepository professorRepository = mock(ProfessorRepository.class);
+        ProfessorService professorService = new ProfessorService();
+        ReflectionTestUtils.setField(professorService, "professorRepository", professorRepository);
+        ReflectionTestUtils.setField(professorService, "usuarioService", this.usuarioService);
+
+        Professor professor = new Professor();
+        professor.setId("p-1");
+        professor.setEmail("professor@escola.com");
+        when(professorRepository.findById("p-1")).thenReturn(Optional.of(professor));
+
+        professorService.excluir("p-1");
+
+        verify(professorRepository).deleteById("p-1");
+        verify(this.revogacaoTokenService).revogarUsuario("professor@escola.com");
+        verify(this.refreshTokenService).revogarUsuario("p-1");
+    }
+
+    private Usuario usuario(String senha) {
+        Usuario usuario = new Usuario();
+        usuario.setId("u-1");
+        usuario.setNome("Nome");
+        usuario.setEmail("usuario@escola.com");
+        usuario.setSenha(senha);
+        return usuario;
+    }
+}
@@ -0,0 +1,122 @@
+package com.arthur.gestaoEscolar.suporte;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Conta as idas ao banco feitas pela aplicação e guarda o SQL e os parâmetros de cada uma.
+// Um executeBatch conta como uma ida: com rewriteBatchedStatements o MySQL recebe um só comando
+public final class ContadorSql {
+
+    public record Comando(String sql, List<Object> parametros, boolean lote, long nanos) {
+    }
+
+    private static final List<Comando> COMANDOS = Collections.synchronizedList(new ArrayList<>());
+
+    private ContadorSql() {
+    }
+
+    public static void zerar() {
+        COMANDOS.clear();
+    }
+
+    public static int idasAoBanco() {
+        return COMANDOS.size();
+    }
+
+    public static List<Comando> comandos() {
+        synchronized (COMANDOS) {
+            return new ArrayList<>(COMANDOS);
+        }
+    }
+
+    public static List<Comando> consultas() {
+        return comandos().stream().filter(c -> c.sql().trim().toLowerCase().startsWith("select")).toList();
+    }
+
+    public static DataSource instrumentar(DataSource dataSource) {
+        return (DataSource) Proxy.newProxyInstance(ContadorSql.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, metodo, args) -> {
+                    Object resultado = invocar(dataSource, metodo, args);
+                    return resultado instanceof Connection connection ? conexao(connection) : resultado;
+                });
+    }
+
+    private static Connection conexao(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(ContadorSql.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, args) -> {
+                    Object resultado = invocar(connection, metodo, args);
+                    if (resultado instanceof PreparedStatement statement && metodo.getName().startsWith("prepare")) {
+                        return comando(statement, (String) args[0], PreparedStatement.class);
+                    }
+                    if (resultado instanceof Statement statement && metodo.getName().equals("createStatement")) {
+                        return comando(statement, null, Statement.class);
+                    }
+                    return resultado;
+                });
+    }
+
+    private static Object comando(Statement statement, String sql, Class<?> tipo) {
+        Map<Integer, Object> parametros = new TreeMap<>();
+        List<List<Object>> lote = new ArrayList<>();
+        return Proxy.newProxyInstance(ContadorSql.class.getClassLoader(), new Class<?>[]{tipo},
+                (proxy, metodo, args) -> {
+                    String nome = metodo.getName();
+                    if (nome.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer indice) {
+                        parametros.put(indice, args[1]);
+                    } else if (nome.equals("addBatch") && sql != null) {
+                        lote.add(new ArrayList<>(parametros.values()));
+                    }
+                    if (!nome.startsWith("execute")) {
+                        return invocar(statement, metodo, args);
+                    }
+                    long inicio = System.nanoTime();
+                    Object resultado = invocar(statement, metodo, args);
+                    long nanos = System.nanoTime() - inicio;
+                    if (nome.equals("executeBatch")) {
+                        COMANDOS.add(new Comando(sql, lote.isEmpty() ? List.of() : lote.get(0), true, nanos));
+                        lote.clear();
+                    } else {
+                        COMANDOS.add(new Comando(args != null && args.length > 0 ? (String) args[0] : sql,
+                                new ArrayList<>(parametros.values()), false, nanos));
+                    }
+                    return resultado;
+                });
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Importe nos testes de banco para que o DataSource do contexto passe pelo contador
+    @TestConfiguration
+    public static class Configuracao {
+
+        @Bean
+        public static BeanPostProcessor instrumentarDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String nome) {
+                    return bean instanceof DataSource dataSource ? instrumentar(dataSource) : bean;
+                }
+            };
+        }
+    }
+}
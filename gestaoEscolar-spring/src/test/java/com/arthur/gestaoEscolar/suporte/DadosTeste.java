@@ -0,0 +1,55 @@
+package com.arthur.gestaoEscolar.suporte;
+
+import com.arthur.gestaoEscolar.model.entity.Aluno;
+import com.arthur.gestaoEscolar.model.entity.Disciplina;
+import com.arthur.gestaoEscolar.model.entity.TipoUsuario;
+import com.arthur.gestaoEscolar.model.entity.Turma;
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Carga mínima de turma, disciplina e alunos para os testes de banco
+public final class DadosTeste {
+
+    private DadosTeste() {
+    }
+
+    public static Turma turma(EntityManager entityManager, int anoLetivo, Disciplina... disciplinas) {
+        Turma turma = new Turma();
+        turma.setNome("Turma " + UUID.randomUUID());
+        turma.setSerie("9º ano");
+        turma.setAnoLetivo(anoLetivo);
+        turma.getDisciplinas().addAll(List.of(disciplinas));
+        entityManager.persist(turma);
+        return turma;
+    }
+
+    public static Disciplina disciplina(EntityManager entityManager, String nome) {
+        Disciplina disciplina = new Disciplina();
+        disciplina.setNome(nome);
+        disciplina.setCargaHoraria(80);
+        entityManager.persist(disciplina);
+        return disciplina;
+    }
+
+    public static List<Aluno> alunos(EntityManager entityManager, Turma turma, int quantidade) {
+        List<Aluno> alunos = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            String sufixo = UUID.randomUUID().toString().substring(0, 8);
+            Aluno aluno = new Aluno();
+            aluno.setNome(String.format("Aluno %03d", i));
+            aluno.setEmail("aluno." + sufixo + "@escola.com");
+            aluno.setSenha("$2a$10$hash");
+            aluno.setDataNascimento(LocalDate.of(2010, 1, 1));
+            aluno.setTipoUsuario(TipoUsuario.ALUNO);
+            aluno.setMatricula("M" + sufixo);
+            aluno.setTurma(turma);
+            entityManager.persist(aluno);
+            alunos.add(aluno);
+        }
+        return alunos;
+    }
+}
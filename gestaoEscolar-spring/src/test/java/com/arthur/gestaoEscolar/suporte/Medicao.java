@@ -0,0 +1,72 @@
+package com.arthur.gestaoEscolar.suporte;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+// Harness mínimo para os testes marcados com @Tag("benchmark") (mvn test -Pbenchmark): aquece, mede cada
+// execução com System.nanoTime e imprime média, p50 e p99. Não substitui JMH; serve para comparar
+// dois caminhos na mesma JVM e registrar a ordem de grandeza
+public final class Medicao {
+
+    public record Resultado(String nome, long[] nanos) {
+
+        public double mediaMicros() {
+            return Arrays.stream(this.nanos).average().orElse(0) / 1_000.0;
+        }
+
+        public double percentilMicros(double percentil) {
+            long[] ordenados = this.nanos.clone();
+            Arrays.sort(ordenados);
+            int indice = (int) Math.ceil(percentil / 100.0 * ordenados.length) - 1;
+            return ordenados[Math.max(0, Math.min(indice, ordenados.length - 1))] / 1_000.0;
+        }
+
+        public Resultado imprimir() {
+            System.out.println(String.format(Locale.ROOT, "[benchmark] %-55s n=%-7d media=%10.2f us  p50=%10.2f us  p99=%10.2f us",
+                    this.nome, this.nanos.length, this.mediaMicros(), this.percentilMicros(50), this.percentilMicros(99)));
+            return this;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Execucao {
+        void executar(int iteracao) throws Exception;
+    }
+
+    private Medicao() {
+    }
+
+    public static Resultado medir(String nome, int aquecimento, int iteracoes, Execucao execucao) throws Exception {
+        for (int i = 0; i < aquecimento; i++) {
+            execucao.executar(i);
+        }
+        long[] nanos = new long[iteracoes];
+        for (int i = 0; i < iteracoes; i++) {
+            long inicio = System.nanoTime();
+            execucao.executar(aquecimento + i);
+            nanos[i] = System.nanoTime() - inicio;
+        }
+        return new Resultado(nome, nanos).imprimir();
+    }
+
+    // Para operações de nanossegundos: mede lotes de repeticoes e divide, diluindo o custo do próprio nanoTime
+    public static Resultado medirEmLotes(String nome, int aquecimento, int lotes, int repeticoes, Execucao execucao) throws Exception {
+        for (int i = 0; i < aquecimento * repeticoes; i++) {
+            execucao.executar(i);
+        }
+        long[] nanos = new long[lotes];
+        int iteracao = 0;
+        for (int l = 0; l < lotes; l++) {
+            long inicio = System.nanoTime();
+            for (int r = 0; r < repeticoes; r++) {
+                execucao.executar(iteracao++);
+            }
+            nanos[l] = (System.nanoTime() - inicio) / repeticoes;
+        }
+        return new Resultado(nome, nanos).imprimir();
+    }
+
+    public static void imprimir(String linha) {
+        System.out.println("[benchmark] " + linha);
+    }
+}
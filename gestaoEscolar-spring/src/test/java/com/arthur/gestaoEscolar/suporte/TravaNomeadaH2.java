@@ -0,0 +1,31 @@
+package com.arthur.gestaoEscolar.suporte;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// GET_LOCK/RELEASE_LOCK do MySQL emulados no H2 com um semáforo por nome. Registre com registrar(jdbcTemplate)
+public final class TravaNomeadaH2 {
+
+    private static final Map<String, Semaphore> TRAVAS = new ConcurrentHashMap<>();
+
+    private TravaNomeadaH2() {
+    }
+
+    public static void registrar(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS GET_LOCK FOR '" + TravaNomeadaH2.class.getName() + ".travar'");
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS RELEASE_LOCK FOR '" + TravaNomeadaH2.class.getName() + ".liberar'");
+    }
+
+    public static int travar(String nome, int segundos) throws InterruptedException {
+        return TRAVAS.computeIfAbsent(nome, n -> new Semaphore(1)).tryAcquire(segundos, TimeUnit.SECONDS) ? 1 : 0;
+    }
+
+    public static int liberar(String nome) {
+        TRAVAS.get(nome).release();
+        return 1;
+    }
+}
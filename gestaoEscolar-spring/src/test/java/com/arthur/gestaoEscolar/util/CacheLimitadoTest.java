@@ -0,0 +1,83 @@
+package com.arthur.gestaoEscolar.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheLimitadoTest {
+
+    @Test
+    void removeOMenosUsadoAoPassarDaCapacidade() {
+        // Capacidade 1: um único segmento, LRU exato
+        CacheLimitado<String, Integer> cache = new CacheLimitado<>(1);
+        cache.guardar("a", 1);
+        cache.guardar("b", 2);
+
+        assertNull(cache.buscar("a"));
+        assertEquals(2, cache.buscar("b"));
+        assertEquals(1, cache.tamanho());
+    }
+
+    @Test
+    void acessoRenovaAEntrada() {
+        CacheLimitado<String, Integer> cache = new CacheLimitado<>(3);
+        cache.guardar("a", 1);
+        cache.guardar("b", 2);
+        cache.buscar("a");
+        cache.guardar("c", 3);
+        cache.guardar("d", 4);
+
+        // Com 3 de capacidade há um só segmento: sai "b", o menos usado
+        assertEquals(1, cache.buscar("a"));
+        assertNull(cache.buscar("b"));
+        assertEquals(3, cache.tamanho());
+    }
+
+    @Test
+    void nuncaPassaDaCapacidade() {
+        CacheLimitado<Integer, Integer> cache = new CacheLimitado<>(1000);
+        for (int i = 0; i < 50_000; i++) {
+            cache.guardar(i, i);
+        }
+
+        assertTrue(cache.tamanho() <= 1000);
+        assertEquals(49_999, cache.buscar(49_999));
+    }
+
+    @Test
+    void guardarSeRespeitaACondicao() {
+        CacheLimitado<String, Integer> cache = new CacheLimitado<>(10);
+
+        assertFalse(cache.guardarSe("a", 1, () -> false));
+        assertNull(cache.buscar("a"));
+        assertTrue(cache.guardarSe("a", 1, () -> true));
+        assertEquals(1, cache.buscar("a"));
+    }
+
+    @Test
+    void calcularComNuloRemove() {
+        CacheLimitado<String, Integer> cache = new CacheLimitado<>(10);
+        cache.guardar("a", 1);
+
+        assertEquals(2, cache.calcular("a", (k, atual) -> atual + 1));
+        assertNull(cache.calcular("a", (k, atual) -> null));
+        assertEquals(0, cache.tamanho());
+    }
+
+    @Test
+    void removerSeFiltraTodosOsSegmentos() {
+        CacheLimitado<Integer, Integer> cache = new CacheLimitado<>(1000);
+        for (int i = 0; i < 100; i++) {
+            cache.guardar(i, i);
+        }
+
+        cache.removerSe((chave, valor) -> valor % 2 == 0);
+
+        assertEquals(50, cache.tamanho());
+        assertNull(cache.buscar(10));
+        assertEquals(11, cache.buscar(11));
+    }
+}
@@ -0,0 +1,72 @@
+package com.arthur.gestaoEscolar.util;
+
+import com.arthur.gestaoEscolar.exception.GestaoEscolarException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorUtilTest {
+
+    @Test
+    void codificaEDecodificaCursor() {
+        LocalDate data = LocalDate.of(2024, 3, 15);
+        String cursor = CursorUtil.codificar(data, "8f1c2e9a-0000-4000-8000-000000000001");
+
+        CursorUtil.Cursor decodificado = CursorUtil.decodificar(cursor);
+
+        assertEquals(data, decodificado.data());
+        assertEquals("8f1c2e9a-0000-4000-8000-000000000001", decodificado.id());
+    }
+
+    @Test
+    void cursorNaoUsaCaracteresReservadosDeUrl() {
+        String cursor = CursorUtil.codificar(LocalDate.of(2024, 1, 1), "id?com/caracteres+especiais");
+
+        assertEquals(-1, cursor.indexOf('+'));
+        assertEquals(-1, cursor.indexOf('/'));
+        assertEquals(-1, cursor.indexOf('='));
+    }
+
+    @Test
+    void codificaEDecodificaCursorAgrupado() {
+        LocalDate data = LocalDate.of(2023, 12, 31);
+        String cursor = CursorUtil.codificar("disciplina-1", data, "nota-9");
+
+        CursorUtil.CursorAgrupado decodificado = CursorUtil.decodificarAgrupado(cursor);
+
+        assertEquals("disciplina-1", decodificado.grupo());
+        assertEquals(data, decodificado.data());
+        assertEquals("nota-9", decodificado.id());
+    }
+
+    @Test
+    void rejeitaCursorQueNaoEBase64() {
+        assertThrows(GestaoEscolarException.class, () -> CursorUtil.decodificar("não é base64!"));
+    }
+
+    @Test
+    void rejeitaCursorSemSeparador() {
+        assertThrows(GestaoEscolarException.class, () -> CursorUtil.decodificar(codificarTexto("2024-01-01")));
+    }
+
+    @Test
+    void rejeitaCursorComDataInvalida() {
+        assertThrows(GestaoEscolarException.class, () -> CursorUtil.decodificar(codificarTexto("2024-13-45|id")));
+    }
+
+    @Test
+    void rejeitaCursorAgrupadoSemGrupo() {
+        String cursor = CursorUtil.codificar(LocalDate.of(2024, 1, 1), "id");
+
+        assertThrows(GestaoEscolarException.class, () -> CursorUtil.decodificarAgrupado(cursor));
+    }
+
+    private static String codificarTexto(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,76 @@
+package com.arthur.gestaoEscolar.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FiltroBloomTest {
+
+    @Test
+    void filtroVazioNaoContemNada() {
+        FiltroBloom filtro = new FiltroBloom(1000, 0.01);
+
+        assertFalse(filtro.podeConter("token-1"));
+        assertFalse(filtro.podeConter(""));
+    }
+
+    @Test
+    void nuncaDaFalsoNegativo() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar("jti-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filtro.podeConter("jti-" + i));
+        }
+    }
+
+    @Test
+    void taxaDeFalsoPositivoProximaDaConfigurada() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar("revogado-" + i);
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtro.podeConter("valido-" + i)) {
+                falsosPositivos++;
+            }
+        }
+        // Esperado ~1%; folga para a variação do hash
+        assertTrue(falsosPositivos < 2_000, "falsos positivos: " + falsosPositivos);
+    }
+
+    @Test
+    void capacidadeMinimaAindaFunciona() {
+        FiltroBloom filtro = new FiltroBloom(0, 0.5);
+        filtro.adicionar("a");
+
+        assertTrue(filtro.podeConter("a"));
+    }
+
+    @Test
+    void adicoesConcorrentesNaoPerdemBits() throws InterruptedException {
+        FiltroBloom filtro = new FiltroBloom(40_000, 0.01);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int inicio = t * 10_000;
+            threads[t] = new Thread(() -> {
+                for (int i = inicio; i < inicio + 10_000; i++) {
+                    filtro.adicionar("jti-" + i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int i = 0; i < 40_000; i++) {
+            assertTrue(filtro.podeConter("jti-" + i));
+        }
+    }
+}
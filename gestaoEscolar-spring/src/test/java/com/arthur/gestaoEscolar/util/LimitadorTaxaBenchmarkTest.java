@@ -0,0 +1,72 @@
+package com.arthur.gestaoEscolar.util;
+
+import com.arthur.gestaoEscolar.suporte.Medicao;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Custo do limite de taxa por requisição para chaves já conhecidas, com 10 mil chaves ativas:
+// busca no CacheLimitado sob a trava do segmento (antes) e get no ConcurrentHashMap (depois), os dois
+// seguidos do mesmo CAS. Capacidade alta para que toda requisição passe pelo CAS
+@Tag("benchmark")
+class LimitadorTaxaBenchmarkTest {
+
+    private static final int CHAVES = 10_000;
+    private static final long INTERVALO_NANOS = 60_000_000_000L / 1_000_000;
+    private static final long LIMITE_NANOS = INTERVALO_NANOS * 1_000_000;
+
+    @Test
+    void custoDoLimitePorRequisicao() throws Exception {
+        String[] chaves = new String[CHAVES];
+        for (int i = 0; i < CHAVES; i++) {
+            chaves[i] = "ip:10.0." + (i / 256) + "." + (i % 256);
+        }
+        LimitadorTaxa limitador = new LimitadorTaxa(1_000_000, 1_000_000, 100_000);
+        CacheLimitado<String, AtomicLong> segmentos = new CacheLimitado<>(100_000);
+        long[] recusadas = new long[1];
+
+        Medicao.Resultado antes = Medicao.medirEmLotes("CacheLimitado + CAS (antes)", 100, 500, 1_000, it -> {
+            if (consumirComTrava(segmentos, chaves[it % CHAVES], System.nanoTime()) > 0) {
+                recusadas[0]++;
+            }
+        });
+        Medicao.Resultado depois = Medicao.medirEmLotes("ConcurrentHashMap + CAS (depois)", 100, 500, 1_000, it -> {
+            if (limitador.consumir(chaves[it % CHAVES]) > 0) {
+                recusadas[0]++;
+            }
+        });
+        int chavesAntesDaVarredura = limitador.quantidadeChaves();
+        Medicao.Resultado varredura = Medicao.medir("varredura de " + CHAVES + " chaves (fora da requisicao)", 5, 20,
+                it -> limitador.varrer());
+
+        Medicao.imprimir(String.format(Locale.ROOT, "por requisicao: antes p50 %.3f us p99 %.3f us, depois p50 %.3f us p99 %.3f us; "
+                        + "varredura p50 %.0f us",
+                antes.percentilMicros(50), antes.percentilMicros(99), depois.percentilMicros(50), depois.percentilMicros(99),
+                varredura.percentilMicros(50)));
+        assertEquals(0, recusadas[0]);
+        assertEquals(CHAVES, chavesAntesDaVarredura);
+        assertTrue(depois.percentilMicros(50) < 1.0, "limite de taxa acima de 1 us por requisição");
+        assertTrue(depois.mediaMicros() < 1.0, "limite de taxa acima de 1 us por requisição na média");
+    }
+
+    // O caminho de LimitadorTaxa.consumir antes da troca do CacheLimitado pelo ConcurrentHashMap
+    private static long consumirComTrava(CacheLimitado<String, AtomicLong> baldes, String chave, long agora) {
+        AtomicLong balde = baldes.buscarOuCalcular(chave, k -> new AtomicLong(agora));
+        while (true) {
+            long cheioEm = balde.get();
+            long novo = (cheioEm - agora > 0 ? cheioEm : agora) + INTERVALO_NANOS;
+            long espera = novo - agora - LIMITE_NANOS;
+            if (espera > 0) {
+                return espera;
+            }
+            if (balde.compareAndSet(cheioEm, novo)) {
+                return 0;
+            }
+        }
+    }
+}
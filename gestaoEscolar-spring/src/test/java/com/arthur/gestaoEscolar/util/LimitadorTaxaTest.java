@@ -0,0 +1,119 @@
+package com.arthur.gestaoEscolar.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LimitadorTaxaTest {
+
+    private static final long SEGUNDO = 1_000_000_000L;
+
+    @Test
+    void rajadaAteACapacidadeDepoisRecusa() {
+        LimitadorTaxa limitador = new LimitadorTaxa(5, 60, 100);
+        long agora = 1_000 * SEGUNDO;
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limitador.consumir("ip:1", agora));
+        }
+        assertTrue(limitador.consumir("ip:1", agora) > 0);
+    }
+
+    @Test
+    void esperaInformadaEhOTempoAteOProximoToken() {
+        // 60 por minuto: um token por segundo
+        LimitadorTaxa limitador = new LimitadorTaxa(2, 60, 100);
+        long agora = 1_000 * SEGUNDO;
+        limitador.consumir("ip:1", agora);
+        limitador.consumir("ip:1", agora);
+
+        assertEquals(SEGUNDO, limitador.consumir("ip:1", agora));
+        assertEquals(SEGUNDO / 2, limitador.consumir("ip:1", agora + SEGUNDO / 2));
+    }
+
+    @Test
+    void recarregaComOTempo() {
+        LimitadorTaxa limitador = new LimitadorTaxa(2, 60, 100);
+        long agora = 1_000 * SEGUNDO;
+        limitador.consumir("ip:1", agora);
+        limitador.consumir("ip:1", agora);
+        assertTrue(limitador.consumir("ip:1", agora) > 0);
+
+        assertEquals(0, limitador.consumir("ip:1", agora + SEGUNDO));
+        assertTrue(limitador.consumir("ip:1", agora + SEGUNDO) > 0);
+
+        // Muito tempo parado não acumula além da capacidade
+        long depois = agora + 3_600 * SEGUNDO;
+        assertEquals(0, limitador.consumir("ip:1", depois));
+        assertEquals(0, limitador.consumir("ip:1", depois));
+        assertTrue(limitador.consumir("ip:1", depois) > 0);
+    }
+
+    @Test
+    void recusaNaoConsomeToken() {
+        LimitadorTaxa limitador = new LimitadorTaxa(1, 60, 100);
+        long agora = 1_000 * SEGUNDO;
+        limitador.consumir("ip:1", agora);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limitador.consumir("ip:1", agora) > 0);
+        }
+
+        assertEquals(0, limitador.consumir("ip:1", agora + SEGUNDO));
+    }
+
+    @Test
+    void chavesTemBaldesIndependentes() {
+        LimitadorTaxa limitador = new LimitadorTaxa(1, 60, 100);
+        long agora = 1_000 * SEGUNDO;
+
+        assertEquals(0, limitador.consumir("ip:1", agora));
+        assertTrue(limitador.consumir("ip:1", agora) > 0);
+        assertEquals(0, limitador.consumir("ip:2", agora));
+        assertEquals(2, limitador.quantidadeChaves());
+    }
+
+    @Test
+    void varreduraRemoveSoBaldesQueJaRecarregaram() {
+        // 60 por minuto e capacidade 1: o balde volta a ficar cheio um segundo depois do consumo
+        LimitadorTaxa limitador = new LimitadorTaxa(1, 60, 100);
+        long agora = 1_000 * SEGUNDO;
+        limitador.consumir("ip:1", agora);
+        limitador.consumir("ip:2", agora + SEGUNDO / 2);
+
+        assertEquals(0, limitador.varrer(agora + SEGUNDO / 2));
+        assertEquals(1, limitador.varrer(agora + SEGUNDO));
+        assertEquals(1, limitador.quantidadeChaves());
+
+        // ip:2 continua limitado; ip:1 volta com o balde cheio, como se nunca tivesse saído
+        assertTrue(limitador.consumir("ip:2", agora + SEGUNDO) > 0);
+        assertEquals(0, limitador.consumir("ip:1", agora + SEGUNDO));
+    }
+
+    @Test
+    void acimaDoMaximoVarreAoCriarChave() {
+        LimitadorTaxa limitador = new LimitadorTaxa(1, 60, 2);
+        long agora = 1_000 * SEGUNDO;
+        limitador.consumir("ip:1", agora);
+        limitador.consumir("ip:2", agora);
+
+        // ip:1 e ip:2 já recarregaram: a chave nova dispara a varredura em vez de crescer o mapa
+        assertEquals(0, limitador.consumir("ip:3", agora + SEGUNDO));
+        assertEquals(1, limitador.quantidadeChaves());
+    }
+
+    @Test
+    void acimaDoMaximoNaoDescartaBaldeAindaLimitado() {
+        LimitadorTaxa limitador = new LimitadorTaxa(1, 1, 2);
+        long agora = 1_000 * SEGUNDO;
+        limitador.consumir("ip:1", agora);
+        assertTrue(limitador.consumir("ip:1", agora) > 0);
+
+        limitador.consumir("ip:2", agora);
+        limitador.consumir("ip:3", agora);
+
+        // O máximo é ultrapassado, mas ip:1 não escapa do limite por excesso de chaves
+        assertEquals(3, limitador.quantidadeChaves());
+        assertTrue(limitador.consumir("ip:1", agora) > 0);
+    }
+}
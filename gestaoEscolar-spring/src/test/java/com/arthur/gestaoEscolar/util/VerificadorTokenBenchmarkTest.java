@@ -0,0 +1,83 @@
+package com.arthur.gestaoEscolar.util;
+
+import com.arthur.gestaoEscolar.service.RevogacaoTokenService;
+import com.arthur.gestaoEscolar.suporte.Medicao;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Custo da autenticação por requisição, como o JwtAuthenticationFilter a faz (token recortado do header):
+// verificação HMAC completa (sem cache), acerto no cache com a chave antiga (SHA-256 do token) e
+// acerto no cache com a chave atual (o próprio token). A revogação é consultada nos dois caminhos com cache
+@Tag("benchmark")
+class VerificadorTokenBenchmarkTest {
+
+    private static final int TOKENS = 1_000;
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void custoDaAutenticacaoPorRequisicao() throws Exception {
+        JwtUtil jwtUtil = new JwtUtil("minhaChaveSecretaMuitoLongaParaHS512Algoritmo123456789", 15);
+        RevogacaoTokenService revogacao = new RevogacaoTokenService();
+        ReflectionTestUtils.setField(revogacao, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(revogacao, "diretorio", this.diretorio.toString());
+        ReflectionTestUtils.setField(revogacao, "capacidadeFiltro", 100_000);
+        revogacao.iniciar();
+
+        VerificadorToken verificador = new VerificadorToken();
+        ReflectionTestUtils.setField(verificador, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(verificador, "revogacaoTokenService", revogacao);
+        ReflectionTestUtils.setField(verificador, "maximoTokens", 10_000);
+        verificador.iniciar();
+
+        List<String> cabecalhos = new ArrayList<>();
+        for (int i = 0; i < TOKENS; i++) {
+            cabecalhos.add("Bearer " + jwtUtil.generateToken("usuario" + i + "@escola.com", "PROFESSOR"));
+        }
+
+        // Chave antiga: mesmo cache, indexado pelo SHA-256 do token
+        CacheLimitado<String, VerificadorToken.TokenVerificado> porHash = new CacheLimitado<>(10_000);
+        for (String cabecalho : cabecalhos) {
+            String token = cabecalho.substring(7);
+            VerificadorToken.TokenVerificado verificado = verificador.verificar(token).token();
+            porHash.guardar(VerificadorToken.hash(token), verificado);
+        }
+        long[] validos = new long[1];
+
+        Medicao.Resultado hmac = Medicao.medirEmLotes("sem cache: parse + HMAC do JWT", 20, 200, 100, it -> {
+            if (jwtUtil.extractAllClaims(cabecalhos.get(it % TOKENS).substring(7)).getSubject() != null) {
+                validos[0]++;
+            }
+        });
+        Medicao.Resultado antes = Medicao.medirEmLotes("cache com chave SHA-256 (antes)", 100, 500, 1_000, it -> {
+            VerificadorToken.TokenVerificado verificado = porHash.buscar(VerificadorToken.hash(cabecalhos.get(it % TOKENS).substring(7)));
+            if (!revogacao.estaRevogado(verificado.id(), verificado.username(), verificado.emitidoEm())) {
+                validos[0]++;
+            }
+        });
+        Medicao.Resultado depois = Medicao.medirEmLotes("cache com chave = token (depois)", 100, 500, 1_000, it -> {
+            if (verificador.verificar(cabecalhos.get(it % TOKENS).substring(7)).resultado() == VerificadorToken.Resultado.VALIDO) {
+                validos[0]++;
+            }
+        });
+
+        Medicao.imprimir(String.format(Locale.ROOT, "p50 por requisicao: HMAC %.2f us, antes %.2f us, depois %.2f us (%.1fx menos que o HMAC)",
+                hmac.percentilMicros(50), antes.percentilMicros(50), depois.percentilMicros(50),
+                hmac.percentilMicros(50) / depois.percentilMicros(50)));
+        assertEquals(20L * 100 + 200L * 100 + 100L * 1_000 + 500L * 1_000 + 100L * 1_000 + 500L * 1_000, validos[0]);
+        // O SHA-256 é acelerado pela CPU: a diferença entre antes e depois é pequena, e o ganho real é o cache
+        assertTrue(depois.percentilMicros(50) <= antes.percentilMicros(50) * 1.1, "chave pelo token não deveria custar mais que o SHA-256");
+        assertTrue(depois.percentilMicros(50) * 5 < hmac.percentilMicros(50), "acerto no cache deveria custar bem menos que o HMAC");
+    }
+}
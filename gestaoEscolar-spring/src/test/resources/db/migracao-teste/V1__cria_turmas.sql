@@ -0,0 +1,4 @@
+CREATE TABLE turmas_teste (
+    id VARCHAR(36) NOT NULL PRIMARY KEY,
+    nome VARCHAR(255) NOT NULL
+);
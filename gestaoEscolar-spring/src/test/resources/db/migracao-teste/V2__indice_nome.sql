@@ -0,0 +1,2 @@
+-- Sem IF NOT EXISTS, como a V2 real: falha se duas instâncias aplicarem a mesma versão
+CREATE INDEX idx_turmas_teste_nome ON turmas_teste (nome);